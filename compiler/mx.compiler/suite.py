@@ -1928,6 +1928,10 @@ suite = {
       "sourceDirs" : ["src"],
       "dependencies" : [
         "org.graalvm.compiler.truffle.test",
+        "org.graalvm.compiler.truffle.jfr.impl",
+      ],
+      "requires" : [
+        "jdk.jfr",
       ],
       "annotationProcessors" : [
         "GRAAL_PROCESSOR",
@@ -96,6 +96,9 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> ReassociateInvariants = new OptionKey<>(true);
 
+    @Option(help = "Rebalance reductions in partially unrolled loops to shorten their loop-carried dependency.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> ReassociateReductions = new OptionKey<>(true);
+
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> FullUnroll = new OptionKey<>(true);
 
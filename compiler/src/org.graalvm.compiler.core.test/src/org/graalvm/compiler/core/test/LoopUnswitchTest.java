@@ -28,8 +28,12 @@ import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.DebugDumpScope;
 import org.graalvm.compiler.loop.DefaultLoopPolicies;
 import org.graalvm.compiler.loop.phases.LoopUnswitchingPhase;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.ParameterNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.options.OptionValues;
 import org.junit.Test;
 
 public class LoopUnswitchTest extends GraalCompilerTest {
@@ -120,6 +124,47 @@ public class LoopUnswitchTest extends GraalCompilerTest {
         test("test2Snippet", "referenceSnippet2");
     }
 
+    public static int test3Snippet(int a, int b) {
+        int sum = 0;
+        for (int i = 0; iterationCount(1000, i < 1000); i++) {
+            if (branchProbability(0.001, i == 500)) {
+                if (a > 2) {
+                    sum += 7;
+                } else {
+                    sum -= 3;
+                }
+            }
+            if (b > 0) {
+                sum += 2;
+            } else {
+                sum += b;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * The invariant condition on {@code a} is found first but is only evaluated on a cold path, so
+     * with a minimum split frequency the loop must be unswitched on the hot condition on {@code b}
+     * alone, leaving one copy of the cold check in each of the two resulting loops.
+     */
+    @Test
+    public void test3() {
+        OptionValues options = new OptionValues(getInitialOptions(), DefaultLoopPolicies.Options.LoopUnswitchMinSplitFrequency, 0.1);
+        StructuredGraph graph = parseEager("test3Snippet", AllowAssumptions.NO, options);
+        new LoopUnswitchingPhase(new DefaultLoopPolicies()).apply(graph);
+
+        ParameterNode a = graph.getParameter(0);
+        int coldChecks = 0;
+        for (IfNode ifNode : graph.getNodes(IfNode.TYPE)) {
+            if (ifNode.condition().inputs().contains(a)) {
+                coldChecks++;
+            }
+        }
+        assertDeepEquals(2, graph.getNodes(LoopBeginNode.TYPE).count());
+        assertDeepEquals(2, coldChecks);
+    }
+
     @SuppressWarnings("try")
     private void test(String snippet, String referenceSnippet) {
         DebugContext debug = getDebugContext();
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
+import org.graalvm.compiler.lir.alloc.lsra.LinearScan;
+import org.graalvm.compiler.lir.alloc.lsra.LinearScan.BlockData;
+import org.graalvm.compiler.lir.dfa.MarkBasePointersPhase;
+import org.graalvm.compiler.lir.gen.LIRGenerationResult;
+import org.graalvm.compiler.lir.phases.AllocationPhase;
+import org.graalvm.compiler.lir.phases.LIRSuites;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.code.TargetDescription;
+
+public class ParallelLiveSetsTest extends GraalCompilerTest {
+
+    public static int loopSnippet(int[] values, int limit) {
+        int sum = 0;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < values.length; i++) {
+            int v = values[i];
+            if (v > limit) {
+                sum += v * 3;
+            } else if (v < -limit) {
+                sum -= v;
+            } else {
+                for (int j = 0; j < v; j++) {
+                    sum += j ^ i;
+                }
+            }
+            if (v > max) {
+                max = v;
+            }
+        }
+        return sum + max;
+    }
+
+    public static long switchSnippet(int n) {
+        long result = 1;
+        for (int i = 0; i < n; i++) {
+            switch (i % 5) {
+                case 0:
+                    result += i;
+                    break;
+                case 1:
+                    result *= 3;
+                    break;
+                case 2:
+                    result ^= result >>> 7;
+                    break;
+                case 3:
+                    result -= i * 11L;
+                    break;
+                default:
+                    result = Long.rotateLeft(result, i);
+            }
+        }
+        return result;
+    }
+
+    private OptionValues parallelOptions() {
+        return new OptionValues(getInitialOptions(), LinearScan.Options.LSRAParallelLiveSetsMinBlocks, 1);
+    }
+
+    private int comparedBlocks;
+
+    @Override
+    protected LIRSuites createLIRSuites(OptionValues opts) {
+        LIRSuites suites = super.createLIRSuites(opts);
+        // the lifetime analysis needs the base pointers of the frame states
+        suites.getAllocationStage().findPhase(MarkBasePointersPhase.class).add(new CompareLiveSetsPhase());
+        return suites;
+    }
+
+    /**
+     * Runs the linear scan lifetime analysis sequentially and in parallel on the LIR of the method
+     * being compiled and checks that both produce the same live sets for every block.
+     */
+    private final class CompareLiveSetsPhase extends AllocationPhase {
+
+        @Override
+        protected void run(TargetDescription target, LIRGenerationResult lirGenRes, AllocationContext context) {
+            LiveSetsScan sequential = new LiveSetsScan(target, lirGenRes, context, 0);
+            LiveSetsScan parallel = new LiveSetsScan(target, lirGenRes, context, 1);
+            sequential.computeLiveSets(target, lirGenRes, context);
+            parallel.computeLiveSets(target, lirGenRes, context);
+            for (AbstractBlockBase<?> block : lirGenRes.getLIR().linearScanOrder()) {
+                BlockData expected = sequential.getBlockData(block);
+                BlockData actual = parallel.getBlockData(block);
+                Assert.assertEquals("liveIn of " + block, expected.liveIn, actual.liveIn);
+                Assert.assertEquals("liveOut of " + block, expected.liveOut, actual.liveOut);
+                Assert.assertEquals("liveGen of " + block, expected.liveGen, actual.liveGen);
+                Assert.assertEquals("liveKill of " + block, expected.liveKill, actual.liveKill);
+                comparedBlocks++;
+            }
+        }
+    }
+
+    /**
+     * Only runs the lifetime analysis, with its own value of
+     * {@link LinearScan.Options#LSRAParallelLiveSetsMinBlocks}.
+     */
+    private static final class LiveSetsScan extends LinearScan {
+
+        private final OptionValues options;
+
+        LiveSetsScan(TargetDescription target, LIRGenerationResult res, AllocationContext context, int parallelLiveSetsMinBlocks) {
+            super(target, res, context.spillMoveFactory, context.registerAllocationConfig, res.getLIR().linearScanOrder(), false);
+            this.options = new OptionValues(res.getLIR().getOptions(), LinearScan.Options.LSRAParallelLiveSetsMinBlocks, parallelLiveSetsMinBlocks);
+        }
+
+        @Override
+        public OptionValues getOptions() {
+            return options;
+        }
+
+        void computeLiveSets(TargetDescription target, LIRGenerationResult res, AllocationContext context) {
+            createLifetimeAnalysisPhase().apply(target, res, context, false);
+        }
+    }
+
+    private void testLiveSets(String name, Object... args) {
+        test(parallelOptions(), name, args);
+        // the installed code is cached, so only the first call of a test compiles
+        Assert.assertTrue("live sets of " + comparedBlocks + " blocks compared", comparedBlocks > 1);
+    }
+
+    @Test
+    public void testLoop() {
+        int[] values = {1, 50, -70, 3, 0, 12, -2, 99, 7};
+        testLiveSets("loopSnippet", values, 10);
+        testLiveSets("loopSnippet", new int[0], 10);
+    }
+
+    @Test
+    public void testSwitch() {
+        testLiveSets("switchSnippet", 0);
+        testLiveSets("switchSnippet", 100);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import org.graalvm.compiler.code.CompilationResult;
+import org.graalvm.compiler.lir.alloc.lsra.OptimizingLinearScanWalker;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+public class ProfileGuidedLSRAOptimizationTest extends GraalCompilerTest {
+
+    public static long pressureSnippet(long[] values, int n) {
+        long a = 1;
+        long b = 3;
+        long c = 5;
+        long d = 7;
+        long e = 11;
+        long f = 13;
+        long g = 17;
+        long h = 19;
+        for (int i = 0; i < n; i++) {
+            long v = values[i % values.length];
+            if (v > 0) {
+                a += v * b;
+                b ^= a >>> 3;
+                c += b - d;
+            } else {
+                d -= v + e;
+                e = Long.rotateLeft(e, (int) v);
+                f += d * g;
+            }
+            g += h ^ i;
+            h = h * 31 + a;
+        }
+        if (n < 0) {
+            // cold path with its own register pressure
+            return values.length + a * b - c * d + e * f - g * h;
+        }
+        return a + b + c + d + e + f + g + h;
+    }
+
+    private OptionValues hybridOptions(double minBlockFrequency) {
+        return new OptionValues(getInitialOptions(), OptimizingLinearScanWalker.Options.LSRAOptimization, true, OptimizingLinearScanWalker.Options.LSRAOptMinBlockFrequency,
+                        minBlockFrequency);
+    }
+
+    @Test
+    public void testAllBlocks() {
+        long[] values = {1, -2, 3, -4, 5, 0, 99, -100};
+        test(hybridOptions(0.0), "pressureSnippet", values, 100);
+        test(hybridOptions(0.0), "pressureSnippet", values, -1);
+    }
+
+    @Test
+    public void testHotBlocksOnly() {
+        long[] values = {1, -2, 3, -4, 5, 0, 99, -100};
+        test(hybridOptions(1.0), "pressureSnippet", values, 100);
+        test(hybridOptions(1.0), "pressureSnippet", values, -1);
+    }
+
+    @Test
+    public void testNoBlocks() {
+        long[] values = {1, -2, 3, -4, 5, 0, 99, -100};
+        test(hybridOptions(Double.MAX_VALUE), "pressureSnippet", values, 100);
+    }
+
+    /**
+     * If no block reaches the frequency threshold, every block is cold and the allocation must be
+     * exactly the one of the non-optimizing walker.
+     */
+    @Test
+    public void testColdBlocksAllocatedAsNonOptimizing() {
+        long[] values = {1, -2, 3, -4, 5, 0, 99, -100};
+        for (int i = 0; i < 10000; i++) {
+            pressureSnippet(values, 10);
+        }
+        ResolvedJavaMethod method = getResolvedJavaMethod("pressureSnippet");
+        OptionValues nonOptimizing = new OptionValues(getInitialOptions(), OptimizingLinearScanWalker.Options.LSRAOptimization, false);
+        CompilationResult expected = compile(method, null, nonOptimizing);
+        CompilationResult actual = compile(method, null, hybridOptions(Double.MAX_VALUE));
+        Assert.assertArrayEquals(expected.getTargetCode(), actual.getTargetCode());
+    }
+}
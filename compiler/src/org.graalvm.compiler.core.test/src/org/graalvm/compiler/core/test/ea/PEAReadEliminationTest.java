@@ -28,6 +28,7 @@ import org.graalvm.compiler.core.test.GraalCompilerTest;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
 import org.graalvm.compiler.nodes.extended.RawLoadNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
 import org.graalvm.compiler.nodes.java.LoadIndexedNode;
 import org.graalvm.compiler.nodes.java.StoreIndexedNode;
 import org.graalvm.compiler.phases.tiers.HighTierContext;
@@ -176,6 +177,34 @@ public class PEAReadEliminationTest extends GraalCompilerTest {
         assertDeepEquals(3, graph.getNodes().filter(RawLoadNode.class).count());
     }
 
+    static final class Holder {
+        int[] values;
+    }
+
+    static Holder escapedHolder;
+
+    public static int testMaterializedArraySnippet(int v) {
+        Holder holder = new Holder();
+        int[] values = new int[4];
+        values[1] = v;
+        values[2] = 42;
+        holder.values = values;
+        escapedHolder = holder;
+        int[] readBack = escapedHolder.values;
+        return readBack[1] + readBack[2] + readBack.length;
+    }
+
+    /**
+     * The array escapes together with its container but its elements are still known when they are
+     * read back through the container.
+     */
+    @Test
+    public void testMaterializedArray() {
+        StructuredGraph graph = processMethod("testMaterializedArraySnippet");
+        assertDeepEquals(0, graph.getNodes().filter(LoadIndexedNode.class).count());
+        assertDeepEquals(0, graph.getNodes().filter(ArrayLengthNode.class).count());
+    }
+
     protected StructuredGraph processMethod(final String snippet) {
         StructuredGraph graph = parseEager(snippet, AllowAssumptions.NO);
         HighTierContext context = getDefaultHighTierContext();
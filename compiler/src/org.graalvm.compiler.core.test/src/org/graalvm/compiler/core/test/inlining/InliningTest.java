@@ -24,6 +24,8 @@
  */
 package org.graalvm.compiler.core.test.inlining;
 
+import static org.graalvm.compiler.phases.common.inlining.InliningPhase.Options.NonEscapingArgumentInliningBonus;
+
 import java.util.regex.Pattern;
 
 import org.graalvm.compiler.core.common.GraalOptions;
@@ -42,6 +44,7 @@ import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.OptimisticOptimizations;
 import org.graalvm.compiler.phases.PhaseSuite;
 import org.graalvm.compiler.phases.common.DeadCodeEliminationPhase;
+import org.graalvm.compiler.phases.common.inlining.info.elem.InlineableGraph;
 import org.graalvm.compiler.phases.tiers.HighTierContext;
 import org.graalvm.compiler.serviceprovider.GraalServices;
 import org.junit.Assert;
@@ -278,6 +281,73 @@ public class InliningTest extends GraalCompilerTest {
         return superClass.protectedOverriddenMethod();
     }
 
+    static final class Pair {
+        final int x;
+        final int y;
+
+        Pair(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static Pair retainedPair;
+
+    @BytecodeParserNeverInline
+    static int sumPair(Pair pair) {
+        return pair != null ? pair.x + pair.y : 0;
+    }
+
+    @BytecodeParserNeverInline
+    static int retainPair(Pair pair) {
+        retainedPair = pair;
+        return pair.x;
+    }
+
+    public static int nonEscapingArgumentSnippet(int a, int b) {
+        return sumPair(new Pair(a, b));
+    }
+
+    public static int escapingArgumentSnippet(int a, int b) {
+        return retainPair(new Pair(a, b));
+    }
+
+    @Test
+    public void testParameterEscapeSummary() {
+        Assert.assertFalse(calleeOf("nonEscapingArgumentSnippet").parameterMayEscape(0));
+        Assert.assertTrue(calleeOf("escapingArgumentSnippet").parameterMayEscape(0));
+    }
+
+    @Test
+    public void testNonEscapingArgumentBonus() {
+        OptionValues noBonus = smallInliningLimits(0);
+        OptionValues bonus = smallInliningLimits(1000);
+        Assert.assertTrue(invokes(getGraph("nonEscapingArgumentSnippet", noBonus, false), "sumPair"));
+        Assert.assertFalse(invokes(getGraph("nonEscapingArgumentSnippet", bonus, false), "sumPair"));
+        // the bonus does not apply to arguments that escape the callee
+        Assert.assertTrue(invokes(getGraph("escapingArgumentSnippet", bonus, false), "retainPair"));
+    }
+
+    private static OptionValues smallInliningLimits(double nonEscapingArgumentBonus) {
+        return new OptionValues(getInitialOptions(), GraalOptions.TrivialInliningSize, 1, GraalOptions.MaximumInliningSize, 1, NonEscapingArgumentInliningBonus,
+                        nonEscapingArgumentBonus);
+    }
+
+    private static boolean invokes(StructuredGraph graph, String methodName) {
+        for (Invoke invoke : graph.getInvokes()) {
+            if (invoke.callTarget().targetMethod().getName().equals(methodName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private InlineableGraph calleeOf(String snippet) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        Invoke invoke = graph.getInvokes().iterator().next();
+        return new InlineableGraph(invoke.callTarget().targetMethod(), invoke, getDefaultHighTierContext(), createCanonicalizerPhase(), false);
+    }
+
     private StructuredGraph getGraph(final String snippet, final boolean eagerInfopointMode) {
         return getGraph(snippet, null, eagerInfopointMode);
     }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.graph.test;
+
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_IGNORED;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_IGNORED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.collections.MapCursor;
+import org.graalvm.compiler.api.test.Graal;
+import org.graalvm.compiler.graph.Graph;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.graph.NodeMap;
+import org.graalvm.compiler.graph.SparseNodeMap;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SparseNodeMapTest extends GraphTest {
+
+    @NodeInfo(cycles = CYCLES_IGNORED, size = SIZE_IGNORED)
+    static final class TestNode extends Node {
+        public static final NodeClass<TestNode> TYPE = NodeClass.create(TestNode.class);
+
+        protected TestNode() {
+            super(TYPE);
+        }
+    }
+
+    private Graph graph;
+    private TestNode[] nodes = new TestNode[100];
+    private NodeMap<Integer> map;
+
+    @Before
+    public void before() {
+        // Need to initialize HotSpotGraalRuntime before any Node class is initialized.
+        Graal.getRuntime();
+
+        OptionValues options = getOptions();
+        graph = new Graph(options, getDebug(options));
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graph.add(new TestNode());
+        }
+        map = new SparseNodeMap<>(graph, nodes.length / 2);
+        for (int i = 0; i < nodes.length; i += 2) {
+            map.set(nodes[i], i);
+        }
+    }
+
+    @Test
+    public void testSimple() {
+        for (int i = 0; i < nodes.length; i++) {
+            if ((i & 1) == 0) {
+                assertEquals((Integer) i, map.get(nodes[i]));
+                assertTrue(map.containsKey(nodes[i]));
+            } else {
+                assertEquals(null, map.get(nodes[i]));
+                assertFalse(map.containsKey(nodes[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testSetNullRemoves() {
+        for (int i = 0; i < nodes.length; i += 2) {
+            map.set(nodes[i], null);
+        }
+        assertFalse(map.getEntries().advance());
+    }
+
+    @Test
+    public void testNewNode() {
+        TestNode newNode = graph.add(new TestNode());
+        assertEquals(null, map.get(newNode));
+        map.set(newNode, 1);
+        assertEquals((Integer) 1, map.get(newNode));
+    }
+
+    @Test
+    public void testDeletedNodesSkipped() {
+        nodes[0].safeDelete();
+        int count = 0;
+        for (Node key : map.getKeys()) {
+            assertTrue(key.isAlive());
+            count++;
+        }
+        assertEquals(nodes.length / 2 - 1, count);
+    }
+
+    @Test
+    public void testCopyToDense() {
+        NodeMap<Integer> copy = new NodeMap<>(map);
+        MapCursor<Node, Integer> cursor = map.getEntries();
+        while (cursor.advance()) {
+            assertEquals(cursor.getValue(), copy.get(cursor.getKey()));
+        }
+        assertEquals(null, copy.get(nodes[1]));
+    }
+
+    @Test
+    public void testInheritedOperations() {
+        map.replaceAll((node, value) -> value == null ? null : value + 1);
+        for (int i = 0; i < nodes.length; i += 2) {
+            assertEquals((Integer) (i + 1), map.get(nodes[i]));
+        }
+        assertTrue(map.containsValue(map.get(nodes[2])));
+        assertEquals(map.get(nodes[2]), map.put(nodes[2], 7));
+        assertEquals((Integer) 7, map.removeKey(nodes[2]));
+        assertFalse(map.containsKey(nodes[2]));
+        assertTrue(map.toString().startsWith("{"));
+        map.clear();
+        assertEquals("{}", map.toString());
+    }
+
+    @Test
+    public void testCreateNodeMap() {
+        assertFalse(graph.createNodeMap(1) instanceof SparseNodeMap);
+        while (graph.getNodeCount() < 8192) {
+            graph.add(new TestNode());
+        }
+        assertTrue(graph.createNodeMap(16) instanceof SparseNodeMap);
+        assertFalse(graph.createNodeMap(graph.getNodeCount()) instanceof SparseNodeMap);
+    }
+}
@@ -1035,6 +1035,18 @@ public class Graph {
         return new NodeMap<>(this);
     }
 
+    /**
+     * Creates a node map that is expected to hold at most {@code expectedEntries} entries. If that
+     * is only a small fraction of the node id space of this graph, a {@link SparseNodeMap} is
+     * returned instead of a map with a table covering all node ids.
+     */
+    public <T> NodeMap<T> createNodeMap(int expectedEntries) {
+        if (SparseNodeMap.isSparse(this, expectedEntries)) {
+            return new SparseNodeMap<>(this, expectedEntries);
+        }
+        return new NodeMap<>(this);
+    }
+
     public NodeFlood createNodeFlood() {
         return new NodeFlood(this);
     }
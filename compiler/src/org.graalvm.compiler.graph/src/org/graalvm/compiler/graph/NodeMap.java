@@ -42,9 +42,25 @@ public class NodeMap<T> extends NodeIdAccessor implements EconomicMap<Node, T> {
         this.values = new Object[graph.nodeIdCount()];
     }
 
+    /**
+     * Creates a node map whose table initially covers only the first {@code capacity} node ids.
+     */
+    protected NodeMap(Graph graph, int capacity) {
+        super(graph);
+        this.values = new Object[capacity];
+    }
+
     public NodeMap(NodeMap<T> copyFrom) {
         super(copyFrom.graph);
-        this.values = Arrays.copyOf(copyFrom.values, copyFrom.values.length);
+        if (copyFrom instanceof SparseNodeMap) {
+            this.values = new Object[graph.nodeIdCount()];
+            MapCursor<Node, T> cursor = copyFrom.getEntries();
+            while (cursor.advance()) {
+                values[getNodeId(cursor.getKey())] = cursor.getValue();
+            }
+        } else {
+            this.values = Arrays.copyOf(copyFrom.values, copyFrom.values.length);
+        }
     }
 
     @Override
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.graph;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.collections.MapCursor;
+
+/**
+ * A {@link NodeMap} backed by a hash map. It is used for maps that hold few entries compared to
+ * the node id space of a large graph, in which case the table of a {@link NodeMap} would mostly
+ * consist of {@code null} entries. Nodes added to the graph after the map was created can be used
+ * as keys without growing the map.
+ *
+ * @see Graph#createNodeMap(int)
+ */
+public final class SparseNodeMap<T> extends NodeMap<T> {
+
+    /**
+     * Graphs with fewer node ids always use a {@link NodeMap} since its table is cheap to allocate
+     * and faster to access.
+     */
+    static final int MIN_NODE_ID_COUNT = 4096;
+
+    /**
+     * A hash map entry costs several times the single table slot a {@link NodeMap} needs per node
+     * id, so a sparse map is only used if the expected number of entries is at most
+     * {@code 1 / DENSITY_FACTOR} of the node id space.
+     */
+    static final int DENSITY_FACTOR = 8;
+
+    private final EconomicMap<Node, T> map;
+
+    public SparseNodeMap(Graph graph, int expectedEntries) {
+        super(graph, 0);
+        this.map = EconomicMap.create(Equivalence.IDENTITY, expectedEntries);
+    }
+
+    static boolean isSparse(Graph graph, int expectedEntries) {
+        int nodeIdCount = graph.nodeIdCount();
+        return nodeIdCount >= MIN_NODE_ID_COUNT && (long) expectedEntries * DENSITY_FACTOR <= nodeIdCount;
+    }
+
+    @Override
+    public T get(Node node) {
+        assert check(node);
+        return map.get(node);
+    }
+
+    @Override
+    public T getAndGrow(Node node) {
+        return get(node);
+    }
+
+    @Override
+    public boolean containsKey(Node node) {
+        if (node.graph() == graph()) {
+            return get(node) != null;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (T o : map.getValues()) {
+            if (o == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void set(Node node, T value) {
+        assert check(node);
+        if (!node.isAlive()) {
+            throw new VerificationError("this node is not alive: " + node);
+        }
+        if (value == null) {
+            map.removeKey(node);
+        } else {
+            map.put(node, value);
+        }
+    }
+
+    @Override
+    public void setAndGrow(Node node, T value) {
+        set(node, value);
+    }
+
+    /**
+     * Returns the node with id {@code i} if this map holds an entry for it, and {@code null}
+     * otherwise. The map is not indexed by node id, so this costs a graph lookup and a hash lookup.
+     */
+    @Override
+    protected Node getKey(int i) {
+        Node node = graph.getNode(i);
+        return node != null && map.containsKey(node) ? node : null;
+    }
+
+    @Override
+    public int capacity() {
+        return graph.nodeIdCount();
+    }
+
+    @Override
+    public boolean isNew(Node node) {
+        return false;
+    }
+
+    private boolean check(Node node) {
+        assert node.graph() == graph : String.format("%s is not part of the graph", node);
+        assert node.isAlive() : "this node is not alive: " + node;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Iterable<Node> getKeys() {
+        return new Iterable<Node>() {
+
+            @Override
+            public Iterator<Node> iterator() {
+                return new Iterator<Node>() {
+
+                    final MapCursor<Node, T> cursor = getEntries();
+                    boolean advanced;
+                    boolean hasNext;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (!advanced) {
+                            hasNext = cursor.advance();
+                            advanced = true;
+                        }
+                        return hasNext;
+                    }
+
+                    @Override
+                    public Node next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        advanced = false;
+                        return cursor.getKey();
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a cursor over the entries of this map. Entries of nodes that were deleted from the
+     * graph are skipped and removed.
+     */
+    @Override
+    public MapCursor<Node, T> getEntries() {
+        return new MapCursor<Node, T>() {
+
+            final MapCursor<Node, T> cursor = map.getEntries();
+
+            @Override
+            public boolean advance() {
+                while (cursor.advance()) {
+                    if (cursor.getKey().isAlive()) {
+                        return true;
+                    }
+                    cursor.remove();
+                }
+                return false;
+            }
+
+            @Override
+            public Node getKey() {
+                return cursor.getKey();
+            }
+
+            @Override
+            public T getValue() {
+                return cursor.getValue();
+            }
+
+            @Override
+            public void remove() {
+                cursor.remove();
+            }
+        };
+    }
+
+    @Override
+    public Iterable<T> getValues() {
+        return new Iterable<T>() {
+
+            @Override
+            public Iterator<T> iterator() {
+                return new Iterator<T>() {
+
+                    final MapCursor<Node, T> cursor = getEntries();
+                    boolean advanced;
+                    boolean hasNext;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (!advanced) {
+                            hasNext = cursor.advance();
+                            advanced = true;
+                        }
+                        return hasNext;
+                    }
+
+                    @Override
+                    public T next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        advanced = false;
+                        return cursor.getValue();
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+}
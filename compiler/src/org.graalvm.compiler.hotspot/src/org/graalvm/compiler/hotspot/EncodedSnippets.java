@@ -81,6 +81,13 @@ public class EncodedSnippets {
     private final NodeClass<?>[] snippetNodeClasses;
     private final UnmodifiableEconomicMap<String, GraphData> graphDatas;
 
+    /**
+     * The resolved values of {@link #snippetObjects}. Symbolic references are resolved into this
+     * separate array so that {@link #snippetObjects} itself is never written and can be placed in
+     * the read-only part of the image heap which is shared by all libgraal isolates.
+     */
+    private volatile Object[] resolvedSnippetObjects;
+
     EncodedSnippets(byte[] snippetEncoding, Object[] snippetObjects, NodeClass<?>[] snippetNodeClasses, UnmodifiableEconomicMap<String, GraphData> graphDatas) {
         this.snippetEncoding = snippetEncoding;
         this.snippetObjects = snippetObjects;
@@ -94,6 +101,7 @@ public class EncodedSnippets {
 
     public void visitImmutable(Consumer<Object> visitor) {
         visitor.accept(snippetEncoding);
+        visitor.accept(snippetObjects);
         visitor.accept(snippetNodeClasses);
         visitor.accept(graphDatas);
     }
@@ -113,6 +121,20 @@ public class EncodedSnippets {
         return decodeGraph(original, accessingClass, data.startOffset, replacements, contextToUse, allowAssumptions, cancellable, options);
     }
 
+    private Object[] getResolvedSnippetObjects() {
+        Object[] result = resolvedSnippetObjects;
+        if (result == null) {
+            synchronized (this) {
+                result = resolvedSnippetObjects;
+                if (result == null) {
+                    result = new Object[snippetObjects.length];
+                    resolvedSnippetObjects = result;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Generate a String name for a method including all type information. Used as a symbolic key
      * for lookup.
@@ -131,7 +153,7 @@ public class EncodedSnippets {
                     Cancellable cancellable,
                     OptionValues options) {
         Providers providers = replacements.getProviders();
-        EncodedGraph encodedGraph = new SymbolicEncodedGraph(snippetEncoding, startOffset, snippetObjects, snippetNodeClasses,
+        EncodedGraph encodedGraph = new SymbolicEncodedGraph(snippetEncoding, startOffset, snippetObjects, getResolvedSnippetObjects(), snippetNodeClasses,
                         methodKey(method), accessingClass, method.getDeclaringClass());
         try (DebugContext debug = replacements.openSnippetDebugContext("LibgraalSnippet_", method, options)) {
             StructuredGraph result = new StructuredGraph.Builder(options, debug, allowAssumptions).cancellable(cancellable).method(method).setIsSubstitution(true).build();
@@ -157,7 +179,8 @@ public class EncodedSnippets {
             }
         }
 
-        SymbolicEncodedGraph encodedGraph = new SymbolicEncodedGraph(snippetEncoding, data.startOffset, snippetObjects, snippetNodeClasses, data.originalMethod, method.getDeclaringClass());
+        SymbolicEncodedGraph encodedGraph = new SymbolicEncodedGraph(snippetEncoding, data.startOffset, snippetObjects, getResolvedSnippetObjects(), snippetNodeClasses, data.originalMethod,
+                        method.getDeclaringClass());
         return decodeSnippetGraph(encodedGraph, method, replacements, args, allowAssumptions, options, IS_IN_NATIVE_IMAGE);
     }
 
@@ -257,20 +280,27 @@ public class EncodedSnippets {
 
         private final ResolvedJavaType[] accessingClasses;
         private final String originalMethod;
+        private final Object[] resolvedObjects;
 
-        SymbolicEncodedGraph(byte[] encoding, int startOffset, Object[] objects, NodeClass<?>[] types, String originalMethod, ResolvedJavaType... accessingClasses) {
+        SymbolicEncodedGraph(byte[] encoding, int startOffset, Object[] objects, Object[] resolvedObjects, NodeClass<?>[] types, String originalMethod, ResolvedJavaType... accessingClasses) {
             super(encoding, startOffset, objects, types, null, null, null, false, false);
+            assert resolvedObjects.length == objects.length;
             this.accessingClasses = accessingClasses;
             this.originalMethod = originalMethod;
+            this.resolvedObjects = resolvedObjects;
         }
 
         SymbolicEncodedGraph(EncodedGraph encodedGraph, ResolvedJavaType declaringClass, String originalMethod) {
-            this(encodedGraph.getEncoding(), encodedGraph.getStartOffset(), encodedGraph.getObjects(), encodedGraph.getNodeClasses(),
+            this(encodedGraph.getEncoding(), encodedGraph.getStartOffset(), encodedGraph.getObjects(), new Object[encodedGraph.getObjects().length], encodedGraph.getNodeClasses(),
                             originalMethod, declaringClass);
         }
 
         @Override
         public Object getObject(int i) {
+            Object resolved = resolvedObjects[i];
+            if (resolved != null) {
+                return resolved;
+            }
             Object o = objects[i];
             Object replacement = null;
             if (o instanceof SymbolicJVMCIReference) {
@@ -305,7 +335,7 @@ public class EncodedSnippets {
                 return o;
             }
             if (replacement != null) {
-                objects[i] = o = replacement;
+                resolvedObjects[i] = o = replacement;
             } else {
                 throw new GraalError("Can't resolve " + o);
             }
@@ -27,9 +27,14 @@ package org.graalvm.compiler.hotspot;
 import static jdk.vm.ci.services.Services.IS_BUILDING_NATIVE_IMAGE;
 import static jdk.vm.ci.services.Services.IS_IN_NATIVE_IMAGE;
 import static org.graalvm.compiler.core.common.GraalOptions.UseEncodedGraphs;
+import static org.graalvm.compiler.core.common.GraalOptions.UseSnippetGraphCache;
 import static org.graalvm.compiler.nodes.graphbuilderconf.IntrinsicContext.CompilationContext.INLINE_AFTER_PARSING;
 import static org.graalvm.compiler.nodes.graphbuilderconf.IntrinsicContext.CompilationContext.ROOT_COMPILATION;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+
 import org.graalvm.collections.EconomicSet;
 import org.graalvm.compiler.api.replacements.SnippetReflectionProvider;
 import org.graalvm.compiler.bytecode.BytecodeProvider;
@@ -63,6 +68,39 @@ import jdk.vm.ci.meta.ResolvedJavaMethod;
  * them.
  */
 public class HotSpotReplacementsImpl extends ReplacementsImpl {
+
+    /**
+     * Frozen graphs of method substitutions inlined after parsing, keyed by substituted method,
+     * whether the graph allows assumptions and whether it tracks node source positions.
+     */
+    private final ConcurrentMap<SubstitutionKey, StructuredGraph> encodedSubstitutions = new ConcurrentHashMap<>();
+
+    private static final class SubstitutionKey {
+        private final ResolvedJavaMethod method;
+        private final AllowAssumptions allowAssumptions;
+        private final boolean trackNodeSourcePosition;
+
+        SubstitutionKey(ResolvedJavaMethod method, AllowAssumptions allowAssumptions, boolean trackNodeSourcePosition) {
+            this.method = method;
+            this.allowAssumptions = allowAssumptions;
+            this.trackNodeSourcePosition = trackNodeSourcePosition;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof SubstitutionKey) {
+                SubstitutionKey that = (SubstitutionKey) obj;
+                return method.equals(that.method) && allowAssumptions == that.allowAssumptions && trackNodeSourcePosition == that.trackNodeSourcePosition;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, allowAssumptions, trackNodeSourcePosition);
+        }
+    }
+
     public HotSpotReplacementsImpl(HotSpotProviders providers, SnippetReflectionProvider snippetReflection, BytecodeProvider bytecodeProvider, TargetDescription target) {
         super(new GraalDebugHandlersFactory(snippetReflection), providers, snippetReflection, bytecodeProvider, target);
     }
@@ -157,7 +195,7 @@ public class HotSpotReplacementsImpl extends ReplacementsImpl {
                 }
                 // This assumes the normal path creates the graph using
                 // GraphBuilderConfiguration.getSnippetDefault with omits exception edges
-                StructuredGraph subst = getMethodSubstitution(msPlugin, targetMethod, INLINE_AFTER_PARSING, allowAssumptions, null, options);
+                StructuredGraph subst = getEncodedSubstitution(msPlugin, targetMethod, trackNodeSourcePosition, allowAssumptions, options);
                 return subst;
             }
         }
@@ -165,6 +203,40 @@ public class HotSpotReplacementsImpl extends ReplacementsImpl {
         return super.getSubstitution(targetMethod, invokeBci, trackNodeSourcePosition, replaceePosition, allowAssumptions, options);
     }
 
+    /**
+     * Gets the graph of a method substitution that is inlined after parsing. Decoding such a graph
+     * is much more expensive than copying it, so the decoded graph is frozen and cached in
+     * {@link #encodedSubstitutions} under the substituted method, {@code allowAssumptions} and
+     * {@code trackNodeSourcePosition}. A graph is only reused if it tracks node source positions
+     * exactly when requested. Consumers copy frozen graphs before modifying them.
+     */
+    @SuppressWarnings("try")
+    private StructuredGraph getEncodedSubstitution(MethodSubstitutionPlugin plugin, ResolvedJavaMethod targetMethod, boolean trackNodeSourcePosition, AllowAssumptions allowAssumptions,
+                    OptionValues options) {
+        if (!UseSnippetGraphCache.getValue(options)) {
+            return getMethodSubstitution(plugin, targetMethod, INLINE_AFTER_PARSING, allowAssumptions, null, options);
+        }
+        SubstitutionKey key = new SubstitutionKey(targetMethod, allowAssumptions, trackNodeSourcePosition);
+        StructuredGraph graph = encodedSubstitutions.get(key);
+        if (graph == null) {
+            // The cached graph outlives the compilation decoding it.
+            try (CompilationContext scope = HotSpotGraalServices.enterGlobalCompilationContext()) {
+                graph = getMethodSubstitution(plugin, targetMethod, INLINE_AFTER_PARSING, allowAssumptions, null, options);
+            }
+            if (graph.trackNodeSourcePosition() != trackNodeSourcePosition) {
+                // the encoding does not match the request, so the graph must not be shared
+                return graph;
+            }
+            graph.freeze();
+            StructuredGraph existing = encodedSubstitutions.putIfAbsent(key, graph);
+            if (existing != null) {
+                graph = existing;
+            }
+        }
+        assert graph.isFrozen();
+        return graph;
+    }
+
     @Override
     public void notifyNotInlined(GraphBuilderContext b, ResolvedJavaMethod method, Invoke invoke) {
         if (!IS_IN_NATIVE_IMAGE) {
@@ -3922,10 +3922,14 @@ public class BytecodeParser implements GraphBuilderContext {
 
     @Override
     public BailoutException bailout(String string) {
+        throw bailout(new PermanentBailoutException(string));
+    }
+
+    @Override
+    public BailoutException bailout(BailoutException cause) {
         FrameState currentFrameState = createFrameState(bci(), null);
         StackTraceElement[] elements = GraphUtil.approxSourceStackTraceElement(currentFrameState);
-        BailoutException bailout = new PermanentBailoutException(string);
-        throw GraphUtil.createBailoutException(string, bailout, elements);
+        throw GraphUtil.createBailoutException(cause.getMessage(), cause, elements);
     }
 
     private FrameState createFrameState(int bci, StateSplit forStateSplit) {
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.jtt.loop;
+
+import org.junit.Test;
+
+import org.graalvm.compiler.jtt.JTTTest;
+
+/*
+ */
+public class LoopSaxpy extends JTTTest {
+
+    public static float test(int length, float a) {
+        float[] x = new float[length];
+        float[] y = new float[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i * 0.5f;
+            y[i] = length - i;
+        }
+        for (int i = 0; i < length; i++) {
+            y[i] = a * x[i] + y[i];
+        }
+        float checksum = 0;
+        for (int i = 0; i < length; i++) {
+            checksum = checksum * 0.5f + y[i];
+        }
+        return checksum;
+    }
+
+    @Test
+    public void run0() throws Throwable {
+        runTest("test", 0, 2.0f);
+    }
+
+    @Test
+    public void run1() throws Throwable {
+        runTest("test", 3, -1.5f);
+    }
+
+    @Test
+    public void run2() throws Throwable {
+        runTest("test", 257, 3.25f);
+    }
+
+}
@@ -83,6 +83,8 @@ public class LinearScan {
         // @formatter:off
         @Option(help = "Enable spill position optimization", type = OptionType.Debug)
         public static final OptionKey<Boolean> LIROptLSRAOptimizeSpillPosition = new NestedBooleanOptionKey(LIROptimization, true);
+        @Option(help = "Compute the local live sets of methods with at least this many blocks in parallel on a bounded set of helper threads (0 disables parallel computation).", type = OptionType.Expert)
+        public static final OptionKey<Integer> LSRAParallelLiveSetsMinBlocks = new OptionKey<>(0);
         // @formatter:on
     }
 
@@ -36,6 +36,12 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.graalvm.collections.EconomicSet;
 import org.graalvm.collections.Equivalence;
@@ -173,6 +179,10 @@ public class LinearScanLifetimeAnalysisPhase extends LinearScanAllocationPhase {
         }
 
         try {
+            if (useParallelLocalLiveSets()) {
+                computeLocalLiveSetsInParallel(liveSize);
+                return;
+            }
             final BitSet liveGenScratch = new BitSet(liveSize);
             final BitSet liveKillScratch = new BitSet(liveSize);
             // iterate all blocks
@@ -272,6 +282,132 @@ public class LinearScanLifetimeAnalysisPhase extends LinearScanAllocationPhase {
         }
     }
 
+    private boolean useParallelLocalLiveSets() {
+        int minBlocks = LinearScan.Options.LSRAParallelLiveSetsMinBlocks.getValue(allocator.getOptions());
+        // logging and detailed assertions are not thread-safe
+        return minBlocks > 0 && allocator.blockCount() >= minBlocks && !debug.isLogEnabled() && !allocator.detailedAsserts;
+    }
+
+    /**
+     * Helper threads for {@link #computeLocalLiveSetsInParallel}. The pool is bounded and separate
+     * from the common fork join pool so that compiler threads do not compete with application work
+     * and a burst of concurrent compilations cannot create more threads.
+     */
+    private static final class LiveSetsHelpers {
+        static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread thread = new Thread(r, "LSRALiveSetsHelper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Parallel variant of {@link #computeLocalLiveSets()}. The live sets of a block only depend on
+     * its own instructions, so blocks are processed independently. The calling thread and up to
+     * {@link LiveSetsHelpers#THREADS} helper threads claim blocks one at a time, each using its own
+     * scratch sets, so the temporary memory is bounded by the number of threads rather than the
+     * number of blocks.
+     */
+    private void computeLocalLiveSetsInParallel(int liveSize) {
+        AbstractBlockBase<?>[] blocks = allocator.sortedBlocks();
+        AtomicInteger nextBlock = new AtomicInteger();
+        Runnable worker = () -> computeLocalLiveSetsOfClaimedBlocks(blocks, nextBlock, liveSize);
+        int helpers = Math.max(0, Math.min(LiveSetsHelpers.THREADS, blocks.length - 1));
+        List<Future<?>> futures = new ArrayList<>(helpers);
+        for (int i = 0; i < helpers; i++) {
+            futures.add(LiveSetsHelpers.EXECUTOR.submit(worker));
+        }
+        worker.run();
+        /*
+         * All blocks are claimed once the calling thread returns from the worker. A helper that has
+         * not started yet, e.g. because the pool is busy with other compilations, would find no
+         * work, so it is cancelled instead of waited for. Only helpers that are still processing
+         * their last claimed block need to be joined.
+         */
+        for (Future<?> future : futures) {
+            if (future.cancel(false)) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                throw new GraalError(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new GraalError(cause);
+            }
+        }
+    }
+
+    private void computeLocalLiveSetsOfClaimedBlocks(AbstractBlockBase<?>[] blocks, AtomicInteger nextBlock, int liveSize) {
+        BitSet liveGen = new BitSet(liveSize);
+        BitSet liveKill = new BitSet(liveSize);
+        BitSet inLoop = new BitSet(liveSize);
+
+        ValueConsumer useConsumer = (operand, mode, flags) -> {
+            if (isVariable(operand)) {
+                int operandNum = getOperandNumber(operand);
+                if (!liveKill.get(operandNum)) {
+                    liveGen.set(operandNum);
+                }
+                inLoop.set(operandNum);
+            }
+        };
+        ValueConsumer stateConsumer = (operand, mode, flags) -> {
+            if (LinearScan.isVariableOrRegister(operand)) {
+                int operandNum = getOperandNumber(operand);
+                if (!liveKill.get(operandNum)) {
+                    liveGen.set(operandNum);
+                }
+            }
+        };
+        ValueConsumer defConsumer = (operand, mode, flags) -> {
+            if (isVariable(operand)) {
+                int varNum = getOperandNumber(operand);
+                liveKill.set(varNum);
+                inLoop.set(varNum);
+            }
+        };
+
+        for (int i = nextBlock.getAndIncrement(); i < blocks.length; i = nextBlock.getAndIncrement()) {
+            AbstractBlockBase<?> block = blocks[i];
+            liveGen.clear();
+            liveKill.clear();
+            inLoop.clear();
+
+            for (LIRInstruction op : allocator.getLIR().getLIRforBlock(block)) {
+                op.visitEachInput(useConsumer);
+                op.visitEachAlive(useConsumer);
+                op.visitEachState(stateConsumer);
+                op.visitEachTemp(defConsumer);
+                op.visitEachOutput(defConsumer);
+            }
+
+            BlockData blockSets = allocator.getBlockData(block);
+            blockSets.liveGen = trimClone(liveGen);
+            blockSets.liveKill = trimClone(liveKill);
+            // sticky size, will get non-sticky in computeGlobalLiveSets
+            blockSets.liveIn = new BitSet(0);
+            blockSets.liveOut = new BitSet(0);
+
+            if (block.getLoop() != null) {
+                int loopIndex = block.getLoop().getIndex();
+                // BitMap2D is not thread-safe
+                synchronized (intervalInLoop) {
+                    for (int operandNum = inLoop.nextSetBit(0); operandNum >= 0; operandNum = inLoop.nextSetBit(operandNum + 1)) {
+                        intervalInLoop.setBit(operandNum, loopIndex);
+                    }
+                }
+            }
+        }
+    }
+
     private void verifyTemp(BitSet liveKill, Value operand) {
         /*
          * Fixed intervals are never live at block boundaries, so they need not be processed in live
@@ -28,6 +28,8 @@ import static jdk.vm.ci.code.ValueUtil.asRegister;
 import static jdk.vm.ci.code.ValueUtil.isRegister;
 import static org.graalvm.compiler.lir.LIRValueUtil.isStackSlotValue;
 
+import java.util.Arrays;
+
 import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
 import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.Indent;
@@ -50,11 +52,23 @@ public class OptimizingLinearScanWalker extends LinearScanWalker {
         public static final OptionKey<Boolean> LSRAOptimization = new OptionKey<>(false);
         @Option(help = "LSRA optimization: Only split but do not reassign", type = OptionType.Debug)
         public static final OptionKey<Boolean> LSRAOptSplitOnly = new OptionKey<>(false);
+        @Option(help = "LSRA optimization: Only optimize blocks with at least this relative frequency. " +
+                       "Intervals in colder blocks are allocated as by the non-optimizing walker.", type = OptionType.Debug)
+        public static final OptionKey<Double> LSRAOptMinBlockFrequency = new OptionKey<>(0.0);
         // @formatter:on
     }
 
+    private final double minBlockFrequency;
+
+    /**
+     * Sorted first LIR instruction ids of the blocks that are considered by
+     * {@link #optimizeBlock}. Computed at the beginning of {@link #walk()}.
+     */
+    private int[] optimizedBlockBegins;
+
     OptimizingLinearScanWalker(LinearScan allocator, Interval unhandledFixedFirst, Interval unhandledAnyFirst) {
         super(allocator, unhandledFixedFirst, unhandledAnyFirst);
+        this.minBlockFrequency = Options.LSRAOptMinBlockFrequency.getValue(allocator.getOptions());
     }
 
     @SuppressWarnings("try")
@@ -66,6 +80,11 @@ public class OptimizingLinearScanWalker extends LinearScanWalker {
             return;
         }
         assert isStackSlotValue(interval.location()) : "interval not assigned to a stack slot " + interval;
+        if (!coversOptimizedBlockBegin(interval)) {
+            // no block begin the optimization would look at -> handle as the non-optimizing walker
+            super.handleSpillSlot(interval);
+            return;
+        }
         DebugContext debug = allocator.getDebug();
         try (DebugContext.Scope s1 = debug.scope("LSRAOptimization")) {
             debug.log("adding stack to unhandled list %s", interval);
@@ -73,6 +92,18 @@ public class OptimizingLinearScanWalker extends LinearScanWalker {
         }
     }
 
+    /**
+     * Determines if {@code interval} is live across the beginning of a block that is optimized,
+     * i.e., if it can be active in {@link #optimize} at all.
+     */
+    private boolean coversOptimizedBlockBegin(Interval interval) {
+        int index = Arrays.binarySearch(optimizedBlockBegins, interval.from() + 1);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < optimizedBlockBegins.length && optimizedBlockBegins[index] < interval.to();
+    }
+
     @SuppressWarnings("unused")
     private static void printRegisterBindingList(DebugContext debug, RegisterBindingLists list, RegisterBinding binding) {
         for (Interval interval = list.get(binding); !interval.isEndMarker(); interval = interval.next) {
@@ -83,14 +114,45 @@ public class OptimizingLinearScanWalker extends LinearScanWalker {
     @SuppressWarnings("try")
     @Override
     void walk() {
+        AbstractBlockBase<?>[] blocks = allocator.sortedBlocks();
+        int[] begins = new int[blocks.length];
+        int count = 0;
+        for (AbstractBlockBase<?> block : blocks) {
+            if (isOptimized(block)) {
+                begins[count++] = allocator.getFirstLirInstructionId(block);
+            }
+        }
+        optimizedBlockBegins = Arrays.copyOf(begins, count);
+        assert isSorted(optimizedBlockBegins) : "blocks not in LIR order";
+
         try (DebugContext.Scope s = allocator.getDebug().scope("OptimizingLinearScanWalker")) {
-            for (AbstractBlockBase<?> block : allocator.sortedBlocks()) {
-                optimizeBlock(block);
+            for (AbstractBlockBase<?> block : blocks) {
+                if (isOptimized(block)) {
+                    optimizeBlock(block);
+                }
             }
         }
         super.walk();
     }
 
+    /**
+     * Only blocks with a single predecessor and at least {@link Options#LSRAOptMinBlockFrequency}
+     * are optimized. Intervals that are not live at the beginning of such a block are allocated
+     * exactly as by the non-optimizing {@link LinearScanWalker}.
+     */
+    private boolean isOptimized(AbstractBlockBase<?> block) {
+        return block.getPredecessorCount() == 1 && block.getRelativeFrequency() >= minBlockFrequency;
+    }
+
+    private static boolean isSorted(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] >= values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @SuppressWarnings("try")
     private void optimizeBlock(AbstractBlockBase<?> block) {
         if (block.getPredecessorCount() == 1) {
@@ -31,6 +31,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
 import org.graalvm.compiler.core.common.RetryableBailoutException;
 import org.graalvm.compiler.core.common.calc.CanonicalCondition;
 import org.graalvm.compiler.debug.DebugContext;
@@ -562,42 +563,57 @@ public abstract class LoopTransformations {
         compareNode.replaceFirstInput(ub, compareNode.graph().addOrUniqueWithInputs(newLimit));
     }
 
+    /**
+     * Returns the first group of control splits in {@code loop} that can be unswitched together.
+     *
+     * @see #findUnswitchableGroups(LoopEx)
+     */
     public static List<ControlSplitNode> findUnswitchable(LoopEx loop) {
-        List<ControlSplitNode> controls = null;
-        ValueNode invariantValue = null;
+        List<List<ControlSplitNode>> groups = findUnswitchableGroups(loop);
+        return groups.isEmpty() ? null : groups.get(0);
+    }
+
+    /**
+     * Returns every group of control splits in {@code loop} that can be unswitched together: one
+     * group per loop-invariant {@link IfNode} condition and one group per loop-invariant
+     * {@link SwitchNode} value whose switches test the same keys in the same order. The groups of
+     * {@link IfNode}s come first, each group in the order its first member was found.
+     */
+    public static List<List<ControlSplitNode>> findUnswitchableGroups(LoopEx loop) {
+        List<List<ControlSplitNode>> groups = new ArrayList<>();
+        EconomicMap<ValueNode, List<ControlSplitNode>> ifGroups = EconomicMap.create(Equivalence.IDENTITY);
         for (IfNode ifNode : loop.whole().nodes().filter(IfNode.class)) {
             if (loop.isOutsideLoop(ifNode.condition())) {
+                List<ControlSplitNode> controls = ifGroups.get(ifNode.condition());
                 if (controls == null) {
-                    invariantValue = ifNode.condition();
                     controls = new ArrayList<>();
-                    controls.add(ifNode);
-                } else if (ifNode.condition() == invariantValue) {
-                    controls.add(ifNode);
+                    ifGroups.put(ifNode.condition(), controls);
+                    groups.add(controls);
                 }
+                controls.add(ifNode);
             }
         }
-        if (controls == null) {
-            SwitchNode firstSwitch = null;
-            for (SwitchNode switchNode : loop.whole().nodes().filter(SwitchNode.class)) {
-                if (switchNode.successors().count() > 1 && loop.isOutsideLoop(switchNode.value())) {
-                    if (controls == null) {
-                        firstSwitch = switchNode;
-                        invariantValue = switchNode.value();
-                        controls = new ArrayList<>();
-                        controls.add(switchNode);
-                    } else if (switchNode.value() == invariantValue) {
-                        // Fortify: Suppress Null Dereference false positive
-                        assert firstSwitch != null;
-
-                        if (firstSwitch.structureEquals(switchNode)) {
-                            // Only collect switches which test the same values in the same order
-                            controls.add(switchNode);
-                        }
+        List<List<ControlSplitNode>> switchGroups = new ArrayList<>();
+        for (SwitchNode switchNode : loop.whole().nodes().filter(SwitchNode.class)) {
+            if (switchNode.successors().count() > 1 && loop.isOutsideLoop(switchNode.value())) {
+                List<ControlSplitNode> controls = null;
+                for (List<ControlSplitNode> group : switchGroups) {
+                    SwitchNode firstSwitch = (SwitchNode) group.get(0);
+                    // Only collect switches which test the same values in the same order
+                    if (firstSwitch.value() == switchNode.value() && firstSwitch.structureEquals(switchNode)) {
+                        controls = group;
+                        break;
                     }
                 }
+                if (controls == null) {
+                    controls = new ArrayList<>();
+                    switchGroups.add(controls);
+                }
+                controls.add(switchNode);
             }
         }
-        return controls;
+        groups.addAll(switchGroups);
+        return groups;
     }
 
     public static boolean isUnrollableLoop(LoopEx loop) {
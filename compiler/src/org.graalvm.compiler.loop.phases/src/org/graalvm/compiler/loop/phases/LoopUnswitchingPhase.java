@@ -24,12 +24,16 @@
  */
 package org.graalvm.compiler.loop.phases;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
 import org.graalvm.compiler.debug.CounterKey;
 import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.loop.DefaultLoopPolicies;
 import org.graalvm.compiler.loop.LoopEx;
 import org.graalvm.compiler.loop.LoopPolicies;
 import org.graalvm.compiler.loop.LoopsData;
@@ -41,6 +45,7 @@ public class LoopUnswitchingPhase extends ContextlessLoopPhase<LoopPolicies> {
     private static final CounterKey UNSWITCHED = DebugContext.counter("Unswitched");
     private static final CounterKey UNSWITCH_CANDIDATES = DebugContext.counter("UnswitchCandidates");
     private static final CounterKey UNSWITCH_EARLY_REJECTS = DebugContext.counter("UnswitchEarlyRejects");
+    private static final CounterKey UNSWITCH_REJECTED_CANDIDATES = DebugContext.counter("UnswitchRejectedCandidates");
 
     public LoopUnswitchingPhase(LoopPolicies policies) {
         super(policies);
@@ -56,10 +61,11 @@ public class LoopUnswitchingPhase extends ContextlessLoopPhase<LoopPolicies> {
                 final LoopsData dataUnswitch = new LoopsData(graph);
                 for (LoopEx loop : dataUnswitch.outerFirst()) {
                     if (getPolicies().shouldTryUnswitch(loop)) {
-                        List<ControlSplitNode> controlSplits = LoopTransformations.findUnswitchable(loop);
-                        if (controlSplits != null) {
+                        List<List<ControlSplitNode>> candidates = LoopTransformations.findUnswitchableGroups(loop);
+                        if (!candidates.isEmpty()) {
                             UNSWITCH_CANDIDATES.increment(debug);
-                            if (getPolicies().shouldUnswitch(loop, controlSplits)) {
+                            List<ControlSplitNode> controlSplits = selectUnswitch(loop, candidates);
+                            if (controlSplits != null) {
                                 if (debug.isLogEnabled()) {
                                     logUnswitch(loop, controlSplits);
                                 }
@@ -78,6 +84,32 @@ public class LoopUnswitchingPhase extends ContextlessLoopPhase<LoopPolicies> {
         }
     }
 
+    /**
+     * Selects the group of control splits to unswitch {@code loop} on. The candidates are tried
+     * from the most to the least frequently executed so that a loop whose first candidate is too
+     * expensive or too cold to unswitch is still partially unswitched on a cheaper, hotter one.
+     * The remaining candidates are reconsidered on the duplicated loops in the next round.
+     */
+    private List<ControlSplitNode> selectUnswitch(LoopEx loop, List<List<ControlSplitNode>> candidates) {
+        List<List<ControlSplitNode>> ranked = candidates;
+        if (candidates.size() > 1) {
+            EconomicMap<List<ControlSplitNode>, Double> frequencies = EconomicMap.create(Equivalence.IDENTITY);
+            for (List<ControlSplitNode> candidate : candidates) {
+                frequencies.put(candidate, DefaultLoopPolicies.splitFrequency(loop, candidate));
+            }
+            ranked = new ArrayList<>(candidates);
+            // stable, so equally frequent candidates keep the order in which they were found
+            ranked.sort((a, b) -> Double.compare(frequencies.get(b), frequencies.get(a)));
+        }
+        for (List<ControlSplitNode> controlSplits : ranked) {
+            if (getPolicies().shouldUnswitch(loop, controlSplits)) {
+                return controlSplits;
+            }
+            UNSWITCH_REJECTED_CANDIDATES.increment(loop.entryPoint().getDebug());
+        }
+        return null;
+    }
+
     private static void logUnswitch(LoopEx loop, List<ControlSplitNode> controlSplits) {
         StringBuilder sb = new StringBuilder("Unswitching ");
         sb.append(loop).append(" at ");
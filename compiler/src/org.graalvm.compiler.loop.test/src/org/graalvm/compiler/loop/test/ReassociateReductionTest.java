@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+public class ReassociateReductionTest extends GraalCompilerTest {
+
+    /**
+     * Number of operands added to the reduction per iteration of the source loop, or 0 if the
+     * reduction is not checked.
+     */
+    private int operandsPerIteration;
+
+    /**
+     * Checks that some loop adds a balanced tree of operands to a phi. The operands must not be
+     * additions themselves, and their number must be a multiple of {@link #operandsPerIteration}.
+     */
+    @Override
+    protected void checkMidTierGraph(StructuredGraph graph) {
+        if (operandsPerIteration == 0) {
+            return;
+        }
+        for (LoopBeginNode loop : graph.getNodes(LoopBeginNode.TYPE)) {
+            if (loop.getLoopEndCount() == 1) {
+                for (ValuePhiNode phi : loop.valuePhis()) {
+                    ValueNode backValue = phi.valueAt(loop.loopEnds().first());
+                    if (backValue instanceof AddNode) {
+                        AddNode add = (AddNode) backValue;
+                        ValueNode tree = add.getX() == phi ? add.getY() : add.getY() == phi ? add.getX() : null;
+                        if (tree != null) {
+                            int operands = countOperands(tree);
+                            if (operands >= operandsPerIteration && operands % operandsPerIteration == 0 && treeDepth(tree) == ceilLog2(operands)) {
+                                return;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        fail("expected a balanced reduction of a multiple of " + operandsPerIteration + " operands");
+    }
+
+    private static int countOperands(ValueNode node) {
+        if (node instanceof AddNode) {
+            AddNode add = (AddNode) node;
+            return countOperands(add.getX()) + countOperands(add.getY());
+        }
+        return 1;
+    }
+
+    private static int treeDepth(ValueNode node) {
+        if (node instanceof AddNode) {
+            AddNode add = (AddNode) node;
+            return 1 + Math.max(treeDepth(add.getX()), treeDepth(add.getY()));
+        }
+        return 0;
+    }
+
+    private static int ceilLog2(int value) {
+        return 32 - Integer.numberOfLeadingZeros(value - 1);
+    }
+
+    static volatile int volatileInt = 3;
+
+    public static int sumSnippet(int iterations) {
+        int sum = 0;
+        for (int i = 0; branchProbability(0.99, i < iterations); i++) {
+            sum += volatileInt + i;
+        }
+        return sum;
+    }
+
+    public static int chainSnippet(int[] a, int[] b, int[] c, int[] d) {
+        int sum = 0;
+        for (int i = 0; branchProbability(0.99, i < a.length); i++) {
+            sum += a[i];
+            sum += b[i];
+            sum += c[i];
+            sum += d[i];
+        }
+        return sum;
+    }
+
+    public static long xorSnippet(long[] values) {
+        long hash = 0;
+        for (int i = 0; branchProbability(0.99, i < values.length); i++) {
+            hash ^= values[i];
+        }
+        return hash;
+    }
+
+    public static double doubleSumSnippet(double[] values) {
+        double sum = 0;
+        for (int i = 0; branchProbability(0.99, i < values.length); i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSum() {
+        // every operand is an addition itself, which must not be mistaken for the chain
+        for (int i = -1; i < 64; i++) {
+            test("sumSnippet", i);
+        }
+    }
+
+    @Test
+    public void testChain() {
+        operandsPerIteration = 4;
+        try {
+            for (int i = 0; i < 64; i++) {
+                int[] a = new int[i];
+                int[] b = new int[i];
+                int[] c = new int[i];
+                int[] d = new int[i];
+                for (int j = 0; j < i; j++) {
+                    a[j] = j;
+                    b[j] = j * 31;
+                    c[j] = -j;
+                    d[j] = j ^ 0x5A5A;
+                }
+                test("chainSnippet", a, b, c, d);
+            }
+        } finally {
+            operandsPerIteration = 0;
+        }
+    }
+
+    @Test
+    public void testSumDisabled() {
+        OptionValues options = new OptionValues(getInitialOptions(), GraalOptions.ReassociateReductions, false);
+        for (int i = -1; i < 64; i++) {
+            test(options, "sumSnippet", i);
+        }
+    }
+
+    @Test
+    public void testXor() {
+        for (int i = 0; i < 64; i++) {
+            long[] values = new long[i];
+            for (int j = 0; j < i; j++) {
+                values[j] = j * 0x9E3779B97F4A7C15L;
+            }
+            test("xorSnippet", values);
+        }
+    }
+
+    @Test
+    public void testDoubleSumNotReassociated() {
+        double[] values = new double[33];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? 1e16 : 1.0;
+        }
+        test("doubleSumSnippet", values);
+    }
+}
@@ -60,6 +60,9 @@ public class DefaultLoopPolicies implements LoopPolicies {
         @Option(help = "", type = OptionType.Expert) public static final OptionKey<Integer> LoopUnswitchMaxIncrease = new OptionKey<>(500);
         @Option(help = "", type = OptionType.Expert) public static final OptionKey<Integer> LoopUnswitchTrivial = new OptionKey<>(10);
         @Option(help = "", type = OptionType.Expert) public static final OptionKey<Double> LoopUnswitchFrequencyBoost = new OptionKey<>(10.0);
+        @Option(help = "Minimum frequency, relative to the loop header, with which the control splits of an unswitching " +
+                        "candidate must execute for the loop to be unswitched on them (0 accepts candidates of any frequency).", type = OptionType.Expert)//
+        public static final OptionKey<Double> LoopUnswitchMinSplitFrequency = new OptionKey<>(0.0);
 
         @Option(help = "", type = OptionType.Expert) public static final OptionKey<Integer> FullUnrollMaxNodes = new OptionKey<>(400);
         @Option(help = "", type = OptionType.Expert) public static final OptionKey<Integer> FullUnrollConstantCompareBoost = new OptionKey<>(15);
@@ -224,6 +227,14 @@ public class DefaultLoopPolicies implements LoopPolicies {
         int phis = 0;
         StructuredGraph graph = loop.loopBegin().graph();
         DebugContext debug = graph.getDebug();
+        OptionValues options = loop.loopBegin().getOptions();
+        ControlFlowGraph cfg = loop.loopsData().getCFG();
+        double splitFrequency = splitFrequency(loop, controlSplits);
+        double minSplitFrequency = Options.LoopUnswitchMinSplitFrequency.getValue(options) * cfg.blockFor(loop.loopBegin()).getRelativeFrequency();
+        if (splitFrequency < minSplitFrequency) {
+            debug.log("shouldUnswitch(%s, %s) : split frequency %.4f below %.4f -> false", loop, controlSplits, splitFrequency, minSplitFrequency);
+            return false;
+        }
         NodeBitMap branchNodes = graph.createNodeBitMap();
         for (ControlSplitNode controlSplit : controlSplits) {
             for (Node successor : controlSplit.successors()) {
@@ -231,7 +242,7 @@ public class DefaultLoopPolicies implements LoopPolicies {
                 // this may count twice because of fall-through in switches
                 loop.nodesInLoopBranch(branchNodes, branch);
             }
-            Block postDomBlock = loop.loopsData().getCFG().blockFor(controlSplit).getPostdominator();
+            Block postDomBlock = cfg.blockFor(controlSplit).getPostdominator();
             if (postDomBlock != null) {
                 IsolatedInitialization.UNSWITCH_SPLIT_WITH_PHIS.increment(debug);
                 phis += ((MergeNode) postDomBlock.getBeginNode()).phis().count();
@@ -241,7 +252,6 @@ public class DefaultLoopPolicies implements LoopPolicies {
 
         CountingClosure stateNodesCount = new CountingClosure();
         double loopFrequency = loop.loopBegin().loopFrequency();
-        OptionValues options = loop.loopBegin().getOptions();
         int maxDiff = Options.LoopUnswitchTrivial.getValue(options) + (int) (Options.LoopUnswitchFrequencyBoost.getValue(options) * (loopFrequency - 1.0 + phis));
 
         maxDiff = Math.min(maxDiff, Options.LoopUnswitchMaxIncrease.getValue(options));
@@ -265,4 +275,17 @@ public class DefaultLoopPolicies implements LoopPolicies {
             return false;
         }
     }
+
+    /**
+     * Returns the summed frequency of the blocks containing {@code controlSplits}, i.e. how often
+     * per method invocation unswitching on them saves a branch.
+     */
+    public static double splitFrequency(LoopEx loop, List<ControlSplitNode> controlSplits) {
+        ControlFlowGraph cfg = loop.loopsData().getCFG();
+        double frequency = 0.0;
+        for (ControlSplitNode controlSplit : controlSplits) {
+            frequency += cfg.blockFor(controlSplit).getRelativeFrequency();
+        }
+        return frequency;
+    }
 }
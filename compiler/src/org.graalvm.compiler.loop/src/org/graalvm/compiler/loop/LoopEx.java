@@ -24,8 +24,10 @@
  */
 package org.graalvm.compiler.loop;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 import org.graalvm.collections.EconomicMap;
@@ -52,6 +54,7 @@ import org.graalvm.compiler.nodes.FullInfopointNode;
 import org.graalvm.compiler.nodes.IfNode;
 import org.graalvm.compiler.nodes.LogicNode;
 import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
 import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.PhiNode;
 import org.graalvm.compiler.nodes.PiNode;
@@ -59,13 +62,16 @@ import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.ValuePhiNode;
 import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.AndNode;
 import org.graalvm.compiler.nodes.calc.BinaryArithmeticNode;
 import org.graalvm.compiler.nodes.calc.CompareNode;
 import org.graalvm.compiler.nodes.calc.LeftShiftNode;
 import org.graalvm.compiler.nodes.calc.MulNode;
 import org.graalvm.compiler.nodes.calc.NegateNode;
+import org.graalvm.compiler.nodes.calc.OrNode;
 import org.graalvm.compiler.nodes.calc.SignExtendNode;
 import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.XorNode;
 import org.graalvm.compiler.nodes.calc.ZeroExtendNode;
 import org.graalvm.compiler.nodes.cfg.Block;
 import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
@@ -220,6 +226,130 @@ public class LoopEx {
         return count != 0;
     }
 
+    /**
+     * Rebalances reductions into loop phis so that only one operation per iteration depends on
+     * the previous iteration. After partial unrolling, a reduction such as {@code sum += a[i]} is
+     * a chain {@code sum' = (((sum + a0) + a1) + a2) + a3} whose latency grows with the unroll
+     * factor. It is rewritten to {@code sum' = sum + ((a0 + a1) + (a2 + a3))}, which is legal for
+     * {@linkplain BinaryArithmeticNode#isAssociative() associative} and commutative operations as
+     * long as no intermediate value of the chain is used elsewhere.
+     */
+    public boolean reassociateReductions() {
+        LoopBeginNode loopBegin = loopBegin();
+        if (loopBegin.getLoopEndCount() != 1) {
+            return false;
+        }
+        LoopEndNode loopEnd = loopBegin.loopEnds().first();
+        StructuredGraph graph = loopBegin.graph();
+        int count = 0;
+        for (ValuePhiNode phi : loopBegin.valuePhis().snapshot()) {
+            ValueNode backValue = phi.valueAt(loopEnd);
+            if (!isReassociableReduction(backValue)) {
+                continue;
+            }
+            BinaryArithmeticNode<?> top = (BinaryArithmeticNode<?>) backValue;
+            List<ValueNode> operands = reductionOperands(phi, top);
+            if (operands == null || operands.size() < 2) {
+                continue;
+            }
+            ValueNode combined = combineReductionOperands(graph, top, operands, 0, operands.size());
+            ValueNode result = createReductionNode(graph, top, phi, combined);
+            DebugContext debug = graph.getDebug();
+            if (debug.isLogEnabled()) {
+                debug.log("%s : Reassociated reduction %s into %s", graph.method().format("%H::%n"), top, result);
+            }
+            top.replaceAtUsages(result);
+            GraphUtil.killWithUnusedFloatingInputs(top);
+            count++;
+        }
+        return count != 0;
+    }
+
+    private static boolean isReassociableReduction(ValueNode node) {
+        if (node instanceof AddNode || node instanceof MulNode || node instanceof AndNode || node instanceof OrNode || node instanceof XorNode) {
+            BinaryArithmeticNode<?> binary = (BinaryArithmeticNode<?>) node;
+            return binary.stamp(NodeView.DEFAULT) instanceof IntegerStamp && binary.isAssociative() && binary.getArithmeticOp().isCommutative();
+        }
+        return false;
+    }
+
+    /**
+     * Collects the operands combined with {@code phi} by the chain ending in {@code top}, in
+     * evaluation order, or returns {@code null} if the chain cannot be rebalanced. The chain
+     * continues through the input from which the phi can be reached. The other input is an
+     * operand, even if it is the same operation as the chain.
+     */
+    private static List<ValueNode> reductionOperands(ValuePhiNode phi, BinaryArithmeticNode<?> top) {
+        List<ValueNode> operands = new ArrayList<>();
+        ValueNode current = top;
+        while (current != phi) {
+            BinaryArithmeticNode<?> link = (BinaryArithmeticNode<?>) current;
+            boolean xIsChain = reachesPhi(phi, top, link.getX());
+            boolean yIsChain = reachesPhi(phi, top, link.getY());
+            if (xIsChain == yIsChain) {
+                // either no path back to the phi or an ambiguous one
+                return null;
+            }
+            operands.add(xIsChain ? link.getY() : link.getX());
+            current = xIsChain ? link.getX() : link.getY();
+        }
+        // the chain was walked from its end
+        for (int i = 0, j = operands.size() - 1; i < j; i++, j--) {
+            ValueNode tmp = operands.get(i);
+            operands.set(i, operands.get(j));
+            operands.set(j, tmp);
+        }
+        return operands;
+    }
+
+    /**
+     * Determines whether {@code phi} can be reached from {@code value} through nodes that could be
+     * links of the chain ending in {@code top}.
+     */
+    private static boolean reachesPhi(ValuePhiNode phi, BinaryArithmeticNode<?> top, ValueNode value) {
+        List<ValueNode> worklist = new ArrayList<>();
+        worklist.add(value);
+        while (!worklist.isEmpty()) {
+            ValueNode current = worklist.remove(worklist.size() - 1);
+            if (current == phi) {
+                return true;
+            }
+            if (isReductionLink(top, current)) {
+                BinaryArithmeticNode<?> link = (BinaryArithmeticNode<?>) current;
+                worklist.add(link.getX());
+                worklist.add(link.getY());
+            }
+        }
+        return false;
+    }
+
+    private static boolean isReductionLink(BinaryArithmeticNode<?> top, ValueNode value) {
+        return value.getClass() == top.getClass() && value.stamp(NodeView.DEFAULT).isCompatible(top.stamp(NodeView.DEFAULT)) && value.hasExactlyOneUsage();
+    }
+
+    private static ValueNode combineReductionOperands(StructuredGraph graph, BinaryArithmeticNode<?> template, List<ValueNode> operands, int from, int to) {
+        if (to - from == 1) {
+            return operands.get(from);
+        }
+        int middle = (from + to) >>> 1;
+        return createReductionNode(graph, template, combineReductionOperands(graph, template, operands, from, middle), combineReductionOperands(graph, template, operands, middle, to));
+    }
+
+    private static ValueNode createReductionNode(StructuredGraph graph, BinaryArithmeticNode<?> template, ValueNode x, ValueNode y) {
+        if (template instanceof AddNode) {
+            return BinaryArithmeticNode.add(graph, x, y, NodeView.DEFAULT);
+        } else if (template instanceof MulNode) {
+            return BinaryArithmeticNode.mul(graph, x, y, NodeView.DEFAULT);
+        } else if (template instanceof AndNode) {
+            return graph.addOrUniqueWithInputs(AndNode.create(x, y, NodeView.DEFAULT));
+        } else if (template instanceof OrNode) {
+            return graph.addOrUniqueWithInputs(OrNode.create(x, y, NodeView.DEFAULT));
+        } else if (template instanceof XorNode) {
+            return graph.addOrUniqueWithInputs(XorNode.create(x, y, NodeView.DEFAULT));
+        }
+        throw GraalError.shouldNotReachHere();
+    }
+
     @SuppressWarnings("fallthrough")
     public boolean detectCounted() {
         if (countedLoopChecked) {
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.microbenchmarks.graal;
+
+import java.util.HashMap;
+
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeMap;
+import org.graalvm.compiler.graph.SparseNodeMap;
+import org.graalvm.compiler.microbenchmarks.graal.util.MethodSpec;
+import org.graalvm.compiler.microbenchmarks.graal.util.NodesState;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Compares a {@link NodeMap} with a {@link SparseNodeMap} holding entries for a small fraction of
+ * the nodes of a graph. Run with {@code -prof gc} to compare the allocated bytes.
+ */
+public class NodeMapBenchmark extends GraalBenchmark {
+
+    private static final int STRIDE = 16;
+
+    @MethodSpec(declaringClass = HashMap.class, name = "putVal")
+    public static class HashMapPutVal extends NodesState {
+    }
+
+    @Benchmark
+    public NodeMap<Node> denseNodeMap(HashMapPutVal s) {
+        return fill(new NodeMap<>(s.graph), s.nodes);
+    }
+
+    @Benchmark
+    public NodeMap<Node> sparseNodeMap(HashMapPutVal s) {
+        return fill(new SparseNodeMap<>(s.graph, s.nodes.length / STRIDE), s.nodes);
+    }
+
+    private static NodeMap<Node> fill(NodeMap<Node> map, Node[] nodes) {
+        for (int i = 0; i < nodes.length; i += STRIDE) {
+            map.set(nodes[i], nodes[i]);
+        }
+        for (int i = 0; i < nodes.length; i += STRIDE) {
+            map.get(nodes[i]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.microbenchmarks.lir;
+
+import org.graalvm.compiler.lir.alloc.lsra.LinearScan;
+import org.graalvm.compiler.lir.gen.LIRGenerationResult;
+import org.graalvm.compiler.microbenchmarks.graal.GraalBenchmark;
+import org.graalvm.compiler.options.OptionValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures the register allocation time of large methods with sequential and parallel computation
+ * of the linear scan local live sets.
+ */
+public class ParallelLiveSetsBenchmark extends GraalBenchmark {
+
+    public static class State extends GraalCompilerState.AllocationStage {
+        @MethodDescString @Param({
+                        "java.util.concurrent.ConcurrentHashMap#transfer",
+                        "java.util.HashMap#putVal"
+        }) public String method;
+
+        /**
+         * Value of {@link LinearScan.Options#LSRAParallelLiveSetsMinBlocks}, {@code 0} computes the
+         * live sets sequentially.
+         */
+        @Param({"0", "1"}) public int parallelLiveSetsMinBlocks;
+
+        @Override
+        protected OptionValues getGraphOptions() {
+            return new OptionValues(super.getGraphOptions(), LinearScan.Options.LSRAParallelLiveSetsMinBlocks, parallelLiveSetsMinBlocks);
+        }
+    }
+
+    @Benchmark
+    public LIRGenerationResult allocateRegisters(State s) {
+        return s.compile();
+    }
+}
@@ -275,6 +275,12 @@ public interface GraphBuilderContext extends GraphBuilderTool {
 
     BailoutException bailout(String string);
 
+    /**
+     * Aborts graph building because of {@code cause}. Like {@link #bailout(String)}, the thrown
+     * exception records the current source position and has {@code cause} as its cause.
+     */
+    BailoutException bailout(BailoutException cause);
+
     default ValueNode nullCheckedValue(ValueNode value) {
         return nullCheckedValue(value, InvalidateReprofile);
     }
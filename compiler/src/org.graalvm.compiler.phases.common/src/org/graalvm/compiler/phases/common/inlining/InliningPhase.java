@@ -51,6 +51,10 @@ public class InliningPhase extends AbstractInliningPhase {
          */
         @Option(help = "Per-compilation method inlining exploration limit before giving up (use 0 to disable)", type = OptionType.Debug)//
         public static final OptionKey<Integer> MethodInlineBailoutLimit = new OptionKey<>(5000);
+
+        @Option(help = "Factor by which the inlining size limits grow for each argument that is allocated in the caller " +
+                        "and does not escape the callee (use 0 to disable)", type = OptionType.Expert)//
+        public static final OptionKey<Double> NonEscapingArgumentInliningBonus = new OptionKey<>(0.0);
     }
 
     private final InliningPolicy inliningPolicy;
@@ -37,8 +37,18 @@ import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.Invoke;
 import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PiNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.VirtualState;
+import org.graalvm.compiler.nodes.calc.IsNullNode;
+import org.graalvm.compiler.nodes.calc.ObjectEqualsNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.InstanceOfNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreFieldNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.common.DeadCodeEliminationPhase;
 import org.graalvm.compiler.phases.common.inlining.InliningUtil;
@@ -230,4 +240,38 @@ public class InlineableGraph implements Inlineable {
     public StructuredGraph getGraph() {
         return graph;
     }
+
+    /**
+     * Determines whether the object passed as parameter {@code index} may escape this graph, i.e.
+     * whether it may be stored to memory, passed to another call, returned, thrown or locked. Uses
+     * in frame states are not escapes since escape analysis can rematerialize the object on
+     * deoptimization.
+     */
+    public boolean parameterMayEscape(int index) {
+        ParameterNode param = graph.getParameter(index);
+        return param != null && mayEscape(param);
+    }
+
+    private static boolean mayEscape(ValueNode value) {
+        for (Node usage : value.usages()) {
+            if (usage instanceof PiNode) {
+                if (mayEscape((PiNode) usage)) {
+                    return true;
+                }
+            } else if (!isNonEscapingUsage(usage, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNonEscapingUsage(Node usage, ValueNode value) {
+        if (usage instanceof StoreFieldNode) {
+            return ((StoreFieldNode) usage).value() != value;
+        } else if (usage instanceof StoreIndexedNode) {
+            return ((StoreIndexedNode) usage).value() != value;
+        }
+        return usage instanceof VirtualState || usage instanceof LoadFieldNode || usage instanceof LoadIndexedNode || usage instanceof ArrayLengthNode || usage instanceof IsNullNode ||
+                        usage instanceof InstanceOfNode || usage instanceof ObjectEqualsNode;
+    }
 }
@@ -28,11 +28,16 @@ import static org.graalvm.compiler.phases.common.inlining.InliningPhase.Options.
 
 import java.util.Map;
 
+import org.graalvm.compiler.graph.NodeInputList;
 import org.graalvm.compiler.nodes.Invoke;
 import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.extended.BoxNode;
+import org.graalvm.compiler.nodes.java.AbstractNewObjectNode;
 import org.graalvm.compiler.nodes.spi.Replacements;
 import org.graalvm.compiler.phases.common.inlining.info.InlineInfo;
 import org.graalvm.compiler.phases.common.inlining.info.elem.Inlineable;
+import org.graalvm.compiler.phases.common.inlining.info.elem.InlineableGraph;
 
 import jdk.vm.ci.meta.ProfilingInfo;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
@@ -98,6 +103,32 @@ public abstract class AbstractInliningPolicy implements InliningPolicy {
         return size;
     }
 
+    /**
+     * Counts the arguments of the inlined invoke that are allocated in the caller and do not escape
+     * any of the callees. Inlining such a call lets escape analysis remove the allocation.
+     */
+    protected static int countNonEscapingAllocations(InlineInfo info) {
+        NodeInputList<ValueNode> arguments = info.invoke().callTarget().arguments();
+        int count = 0;
+        for (int index = 0; index < arguments.size(); index++) {
+            ValueNode argument = arguments.get(index);
+            if ((argument instanceof AbstractNewObjectNode || argument instanceof BoxNode) && !argumentMayEscape(info, index)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean argumentMayEscape(InlineInfo info, int index) {
+        for (int i = 0; i < info.numberOfMethods(); i++) {
+            Inlineable callee = info.inlineableElementAt(i);
+            if (!(callee instanceof InlineableGraph) || ((InlineableGraph) callee).parameterMayEscape(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected double determineInvokeProbability(InlineInfo info) {
         double invokeProbability = 0;
         for (int i = 0; i < info.numberOfMethods(); i++) {
@@ -31,6 +31,7 @@ import static org.graalvm.compiler.core.common.GraalOptions.MaximumInliningSize;
 import static org.graalvm.compiler.core.common.GraalOptions.SmallCompiledLowLevelGraphSize;
 import static org.graalvm.compiler.core.common.GraalOptions.TraceInlining;
 import static org.graalvm.compiler.core.common.GraalOptions.TrivialInliningSize;
+import static org.graalvm.compiler.phases.common.inlining.InliningPhase.Options.NonEscapingArgumentInliningBonus;
 
 import java.util.Map;
 
@@ -87,6 +88,10 @@ public class GreedyInliningPolicy extends AbstractInliningPolicy {
         }
 
         double inliningBonus = getInliningBonus(info);
+        double allocationBonus = NonEscapingArgumentInliningBonus.getValue(options);
+        if (allocationBonus > 0) {
+            inliningBonus *= 1 + allocationBonus * countNonEscapingAllocations(info);
+        }
         int nodes = info.determineNodeCount();
         int lowLevelGraphSize = previousLowLevelGraphSize(info);
 
@@ -1002,7 +1002,12 @@ public final class SchedulePhase extends Phase {
                     blocksWithGuards.add(block);
                 }
                 assert !blocksWithGuards.isEmpty();
-                NodeMap<GuardPriority> priorities = graph.createNodeMap();
+                // priorities are only computed for nodes of micro-blocks containing guards
+                int nodesInBlocksWithGuards = 0;
+                for (MicroBlock block : blocksWithGuards) {
+                    nodesInBlocksWithGuards += block.getNodeCount();
+                }
+                NodeMap<GuardPriority> priorities = graph.createNodeMap(nodesInBlocksWithGuards);
                 NodeBitMap blockNodes = graph.createNodeBitMap();
                 for (MicroBlock block : blocksWithGuards) {
                     MicroBlock newBlock = resortGuards(block, stack, blockNodes, priorities);
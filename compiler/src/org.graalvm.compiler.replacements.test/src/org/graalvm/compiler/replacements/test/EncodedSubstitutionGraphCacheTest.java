@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import static org.graalvm.compiler.core.common.GraalOptions.UseEncodedGraphs;
+
+import org.graalvm.compiler.api.directives.GraalDirectives;
+import org.graalvm.compiler.api.replacements.ClassSubstitution;
+import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.replacements.classfile.ClassfileBytecodeProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests that method substitution graphs inlined after parsing are decoded once and shared as frozen
+ * graphs, including when they come from encoded graphs.
+ */
+public class EncodedSubstitutionGraphCacheTest extends ReplacementsTest {
+
+    private static class TestMethod {
+
+        public static int test(int i) {
+            return i;
+        }
+    }
+
+    @ClassSubstitution(TestMethod.class)
+    public static class TestMethodSubstitution {
+
+        @MethodSubstitution
+        public static int test(int i) {
+            GraalDirectives.blackhole(i);
+            return i;
+        }
+    }
+
+    @Override
+    protected void registerInvocationPlugins(InvocationPlugins invocationPlugins) {
+        ClassfileBytecodeProvider bytecodeProvider = getSystemClassLoaderBytecodeProvider();
+        InvocationPlugins.Registration r = new InvocationPlugins.Registration(invocationPlugins, TestMethod.class, getReplacements(), bytecodeProvider);
+        r.registerMethodSubstitution(TestMethodSubstitution.class, "test", int.class);
+        super.registerInvocationPlugins(invocationPlugins);
+    }
+
+    public static int snippet(int i) {
+        return TestMethod.test(i) + 1;
+    }
+
+    private StructuredGraph getSubstitution(OptionValues options, AllowAssumptions allowAssumptions) {
+        return getSubstitution(options, allowAssumptions, false);
+    }
+
+    private StructuredGraph getSubstitution(OptionValues options, AllowAssumptions allowAssumptions, boolean trackNodeSourcePosition) {
+        ResolvedJavaMethod method = getResolvedJavaMethod(TestMethod.class, "test");
+        return getReplacements().getSubstitution(method, 0, trackNodeSourcePosition, null, allowAssumptions, options);
+    }
+
+    @Test
+    public void testSharedSubstitutionGraph() {
+        OptionValues options = new OptionValues(getInitialOptions(), UseEncodedGraphs, true);
+        StructuredGraph first = getSubstitution(options, AllowAssumptions.YES);
+        Assert.assertNotNull(first);
+        Assert.assertTrue(first.isFrozen());
+        Assert.assertSame(first, getSubstitution(options, AllowAssumptions.YES));
+
+        // Compiling code that inlines the shared graph must leave it untouched.
+        int nodeCount = first.getNodeCount();
+        test(options, "snippet", 41);
+        Assert.assertEquals(nodeCount, first.getNodeCount());
+        Assert.assertTrue(first.isFrozen());
+    }
+
+    @Test
+    public void testAllowAssumptionsRespected() {
+        OptionValues options = new OptionValues(getInitialOptions(), UseEncodedGraphs, true);
+        Assert.assertEquals(AllowAssumptions.YES, getSubstitution(options, AllowAssumptions.YES).allowAssumptions());
+        Assert.assertEquals(AllowAssumptions.NO, getSubstitution(options, AllowAssumptions.NO).allowAssumptions());
+    }
+
+    @Test
+    public void testAlternatingAllowAssumptionsCached() {
+        OptionValues options = new OptionValues(getInitialOptions(), UseEncodedGraphs, true);
+        StructuredGraph withAssumptions = getSubstitution(options, AllowAssumptions.YES);
+        StructuredGraph withoutAssumptions = getSubstitution(options, AllowAssumptions.NO);
+        // Requests with alternating values must not evict each other's graphs.
+        Assert.assertSame(withAssumptions, getSubstitution(options, AllowAssumptions.YES));
+        Assert.assertSame(withoutAssumptions, getSubstitution(options, AllowAssumptions.NO));
+    }
+
+    @Test
+    public void testTrackNodeSourcePositionRespected() {
+        OptionValues options = new OptionValues(getInitialOptions(), UseEncodedGraphs, true);
+        for (boolean track : new boolean[]{false, true}) {
+            StructuredGraph graph = getSubstitution(options, AllowAssumptions.YES, track);
+            StructuredGraph again = getSubstitution(options, AllowAssumptions.YES, track);
+            if (graph.trackNodeSourcePosition() == track) {
+                Assert.assertSame(graph, again);
+            } else {
+                // a graph that does not match the request is never shared
+                Assert.assertNotSame(graph, again);
+            }
+        }
+        // requests with and without node source positions never share a graph
+        Assert.assertNotSame(getSubstitution(options, AllowAssumptions.YES, false), getSubstitution(options, AllowAssumptions.YES, true));
+    }
+}
@@ -326,6 +326,11 @@ public class IntrinsicGraphBuilder implements GraphBuilderContext, Receiver {
         throw GraalError.shouldNotReachHere();
     }
 
+    @Override
+    public BailoutException bailout(BailoutException cause) {
+        throw GraalError.shouldNotReachHere();
+    }
+
     @Override
     public ValueNode get(boolean performNullCheck) {
         return arguments[0];
@@ -342,8 +342,12 @@ public abstract class PEGraphDecoder extends SimplifyingGraphDecoder {
 
         @Override
         public BailoutException bailout(String string) {
-            BailoutException bailout = new PermanentBailoutException(string);
-            throw GraphUtil.createBailoutException(string, bailout, methodScope.getCallStack());
+            throw bailout(new PermanentBailoutException(string));
+        }
+
+        @Override
+        public BailoutException bailout(BailoutException cause) {
+            throw GraphUtil.createBailoutException(cause.getMessage(), cause, methodScope.getCallStack());
         }
 
         @Override
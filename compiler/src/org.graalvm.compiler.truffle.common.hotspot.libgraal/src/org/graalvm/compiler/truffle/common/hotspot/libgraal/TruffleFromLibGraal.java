@@ -61,6 +61,7 @@ public @interface TruffleFromLibGraal {
         AsJavaConstant(long.class, Object.class),
         CallNodeHashCode(int.class, Object.class),
         CancelCompilation(boolean.class, Object.class, String.class),
+        ClearDecisions(void.class, Object.class),
         CompilableToString(String.class, Object.class),
         ConsumeOptimizedAssumptionDependency(void.class, Consumer.class, Object.class),
         CountCalls(int.class, Object.class),
@@ -98,6 +99,7 @@ public @interface TruffleFromLibGraal {
         GetTruffleCallBoundaryMethods(long[].class, Object.class),
         GetURI(String.class, Object.class),
         IsCancelled(boolean.class, Object.class),
+        IsCompiled(boolean.class, Object.class),
         IsInliningForced(boolean.class, Object.class),
         IsLastTier(boolean.class, Object.class),
         IsSameOrSplit(boolean.class, Object.class, Object.class),
@@ -109,6 +111,7 @@ public @interface TruffleFromLibGraal {
         OnCompilationFailed(void.class, Object.class, Supplier.class, boolean.class, boolean.class),
         OnFailure(void.class, Object.class, Object.class, String.class, boolean.class, boolean.class),
         OnGraalTierFinished(void.class, Object.class, Object.class, long.class),
+        OnPartialEvaluationBudgetExceeded(void.class, Object.class, Object.class, int.class, boolean.class),
         OnSuccess(void.class, Object.class, Object.class, Object.class, long.class, long.class),
         OnTruffleTierFinished(void.class, Object.class, Object.class, Object.class, long.class),
         RegisterOptimizedAssumptionDependency(Consumer.class, Object.class, long.class),
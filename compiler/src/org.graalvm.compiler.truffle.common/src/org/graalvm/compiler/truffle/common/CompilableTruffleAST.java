@@ -74,6 +74,13 @@ public interface CompilableTruffleAST {
     default void invalidateCode() {
     }
 
+    /**
+     * Returns {@code true} if this AST currently has valid machine code installed.
+     */
+    default boolean isCompiled() {
+        return false;
+    }
+
     /**
      * Returns the estimate of the Truffle node count in this AST.
      */
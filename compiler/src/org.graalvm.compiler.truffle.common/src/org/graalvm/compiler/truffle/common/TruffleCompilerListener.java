@@ -115,6 +115,17 @@ public interface TruffleCompilerListener {
      */
     void onTruffleTierFinished(CompilableTruffleAST compilable, TruffleInliningPlan inliningPlan, GraphInfo graph);
 
+    /**
+     * Notifies this object when partial evaluation of {@code compilable} was aborted because the
+     * graph exceeded the maximum number of nodes.
+     *
+     * @param compilable the call target being compiled
+     * @param nodeCount the number of nodes in the graph when partial evaluation was aborted
+     * @param retry specifies whether partial evaluation is retried without inlining. If
+     *            {@code false}, the compilation fails with a permanent bailout.
+     */
+    void onPartialEvaluationBudgetExceeded(CompilableTruffleAST compilable, int nodeCount, boolean retry);
+
     /**
      * Notifies this object when compilation of {@code compilable} succeeds.
      *
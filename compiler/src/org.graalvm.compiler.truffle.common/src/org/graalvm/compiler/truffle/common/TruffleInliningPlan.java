@@ -41,6 +41,13 @@ public interface TruffleInliningPlan extends TruffleMetaAccessProvider {
      */
     Decision findDecision(JavaConstant callNode);
 
+    /**
+     * Discards all inlining decisions of this plan. Called when the compiler abandons the plan,
+     * e.g. to retry partial evaluation without inlining, so that the callees of the discarded
+     * decisions are neither dequeued nor reported as inlined.
+     */
+    void clearDecisions();
+
     /**
      * Decision of whether a called Truffle AST should be inlined. If {@link #shouldInline()}
      * returns {@code true}, this object is also an inlining plan for the calls in the to-be-inlined
@@ -28,10 +28,12 @@ import org.graalvm.libgraal.jni.HSObject;
 import java.io.Closeable;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnFailure;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnGraalTierFinished;
+import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnPartialEvaluationBudgetExceeded;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnSuccess;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnTruffleTierFinished;
 import static org.graalvm.compiler.truffle.compiler.hotspot.libgraal.HSTruffleCompilerListenerGen.callOnFailure;
 import static org.graalvm.compiler.truffle.compiler.hotspot.libgraal.HSTruffleCompilerListenerGen.callOnGraalTierFinished;
+import static org.graalvm.compiler.truffle.compiler.hotspot.libgraal.HSTruffleCompilerListenerGen.callOnPartialEvaluationBudgetExceeded;
 import static org.graalvm.compiler.truffle.compiler.hotspot.libgraal.HSTruffleCompilerListenerGen.callOnSuccess;
 import static org.graalvm.compiler.truffle.compiler.hotspot.libgraal.HSTruffleCompilerListenerGen.callOnTruffleTierFinished;
 import static org.graalvm.libgraal.jni.JNIUtil.createHSString;
@@ -79,6 +81,14 @@ final class HSTruffleCompilerListener extends HSObject implements TruffleCompile
 
     }
 
+    @TruffleFromLibGraal(OnPartialEvaluationBudgetExceeded)
+    @Override
+    public void onPartialEvaluationBudgetExceeded(CompilableTruffleAST compilable, int nodeCount, boolean retry) {
+        JObject hsCompilable = ((HSCompilableTruffleAST) compilable).getHandle();
+        JNIEnv env = JNILibGraalScope.env();
+        callOnPartialEvaluationBudgetExceeded(env, getHandle(), hsCompilable, nodeCount, retry);
+    }
+
     @TruffleFromLibGraal(OnGraalTierFinished)
     @Override
     public void onGraalTierFinished(CompilableTruffleAST compilable, GraphInfo graph) {
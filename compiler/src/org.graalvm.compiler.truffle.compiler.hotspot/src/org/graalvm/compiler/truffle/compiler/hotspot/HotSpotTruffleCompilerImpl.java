@@ -98,7 +98,9 @@ import jdk.vm.ci.hotspot.HotSpotCompilationRequest;
 import jdk.vm.ci.hotspot.HotSpotJVMCIRuntime;
 import jdk.vm.ci.hotspot.HotSpotNmethod;
 import jdk.vm.ci.hotspot.HotSpotResolvedJavaMethod;
+import jdk.vm.ci.meta.Assumptions.AssumptionResult;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaType;
 import jdk.vm.ci.runtime.JVMCI;
 import jdk.vm.ci.runtime.JVMCICompiler;
 
@@ -397,9 +399,10 @@ public final class HotSpotTruffleCompilerImpl extends TruffleCompilerImpl implem
                     /*
                      * At this point, the cache containing invalid graphs may be already
                      * purged/dropped, but there's no way to know in which cache the invalid method
-                     * is/was present, so all encoded graphs, including the root and all inlined
-                     * methods must be evicted. These bailouts (invalid dependencies) are very rare,
-                     * the over-evicting impact is negligible.
+                     * is/was present. The root is always evicted, inlined methods are evicted only
+                     * if one of their assumptions no longer holds. Graphs of inlined methods whose
+                     * assumptions are still valid are reused by the re-compilation, which then only
+                     * re-parses the methods affected by the invalidation.
                      */
                     if (!graphCache.isEmpty()) {
                         debug.log(DebugContext.VERBOSE_LEVEL, "Evict root %s", graph.method());
@@ -413,7 +416,7 @@ public final class HotSpotTruffleCompilerImpl extends TruffleCompilerImpl implem
                             }
 
                             Assumptions assumptions = encodedGraph.getAssumptions();
-                            if (assumptions != null && !assumptions.isEmpty()) {
+                            if (assumptions != null && !assumptions.isEmpty() && !assumptionsStillHold(assumptions)) {
                                 debug.log(DebugContext.VERBOSE_LEVEL, "\tEvict inlined %s", method);
                                 graphCache.removeKey(method);
                             }
@@ -423,4 +426,35 @@ public final class HotSpotTruffleCompilerImpl extends TruffleCompilerImpl implem
             }
         }
     }
+
+    /**
+     * Re-evaluates {@code assumptions} against the current class hierarchy. Assumptions that cannot
+     * be re-evaluated are conservatively treated as invalid.
+     */
+    static boolean assumptionsStillHold(Assumptions assumptions) {
+        for (Assumptions.Assumption assumption : assumptions) {
+            if (assumption instanceof Assumptions.LeafType) {
+                ResolvedJavaType context = ((Assumptions.LeafType) assumption).context;
+                AssumptionResult<ResolvedJavaType> leaf = context.findLeafConcreteSubtype();
+                if (leaf == null || !context.equals(leaf.getResult())) {
+                    return false;
+                }
+            } else if (assumption instanceof Assumptions.ConcreteSubtype) {
+                Assumptions.ConcreteSubtype concreteSubtype = (Assumptions.ConcreteSubtype) assumption;
+                AssumptionResult<ResolvedJavaType> leaf = concreteSubtype.context.findLeafConcreteSubtype();
+                if (leaf == null || !concreteSubtype.subtype.equals(leaf.getResult())) {
+                    return false;
+                }
+            } else if (assumption instanceof Assumptions.ConcreteMethod) {
+                Assumptions.ConcreteMethod concreteMethod = (Assumptions.ConcreteMethod) assumption;
+                AssumptionResult<ResolvedJavaMethod> unique = concreteMethod.context.findUniqueConcreteMethod(concreteMethod.method);
+                if (unique == null || !concreteMethod.impl.equals(unique.getResult())) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
 }
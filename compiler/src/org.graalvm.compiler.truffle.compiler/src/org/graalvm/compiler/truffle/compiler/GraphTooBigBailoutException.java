@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.compiler;
+
+import org.graalvm.compiler.core.common.PermanentBailoutException;
+
+/**
+ * Thrown when partial evaluation produces a graph with more nodes than allowed by
+ * {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#MaximumGraalNodeCount}.
+ */
+public final class GraphTooBigBailoutException extends PermanentBailoutException {
+
+    private static final long serialVersionUID = -3283487221436536208L;
+
+    private final int nodeCount;
+
+    GraphTooBigBailoutException(int nodeCount, int nodeLimit) {
+        super("Graph too big to safely compile. Node count: " + nodeCount + ". Limit: " + nodeLimit);
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Gets the number of nodes in the graph when partial evaluation was aborted.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the {@link GraphTooBigBailoutException} in the cause chain of {@code t} or
+     * {@code null} if there is none.
+     */
+    public static GraphTooBigBailoutException find(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof GraphTooBigBailoutException) {
+                return (GraphTooBigBailoutException) cause;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+}
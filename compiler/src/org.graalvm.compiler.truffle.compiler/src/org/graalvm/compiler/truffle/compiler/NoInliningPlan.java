@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.compiler;
+
+import org.graalvm.compiler.truffle.common.CompilableTruffleAST;
+import org.graalvm.compiler.truffle.common.TruffleCallNode;
+import org.graalvm.compiler.truffle.common.TruffleInliningPlan;
+import org.graalvm.compiler.truffle.common.TruffleSourceLanguagePosition;
+
+import jdk.vm.ci.meta.JavaConstant;
+
+/**
+ * An inlining plan that declines to inline any call of the {@linkplain #delegate plan} it wraps.
+ * Used to retry partial evaluation of a graph that exceeded the node budget with the smallest
+ * possible inlining scope.
+ */
+class NoInliningPlan implements TruffleInliningPlan {
+
+    private final TruffleInliningPlan delegate;
+
+    NoInliningPlan(TruffleInliningPlan delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Decision findDecision(JavaConstant callNode) {
+        Decision decision = delegate.findDecision(callNode);
+        return decision == null ? null : new NotInlined(decision);
+    }
+
+    @Override
+    public void clearDecisions() {
+        delegate.clearDecisions();
+    }
+
+    @Override
+    public TruffleCallNode findCallNode(JavaConstant callNode) {
+        return delegate.findCallNode(callNode);
+    }
+
+    @Override
+    public TruffleSourceLanguagePosition getPosition(JavaConstant node) {
+        return delegate.getPosition(node);
+    }
+
+    @Override
+    public void addTargetToDequeue(CompilableTruffleAST target) {
+        delegate.addTargetToDequeue(target);
+    }
+
+    @Override
+    public void dequeueTargets() {
+        delegate.dequeueTargets();
+    }
+
+    @Override
+    public void setCallCount(int count) {
+        delegate.setCallCount(count);
+    }
+
+    @Override
+    public int countCalls() {
+        return delegate.countCalls();
+    }
+
+    @Override
+    public void setInlinedCallCount(int count) {
+        delegate.setInlinedCallCount(count);
+    }
+
+    @Override
+    public int countInlinedCalls() {
+        return 0;
+    }
+
+    private static final class NotInlined extends NoInliningPlan implements Decision {
+
+        private final Decision decision;
+
+        NotInlined(Decision decision) {
+            super(decision);
+            this.decision = decision;
+        }
+
+        @Override
+        public boolean shouldInline() {
+            return false;
+        }
+
+        @Override
+        public boolean isTargetStable() {
+            return decision.isTargetStable();
+        }
+
+        @Override
+        public String getTargetName() {
+            return decision.getTargetName();
+        }
+
+        @Override
+        public JavaConstant getNodeRewritingAssumption() {
+            return decision.getNodeRewritingAssumption();
+        }
+    }
+}
@@ -673,7 +673,7 @@ public abstract class PartialEvaluator {
         public InlineInfo shouldInlineInvoke(GraphBuilderContext b, ResolvedJavaMethod method, ValueNode[] args) {
             final StructuredGraph graph = b.getGraph();
             if (graph.getNodeCount() > nodeLimit) {
-                throw b.bailout("Graph too big to safely compile. Node count: " + graph.getNodeCount() + ". Limit: " + nodeLimit);
+                throw b.bailout(new GraphTooBigBailoutException(graph.getNodeCount(), nodeLimit));
             }
             // Continue onto other plugins.
             return null;
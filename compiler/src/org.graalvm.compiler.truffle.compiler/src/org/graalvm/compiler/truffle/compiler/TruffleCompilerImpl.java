@@ -35,6 +35,7 @@ import static org.graalvm.compiler.phases.OptimisticOptimizations.Optimization.U
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationFailureAction;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.ExcludeAssertions;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.FirstTierUseEconomy;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.RetryWithoutInliningOnGraphTooBig;
 
 import java.io.PrintStream;
 import java.nio.BufferOverflowException;
@@ -452,7 +453,39 @@ public abstract class TruffleCompilerImpl implements TruffleCompilerBase {
             try (DebugCloseable a = PartialEvaluationTime.start(debug); DebugCloseable c = PartialEvaluationMemUse.start(debug)) {
                 PartialEvaluator.Request request = partialEvaluator.new Request(options, debug, compilable, partialEvaluator.rootForCallTarget(compilable), inliningPlan,
                                 compilationId, speculationLog, task);
-                graph = partialEvaluator.evaluate(request);
+                try {
+                    graph = partialEvaluator.evaluate(request);
+                } catch (BailoutException bailout) {
+                    GraphTooBigBailoutException graphTooBig = GraphTooBigBailoutException.find(bailout);
+                    if (graphTooBig == null) {
+                        throw bailout;
+                    }
+                    boolean retry = TruffleCompilerOptions.getPolyglotOptionValue(options, RetryWithoutInliningOnGraphTooBig) && !request.useLanguageAgnosticInlining() &&
+                                    inliningPlan.countInlinedCalls() > 0;
+                    if (listener != null) {
+                        listener.onPartialEvaluationBudgetExceeded(compilable, graphTooBig.getNodeCount(), retry);
+                    }
+                    if (!retry) {
+                        throw bailout;
+                    }
+                    /*
+                     * Retry with the smallest inlining scope rather than failing the compilation.
+                     * The decisions of the plan are cleared, so the runtime neither dequeues nor
+                     * reports the callees of the discarded inlining decisions.
+                     */
+                    inliningPlan.clearDecisions();
+                    request = partialEvaluator.new Request(options, debug, compilable, partialEvaluator.rootForCallTarget(compilable), new NoInliningPlan(inliningPlan),
+                                    compilationId, speculationLog, task);
+                    try {
+                        graph = partialEvaluator.evaluate(request);
+                    } catch (BailoutException retryBailout) {
+                        GraphTooBigBailoutException retryGraphTooBig = GraphTooBigBailoutException.find(retryBailout);
+                        if (retryGraphTooBig != null && listener != null) {
+                            listener.onPartialEvaluationBudgetExceeded(compilable, retryGraphTooBig.getNodeCount(), false);
+                        }
+                        throw retryBailout;
+                    }
+                }
             }
 
             // Check if the task has been cancelled
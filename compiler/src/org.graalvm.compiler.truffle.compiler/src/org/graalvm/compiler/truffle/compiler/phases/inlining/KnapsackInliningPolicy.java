@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.compiler.phases.inlining;
+
+import static org.graalvm.compiler.truffle.compiler.TruffleCompilerOptions.getPolyglotOptionValue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.graalvm.compiler.truffle.options.PolyglotCompilerOptions;
+import org.graalvm.options.OptionValues;
+
+/**
+ * An inlining policy that treats inlining as a global optimization problem over the expanded call
+ * tree. After expansion every expanded call node is an item whose weight is the size of its
+ * partially evaluated graph and whose value is its root relative call frequency, boosted for
+ * callees that are not compiled on their own. Since a node can only be inlined if its parent is,
+ * the selection is a tree knapsack which is solved by dynamic programming over the preorder of the
+ * expanded nodes, with the remaining inlining budget quantized into a bounded number of buckets.
+ */
+final class KnapsackInliningPolicy implements InliningPolicy {
+
+    private static final int MAX_DEPTH = 15;
+    private static final int MAX_BUCKETS = 1024;
+    private static final int MAX_TABLE_SIZE = 1 << 22;
+    private static final double UNCOMPILED_CALLEE_FACTOR = 2.0;
+    private static final double FORCED_VALUE = 1e9;
+    private static final Comparator<CallNode> CALL_NODE_COMPARATOR = (o1, o2) -> Double.compare(o2.getRootRelativeFrequency(), o1.getRootRelativeFrequency());
+    private final OptionValues options;
+    private int expandedCount;
+
+    KnapsackInliningPolicy(OptionValues options) {
+        this.options = options;
+    }
+
+    @Override
+    public void run(CallTree tree) {
+        expand(tree);
+        List<CallNode> items = new ArrayList<>();
+        collectItems(tree.getRoot(), items);
+        if (!items.isEmpty()) {
+            select(tree, items);
+            inline(items);
+        }
+    }
+
+    private void expand(CallTree tree) {
+        final int expansionBudget = getPolyglotOptionValue(options, PolyglotCompilerOptions.InliningExpansionBudget);
+        final int maximumRecursiveInliningValue = getPolyglotOptionValue(options, PolyglotCompilerOptions.InliningRecursionDepth);
+        expandedCount = tree.getRoot().getIR().getNodeCount();
+        final PriorityQueue<CallNode> expandQueue = new PriorityQueue<>(CALL_NODE_COMPARATOR);
+        addChildren(tree.getRoot(), expandQueue, CallNode.State.Cutoff);
+        CallNode candidate;
+        while ((candidate = expandQueue.poll()) != null && expandedCount < expansionBudget) {
+            if (candidate.getRecursionDepth() <= maximumRecursiveInliningValue && candidate.getDepth() <= MAX_DEPTH) {
+                candidate.expand();
+                if (candidate.getState() == CallNode.State.Expanded) {
+                    expandedCount += candidate.getIR().getNodeCount();
+                    addChildren(candidate, expandQueue, CallNode.State.Cutoff);
+                }
+            }
+        }
+    }
+
+    private static void addChildren(CallNode node, PriorityQueue<CallNode> queue, CallNode.State state) {
+        for (CallNode child : node.getChildren()) {
+            if (child.getState() == state) {
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Collects the expanded nodes reachable from the root through expanded nodes in preorder and
+     * records for each of them the index one past the end of its subtree.
+     */
+    private static void collectItems(CallNode node, List<CallNode> items) {
+        for (CallNode child : node.getChildren()) {
+            if (child.getState() == CallNode.State.Expanded) {
+                items.add(child);
+                collectItems(child, items);
+                data(child).subtreeEnd = items.size();
+            }
+        }
+    }
+
+    private void select(CallTree tree, List<CallNode> items) {
+        final int inliningBudget = getPolyglotOptionValue(options, PolyglotCompilerOptions.InliningInliningBudget);
+        final int capacity = inliningBudget - tree.getRoot().getIR().getNodeCount();
+        if (capacity <= 0) {
+            return;
+        }
+        final int n = items.size();
+        final int buckets = Math.max(1, Math.min(Math.min(MAX_BUCKETS, capacity), MAX_TABLE_SIZE / (n + 1) - 1));
+        for (CallNode item : items) {
+            Data data = data(item);
+            data.weight = item.getIR().getNodeCount();
+            data.value = value(item);
+            data.buckets = (int) Math.min(buckets + 1L, ((long) data.weight * buckets + capacity - 1) / capacity);
+        }
+        // best[i][w]: best value achievable from items i..n-1 with w buckets, where skipping an
+        // item also skips its whole subtree.
+        final double[][] best = new double[n + 1][buckets + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            Data data = data(items.get(i));
+            double[] skip = best[data.subtreeEnd];
+            double[] take = best[i + 1];
+            double[] row = best[i];
+            for (int w = 0; w <= buckets; w++) {
+                row[w] = skip[w];
+                if (data.buckets <= w) {
+                    row[w] = Math.max(row[w], data.value + take[w - data.buckets]);
+                }
+            }
+        }
+        int i = 0;
+        int w = buckets;
+        while (i < n) {
+            Data data = data(items.get(i));
+            if (best[i][w] == best[data.subtreeEnd][w]) {
+                i = data.subtreeEnd;
+            } else {
+                data.selected = true;
+                w -= data.buckets;
+                i++;
+            }
+        }
+    }
+
+    private static double value(CallNode node) {
+        if (node.isForced()) {
+            return FORCED_VALUE;
+        }
+        double value = node.getRootRelativeFrequency();
+        if (!node.getTruffleAST().isCompiled()) {
+            value *= UNCOMPILED_CALLEE_FACTOR;
+        }
+        return value;
+    }
+
+    private static void inline(List<CallNode> items) {
+        for (CallNode item : items) {
+            if (data(item).selected && item.getState() == CallNode.State.Expanded && item.getParent().getState() == CallNode.State.Inlined) {
+                item.inline();
+            }
+        }
+    }
+
+    private static Data data(CallNode node) {
+        return (Data) node.getPolicyData();
+    }
+
+    @Override
+    public Object newCallNodeData(CallNode callNode) {
+        return new Data();
+    }
+
+    @Override
+    public void putProperties(CallNode callNode, Map<Object, Object> properties) {
+        Data data = data(callNode);
+        properties.put("knapsack value", data.value);
+        properties.put("knapsack weight", data.weight);
+        properties.put("knapsack selected", data.selected);
+    }
+
+    private static final class Data {
+        int subtreeEnd;
+        int weight;
+        int buckets;
+        double value;
+        boolean selected;
+    }
+}
@@ -31,6 +31,7 @@ import jdk.jfr.DataAmount;
 import jdk.jfr.Label;
 import jdk.jfr.MemoryAddress;
 import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
 import jdk.jfr.Unsigned;
 import org.graalvm.compiler.truffle.jfr.CompilationEvent;
 
@@ -54,6 +55,12 @@ class CompilationEventImpl extends RootFunctionEventImpl implements CompilationE
 
     @Label("Truffle Nodes") @Description("Truffle Node Count") @Unsigned public int peNodeCount;
 
+    @Label("Tier") @Description("Compilation Tier") @Unsigned public int tier;
+
+    @Label("Queue Time") @Description("Time Spent in the Compilation Queue") @Timespan(Timespan.NANOSECONDS) public long queueTime;
+
+    @Label("Inlined Callees") @Description("Names of the Inlined Call Targets") public String inlinedCallees;
+
     private transient CompilationFailureEventImpl failure;
 
     @Override
@@ -104,6 +111,21 @@ class CompilationEventImpl extends RootFunctionEventImpl implements CompilationE
         this.peNodeCount = count;
     }
 
+    @Override
+    public void setTier(int compilationTier) {
+        this.tier = compilationTier;
+    }
+
+    @Override
+    public void setQueueTime(long nanos) {
+        this.queueTime = nanos;
+    }
+
+    @Override
+    public void setInlinedCallees(CharSequence callees) {
+        this.inlinedCallees = callees == null ? null : callees.toString();
+    }
+
     @Override
     public void publish() {
         super.publish();
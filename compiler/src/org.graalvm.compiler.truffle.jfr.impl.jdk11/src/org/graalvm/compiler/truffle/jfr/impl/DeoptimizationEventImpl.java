@@ -36,4 +36,10 @@ import org.graalvm.compiler.truffle.jfr.DeoptimizationEvent;
 @StackTrace(false)
 class DeoptimizationEventImpl extends RootFunctionEventImpl implements DeoptimizationEvent {
 
+    @Label("Code Invalidated") @Description("Whether the compiled code was invalidated") public boolean codeInvalidated;
+
+    @Override
+    public void setCodeInvalidated(boolean invalidated) {
+        this.codeInvalidated = invalidated;
+    }
 }
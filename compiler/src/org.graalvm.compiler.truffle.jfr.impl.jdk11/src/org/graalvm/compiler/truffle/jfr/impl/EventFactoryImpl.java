@@ -30,6 +30,7 @@ import jdk.jfr.FlightRecorder;
 import org.graalvm.compiler.truffle.jfr.Event;
 import org.graalvm.compiler.truffle.jfr.EventFactory;
 import org.graalvm.compiler.truffle.jfr.CompilationEvent;
+import org.graalvm.compiler.truffle.jfr.CompilationQueueEvent;
 import org.graalvm.compiler.truffle.jfr.CompilationStatisticsEvent;
 import org.graalvm.compiler.truffle.jfr.DeoptimizationEvent;
 import org.graalvm.compiler.truffle.jfr.InvalidationEvent;
@@ -42,6 +43,7 @@ final class EventFactoryImpl implements EventFactory {
         register(DeoptimizationEventImpl.class);
         register(InvalidationEventImpl.class);
         register(CompilationStatisticsEventImpl.class);
+        register(CompilationQueueEventImpl.class);
     }
 
     @Override
@@ -64,6 +66,11 @@ final class EventFactoryImpl implements EventFactory {
         return new CompilationStatisticsEventImpl();
     }
 
+    @Override
+    public CompilationQueueEvent createCompilationQueueEvent() {
+        return new CompilationQueueEventImpl();
+    }
+
     @Override
     public void addPeriodicEvent(Class<? extends Event> event, Runnable producer) {
         Class<? extends jdk.jfr.Event> implClass = spiToImpl.get(event);
@@ -28,6 +28,7 @@ import jdk.jfr.Event;
 import jdk.jfr.Label;
 import jdk.jfr.Description;
 import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.nodes.LanguageInfo;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.api.nodes.RootNode;
 import org.graalvm.compiler.truffle.jfr.RootFunctionEvent;
@@ -36,6 +37,9 @@ abstract class RootFunctionEventImpl extends Event implements RootFunctionEvent
 
     @Label("Source") @Description("Compiled Source") public String source;
     @Label("Root Function") @Description("Root Function") public String rootFunction;
+    @Label("Language") @Description("Guest Language") public String language;
+    @Label("Source Start Line") @Description("First Line of the Root Function Source Section") public int sourceStartLine;
+    @Label("Source End Line") @Description("Last Line of the Root Function Source Section") public int sourceEndLine;
 
     RootFunctionEventImpl() {
     }
@@ -50,6 +54,13 @@ abstract class RootFunctionEventImpl extends Event implements RootFunctionEvent
         RootNode rootNode = target.getRootNode();
         this.source = targetName(rootNode);
         this.rootFunction = rootNode.getName();
+        LanguageInfo languageInfo = rootNode.getLanguageInfo();
+        this.language = languageInfo == null ? null : languageInfo.getId();
+        SourceSection sourceSection = rootNode.getSourceSection();
+        if (sourceSection != null && sourceSection.isAvailable()) {
+            this.sourceStartLine = sourceSection.getStartLine();
+            this.sourceEndLine = sourceSection.getEndLine();
+        }
     }
 
     @Override
@@ -46,4 +46,10 @@ public interface CompilationEvent extends RootFunctionEvent {
     void setGraalNodeCount(int count);
 
     void setPartialEvaluationNodeCount(int count);
+
+    void setTier(int tier);
+
+    void setQueueTime(long nanos);
+
+    void setInlinedCallees(CharSequence callees);
 }
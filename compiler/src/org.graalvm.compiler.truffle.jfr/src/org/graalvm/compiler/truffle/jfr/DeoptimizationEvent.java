@@ -25,4 +25,10 @@
 package org.graalvm.compiler.truffle.jfr;
 
 public interface DeoptimizationEvent extends RootFunctionEvent {
+
+    /**
+     * Sets whether the compiled code was invalidated by the deoptimization. The VM-level reason of
+     * the deoptimization is not known to the Truffle runtime.
+     */
+    void setCodeInvalidated(boolean invalidated);
 }
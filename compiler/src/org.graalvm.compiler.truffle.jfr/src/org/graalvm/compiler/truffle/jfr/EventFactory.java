@@ -34,6 +34,8 @@ public interface EventFactory {
 
     CompilationStatisticsEvent createCompilationStatisticsEvent();
 
+    CompilationQueueEvent createCompilationQueueEvent();
+
     void addPeriodicEvent(Class<? extends Event> event, Runnable producer);
 
     void removePeriodicEvent(Class<? extends Event> event, Runnable producer);
@@ -224,6 +224,11 @@ public final class PolyglotCompilerOptions {
             category = OptionCategory.EXPERT)
     public static final OptionKey<Long> CompilerIdleDelay = new OptionKey<>(1000L);
 
+    @Option(help = "Schedule compilations by weight instead of by tier and submission order. The weight of a request grows with the call and loop rate of its target and " +
+            "with the time it waits in the queue, and is shared between the requests of an engine.",
+            category = OptionCategory.EXPERT)
+    public static final OptionKey<Boolean> TraversingCompilationQueue = new OptionKey<>(false);
+
     @Option(help = "Minimum number of invocations or loop iterations needed to compile a guest language root.",
                     category = OptionCategory.EXPERT)
     public static final OptionKey<Integer> CompilationThreshold = new OptionKey<>(1000);
@@ -246,6 +251,28 @@ public final class PolyglotCompilerOptions {
     @Option(help = "Enable/disable builtin profiles in com.oracle.truffle.api.profiles.", category = OptionCategory.INTERNAL)
     public static final OptionKey<Boolean> Profiling = new OptionKey<>(true);
 
+    @Option(help = "Directory in which the set of compiled call targets is persisted when the engine is closed. " +
+            "Call targets that were compiled in a previous run are compiled as soon as they reach the minimum invoke threshold.",
+            category = OptionCategory.EXPERT)
+    public static final OptionKey<String> CompilationProfileCache = new OptionKey<>(null, OptionType.defaultType(String.class));
+
+    @Option(help = "Number of compiled code losses of a call target within DeoptimizationStormWindow after which the failing speculation is disabled " +
+            "or the call target is reprofiled in the interpreter (0 to disable).", category = OptionCategory.EXPERT)
+    public static final OptionKey<Integer> DeoptimizationStormThreshold = new OptionKey<>(0);
+
+    @Option(help = "Time window in milliseconds in which compiled code losses count towards DeoptimizationStormThreshold.", category = OptionCategory.EXPERT)
+    public static final OptionKey<Integer> DeoptimizationStormWindow = new OptionKey<>(2000);
+
+    @Option(help = "Maximum size in bytes of the machine code installed for the call targets of an engine. When it is exceeded, the call targets that were idle " +
+            "the longest are invalidated and reprofiled in the interpreter (0 to disable).", category = OptionCategory.EXPERT)
+    public static final OptionKey<Integer> CodeCacheCapacity = new OptionKey<>(0);
+
+    @Option(help = "Fraction of CodeCacheCapacity that the installed machine code is reduced to when call targets are evicted.", category = OptionCategory.EXPERT)
+    public static final OptionKey<Double> CodeCacheEvictionRatio = new OptionKey<>(0.75);
+
+    @Option(help = "Minimum time in milliseconds a compiled call target must have been idle before it can be evicted from the code cache.", category = OptionCategory.EXPERT)
+    public static final OptionKey<Integer> CodeCacheEvictionMinIdle = new OptionKey<>(1000);
+
     // MultiTier
 
     @Option(help = "Whether to use multiple Truffle compilation tiers by default.", category = OptionCategory.EXPERT)
@@ -295,6 +322,14 @@ public final class PolyglotCompilerOptions {
     @Option(help = "Print information for compilation queuing.", category = OptionCategory.INTERNAL)
     public static final OptionKey<Boolean> TraceCompilationDetails = new OptionKey<>(false);
 
+    @Option(help = "Size in bytes of a per-engine ring buffer that records compilation events in a compact binary format (0 to disable). " +
+            "Only the most recent events are kept.", category = OptionCategory.EXPERT)
+    public static final OptionKey<Integer> CompilationTraceBufferSize = new OptionKey<>(0);
+
+    @Option(help = "File to which the compilation trace ring buffer is appended when the engine is closed. " +
+            "Decode it with org.graalvm.compiler.truffle.runtime.CompilationTraceReader.", category = OptionCategory.EXPERT)
+    public static final OptionKey<String> CompilationTraceFile = new OptionKey<>(null, OptionType.defaultType(String.class));
+
     @Option(help = "Print all polymorphic and generic nodes after each compilation", category = OptionCategory.INTERNAL)
     public static final OptionKey<Boolean> TraceCompilationPolymorphism = new OptionKey<>(false);
 
@@ -354,6 +389,14 @@ public final class PolyglotCompilerOptions {
     @Option(help = "Disable call target splitting if number of nodes created by splitting exceeds this limit", category = OptionCategory.INTERNAL)
     public static final OptionKey<Integer> SplittingMaxNumberOfSplitNodes = new OptionKey<>(500_000);
 
+    @Option(help = "Decide splits by comparing the estimated benefit of a split with the size of the split call target. " +
+            "Call sites whose benefit is too low are reconsidered after they are called more often.", category = OptionCategory.EXPERT)
+    public static final OptionKey<Boolean> SplittingCostModel = new OptionKey<>(false);
+
+    @Option(help = "Minimum estimated benefit of a split if SplittingCostModel is enabled. The benefit is the expected number of " +
+            "polymorphic nodes that become monomorphic times the calls through the call site, per node of the split call target.", category = OptionCategory.EXPERT)
+    public static final OptionKey<Double> SplittingMinBenefit = new OptionKey<>(1.0);
+
     @Option(help = "Propagate info about a polymorphic specialize through maximum this many call targets", category = OptionCategory.INTERNAL)
     public static final OptionKey<Integer> SplittingMaxPropagationDepth = new OptionKey<>(5);
 
@@ -413,6 +456,9 @@ public final class PolyglotCompilerOptions {
     @Option(help = "Stop partial evaluation when the graph exceeded this many nodes.", category = OptionCategory.INTERNAL)
     public static final OptionKey<Integer> MaximumGraalNodeCount = new OptionKey<>(400000);
 
+    @Option(help = "Retry a compilation without inlining Truffle calls if partial evaluation exceeded MaximumGraalNodeCount.", category = OptionCategory.EXPERT)
+    public static final OptionKey<Boolean> RetryWithoutInliningOnGraphTooBig = new OptionKey<>(true);
+
     @Option(help = "Ignore further truffle inlining decisions when the graph exceeded this many nodes.", category = OptionCategory.INTERNAL)
     public static final OptionKey<Integer> MaximumInlineNodeCount = new OptionKey<>(150000);
 
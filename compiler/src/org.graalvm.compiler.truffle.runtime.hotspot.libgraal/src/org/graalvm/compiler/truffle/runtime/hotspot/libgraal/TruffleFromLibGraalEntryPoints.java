@@ -34,6 +34,7 @@ import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLi
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.CancelCompilation;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.CompilableToString;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.ConsumeOptimizedAssumptionDependency;
+import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.ClearDecisions;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.CountCalls;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.CountInlinedCalls;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.CreateInliningPlan;
@@ -67,6 +68,7 @@ import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLi
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.GetTruffleCallBoundaryMethods;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.GetURI;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.IsCancelled;
+import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.IsCompiled;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.IsInliningForced;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.IsLastTier;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.IsSameOrSplit;
@@ -78,6 +80,7 @@ import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLi
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnCompilationFailed;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnFailure;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnGraalTierFinished;
+import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnPartialEvaluationBudgetExceeded;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnSuccess;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.OnTruffleTierFinished;
 import static org.graalvm.compiler.truffle.common.hotspot.libgraal.TruffleFromLibGraal.Id.RegisterOptimizedAssumptionDependency;
@@ -382,6 +385,11 @@ final class TruffleFromLibGraalEntryPoints {
         }
     }
 
+    @TruffleFromLibGraal(OnPartialEvaluationBudgetExceeded)
+    static void onPartialEvaluationBudgetExceeded(Object listener, Object compilable, int nodeCount, boolean retry) {
+        ((TruffleCompilerListener) listener).onPartialEvaluationBudgetExceeded((CompilableTruffleAST) compilable, nodeCount, retry);
+    }
+
     @TruffleFromLibGraal(OnTruffleTierFinished)
     static void onTruffleTierFinished(Object listener, Object compilable, Object plan, long graphInfoHandle) {
         try (LibGraalGraphInfo graphInfo = new LibGraalGraphInfo(graphInfoHandle)) {
@@ -440,6 +448,11 @@ final class TruffleFromLibGraalEntryPoints {
         return ((CompilableTruffleAST) compilableTruffleAST).getKnownCallSiteCount();
     }
 
+    @TruffleFromLibGraal(IsCompiled)
+    static boolean isCompiled(Object compilableTruffleAST) {
+        return ((CompilableTruffleAST) compilableTruffleAST).isCompiled();
+    }
+
     @TruffleFromLibGraal(IsSameOrSplit)
     static boolean isSameOrSplit(Object compilableTruffleAST1, Object compilableTruffleAST2) {
         return ((CompilableTruffleAST) compilableTruffleAST1).isSameOrSplit((CompilableTruffleAST) compilableTruffleAST2);
@@ -479,6 +492,11 @@ final class TruffleFromLibGraalEntryPoints {
     static void setInlinedCallCount(Object inliningPlan, int count) {
         ((TruffleInliningPlan) inliningPlan).setInlinedCallCount(count);
     }
+
+    @TruffleFromLibGraal(ClearDecisions)
+    static void clearDecisions(Object inliningPlan) {
+        ((TruffleInliningPlan) inliningPlan).clearDecisions();
+    }
     /*----------------------*/
 
     /**
@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.PriorityBlockingQueue;
@@ -51,6 +52,14 @@ import org.graalvm.compiler.truffle.options.PolyglotCompilerOptions;
  * (first-in-first-out).
  *
  * Note that all the compilation requests are second tier when the multi-tier option is turned off.
+ *
+ * If the {@link PolyglotCompilerOptions#TraversingCompilationQueue TraversingCompilationQueue}
+ * option is enabled for the engine of a request, the request is instead ordered by its
+ * {@linkplain RequestImpl#rank rank}. The rank is derived from the rate at which the call and loop
+ * count of the target grew before it was submitted, grows with the time the request has been
+ * waiting, and is shared between all queued requests of the same engine, such that a burst of
+ * requests from one engine cannot starve hot targets of other engines. The rank is fixed at
+ * submission, so the queue stays a priority queue with logarithmic insertion and removal.
  */
 public class BackgroundCompileQueue {
 
@@ -60,6 +69,7 @@ public class BackgroundCompileQueue {
     private boolean shutdown = false;
     protected final GraalTruffleRuntime runtime;
     private long delayMillis;
+    private final ConcurrentHashMap<EngineData, Integer> queuedEngineRequests = new ConcurrentHashMap<>();
 
     public BackgroundCompileQueue(GraalTruffleRuntime runtime) {
         this.runtime = runtime;
@@ -134,6 +144,12 @@ public class BackgroundCompileQueue {
                 protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
                     return new RequestFutureTask<>((RequestImpl<T>) callable);
                 }
+
+                @Override
+                protected void beforeExecute(Thread t, Runnable r) {
+                    super.beforeExecute(t, r);
+                    notifyPolled((RequestFutureTask<?>) r);
+                }
             };
 
             if (compilerIdleDelay > 0) {
@@ -155,8 +171,18 @@ public class BackgroundCompileQueue {
     public CancellableCompileTask submitTask(Priority priority, OptimizedCallTarget target, Request request) {
         final WeakReference<OptimizedCallTarget> targetReference = new WeakReference<>(target);
         CancellableCompileTask cancellable = new CancellableCompileTask(targetReference, priority == Priority.LAST_TIER);
-        RequestImpl<Void> requestImpl = new RequestImpl<>(nextId(), priority, targetReference, cancellable, request);
-        cancellable.setFuture(getExecutorService(target).submit(requestImpl));
+        ExecutorService executorService = getExecutorService(target);
+        long now = System.nanoTime();
+        boolean traversing = target.engine.traversingCompilationQueue;
+        double rank;
+        if (traversing) {
+            int engineRequests = queuedEngineRequests.merge(target.engine, 1, Integer::sum);
+            rank = RequestImpl.weightedRank(priority, target.getCallAndLoopCount(), target.getInitializedTimestamp(), now, engineRequests);
+        } else {
+            rank = RequestImpl.tieredRank(priority, now);
+        }
+        RequestImpl<Void> requestImpl = new RequestImpl<>(nextId(), priority, targetReference, target.engine, now, traversing, rank, cancellable, request);
+        cancellable.setFuture(executorService.submit(requestImpl));
         return cancellable;
     }
 
@@ -164,6 +190,20 @@ public class BackgroundCompileQueue {
         return idCounter.getAndIncrement();
     }
 
+    private void notifyPolled(RequestFutureTask<?> task) {
+        RequestImpl<?> request = task.request;
+        if (request.traversing) {
+            queuedEngineRequests.computeIfPresent(request.engine, (e, count) -> count == 1 ? null : count - 1);
+        }
+        if (request.priority == Priority.INITIALIZATION) {
+            return;
+        }
+        OptimizedCallTarget target = request.targetRef.get();
+        if (target != null) {
+            runtime.getListener().onCompilationPolled(target, System.nanoTime() - request.queueTime, getQueueSize());
+        }
+    }
+
     public int getQueueSize() {
         final ExecutorService threadPool = compilationExecutorService;
         if (threadPool instanceof ThreadPoolExecutor) {
@@ -234,23 +274,91 @@ public class BackgroundCompileQueue {
 
     private static final class RequestImpl<V> implements Callable<V>, Comparable<RequestImpl<?>> {
 
+        /**
+         * Time after which the weight of a waiting request has doubled.
+         */
+        private static final double AGING_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+        /**
+         * First tier compilations are cheap and improve performance quickly, so they are preferred
+         * over last tier compilations with a similar rate.
+         */
+        private static final double FIRST_TIER_FACTOR = 2.0;
+        /**
+         * Rank added to first tier requests of engines that do not traverse the queue. It exceeds
+         * the aging of a request that waited for years, so these requests strictly precede last
+         * tier requests.
+         */
+        private static final double STRICT_FIRST_TIER_RANK = 1e9;
+
         private final long id;
         private final Priority priority;
         private final CancellableCompileTask task;
         private final WeakReference<OptimizedCallTarget> targetRef;
+        private final EngineData engine;
+        private final long queueTime;
+        private final boolean traversing;
+        /**
+         * Requests with a higher rank are scheduled earlier.
+         */
+        private final double rank;
         private final Request request;
 
-        RequestImpl(long id, Priority priority, WeakReference<OptimizedCallTarget> targetRef, CancellableCompileTask task, Request request) {
+        RequestImpl(long id, Priority priority, WeakReference<OptimizedCallTarget> targetRef, EngineData engine, long queueTime, boolean traversing, double rank, CancellableCompileTask task,
+                        Request request) {
             this.id = id;
             this.priority = priority;
             this.targetRef = targetRef;
+            this.engine = engine;
+            this.queueTime = queueTime;
+            this.traversing = traversing;
+            this.rank = rank;
             this.task = task;
             this.request = request;
         }
 
+        /**
+         * Computes the rank of a request of a traversing engine. The weight of a request is
+         * {@code tier * (1 + rate) / engineRequests}, where {@code rate} is the number of calls and
+         * loop iterations per millisecond since the target was initialized, and doubles every
+         * {@link #AGING_PERIOD_NANOS} the request waits. The rank is the binary logarithm of the
+         * weight minus the time-dependent term that is common to all queued requests, so ordering
+         * by rank is the same as ordering by weight at any point in time.
+         *
+         * @param now the current {@link System#nanoTime() time}
+         * @param engineRequests the number of queued requests of the request's engine
+         */
+        static double weightedRank(Priority priority, int callAndLoopCount, long initializedTimestamp, long now, int engineRequests) {
+            double rate = 0.0;
+            if (initializedTimestamp != 0L) {
+                rate = callAndLoopCount / (TimeUnit.NANOSECONDS.toMillis(Math.max(0, now - initializedTimestamp)) + 1.0);
+            }
+            double tier = priority == Priority.FIRST_TIER ? FIRST_TIER_FACTOR : 1.0;
+            return log2(tier * (1.0 + rate) / Math.max(1, engineRequests)) - now / AGING_PERIOD_NANOS;
+        }
+
+        /**
+         * Computes the rank of a request of an engine that does not traverse the queue. Ordering by
+         * this rank schedules first tier requests before last tier requests and requests of the
+         * same tier in submission order. Requests of all engines share one total order, with
+         * requests of traversing engines ranked like last tier requests of similar age.
+         */
+        static double tieredRank(Priority priority, long now) {
+            double tier = priority == Priority.FIRST_TIER ? STRICT_FIRST_TIER_RANK : 0.0;
+            return tier - now / AGING_PERIOD_NANOS;
+        }
+
+        private static double log2(double value) {
+            return Math.log(value) / Math.log(2.0);
+        }
+
         @Override
         public int compareTo(RequestImpl<?> that) {
-            int diff = priority.value - that.priority.value;
+            int diff;
+            if (this.priority == Priority.INITIALIZATION || that.priority == Priority.INITIALIZATION) {
+                diff = priority.value - that.priority.value;
+            } else {
+                diff = Double.compare(that.rank, this.rank);
+            }
             if (diff == 0) {
                 diff = Long.compare(this.id, that.id);
             }
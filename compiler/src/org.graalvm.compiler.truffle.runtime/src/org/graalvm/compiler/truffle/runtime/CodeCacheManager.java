@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.CompilationResultInfo;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+
+import com.oracle.truffle.api.frame.Frame;
+
+/**
+ * Keeps the machine code installed for the call targets of an engine within the
+ * {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#CodeCacheCapacity
+ * CodeCacheCapacity}. Calls executed in compiled code are counted per call target and sampled
+ * whenever code is installed, which yields the time each call target was last seen active and its
+ * recent call rate.
+ *
+ * When an installation exceeds the capacity, the call targets that were idle the longest, and among
+ * those the ones with the lowest call rate, are invalidated until the installed code fits into
+ * {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#CodeCacheEvictionRatio
+ * CodeCacheEvictionRatio} of the capacity. Evicting below the capacity avoids evicting on every
+ * subsequent installation. Call targets that were active within
+ * {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#CodeCacheEvictionMinIdle
+ * CodeCacheEvictionMinIdle} are never evicted, and the compilation profile of an evicted call target
+ * is reset, so it needs a full compilation threshold of calls before it is compiled again.
+ */
+public final class CodeCacheManager {
+
+    static final String EVICTION_REASON = "code cache eviction";
+
+    private static final Comparator<Entry> COLDEST_FIRST = Comparator.<Entry> comparingLong((e) -> e.lastActive).thenComparingDouble((e) -> e.callRate);
+
+    private final EngineData engine;
+    private final long capacity;
+    private final long evictionTarget;
+    private final long minIdleNanos;
+    private final Map<OptimizedCallTarget, Entry> entries = new WeakHashMap<>();
+    private long occupancy;
+    private long evictions;
+    private long evictedBytes;
+    /** The manager that replaced this one after an option reload, or {@code null}. */
+    private CodeCacheManager successor;
+
+    CodeCacheManager(EngineData engine, long capacity, double evictionRatio, long minIdleNanos) {
+        this.engine = engine;
+        this.capacity = capacity;
+        this.evictionTarget = computeEvictionTarget(capacity, evictionRatio);
+        this.minIdleNanos = minIdleNanos;
+    }
+
+    private static long computeEvictionTarget(long capacity, double evictionRatio) {
+        return (long) (capacity * Math.max(0, Math.min(1, evictionRatio)));
+    }
+
+    /**
+     * Determines if this manager was created with the given configuration.
+     */
+    boolean hasConfiguration(long otherCapacity, double otherEvictionRatio, long otherMinIdleNanos) {
+        return capacity == otherCapacity && evictionTarget == computeEvictionTarget(otherCapacity, otherEvictionRatio) && minIdleNanos == otherMinIdleNanos;
+    }
+
+    /**
+     * Moves the installed code tracked by {@code previous} and its statistics to this manager. Used
+     * when an option reload changes the configuration, so that the code installed so far still
+     * counts towards the capacity. Updates that still reach {@code previous} afterwards are
+     * forwarded to this manager.
+     */
+    void transferFrom(CodeCacheManager previous) {
+        synchronized (previous) {
+            synchronized (this) {
+                entries.putAll(previous.entries);
+                occupancy += previous.occupancy;
+                evictions += previous.evictions;
+                evictedBytes += previous.evictedBytes;
+            }
+            previous.entries.clear();
+            previous.occupancy = 0;
+            previous.successor = this;
+        }
+    }
+
+    static void install(GraalTruffleRuntime runtime) {
+        runtime.addListener(new Listener(runtime));
+    }
+
+    /**
+     * Returns the maximum size in bytes of the installed code of this engine.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the size in bytes of the code currently installed for this engine.
+     */
+    public synchronized long getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Returns the number of call targets with installed code.
+     */
+    public synchronized int getInstalledCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of call targets evicted so far.
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Returns the size in bytes of the code evicted so far.
+     */
+    public synchronized long getEvictedBytes() {
+        return evictedBytes;
+    }
+
+    /**
+     * Records code installed for {@code target} and returns the call targets that need to be
+     * evicted to make room for it.
+     */
+    synchronized List<Entry> installed(OptimizedCallTarget target, int codeSize, long now) {
+        if (successor != null) {
+            return successor.installed(target, codeSize, now);
+        }
+        Entry previous = entries.put(target, new Entry(target, codeSize, now));
+        if (previous != null) {
+            occupancy -= previous.codeSize;
+        }
+        occupancy += codeSize;
+        // sample on every installation so that lastActive is not older than the last installation
+        List<Entry> candidates = occupancy > capacity ? new ArrayList<>() : null;
+        for (Entry entry : entries.values()) {
+            OptimizedCallTarget candidate = entry.target.get();
+            if (candidate != null && candidate != target) {
+                entry.sample(candidate.getCompiledCallCount(), now);
+                if (candidates != null && now - entry.lastActive >= minIdleNanos) {
+                    candidates.add(entry);
+                }
+            }
+        }
+        if (candidates == null) {
+            return null;
+        }
+        candidates.sort(COLDEST_FIRST);
+        List<Entry> victims = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (occupancy <= evictionTarget) {
+                break;
+            }
+            OptimizedCallTarget victim = entry.target.get();
+            if (victim != null) {
+                entries.remove(victim);
+                occupancy -= entry.codeSize;
+                evictions++;
+                evictedBytes += entry.codeSize;
+                victims.add(entry);
+            }
+        }
+        return victims;
+    }
+
+    /**
+     * Forgets the installed code of {@code target} after it was invalidated or deoptimized.
+     */
+    synchronized void removed(OptimizedCallTarget target) {
+        if (successor != null) {
+            successor.removed(target);
+            return;
+        }
+        Entry entry = entries.remove(target);
+        if (entry != null) {
+            occupancy -= entry.codeSize;
+        }
+    }
+
+    private void evict(GraalTruffleRuntime runtime, List<Entry> victims, long now) {
+        for (Entry entry : victims) {
+            OptimizedCallTarget victim = entry.target.get();
+            if (victim == null) {
+                continue;
+            }
+            victim.invalidate(this, EVICTION_REASON);
+            victim.resetCompilationProfile();
+            if (engine.traceCompilation) {
+                Map<String, Object> properties = new LinkedHashMap<>();
+                properties.put("Code size", entry.codeSize);
+                properties.put("Idle", String.format("%dms", (now - entry.lastActive) / 1_000_000));
+                properties.put("Call rate", String.format("%.1f/s", entry.callRate));
+                properties.put("Occupancy", String.format("%d/%d", getOccupancy(), capacity));
+                runtime.logEvent(victim, 0, "opt evict", victim.toString(), properties, null);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final WeakReference<OptimizedCallTarget> target;
+        final int codeSize;
+        long lastActive;
+        long lastSample;
+        int lastCallCount;
+        double callRate;
+
+        Entry(OptimizedCallTarget target, int codeSize, long now) {
+            this.target = new WeakReference<>(target);
+            this.codeSize = codeSize;
+            this.lastActive = now;
+            this.lastSample = now;
+            this.lastCallCount = target.getCompiledCallCount();
+        }
+
+        /*
+         * The call count may wrap around and may lose increments made by concurrent calls. Both
+         * only distort the call rate, which is computed with wrapping int arithmetic.
+         */
+        void sample(int callCount, long now) {
+            if (callCount != lastCallCount) {
+                lastActive = now;
+            }
+            long elapsed = now - lastSample;
+            if (elapsed > 0) {
+                callRate = (callCount - lastCallCount) * 1e9 / elapsed;
+            }
+            lastCallCount = callCount;
+            lastSample = now;
+        }
+    }
+
+    private static final class Listener implements GraalTruffleRuntimeListener {
+
+        private final GraalTruffleRuntime runtime;
+
+        Listener(GraalTruffleRuntime runtime) {
+            this.runtime = runtime;
+        }
+
+        @Override
+        public void onCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result) {
+            CodeCacheManager manager = target.engine.getCodeCacheManager();
+            if (manager != null) {
+                long now = System.nanoTime();
+                List<Entry> victims = manager.installed(target, result.getTargetCodeSize(), now);
+                if (victims != null) {
+                    manager.evict(runtime, victims, now);
+                }
+            }
+        }
+
+        @Override
+        public void onCompilationInvalidated(OptimizedCallTarget target, Object source, CharSequence reason) {
+            CodeCacheManager manager = target.engine.getCodeCacheManager();
+            if (manager != null) {
+                manager.removed(target);
+            }
+        }
+
+        @Override
+        public void onCompilationDeoptimized(OptimizedCallTarget target, Frame frame) {
+            CodeCacheManager manager = target.engine.getCodeCacheManager();
+            if (manager != null && !target.isValid()) {
+                manager.removed(target);
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.CompilationResultInfo;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Remembers which call targets of an engine were compiled and persists that set in the directory
+ * given by the {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#CompilationProfileCache
+ * CompilationProfileCache} option when the engine is closed. A subsequent engine using the same
+ * directory primes the loop profile of matching call targets on their first execution so that they
+ * are submitted for compilation after only the minimum number of calls.
+ *
+ * Installed code cannot be reused across processes, so the cache deliberately stores nothing but
+ * the identity of compiled call targets. A call target is identified by a hash of its root name and
+ * the location and contents of its source section; call targets without an available source
+ * section are never recorded. Specialization state is rebuilt by the calls that precede the
+ * compilation, which revalidates every recorded entry against the current guest code.
+ *
+ * Each entry stores the time its call target was last compiled. Engines sharing a directory merge
+ * their entries into the file under a file lock when they are closed. Entries that were not
+ * compiled for {@link #MAX_AGE_MILLIS} are dropped, and at most {@link #MAX_ENTRIES} of the most
+ * recently compiled entries are kept.
+ */
+final class CompilationProfileCache {
+
+    static final String FILE_NAME = "truffle-compilation-profile";
+    static final int MAX_ENTRIES = 1 << 16;
+    static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /*
+     * File locks are held on behalf of the whole process, so engines of the same process must also
+     * be serialized among each other.
+     */
+    private static final Object PERSIST_LOCK = new Object();
+
+    private final String directory;
+    private final Path file;
+    private final Map<Long, Long> previouslyCompiled;
+    private final Map<Long, Long> compiled = new ConcurrentHashMap<>();
+
+    private CompilationProfileCache(String directory, Path file, Map<Long, Long> previouslyCompiled) {
+        this.directory = directory;
+        this.file = file;
+        this.previouslyCompiled = previouslyCompiled;
+    }
+
+    /**
+     * Loads the cache stored in {@code directory}. An unreadable or missing cache file results in
+     * an empty cache.
+     */
+    static CompilationProfileCache load(EngineData engine, String directory) {
+        Path file = Paths.get(directory).resolve(FILE_NAME);
+        Map<Long, Long> entries;
+        try {
+            entries = readEntries(file);
+        } catch (IOException | NumberFormatException e) {
+            engine.getLogger().log(Level.WARNING, String.format("Ignoring unreadable compilation profile cache %s: %s", file, e));
+            entries = new HashMap<>();
+        }
+        return new CompilationProfileCache(directory, file, entries);
+    }
+
+    /**
+     * Returns {@code true} if this cache was loaded from {@code cacheDirectory}.
+     */
+    boolean isStoredIn(String cacheDirectory) {
+        return directory.equals(cacheDirectory);
+    }
+
+    /**
+     * Returns {@code true} if {@code target} was compiled while the cache was last persisted.
+     */
+    boolean wasCompiled(OptimizedCallTarget target) {
+        if (previouslyCompiled.isEmpty()) {
+            return false;
+        }
+        long key = keyOf(target);
+        return key != 0 && previouslyCompiled.containsKey(key);
+    }
+
+    void recordCompiled(OptimizedCallTarget target) {
+        long key = keyOf(target);
+        if (key != 0) {
+            compiled.put(key, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Merges the newly compiled entries into the entries currently stored in the cache file and
+     * prunes the result. The file is replaced atomically so that readers never observe a partially
+     * written cache, and the merge is done under a lock so that concurrently closing engines do not
+     * lose each other's entries.
+     */
+    void persist(EngineData engine) {
+        synchronized (PERSIST_LOCK) {
+            try {
+                Files.createDirectories(file.getParent());
+                Path lockFile = file.resolveSibling(FILE_NAME + LOCK_FILE_SUFFIX);
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                                FileLock lock = channel.lock()) {
+                    Map<Long, Long> entries;
+                    try {
+                        entries = readEntries(file);
+                    } catch (NumberFormatException e) {
+                        engine.getLogger().log(Level.WARNING, String.format("Replacing unreadable compilation profile cache %s: %s", file, e));
+                        entries = new HashMap<>();
+                    }
+                    for (Map.Entry<Long, Long> entry : compiled.entrySet()) {
+                        entries.merge(entry.getKey(), entry.getValue(), Math::max);
+                    }
+                    writeEntries(file, prune(entries, System.currentTimeMillis()));
+                }
+            } catch (IOException e) {
+                engine.getLogger().log(Level.WARNING, String.format("Failed to write compilation profile cache %s: %s", file, e));
+            }
+        }
+    }
+
+    /**
+     * Drops entries older than {@link #MAX_AGE_MILLIS} and keeps at most {@link #MAX_ENTRIES} of the
+     * most recently compiled remaining entries.
+     */
+    static List<Map.Entry<Long, Long>> prune(Map<Long, Long> entries, long now) {
+        List<Map.Entry<Long, Long>> result = new ArrayList<>(entries.size());
+        for (Map.Entry<Long, Long> entry : entries.entrySet()) {
+            if (now - entry.getValue() <= MAX_AGE_MILLIS) {
+                result.add(entry);
+            }
+        }
+        if (result.size() > MAX_ENTRIES) {
+            result.sort((e1, e2) -> Long.compare(e2.getValue(), e1.getValue()));
+            result = new ArrayList<>(result.subList(0, MAX_ENTRIES));
+        }
+        return result;
+    }
+
+    /**
+     * Reads the entries of {@code file}. Each line holds the hexadecimal key followed by the time in
+     * milliseconds at which it was last compiled. Lines without a time are treated as compiled now.
+     */
+    private static Map<Long, Long> readEntries(Path file) throws IOException {
+        Map<Long, Long> entries = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return entries;
+        }
+        long now = System.currentTimeMillis();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf(' ');
+            if (separator < 0) {
+                entries.put(Long.parseUnsignedLong(trimmed, 16), now);
+            } else {
+                long key = Long.parseUnsignedLong(trimmed.substring(0, separator), 16);
+                long lastCompiled = Long.parseLong(trimmed.substring(separator + 1).trim());
+                entries.merge(key, lastCompiled, Math::max);
+            }
+        }
+        return entries;
+    }
+
+    private static void writeEntries(Path file, List<Map.Entry<Long, Long>> entries) throws IOException {
+        Path tmp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<Long, Long> entry : entries) {
+                    writer.write(Long.toHexString(entry.getKey()));
+                    writer.write(' ');
+                    writer.write(Long.toString(entry.getValue()));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Computes a stable key for {@code target} or {@code 0} if the target cannot be identified
+     * across processes.
+     */
+    static long keyOf(OptimizedCallTarget target) {
+        RootNode rootNode = target.getRootNode();
+        SourceSection section = rootNode.getSourceSection();
+        if (section == null || !section.isAvailable()) {
+            return 0;
+        }
+        Source source = section.getSource();
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, rootNode.getName());
+        hash = hash(hash, source.getName());
+        hash = hash(hash, section.getCharIndex());
+        hash = hash(hash, section.getCharLength());
+        hash = hash(hash, section.getCharacters());
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long hash(long hash, CharSequence chars) {
+        long result = hash;
+        if (chars != null) {
+            for (int i = 0; i < chars.length(); i++) {
+                result = (result ^ chars.charAt(i)) * FNV_PRIME;
+            }
+        }
+        return (result ^ 0xff) * FNV_PRIME;
+    }
+
+    private static long hash(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    static void install(GraalTruffleRuntime runtime) {
+        runtime.addListener(new Recorder());
+    }
+
+    private static final class Recorder implements GraalTruffleRuntimeListener {
+
+        @Override
+        public void onCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result) {
+            CompilationProfileCache cache = target.engine.getCompilationProfileCache();
+            if (cache != null) {
+                OptimizedCallTarget source = target.getSourceCallTarget();
+                cache.recordCompiled(source != null ? source : target);
+            }
+        }
+
+        @Override
+        public void onEngineClosed(EngineData engine) {
+            CompilationProfileCache cache = engine.getCompilationProfileCache();
+            if (cache != null) {
+                cache.persist(engine);
+            }
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.CompilationResultInfo;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+
+import com.oracle.truffle.api.frame.Frame;
+
+/**
+ * A bounded, per-engine ring buffer of compilation events enabled by the
+ * {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#CompilationTraceBufferSize
+ * CompilationTraceBufferSize} option. Each event takes a few dozen bytes, unlike a graph dump, so
+ * recording can stay enabled on production systems. When the buffer is full the oldest events are
+ * dropped.
+ *
+ * The buffer is written with {@link #dump(OutputStream)}, either on demand or when the engine is
+ * closed if {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#CompilationTraceFile
+ * CompilationTraceFile} is set. Engines sharing a trace file append to it, so the file holds one
+ * trace per closed engine. {@link CompilationTraceReader} decodes the following format:
+ *
+ * <pre>
+ * file   := trace*
+ * trace  := MAGIC:int VERSION:short engineId:long droppedRecords:long recordCount:int record*
+ * record := length:short kind:byte timeMillis:long targetId:long targetName:utf payload
+ * </pre>
+ *
+ * The payload of each record {@link Kind kind} is documented with the kind.
+ */
+public final class CompilationTrace {
+
+    static final int MAGIC = 0x54435452;
+    static final short VERSION = 2;
+    static final int MAX_STRING_LENGTH = 256;
+    static final int MAX_RECORDED_CALL_SITES = 32;
+
+    enum Kind {
+        /** No payload. */
+        QUEUED,
+        /** No payload. */
+        STARTED,
+        /** {@code nodeCount:int calls:int inlinedCalls:int partialEvaluationNanos:long}. */
+        TRUFFLE_TIER_FINISHED,
+        /** {@code callee:utf inlined:boolean deepNodeCount:int failedReason:utf}. */
+        INLINING_DECISION,
+        /** {@code nodeCount:int retried:boolean}. */
+        BUDGET_EXCEEDED,
+        /** {@code nodeCount:int graalTierNanos:long}. */
+        GRAAL_TIER_FINISHED,
+        /** {@code codeSize:int lastTier:boolean totalNanos:long}. */
+        SUCCEEDED,
+        /** {@code reason:utf bailout:boolean permanent:boolean}. */
+        FAILED,
+        /** {@code reason:utf}. */
+        INVALIDATED,
+        /** No payload. */
+        DEOPTIMIZED;
+
+        private static final Kind[] VALUES = values();
+
+        static Kind fromOrdinal(int ordinal) {
+            return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+        }
+    }
+
+    private static final Object FILE_LOCK = new Object();
+
+    private final long engineId;
+    private final byte[] buffer;
+    private int start;
+    private int size;
+    private int records;
+    private long droppedRecords;
+
+    CompilationTrace(long engineId, int capacity) {
+        this.engineId = engineId;
+        this.buffer = new byte[capacity];
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Appends a record of {@code length} bytes, evicting the oldest records until it fits.
+     */
+    synchronized void append(byte[] record, int length) {
+        int total = length + 2;
+        if (length > 0xFFFF || total > buffer.length) {
+            droppedRecords++;
+            return;
+        }
+        while (buffer.length - size < total) {
+            int oldest = ((buffer[start] & 0xFF) << 8) | (buffer[(start + 1) % buffer.length] & 0xFF);
+            start = (start + oldest + 2) % buffer.length;
+            size -= oldest + 2;
+            records--;
+            droppedRecords++;
+        }
+        int position = (start + size) % buffer.length;
+        buffer[position] = (byte) (length >>> 8);
+        buffer[(position + 1) % buffer.length] = (byte) length;
+        position = (position + 2) % buffer.length;
+        int first = Math.min(length, buffer.length - position);
+        System.arraycopy(record, 0, buffer, position, first);
+        System.arraycopy(record, first, buffer, 0, length - first);
+        size += total;
+        records++;
+    }
+
+    synchronized void recordDropped() {
+        droppedRecords++;
+    }
+
+    /**
+     * Writes the header and all buffered records, oldest first, to {@code out}.
+     */
+    public synchronized void dump(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeLong(engineId);
+        data.writeLong(droppedRecords);
+        data.writeInt(records);
+        int first = Math.min(size, buffer.length - start);
+        data.write(buffer, start, first);
+        data.write(buffer, 0, size - first);
+        data.flush();
+    }
+
+    static void install(GraalTruffleRuntime runtime) {
+        runtime.addListener(new Recorder());
+    }
+
+    /**
+     * Encodes a single record. Strings are truncated so that a record always fits the 16-bit
+     * length prefix. A record that fails to encode is reported and dropped.
+     */
+    private static final class RecordBuilder {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        private final DataOutputStream data = new DataOutputStream(bytes);
+        private final OptimizedCallTarget target;
+        private IOException failure;
+
+        RecordBuilder(Kind kind, OptimizedCallTarget target) {
+            this.target = target;
+            writeByte(kind.ordinal());
+            writeLong(System.currentTimeMillis());
+            writeLong(target.id);
+            writeString(target.getName());
+        }
+
+        RecordBuilder writeByte(int value) {
+            if (failure == null) {
+                try {
+                    data.writeByte(value);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            return this;
+        }
+
+        RecordBuilder writeBoolean(boolean value) {
+            return writeByte(value ? 1 : 0);
+        }
+
+        RecordBuilder writeInt(int value) {
+            if (failure == null) {
+                try {
+                    data.writeInt(value);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            return this;
+        }
+
+        RecordBuilder writeLong(long value) {
+            if (failure == null) {
+                try {
+                    data.writeLong(value);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            return this;
+        }
+
+        RecordBuilder writeString(CharSequence value) {
+            String string = value == null ? "" : value.toString();
+            if (string.length() > MAX_STRING_LENGTH) {
+                string = string.substring(0, MAX_STRING_LENGTH);
+            }
+            if (failure == null) {
+                try {
+                    data.writeUTF(string);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            return this;
+        }
+
+        void appendTo(CompilationTrace trace) {
+            if (failure != null) {
+                trace.recordDropped();
+                target.engine.getLogger().log(Level.WARNING, String.format("Failed to record compilation event of %s: %s", target, failure));
+                return;
+            }
+            trace.append(bytes.toByteArray(), bytes.size());
+        }
+    }
+
+    private static final class Recorder implements GraalTruffleRuntimeListener {
+
+        private final ThreadLocal<long[]> compilationTimes = new ThreadLocal<>();
+
+        private static CompilationTrace traceOf(OptimizedCallTarget target) {
+            return target.engine.getCompilationTrace();
+        }
+
+        @Override
+        public void onCompilationQueued(OptimizedCallTarget target) {
+            CompilationTrace trace = traceOf(target);
+            if (trace != null) {
+                new RecordBuilder(Kind.QUEUED, target).appendTo(trace);
+            }
+        }
+
+        @Override
+        public void onCompilationStarted(OptimizedCallTarget target) {
+            CompilationTrace trace = traceOf(target);
+            if (trace != null) {
+                long now = System.nanoTime();
+                compilationTimes.set(new long[]{now, now});
+                new RecordBuilder(Kind.STARTED, target).appendTo(trace);
+            }
+        }
+
+        @Override
+        public void onCompilationTruffleTierFinished(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph) {
+            CompilationTrace trace = traceOf(target);
+            long[] times = compilationTimes.get();
+            if (trace != null && times != null) {
+                long now = System.nanoTime();
+                int calls = inliningDecision == null ? 0 : inliningDecision.countCalls();
+                int inlinedCalls = inliningDecision == null ? 0 : inliningDecision.countInlinedCalls();
+                new RecordBuilder(Kind.TRUFFLE_TIER_FINISHED, target).writeInt(graph.getNodeCount()).writeInt(calls).writeInt(inlinedCalls).writeLong(now - times[0]).appendTo(trace);
+                times[1] = now;
+                if (inliningDecision != null) {
+                    int recorded = 0;
+                    for (TruffleInliningDecision callSite : inliningDecision) {
+                        if (recorded++ == MAX_RECORDED_CALL_SITES) {
+                            break;
+                        }
+                        TruffleInliningProfile profile = callSite.getProfile();
+                        TruffleInliningPolicy.FailedReason reason = profile.getFailedReason();
+                        new RecordBuilder(Kind.INLINING_DECISION, target).writeString(callSite.getTargetName()).writeBoolean(callSite.shouldInline()).writeInt(
+                                        profile.getDeepNodeCount()).writeString(reason == null ? "" : reason.toString()).appendTo(trace);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onCompilationBudgetExceeded(OptimizedCallTarget target, int nodeCount, boolean retry) {
+            CompilationTrace trace = traceOf(target);
+            if (trace != null) {
+                new RecordBuilder(Kind.BUDGET_EXCEEDED, target).writeInt(nodeCount).writeBoolean(retry).appendTo(trace);
+            }
+        }
+
+        @Override
+        public void onCompilationGraalTierFinished(OptimizedCallTarget target, GraphInfo graph) {
+            CompilationTrace trace = traceOf(target);
+            long[] times = compilationTimes.get();
+            if (trace != null && times != null) {
+                new RecordBuilder(Kind.GRAAL_TIER_FINISHED, target).writeInt(graph.getNodeCount()).writeLong(System.nanoTime() - times[1]).appendTo(trace);
+            }
+        }
+
+        @Override
+        public void onCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result) {
+            CompilationTrace trace = traceOf(target);
+            long[] times = compilationTimes.get();
+            if (trace != null && times != null) {
+                long totalNanos = System.nanoTime() - times[0];
+                new RecordBuilder(Kind.SUCCEEDED, target).writeInt(result.getTargetCodeSize()).writeBoolean(target.isValidLastTier()).writeLong(totalNanos).appendTo(trace);
+                compilationTimes.set(null);
+            }
+        }
+
+        @Override
+        public void onCompilationFailed(OptimizedCallTarget target, String reason, boolean bailout, boolean permanentBailout) {
+            CompilationTrace trace = traceOf(target);
+            if (trace != null) {
+                new RecordBuilder(Kind.FAILED, target).writeString(reason).writeBoolean(bailout).writeBoolean(permanentBailout).appendTo(trace);
+                compilationTimes.set(null);
+            }
+        }
+
+        @Override
+        public void onCompilationInvalidated(OptimizedCallTarget target, Object source, CharSequence reason) {
+            CompilationTrace trace = traceOf(target);
+            if (trace != null) {
+                new RecordBuilder(Kind.INVALIDATED, target).writeString(reason).appendTo(trace);
+            }
+        }
+
+        @Override
+        public void onCompilationDeoptimized(OptimizedCallTarget target, Frame frame) {
+            CompilationTrace trace = traceOf(target);
+            if (trace != null) {
+                new RecordBuilder(Kind.DEOPTIMIZED, target).appendTo(trace);
+            }
+        }
+
+        @Override
+        public void onEngineClosed(EngineData engine) {
+            CompilationTrace trace = engine.getCompilationTrace();
+            String file = engine.getCompilationTraceFile();
+            if (trace != null && file != null) {
+                Path path = Paths.get(file);
+                // engines closing concurrently must not interleave their traces
+                synchronized (FILE_LOCK) {
+                    try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                        trace.dump(out);
+                    } catch (IOException e) {
+                        engine.getLogger().log(Level.WARNING, String.format("Failed to write compilation trace %s: %s", path, e));
+                    }
+                }
+            }
+        }
+    }
+}
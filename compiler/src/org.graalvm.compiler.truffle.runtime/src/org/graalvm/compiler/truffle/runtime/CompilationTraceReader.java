@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.graalvm.compiler.truffle.runtime.CompilationTrace.Kind;
+
+/**
+ * Offline decoder for the files written by {@link CompilationTrace}. Prints one line per record:
+ *
+ * <pre>
+ * java -cp truffle-runtime.jar org.graalvm.compiler.truffle.runtime.CompilationTraceReader trace.bin
+ * </pre>
+ */
+public final class CompilationTraceReader {
+
+    private CompilationTraceReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: CompilationTraceReader <trace file>");
+            return;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(args[0])))) {
+            decode(in, System.out);
+        }
+    }
+
+    /**
+     * Decodes the traces read from {@code in} and prints them to {@code out}.
+     *
+     * @throws IOException if {@code in} is not a compilation trace or is truncated
+     */
+    public static void decode(InputStream in, PrintStream out) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        while (true) {
+            int magic;
+            try {
+                magic = data.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+            if (magic != CompilationTrace.MAGIC) {
+                throw new IOException("Not a compilation trace");
+            }
+            short version = data.readShort();
+            if (version != CompilationTrace.VERSION) {
+                throw new IOException("Unsupported compilation trace version " + version);
+            }
+            long engineId = data.readLong();
+            long droppedRecords = data.readLong();
+            int records = data.readInt();
+            out.printf("[engine %d]%n", engineId);
+            if (droppedRecords > 0) {
+                out.printf("[%d older records dropped]%n", droppedRecords);
+            }
+            for (int i = 0; i < records; i++) {
+                byte[] record = new byte[data.readUnsignedShort()];
+                data.readFully(record);
+                out.println(decodeRecord(new DataInputStream(new ByteArrayInputStream(record)), dateFormat));
+            }
+        }
+    }
+
+    private static String decodeRecord(DataInputStream record, SimpleDateFormat dateFormat) throws IOException {
+        int ordinal = record.readUnsignedByte();
+        Kind kind = Kind.fromOrdinal(ordinal);
+        String time = dateFormat.format(new Date(record.readLong()));
+        long targetId = record.readLong();
+        String targetName = record.readUTF();
+        StringBuilder sb = new StringBuilder();
+        sb.append(time).append(' ').append(String.format("%-22s", kind == null ? "UNKNOWN(" + ordinal + ")" : kind.name()));
+        sb.append(' ').append(targetName).append('#').append(targetId);
+        if (kind == null) {
+            return sb.toString();
+        }
+        switch (kind) {
+            case TRUFFLE_TIER_FINISHED:
+                sb.append(String.format(" nodes=%d calls=%d inlined=%d time=%.3fms", record.readInt(), record.readInt(), record.readInt(), record.readLong() / 1e6));
+                break;
+            case INLINING_DECISION:
+                sb.append(String.format(" callee=%s inlined=%b deepNodes=%d", record.readUTF(), record.readBoolean(), record.readInt()));
+                String failedReason = record.readUTF();
+                if (!failedReason.isEmpty()) {
+                    sb.append(" reason=").append(failedReason);
+                }
+                break;
+            case BUDGET_EXCEEDED:
+                sb.append(String.format(" nodes=%d retried=%b", record.readInt(), record.readBoolean()));
+                break;
+            case GRAAL_TIER_FINISHED:
+                sb.append(String.format(" nodes=%d time=%.3fms", record.readInt(), record.readLong() / 1e6));
+                break;
+            case SUCCEEDED:
+                sb.append(String.format(" codeSize=%d lastTier=%b time=%.3fms", record.readInt(), record.readBoolean(), record.readLong() / 1e6));
+                break;
+            case FAILED:
+                sb.append(String.format(" reason=\"%s\" bailout=%b permanent=%b", record.readUTF(), record.readBoolean(), record.readBoolean()));
+                break;
+            case INVALIDATED:
+                sb.append(String.format(" reason=\"%s\"", record.readUTF()));
+                break;
+            default:
+                break;
+        }
+        return sb.toString();
+    }
+}
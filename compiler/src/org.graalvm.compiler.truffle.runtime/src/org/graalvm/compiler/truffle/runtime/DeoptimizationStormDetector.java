@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.CompilationResultInfo;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Detects call targets whose compiled code is repeatedly lost to deoptimizations or
+ * invalidations and disables the speculation that causes the losses. A loss is counted at most
+ * once per installed compilation and is attributed to a speculation site: the argument or return
+ * type profile of the call target, the node that was rewritten, or the deoptimization itself.
+ *
+ * Once a call target loses its compiled code
+ * {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#DeoptimizationStormThreshold
+ * DeoptimizationStormThreshold} times within
+ * {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#DeoptimizationStormWindow
+ * DeoptimizationStormWindow}, the site responsible for most of the losses is de-speculated. The
+ * argument type profile is disabled for the call target itself. A return type profile belongs to a
+ * callee and only invalidates the callers that relied on it, so the return type profiles of all
+ * direct callees of the call target are disabled. Other sites cannot be generalized by the runtime,
+ * so the compilation profile of the call target is reset instead. This only keeps it in the
+ * interpreter for another compilation threshold: the next compilation makes the same speculation
+ * again unless its nodes stabilized in the meantime.
+ */
+final class DeoptimizationStormDetector implements GraalTruffleRuntimeListener {
+
+    static final String ARGUMENT_TYPES_SITE = "argument types profile";
+    static final String RETURN_TYPE_SITE = "return type profile";
+    static final String DEOPTIMIZATION_SITE = "deoptimization";
+
+    private final GraalTruffleRuntime runtime;
+    private final Map<OptimizedCallTarget, LossHistory> histories = new WeakHashMap<>();
+
+    private DeoptimizationStormDetector(GraalTruffleRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    static void install(GraalTruffleRuntime runtime) {
+        runtime.addListener(new DeoptimizationStormDetector(runtime));
+    }
+
+    @Override
+    public void onCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result) {
+        if (target.engine.getDeoptimizationStormThreshold() > 0) {
+            synchronized (this) {
+                LossHistory history = histories.get(target);
+                if (history != null) {
+                    history.lost = false;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onCompilationInvalidated(OptimizedCallTarget target, Object source, CharSequence reason) {
+        // evicted code was not lost to a failed speculation
+        if (target.engine.getDeoptimizationStormThreshold() > 0 && !(source instanceof CodeCacheManager)) {
+            recordLoss(target, siteOf(source, reason));
+        }
+    }
+
+    @Override
+    public void onCompilationDeoptimized(OptimizedCallTarget target, Frame frame) {
+        if (target.engine.getDeoptimizationStormThreshold() > 0 && !target.isValid()) {
+            recordLoss(target, DEOPTIMIZATION_SITE);
+        }
+    }
+
+    private void recordLoss(OptimizedCallTarget target, String site) {
+        EngineData engine = target.engine;
+        String stormSite;
+        int losses;
+        synchronized (this) {
+            LossHistory history = histories.get(target);
+            if (history == null) {
+                history = new LossHistory(engine.getDeoptimizationStormThreshold());
+                histories.put(target, history);
+            } else if (history.lost) {
+                // already accounted for the currently installed code
+                return;
+            }
+            history.lost = true;
+            losses = history.record(System.nanoTime(), site, engine.getDeoptimizationStormWindowNanos());
+            if (losses < 0) {
+                return;
+            }
+            stormSite = history.dominantSite();
+            history.clear();
+        }
+        despeculate(target, stormSite, losses);
+    }
+
+    private void despeculate(OptimizedCallTarget target, String site, int losses) {
+        String action;
+        if (ARGUMENT_TYPES_SITE.equals(site)) {
+            target.disableArgumentTypeSpeculation();
+            action = "disabled argument type speculation";
+        } else if (RETURN_TYPE_SITE.equals(site)) {
+            target.disableCalleeReturnTypeSpeculation();
+            action = "disabled callee return type speculation";
+        } else {
+            target.resetCompilationProfile();
+            action = "reset compilation profile";
+        }
+        if (target.engine.traceCompilation) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("Losses", losses);
+            properties.put("Site", site);
+            runtime.logEvent(target, 0, "opt storm", target.toString(), properties, action);
+        }
+    }
+
+    /**
+     * Identifies the speculation that caused compiled code to be invalidated by {@code source}.
+     */
+    static String siteOf(Object source, CharSequence reason) {
+        if (source instanceof OptimizedAssumption) {
+            String name = ((OptimizedAssumption) source).getName();
+            if (OptimizedCallTarget.ArgumentsProfile.ARGUMENT_TYPES_ASSUMPTION_NAME.equals(name)) {
+                return ARGUMENT_TYPES_SITE;
+            } else if (OptimizedCallTarget.ReturnProfile.RETURN_TYPE_ASSUMPTION_NAME.equals(name)) {
+                return RETURN_TYPE_SITE;
+            }
+            return "assumption " + name;
+        } else if (source instanceof Node) {
+            Node node = (Node) source;
+            SourceSection section = node.getSourceSection();
+            String location = section != null && section.isAvailable() ? section.getSource().getName() + ":" + section.getStartLine() : "<unknown>";
+            return node.getClass().getSimpleName() + " at " + location;
+        }
+        return reason != null ? reason.toString() : DEOPTIMIZATION_SITE;
+    }
+
+    /**
+     * The most recent compiled code losses of a single call target.
+     */
+    private static final class LossHistory {
+
+        private final long[] times;
+        private final String[] sites;
+        private int next;
+        private int size;
+        boolean lost;
+
+        LossHistory(int threshold) {
+            this.times = new long[threshold];
+            this.sites = new String[threshold];
+        }
+
+        /**
+         * Records a loss and returns the number of losses in the window ending at {@code now} if
+         * they reach the threshold, or {@code -1} otherwise.
+         */
+        int record(long now, String site, long windowNanos) {
+            times[next] = now;
+            sites[next] = site;
+            next = (next + 1) % times.length;
+            size = Math.min(size + 1, times.length);
+            if (size == times.length && now - times[next] <= windowNanos) {
+                return size;
+            }
+            return -1;
+        }
+
+        String dominantSite() {
+            Map<String, Integer> counts = new HashMap<>();
+            String dominant = null;
+            int max = 0;
+            for (int i = 0; i < size; i++) {
+                int count = counts.merge(sites[i], 1, Integer::sum);
+                if (count > max) {
+                    max = count;
+                    dominant = sites[i];
+                }
+            }
+            return dominant;
+        }
+
+        void clear() {
+            next = 0;
+            size = 0;
+        }
+    }
+}
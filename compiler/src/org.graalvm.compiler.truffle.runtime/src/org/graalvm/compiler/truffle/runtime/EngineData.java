@@ -26,6 +26,9 @@ package org.graalvm.compiler.truffle.runtime;
 
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.ArgumentTypeSpeculation;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.BackgroundCompilation;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CodeCacheCapacity;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CodeCacheEvictionMinIdle;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CodeCacheEvictionRatio;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.Compilation;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationExceptionsAreFatal;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationExceptionsArePrinted;
@@ -34,8 +37,12 @@ import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.Compi
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationStatisticDetails;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationStatistics;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationThreshold;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationTraceBufferSize;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationTraceFile;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompileImmediately;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompileOnly;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.DeoptimizationStormThreshold;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.DeoptimizationStormWindow;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.FirstTierCompilationThreshold;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.FirstTierMinInvokeThreshold;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.Inlining;
@@ -47,21 +54,25 @@ import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.Profi
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.ReturnTypeSpeculation;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.Splitting;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingAllowForcedSplits;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingCostModel;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingDumpDecisions;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingGrowthLimit;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingMaxCalleeSize;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingMaxNumberOfSplitNodes;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingMaxPropagationDepth;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingMinBenefit;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.SplittingTraceEvents;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.TraceCompilation;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.TraceCompilationDetails;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.TraceSplitting;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.TraceSplittingSummary;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.TraceTransferToInterpreter;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.TraversingCompilationQueue;
 import static org.graalvm.compiler.truffle.runtime.TruffleRuntimeOptions.getPolyglotOptionValue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
@@ -115,6 +126,8 @@ public final class EngineData {
     @CompilationFinal public int splittingMaxPropagationDepth;
     @CompilationFinal public double splittingGrowthLimit;
     @CompilationFinal public int splittingMaxNumberOfSplitNodes;
+    @CompilationFinal public boolean splittingCostModel;
+    @CompilationFinal public double splittingMinBenefit;
 
     // inlining options
     @CompilationFinal public boolean inlining;
@@ -128,12 +141,14 @@ public final class EngineData {
     @CompilationFinal public boolean traceCompilation;
     @CompilationFinal public boolean traceCompilationDetails;
     @CompilationFinal public boolean backgroundCompilation;
+    @CompilationFinal public boolean traversingCompilationQueue;
     @CompilationFinal public ExceptionAction compilationFailureAction;
     @CompilationFinal public String compileOnly;
     @CompilationFinal public boolean callTargetStatistics;
     @CompilationFinal public boolean callTargetStatisticDetails;
     @CompilationFinal public boolean profilingEnabled;
     @CompilationFinal public boolean traceTransferToInterpreter;
+    @CompilationFinal public boolean codeCacheEviction;
 
     // computed fields.
     @CompilationFinal public int callThresholdInInterpreter;
@@ -147,6 +162,20 @@ public final class EngineData {
     // Cached parsed CompileOnly includes and excludes
     private volatile Pair<List<String>, List<String>> parsedCompileOnly;
 
+    // Compiled call targets persisted across engines, null if disabled
+    private volatile CompilationProfileCache compilationProfileCache;
+
+    // Ring buffer of recent compilation events, null if disabled
+    private volatile CompilationTrace compilationTrace;
+    private volatile String compilationTraceFile;
+
+    // Compiled code losses after which a call target is de-speculated, 0 if disabled
+    private volatile int deoptimizationStormThreshold;
+    private volatile long deoptimizationStormWindowNanos;
+
+    // Evicts idle compiled call targets when the installed code exceeds a capacity, null if disabled
+    private volatile CodeCacheManager codeCacheManager;
+
     EngineData(OptionValues options, Supplier<TruffleLogger> loggerFactory) {
         this.id = engineCounter.incrementAndGet();
         this.loggerFactory = loggerFactory;
@@ -175,6 +204,8 @@ public final class EngineData {
         this.traceSplits = getPolyglotOptionValue(options, TraceSplitting);
         this.splittingGrowthLimit = getPolyglotOptionValue(options, SplittingGrowthLimit);
         this.splittingMaxNumberOfSplitNodes = getPolyglotOptionValue(options, SplittingMaxNumberOfSplitNodes);
+        this.splittingCostModel = getPolyglotOptionValue(options, SplittingCostModel);
+        this.splittingMinBenefit = getPolyglotOptionValue(options, SplittingMinBenefit);
 
         // inlining options
         this.inlining = getPolyglotOptionValue(options, Inlining) &&
@@ -191,6 +222,7 @@ public final class EngineData {
         this.traceCompilation = getPolyglotOptionValue(options, TraceCompilation);
         this.traceCompilationDetails = getPolyglotOptionValue(options, TraceCompilationDetails);
         this.backgroundCompilation = getPolyglotOptionValue(options, BackgroundCompilation);
+        this.traversingCompilationQueue = getPolyglotOptionValue(options, TraversingCompilationQueue);
         this.callThresholdInInterpreter = computeCallThresholdInInterpreter(options);
         this.callAndLoopThresholdInInterpreter = computeCallAndLoopThresholdInInterpreter(options);
         this.callThresholdInFirstTier = computeCallThresholdInFirstTier(options);
@@ -203,6 +235,79 @@ public final class EngineData {
         this.compilationFailureAction = computeCompilationFailureAction(options);
         validateOptions();
         parsedCompileOnly = null;
+
+        String profileCacheDirectory = getPolyglotOptionValue(options, PolyglotCompilerOptions.CompilationProfileCache);
+        CompilationProfileCache profileCache = this.compilationProfileCache;
+        if (profileCacheDirectory == null) {
+            this.compilationProfileCache = null;
+        } else if (profileCache == null || !profileCache.isStoredIn(profileCacheDirectory)) {
+            // an option reload must not drop the entries recorded so far
+            this.compilationProfileCache = CompilationProfileCache.load(this, profileCacheDirectory);
+        }
+
+        int traceBufferSize = getPolyglotOptionValue(options, CompilationTraceBufferSize);
+        CompilationTrace trace = this.compilationTrace;
+        if (traceBufferSize <= 0) {
+            this.compilationTrace = null;
+        } else if (trace == null || trace.capacity() != traceBufferSize) {
+            // an option reload must not drop the events recorded so far
+            this.compilationTrace = new CompilationTrace(id, traceBufferSize);
+        }
+        this.compilationTraceFile = getPolyglotOptionValue(options, CompilationTraceFile);
+
+        this.deoptimizationStormThreshold = getPolyglotOptionValue(options, DeoptimizationStormThreshold);
+        this.deoptimizationStormWindowNanos = TimeUnit.MILLISECONDS.toNanos(getPolyglotOptionValue(options, DeoptimizationStormWindow));
+
+        int codeCacheCapacity = getPolyglotOptionValue(options, CodeCacheCapacity);
+        this.codeCacheEviction = codeCacheCapacity > 0;
+        CodeCacheManager manager = this.codeCacheManager;
+        if (!codeCacheEviction) {
+            this.codeCacheManager = null;
+        } else {
+            double evictionRatio = getPolyglotOptionValue(options, CodeCacheEvictionRatio);
+            long minIdleNanos = TimeUnit.MILLISECONDS.toNanos(getPolyglotOptionValue(options, CodeCacheEvictionMinIdle));
+            if (manager == null || !manager.hasConfiguration(codeCacheCapacity, evictionRatio, minIdleNanos)) {
+                CodeCacheManager newManager = new CodeCacheManager(this, codeCacheCapacity, evictionRatio, minIdleNanos);
+                if (manager != null) {
+                    // an option reload must not drop the code installed so far
+                    newManager.transferFrom(manager);
+                }
+                this.codeCacheManager = newManager;
+            }
+        }
+    }
+
+    CompilationProfileCache getCompilationProfileCache() {
+        return compilationProfileCache;
+    }
+
+    /**
+     * Returns the ring buffer of recent compilation events of this engine or {@code null} if
+     * {@link PolyglotCompilerOptions#CompilationTraceBufferSize CompilationTraceBufferSize} is not
+     * set.
+     */
+    public CompilationTrace getCompilationTrace() {
+        return compilationTrace;
+    }
+
+    String getCompilationTraceFile() {
+        return compilationTraceFile;
+    }
+
+    int getDeoptimizationStormThreshold() {
+        return deoptimizationStormThreshold;
+    }
+
+    long getDeoptimizationStormWindowNanos() {
+        return deoptimizationStormWindowNanos;
+    }
+
+    /**
+     * Returns the code cache manager of this engine or {@code null} if
+     * {@link PolyglotCompilerOptions#CodeCacheCapacity CodeCacheCapacity} is not set.
+     */
+    public CodeCacheManager getCodeCacheManager() {
+        return codeCacheManager;
     }
 
     /**
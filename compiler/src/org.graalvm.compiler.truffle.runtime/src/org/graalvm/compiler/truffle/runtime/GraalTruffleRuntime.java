@@ -414,6 +414,10 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         TraceASTCompilationListener.install(this);
         JFRListener.install(this);
         TruffleSplittingStrategy.installListener(this);
+        CompilationProfileCache.install(this);
+        CompilationTrace.install(this);
+        DeoptimizationStormDetector.install(this);
+        CodeCacheManager.install(this);
         installShutdownHooks();
     }
 
@@ -655,7 +659,7 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
                 final Map<String, Object> optionsMap = TruffleRuntimeOptions.getOptionsForCompiler(callTarget);
                 try (TruffleDebugContext debug = compiler.openDebugContext(optionsMap, compilation)) {
                     compilationStarted = true;
-                    listeners.onCompilationStarted(callTarget);
+                    listeners.onCompilationStarted(callTarget, task.isLastTier() ? 2 : 1);
                     TruffleInlining inlining = createInliningPlan(callTarget, task);
                     try (AutoCloseable s = debug.scope("Truffle", new TruffleDebugJavaMethod(callTarget))) {
                         // Open the "Truffle::methodName" dump group if dumping is enabled.
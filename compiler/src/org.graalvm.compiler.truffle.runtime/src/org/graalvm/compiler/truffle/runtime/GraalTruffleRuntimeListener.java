@@ -39,7 +39,7 @@ import com.oracle.truffle.api.nodes.Node;
  * described using the following deterministic automata: * <code>
  * <pre>
  * ( (split | (queue . unqueue))*
- *    . queue . started
+ *    . queue . [polled] . started
  *    . (truffleTierFinished . graalTierFinished . success)
  *      | ([truffleTierFinished] . [graalTierFinished] . failed)
  *    . invalidate )*
@@ -92,6 +92,17 @@ public interface GraalTruffleRuntimeListener {
     default void onCompilationDequeued(OptimizedCallTarget target, Object source, CharSequence reason) {
     }
 
+    /**
+     * Notifies this object when a compiler thread takes the compilation request of {@code target}
+     * from the compilation queue. The request may still be cancelled before compilation starts.
+     *
+     * @param target the call target whose compilation request was taken from the queue
+     * @param queueTimeNanos the time in nanoseconds the request waited in the queue
+     * @param queueSize the number of requests remaining in the compilation queue
+     */
+    default void onCompilationPolled(OptimizedCallTarget target, long queueTimeNanos, int queueSize) {
+    }
+
     /**
      * Notifies this object when compilation of {@code target} is about to start.
      *
@@ -100,6 +111,18 @@ public interface GraalTruffleRuntimeListener {
     default void onCompilationStarted(OptimizedCallTarget target) {
     }
 
+    /**
+     * Notifies this object when compilation of {@code target} is about to start. The default
+     * implementation calls {@link #onCompilationStarted(OptimizedCallTarget)}.
+     *
+     * @param target the call target about to be compiled
+     * @param tier the tier of the compilation, {@code 1} for the first tier and {@code 2} for the
+     *            last tier
+     */
+    default void onCompilationStarted(OptimizedCallTarget target, int tier) {
+        onCompilationStarted(target);
+    }
+
     /**
      * Notifies this object when compilation of {@code target} has completed partial evaluation and
      * is about to perform compilation of the graph produced by partial evaluation.
@@ -111,6 +134,19 @@ public interface GraalTruffleRuntimeListener {
     default void onCompilationTruffleTierFinished(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph) {
     }
 
+    /**
+     * Notifies this object when partial evaluation of {@code target} was aborted because the graph
+     * exceeded the {@link org.graalvm.compiler.truffle.options.PolyglotCompilerOptions#MaximumGraalNodeCount
+     * maximum node count}.
+     *
+     * @param target the call target being compiled
+     * @param nodeCount the number of nodes in the graph when partial evaluation was aborted
+     * @param retry {@code true} if partial evaluation is retried without inlining, {@code false} if
+     *            the compilation is abandoned
+     */
+    default void onCompilationBudgetExceeded(OptimizedCallTarget target, int nodeCount, boolean retry) {
+    }
+
     /**
      * Notifies this object when Graal compilation of a call target completes. Graal compilation
      * occurs between {@link #onCompilationTruffleTierFinished} and code installation.
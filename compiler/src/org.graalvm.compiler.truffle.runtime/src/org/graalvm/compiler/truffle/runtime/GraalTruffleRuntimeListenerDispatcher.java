@@ -68,6 +68,11 @@ final class GraalTruffleRuntimeListenerDispatcher extends CopyOnWriteArrayList<G
         invokeListeners((l) -> l.onCompilationDequeued(target, source, reason));
     }
 
+    @Override
+    public void onCompilationPolled(OptimizedCallTarget target, long queueTimeNanos, int queueSize) {
+        invokeListeners((l) -> l.onCompilationPolled(target, queueTimeNanos, queueSize));
+    }
+
     @Override
     public void onCompilationFailed(OptimizedCallTarget target, String reason, boolean bailout, boolean permanent) {
         invokeListeners((l) -> l.onCompilationFailed(target, reason, bailout, permanent));
@@ -78,11 +83,21 @@ final class GraalTruffleRuntimeListenerDispatcher extends CopyOnWriteArrayList<G
         invokeListeners((l) -> l.onCompilationStarted(target));
     }
 
+    @Override
+    public void onCompilationStarted(OptimizedCallTarget target, int tier) {
+        invokeListeners((l) -> l.onCompilationStarted(target, tier));
+    }
+
     @Override
     public void onCompilationTruffleTierFinished(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph) {
         invokeListeners((l) -> l.onCompilationTruffleTierFinished(target, inliningDecision, graph));
     }
 
+    @Override
+    public void onCompilationBudgetExceeded(OptimizedCallTarget target, int nodeCount, boolean retry) {
+        invokeListeners((l) -> l.onCompilationBudgetExceeded(target, nodeCount, retry));
+    }
+
     @Override
     public void onCompilationGraalTierFinished(OptimizedCallTarget target, GraphInfo graph) {
         invokeListeners((l) -> l.onCompilationGraalTierFinished(target, graph));
@@ -145,6 +160,11 @@ final class GraalTruffleRuntimeListenerDispatcher extends CopyOnWriteArrayList<G
         onCompilationTruffleTierFinished((OptimizedCallTarget) compilable, (TruffleInlining) inliningPlan, graph);
     }
 
+    @Override
+    public void onPartialEvaluationBudgetExceeded(CompilableTruffleAST compilable, int nodeCount, boolean retry) {
+        onCompilationBudgetExceeded((OptimizedCallTarget) compilable, nodeCount, retry);
+    }
+
     @Override
     public void onGraalTierFinished(CompilableTruffleAST compilable, GraphInfo graph) {
         onCompilationGraalTierFinished((OptimizedCallTarget) compilable, graph);
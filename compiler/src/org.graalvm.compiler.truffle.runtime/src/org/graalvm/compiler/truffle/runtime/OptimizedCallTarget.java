@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
@@ -121,6 +122,7 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
     private static final WeakReference<OptimizedDirectCallNode> MULTIPLE_CALLS = null;
     private static final String SPLIT_LOG_FORMAT = "[poly-event] %-70s %s";
     private static final int MAX_PROFILED_ARGUMENTS = 256;
+    private static final AtomicLong idCounter = new AtomicLong();
 
     /** The AST to be executed when this call target is called. */
     private final RootNode rootNode;
@@ -140,6 +142,13 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
      * after boot image generation.
      */
     private int callAndLoopCount;
+    /**
+     * The number of calls executed in compiled code. Only counted if code cache eviction is enabled,
+     * in which case it is sampled to find idle compiled call targets. Like {@link #callCount} it is
+     * incremented without synchronization: concurrent calls may lose increments and the count may
+     * wrap around, which the sampling tolerates as it only looks for changes of the count.
+     */
+    private int compiledCallCount;
 
     /*
      * Profiling information (types and Assumption) are kept in 2-final-fields objects to ensure to
@@ -165,7 +174,7 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
     @CompilationFinal private Class<? extends Throwable> profiledExceptionType;
 
     public static final class ArgumentsProfile {
-        private static final String ARGUMENT_TYPES_ASSUMPTION_NAME = "Profiled Argument Types";
+        static final String ARGUMENT_TYPES_ASSUMPTION_NAME = "Profiled Argument Types";
         private static final Class<?>[] EMPTY_ARGUMENT_TYPES = new Class<?>[0];
         private static final ArgumentsProfile INVALID = new ArgumentsProfile();
 
@@ -197,7 +206,7 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
     }
 
     public static final class ReturnProfile {
-        private static final String RETURN_TYPE_ASSUMPTION_NAME = "Profiled Return Type";
+        static final String RETURN_TYPE_ASSUMPTION_NAME = "Profiled Return Type";
         private static final ReturnProfile INVALID = new ReturnProfile();
 
         // Invariant to simplify conditions: type is non-null if assumption is valid
@@ -258,12 +267,21 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
 
     private volatile boolean needsSplit;
 
+    /**
+     * Number of polymorphic specializations reported in this call target or propagated to it from
+     * its callees. Approximates how many nodes a split of this call target could monomorphize.
+     */
+    private volatile int polymorphicSpecializeCount;
+
     /**
      * The engine data associated with this call target. Used to cache option lookups and to gather
      * engine specific statistics.
      */
     public final EngineData engine;
 
+    /** Process-wide unique id of this call target, stable for its lifetime unlike its hash code. */
+    public final long id;
+
     /** Only set for a source CallTarget with a clonable RootNode. */
     private volatile RootNode uninitializedRootNode;
 
@@ -305,6 +323,7 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         this.speculationLog = sourceCallTarget != null ? sourceCallTarget.getSpeculationLog() : null;
         this.rootNode = rootNode;
         this.engine = GraalTVMCI.getEngineData(rootNode);
+        this.id = idCounter.incrementAndGet();
         this.resetCompilationProfile();
         // Do not adopt children of OSRRootNodes; we want to preserve the parent of the LoopNode.
         this.uninitializedNodeCount = !(rootNode instanceof OSRRootNode) ? GraalRuntimeAccessor.NODES.adoptChildrenAndCount(rootNode) : -1;
@@ -482,6 +501,9 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         }
         if (CompilerDirectives.inCompiledCode()) {
             args = injectArgumentsProfile(originalArguments);
+            if (engine.codeCacheEviction) {
+                compiledCallCount++;
+            }
         }
         Object result = executeRootNode(createFrame(getRootNode().getFrameDescriptor(), args));
         profileReturnValue(result);
@@ -551,7 +573,12 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
                 this.uninitializedRootNode = NodeUtil.cloneNode(rootNode);
             }
             GraalRuntimeAccessor.INSTRUMENT.onFirstExecution(getRootNode());
-            if (engine.callTargetStatistics) {
+            CompilationProfileCache profileCache = engine.getCompilationProfileCache();
+            if (profileCache != null && profileCache.wasCompiled(sourceCallTarget != null ? sourceCallTarget : this)) {
+                // Compiled in a previous run: only the minimum invoke threshold remains.
+                this.callAndLoopCount = Math.max(callAndLoopCount, engine.callAndLoopThresholdInInterpreter);
+            }
+            if (engine.callTargetStatistics || engine.traversingCompilationQueue) {
                 this.initializedTimestamp = System.nanoTime();
             } else {
                 this.initializedTimestamp = 0L;
@@ -651,6 +678,10 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
      */
     public abstract boolean isValidLastTier();
 
+    final boolean isCompilationFailed() {
+        return compilationFailed;
+    }
+
     /**
      * Invalidates this call target by invalidating any machine code attached to it.
      *
@@ -791,6 +822,11 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         return callSitesKnown;
     }
 
+    @Override
+    public final boolean isCompiled() {
+        return isValid();
+    }
+
     public final OptimizedCallTarget getSourceCallTarget() {
         return sourceCallTarget;
     }
@@ -902,6 +938,10 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         return callAndLoopCount;
     }
 
+    final int getCompiledCallCount() {
+        return compiledCallCount;
+    }
+
     public final long getInitializedTimestamp() {
         return initializedTimestamp;
     }
@@ -1176,6 +1216,43 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         return returnProfile;
     }
 
+    /**
+     * Stops speculating on the argument types of this call target. Invalidates compiled code that
+     * depends on the current argument profile. Argument types provided by the language are kept.
+     */
+    final void disableArgumentTypeSpeculation() {
+        if (callProfiled) {
+            return;
+        }
+        ArgumentsProfile previous = ARGUMENTS_PROFILE_UPDATER.getAndSet(this, ArgumentsProfile.INVALID);
+        if (previous != null) {
+            previous.assumption.invalidate();
+        }
+    }
+
+    /**
+     * Stops speculating on the return type of this call target. Invalidates compiled code that
+     * depends on the current return profile.
+     */
+    final void disableReturnTypeSpeculation() {
+        ReturnProfile previous = RETURN_PROFILE_UPDATER.getAndSet(this, ReturnProfile.INVALID);
+        if (previous != null) {
+            previous.assumption.invalidate();
+        }
+    }
+
+    /**
+     * Stops speculating on the return types of the direct callees of this call target. Compiled
+     * code of this call target relies on these speculations wherever it calls a callee.
+     */
+    final void disableCalleeReturnTypeSpeculation() {
+        for (Node node : nodeIterable(null)) {
+            if (node instanceof OptimizedDirectCallNode) {
+                ((OptimizedDirectCallNode) node).getCallTarget().disableReturnTypeSpeculation();
+            }
+        }
+    }
+
     // endregion
     // region Exception profiling
 
@@ -1351,6 +1428,10 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         return needsSplit;
     }
 
+    final int getPolymorphicSpecializeCount() {
+        return polymorphicSpecializeCount;
+    }
+
     final void polymorphicSpecialize(Node source) {
         List<Node> toDump = null;
         if (engine.splittingDumpDecisions) {
@@ -1363,6 +1444,10 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
 
     private boolean maybeSetNeedsSplit(int depth, List<Node> toDump) {
         final OptimizedDirectCallNode onlyCaller = getSingleCallNode();
+        if (depth <= engine.splittingMaxPropagationDepth) {
+            // racy increment, the count is only a heuristic
+            polymorphicSpecializeCount++;
+        }
         if (depth > engine.splittingMaxPropagationDepth || needsSplit || callSitesKnown == 0 || getCallCount() == 1) {
             logEarlyReturn(depth, callSitesKnown);
             return needsSplit;
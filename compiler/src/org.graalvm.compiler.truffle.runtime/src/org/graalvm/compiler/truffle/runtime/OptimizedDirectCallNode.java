@@ -45,6 +45,8 @@ import com.oracle.truffle.api.nodes.RootNode;
 public final class OptimizedDirectCallNode extends DirectCallNode implements TruffleCallNode {
 
     private int callCount;
+    private int nextSplitDecision;
+    private double estimatedSplitBenefit = Double.NaN;
     private boolean inliningForced;
     @CompilationFinal private Class<? extends Throwable> exceptionProfile;
     @CompilationFinal private OptimizedCallTarget splitCallTarget;
@@ -153,7 +155,7 @@ public final class OptimizedDirectCallNode extends DirectCallNode implements Tru
      */
     private OptimizedCallTarget onInterpreterCall(OptimizedCallTarget target) {
         callCount++;
-        if (target.isNeedsSplit() && !splitDecided) {
+        if (target.isNeedsSplit() && !splitDecided && callCount >= nextSplitDecision) {
             // We intentionally avoid locking here because worst case is a double decision printed
             // and preventing that is not worth the performance impact of locking
             splitDecided = true;
@@ -163,6 +165,26 @@ public final class OptimizedDirectCallNode extends DirectCallNode implements Tru
         return target;
     }
 
+    /**
+     * Returns the benefit the splitting cost model estimated for splitting this call site, or
+     * {@link Double#NaN} if no estimate was made.
+     */
+    public double getEstimatedSplitBenefit() {
+        return estimatedSplitBenefit;
+    }
+
+    void setEstimatedSplitBenefit(double benefit) {
+        this.estimatedSplitBenefit = benefit;
+    }
+
+    /**
+     * Reconsiders the split decision for this call site once its call count has doubled.
+     */
+    void deferSplitDecision() {
+        nextSplitDecision = callCount * 2;
+        splitDecided = false;
+    }
+
     /** Used by the splitting strategy to install new targets. */
     void split() {
         CompilerAsserts.neverPartOfCompilation();
@@ -33,6 +33,7 @@ import org.graalvm.options.OptionValues;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.ReplaceObserver;
+import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
@@ -131,6 +132,7 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
             }
         } else if (CompilerDirectives.inFirstTier()) {
             int iterationsCompleted = 0;
+            int backEdgesSinceCheck = 0;
             Object status;
             while (repeatableNode.shouldContinue((status = repeatableNode.executeRepeatingWithValue(frame)))) {
                 iterationsCompleted++;
@@ -138,6 +140,15 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
                     // compiled method got invalidated. We might need OSR again.
                     return execute(frame);
                 }
+                if (++backEdgesSinceCheck >= osrThreshold) {
+                    backEdgesSinceCheck = 0;
+                    if (requestLastTierOSR(frame.getClass())) {
+                        // Continue the loop in the last tier OSR code.
+                        CompilerDirectives.transferToInterpreter();
+                        reportParentLoopCount(iterationsCompleted);
+                        return execute(frame);
+                    }
+                }
             }
             if (firstTierBackedgeCounts && iterationsCompleted > 1) {
                 reportParentLoopCount(iterationsCompleted);
@@ -162,7 +173,7 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
             while (repeatableNode.shouldContinue(status = repeatableNode.executeRepeatingWithValue(frame))) {
                 // the baseLoopCount might be updated from a child loop during an iteration.
                 if (++iterations + baseLoopCount > osrThreshold) {
-                    compileLoop(frame);
+                    compileLoop(frame.getClass(), !GraalTVMCI.getEngineData(getRootNode()).multiTier);
                     // The status returned here is CONTINUE_LOOP_STATUS.
                     return status;
                 }
@@ -194,7 +205,26 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
         baseLoopCount = osrThreshold;
         RootNode rootNode = getRootNode();
         VirtualFrame dummyFrame = Truffle.getRuntime().createVirtualFrame(new Object[0], rootNode != null ? rootNode.getFrameDescriptor() : new FrameDescriptor());
-        compileLoop(dummyFrame);
+        compileLoop(dummyFrame.getClass(), true);
+    }
+
+    /**
+     * Called from first tier code every {@link #osrThreshold} back edges, both from the first tier
+     * code of the enclosing call target and from the first tier OSR code of this loop. Requests a
+     * last tier compilation of the OSR target of this loop and returns {@code true} once it is
+     * installed, so that long running loops leave first tier code without waiting for the loop or
+     * the enclosing call target to be entered again.
+     */
+    @TruffleBoundary
+    private boolean requestLastTierOSR(Class<? extends VirtualFrame> frameClass) {
+        OptimizedCallTarget target = compiledOSRLoop;
+        if (target == null) {
+            compileLoop(frameClass, true);
+            target = compiledOSRLoop;
+        } else if (!target.isValidLastTier() && !target.isSubmittedForCompilation() && !target.isCompilationFailed()) {
+            target.compile(true);
+        }
+        return target != null && target.isValidLastTier() && !target.isSubmittedForCompilation();
     }
 
     public final OptimizedCallTarget getCompiledOSRLoop() {
@@ -240,7 +270,12 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
         }
     }
 
-    private void compileLoop(VirtualFrame frame) {
+    /**
+     * Creates and submits the OSR target of this loop. With multi-tier compilation, loops that get
+     * hot in the interpreter are first compiled in the first tier and later recompiled in the last
+     * tier from their first tier code.
+     */
+    private void compileLoop(Class<? extends VirtualFrame> frameClass, boolean lastTier) {
         atomic(new Runnable() {
             @Override
             public void run() {
@@ -250,7 +285,7 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
                  * issue compiles.
                  */
                 if (compiledOSRLoop == null) {
-                    compiledOSRLoop = compileImpl(frame);
+                    compiledOSRLoop = compileImpl(frameClass, lastTier);
                 }
             }
         });
@@ -260,14 +295,23 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
         return createRootNode(root == null ? null : root.getFrameDescriptor(), frameClass);
     }
 
-    private OptimizedCallTarget compileImpl(VirtualFrame frame) {
+    private OptimizedCallTarget compileImpl(Class<? extends VirtualFrame> frameClass, boolean lastTier) {
         RootNode root = getRootNode();
         if (speculationLog == null) {
-            speculationLog = GraalTruffleRuntime.getRuntime().createSpeculationLog();
+            /*
+             * Share the speculation log of the enclosing call target so that speculations which
+             * already failed in its compiled code are not repeated in the OSR code of its loops.
+             */
+            RootCallTarget enclosing = root == null ? null : root.getCallTarget();
+            if (enclosing instanceof OptimizedCallTarget) {
+                speculationLog = ((OptimizedCallTarget) enclosing).getSpeculationLog();
+            } else {
+                speculationLog = GraalTruffleRuntime.getRuntime().createSpeculationLog();
+            }
         }
-        OptimizedCallTarget osrTarget = GraalTruffleRuntime.getRuntime().createOSRCallTarget(createRootNodeImpl(root, frame.getClass()));
+        OptimizedCallTarget osrTarget = GraalTruffleRuntime.getRuntime().createOSRCallTarget(createRootNodeImpl(root, frameClass));
         osrTarget.setSpeculationLog(speculationLog);
-        osrTarget.compile(true);
+        osrTarget.compile(lastTier);
         return osrTarget;
     }
 
@@ -444,11 +488,20 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
 
         protected Object executeImpl(VirtualFrame frame) {
             VirtualFrame parentFrame = clazz.cast(frame.getArguments()[0]);
+            int backEdgesSinceCheck = 0;
             Object status;
             while (loopNode.repeatableNode.shouldContinue(status = loopNode.getRepeatingNode().executeRepeatingWithValue(parentFrame))) {
                 if (CompilerDirectives.inInterpreter()) {
                     return loopNode.repeatableNode.initialLoopStatus();
                 }
+                if (CompilerDirectives.inFirstTier() && ++backEdgesSinceCheck >= loopNode.osrThreshold) {
+                    backEdgesSinceCheck = 0;
+                    if (loopNode.requestLastTierOSR(clazz)) {
+                        // Re-enter the loop through the last tier OSR code.
+                        CompilerDirectives.transferToInterpreter();
+                        return loopNode.repeatableNode.initialLoopStatus();
+                    }
+                }
             }
             return status;
         }
@@ -525,11 +578,20 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
             FrameWithoutBoxing parentFrame = (FrameWithoutBoxing) (loopFrame.getArguments()[0]);
             executeTransfer(parentFrame, loopFrame, readFrameSlots, readFrameSlotsTags);
             try {
+                int backEdgesSinceCheck = 0;
                 Object status;
                 while (loopNode.repeatableNode.shouldContinue(status = loopNode.getRepeatingNode().executeRepeatingWithValue(loopFrame))) {
                     if (CompilerDirectives.inInterpreter()) {
                         return loopNode.repeatableNode.initialLoopStatus();
                     }
+                    if (CompilerDirectives.inFirstTier() && ++backEdgesSinceCheck >= loopNode.osrThreshold) {
+                        backEdgesSinceCheck = 0;
+                        if (loopNode.requestLastTierOSR(clazz)) {
+                            // Re-enter the loop through the last tier OSR code.
+                            CompilerDirectives.transferToInterpreter();
+                            return loopNode.repeatableNode.initialLoopStatus();
+                        }
+                    }
                 }
                 return status;
             } finally {
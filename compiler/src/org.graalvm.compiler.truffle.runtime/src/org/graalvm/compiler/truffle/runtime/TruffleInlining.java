@@ -235,6 +235,15 @@ public class TruffleInlining implements Iterable<TruffleInliningDecision>, Truff
         inlinedCallCount = count;
     }
 
+    @Override
+    public void clearDecisions() {
+        for (TruffleInliningDecision callSite : callSites) {
+            callSite.setInline(false);
+        }
+        targets.clear();
+        inlinedCallCount = 0;
+    }
+
     @Override
     public void setCallCount(int count) {
         callCount = count;
@@ -97,13 +97,44 @@ final class TruffleSplittingStrategy {
             maybeTraceFail(engine, call, TruffleSplittingStrategy::notEnoughBudgetMessageFactory);
             return false;
         }
-        if (callTarget.getUninitializedNodeCount() > engine.splittingMaxCalleeSize) {
+        if (engine.splittingCostModel) {
+            double benefit = estimateSplitBenefit(call);
+            call.setEstimatedSplitBenefit(benefit);
+            if (benefit < engine.splittingMinBenefit) {
+                call.deferSplitDecision();
+                if (engine.traceSplittingSummary) {
+                    synchronized (engine.splittingStatistics) {
+                        engine.splittingStatistics.deferredSplitCount++;
+                    }
+                }
+                maybeTraceFail(engine, call, TruffleSplittingStrategy::benefitTooLowMessageFactory);
+                return false;
+            }
+        } else if (callTarget.getUninitializedNodeCount() > engine.splittingMaxCalleeSize) {
             maybeTraceFail(engine, call, TruffleSplittingStrategy::targetTooBigMessageFactory);
             return false;
         }
         return true;
     }
 
+    /**
+     * Estimates the benefit of splitting the call target of {@code call} for this call site. A split
+     * is expected to monomorphize the polymorphic nodes of the call target in proportion to the
+     * share of calls that come from other call sites. The benefit is that number of nodes weighted
+     * by the calls through this call site, per node that the split adds.
+     */
+    static double estimateSplitBenefit(OptimizedDirectCallNode call) {
+        OptimizedCallTarget callTarget = call.getCurrentCallTarget();
+        int siteCalls = call.getCallCount();
+        double siteShare = Math.min(1.0, (double) siteCalls / Math.max(1, callTarget.getCallCount()));
+        double monomorphizedNodes = callTarget.getPolymorphicSpecializeCount() * (1.0 - siteShare);
+        return monomorphizedNodes * siteCalls / Math.max(1, callTarget.getUninitializedNodeCount());
+    }
+
+    private static String benefitTooLowMessageFactory(OptimizedDirectCallNode call, EngineData engine) {
+        return String.format("Benefit too low: %.2f < %.2f", call.getEstimatedSplitBenefit(), engine.splittingMinBenefit);
+    }
+
     private static String targetTooBigMessageFactory(OptimizedDirectCallNode call, EngineData engine) {
         return "Target too big: " + call.getCallTarget().getUninitializedNodeCount() + " > " + engine.splittingMaxCalleeSize;
     }
@@ -236,6 +267,7 @@ final class TruffleSplittingStrategy {
         final Map<OptimizedCallTarget, Integer> splitTargets = new HashMap<>();
         int splitCount;
         int forcedSplitCount;
+        int deferredSplitCount;
         int splitNodeCount;
         int totalExecutedNodeCount;
         int totalCreatedNodeCount;
@@ -267,6 +299,7 @@ final class TruffleSplittingStrategy {
                     out.printf(D_FORMAT, "Split limit", engineData.splitLimit);
                     out.printf(D_FORMAT, "Splits", stat.splitCount);
                     out.printf(D_FORMAT, "Forced splits", stat.forcedSplitCount);
+                    out.printf(D_FORMAT, "Splits deferred by cost model", stat.deferredSplitCount);
                     out.printf(D_FORMAT, "Nodes created through splitting", stat.splitNodeCount);
                     out.printf(D_FORMAT, "Nodes created without splitting", stat.totalCreatedNodeCount);
                     out.printf(P_FORMAT, "Increase in nodes", (stat.splitNodeCount * 100.0) / (stat.totalCreatedNodeCount));
@@ -32,8 +32,10 @@ import org.graalvm.compiler.truffle.runtime.AbstractGraalTruffleRuntimeListener;
 import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
 import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
 import org.graalvm.compiler.truffle.runtime.TruffleInlining;
+import org.graalvm.compiler.truffle.runtime.TruffleInliningDecision;
 import org.graalvm.compiler.truffle.runtime.serviceprovider.TruffleRuntimeServices;
 import org.graalvm.compiler.truffle.jfr.CompilationEvent;
+import org.graalvm.compiler.truffle.jfr.CompilationQueueEvent;
 import org.graalvm.compiler.truffle.jfr.EventFactory;
 
 import com.oracle.truffle.api.frame.Frame;
@@ -67,13 +69,20 @@ public final class JFRListener extends AbstractGraalTruffleRuntimeListener {
         }
     }
 
+    /**
+     * Maximum number of inlined call target names recorded in a single compilation event.
+     */
+    private static final int MAX_INLINED_CALLEES = 64;
+
     private final ThreadLocal<CompilationData> currentCompilation = new ThreadLocal<>();
+    private final ThreadLocal<Long> polledQueueTime = new ThreadLocal<>();
     private final Statistics statistics;
 
     private JFRListener(GraalTruffleRuntime runtime) {
         super(runtime);
         statistics = new Statistics();
         factory.addPeriodicEvent(CompilationStatisticsEvent.class, statistics);
+        factory.addPeriodicEvent(CompilationQueueEvent.class, new QueueDepth(runtime));
     }
 
     public static void install(GraalTruffleRuntime runtime) {
@@ -83,12 +92,23 @@ public final class JFRListener extends AbstractGraalTruffleRuntimeListener {
     }
 
     @Override
-    public void onCompilationStarted(OptimizedCallTarget target) {
+    public void onCompilationPolled(OptimizedCallTarget target, long queueTimeNanos, int queueSize) {
+        polledQueueTime.set(queueTimeNanos);
+    }
+
+    @Override
+    public void onCompilationStarted(OptimizedCallTarget target, int tier) {
         CompilationEvent event = null;
+        Long queueTime = polledQueueTime.get();
+        polledQueueTime.remove();
         if (factory != null) {
             event = factory.createCompilationEvent();
             if (event.isEnabled()) {
                 event.setRootFunction(target);
+                if (queueTime != null) {
+                    event.setQueueTime(queueTime);
+                }
+                event.setTier(tier);
                 event.compilationStarted();
             } else {
                 event = null;
@@ -103,6 +123,7 @@ public final class JFRListener extends AbstractGraalTruffleRuntimeListener {
             DeoptimizationEvent event = factory.createDeoptimizationEvent();
             if (event.isEnabled()) {
                 event.setRootFunction(target);
+                event.setCodeInvalidated(!target.isValid());
                 event.publish();
             }
         }
@@ -155,6 +176,11 @@ public final class JFRListener extends AbstractGraalTruffleRuntimeListener {
             }
             int dispatchedCalls = calls - inlinedCalls;
             event.setInlinedCalls(inlinedCalls);
+            if (inliningDecision != null && inlinedCalls > 0) {
+                StringBuilder callees = new StringBuilder();
+                appendInlinedCallees(inliningDecision, callees, new int[]{MAX_INLINED_CALLEES});
+                event.setInlinedCallees(callees);
+            }
             event.setDispatchedCalls(dispatchedCalls);
             event.setGraalNodeCount(graph.getNodeCount());
             event.setPartialEvaluationNodeCount(data.partialEvalNodeCount);
@@ -176,6 +202,22 @@ public final class JFRListener extends AbstractGraalTruffleRuntimeListener {
         }
     }
 
+    private static void appendInlinedCallees(TruffleInlining inlining, StringBuilder callees, int[] remaining) {
+        for (TruffleInliningDecision decision : inlining) {
+            if (remaining[0] <= 0) {
+                return;
+            }
+            if (decision.shouldInline()) {
+                if (callees.length() > 0) {
+                    callees.append(", ");
+                }
+                callees.append(decision.getTargetName());
+                remaining[0]--;
+                appendInlinedCallees(decision, callees, remaining);
+            }
+        }
+    }
+
     private CompilationData getCurrentData() {
         return currentCompilation.get();
     }
@@ -234,6 +276,24 @@ public final class JFRListener extends AbstractGraalTruffleRuntimeListener {
         }
     }
 
+    private static final class QueueDepth implements Runnable {
+
+        private final GraalTruffleRuntime runtime;
+
+        QueueDepth(GraalTruffleRuntime runtime) {
+            this.runtime = runtime;
+        }
+
+        @Override
+        public void run() {
+            CompilationQueueEvent event = factory.createCompilationQueueEvent();
+            if (event.isEnabled()) {
+                event.setQueueSize(runtime.getCompilationQueueSize());
+                event.publish();
+            }
+        }
+    }
+
     /**
      * Determines if a failure is permanent.
      */
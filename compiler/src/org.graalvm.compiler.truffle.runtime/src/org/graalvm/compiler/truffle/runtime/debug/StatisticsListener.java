@@ -73,6 +73,8 @@ public final class StatisticsListener extends AbstractGraalTruffleRuntimeListene
     private int queues;
     private int dequeues;
     private int splits;
+    private int budgetRetries;
+    private int budgetFailures;
 
     private final IdentityStatistics<String> temporaryBailoutReasons = new IdentityStatistics<>();
     private final IdentityStatistics<String> permanentBailoutReasons = new IdentityStatistics<>();
@@ -82,6 +84,7 @@ public final class StatisticsListener extends AbstractGraalTruffleRuntimeListene
 
     private final TargetLongStatistics timeToQueue = new TargetLongStatistics();
     private final TargetLongStatistics timeInQueue = new TargetLongStatistics();
+    private final TargetIntStatistics queueSizeWhenPolled = new TargetIntStatistics();
 
     private final TargetIntStatistics nodeCount = new TargetIntStatistics();
     private final TargetIntStatistics nodeCountTrivial = new TargetIntStatistics();
@@ -108,6 +111,7 @@ public final class StatisticsListener extends AbstractGraalTruffleRuntimeListene
     private final TargetIntStatistics truffleTierNodeCount = new TargetIntStatistics();
     private final IdentityStatistics<String> truffleTierNodeStatistics = new IdentityStatistics<>();
     private final TargetIntStatistics graalTierNodeCount = new TargetIntStatistics();
+    private final TargetIntStatistics budgetExceededNodeCount = new TargetIntStatistics();
     private final IdentityStatistics<String> graalTierNodeStatistics = new IdentityStatistics<>();
 
     private final TargetIntStatistics compilationResultCodeSize = new TargetIntStatistics();
@@ -163,6 +167,11 @@ public final class StatisticsListener extends AbstractGraalTruffleRuntimeListene
         timeQueued.remove(target);
     }
 
+    @Override
+    public synchronized void onCompilationPolled(OptimizedCallTarget target, long queueTimeNanos, int queueSize) {
+        queueSizeWhenPolled.accept(queueSize, target);
+    }
+
     @Override
     public synchronized void onCompilationInvalidated(OptimizedCallTarget target, Object source, CharSequence reason) {
         invalidations++;
@@ -220,6 +229,16 @@ public final class StatisticsListener extends AbstractGraalTruffleRuntimeListene
         return nodeClasses;
     }
 
+    @Override
+    public synchronized void onCompilationBudgetExceeded(OptimizedCallTarget target, int count, boolean retry) {
+        if (retry) {
+            budgetRetries++;
+        } else {
+            budgetFailures++;
+        }
+        budgetExceededNodeCount.accept(count, target);
+    }
+
     @Override
     public synchronized void onCompilationGraalTierFinished(OptimizedCallTarget target, GraphInfo graph) {
         final Times times = compilationTimes.get();
@@ -295,12 +314,17 @@ public final class StatisticsListener extends AbstractGraalTruffleRuntimeListene
             printStatistic(out, "Dequeues", dequeues);
             dequeuedReasons.printStatistics(out, String::toString, true, false);
             printStatistic(out, "Splits", splits);
+            printStatistic(out, "Node Budget Exceeded", budgetRetries + budgetFailures);
+            printStatistic(out, "  Retried Without Inlining", budgetRetries);
+            printStatistic(out, "  Abandoned", budgetFailures);
+            printStatistic(out, "Graph node count when budget exceeded", budgetExceededNodeCount);
             printStatistic(out, "Compilation Accuracy", 1.0 - invalidations / (double) compilations);
             printStatistic(out, "Queue Accuracy", 1.0 - dequeues / (double) queues);
             printStatistic(out, "Compilation Utilization", compilationTime.getSum() / (double) (endTime - firstCompilation));
             printStatistic(out, "Remaining Compilation Queue", rt.getCompilationQueueSize());
             printStatisticTime(out, "Time to queue", timeToQueue);
             printStatisticTime(out, "Time waiting in queue", timeInQueue);
+            printStatistic(out, "Queue size when polled", queueSizeWhenPolled);
             printStatisticTime(out, "Time for compilation", compilationTime);
             printStatisticTime(out, "  Truffle Tier", compilationTimeTruffleTier);
             printStatisticTime(out, "  Graal Tier", compilationTimeGraalTier);
@@ -625,6 +649,22 @@ public final class StatisticsListener extends AbstractGraalTruffleRuntimeListene
             }
         }
 
+        @Override
+        public void onCompilationPolled(OptimizedCallTarget target, long queueTimeNanos, int queueSize) {
+            StatisticsListener listener = target.engine.statisticsListener;
+            if (listener != null) {
+                listener.onCompilationPolled(target, queueTimeNanos, queueSize);
+            }
+        }
+
+        @Override
+        public void onCompilationBudgetExceeded(OptimizedCallTarget target, int nodeCount, boolean retry) {
+            StatisticsListener listener = target.engine.statisticsListener;
+            if (listener != null) {
+                listener.onCompilationBudgetExceeded(target, nodeCount, retry);
+            }
+        }
+
         @Override
         public void onCompilationStarted(OptimizedCallTarget target) {
             StatisticsListener listener = target.engine.statisticsListener;
@@ -55,6 +55,10 @@ public final class TraceSplittingListener implements GraalTruffleRuntimeListener
             String label = String.format("split %3s-%-4s-%-4s ", splitCount++, Integer.toHexString(callNode.getCurrentCallTarget().hashCode()), callNode.getCallCount());
             final Map<String, Object> debugProperties = callTarget.getDebugProperties();
             debugProperties.put("SourceSection", extractSourceSection(callNode));
+            double benefit = callNode.getEstimatedSplitBenefit();
+            if (!Double.isNaN(benefit)) {
+                debugProperties.put("Benefit", String.format("%.2f", benefit));
+            }
             TruffleCompilerRuntime.getRuntime().logEvent(callTarget, 0, label, debugProperties);
         }
     }
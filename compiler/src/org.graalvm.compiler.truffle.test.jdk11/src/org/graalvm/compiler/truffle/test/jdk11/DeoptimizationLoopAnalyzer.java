@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test.jdk11;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Reads a JFR recording and reports the call targets that repeatedly deoptimized and were
+ * recompiled, attributed to their guest source location. Usage:
+ *
+ * <pre>
+ * java -cp ... org.graalvm.compiler.truffle.test.jdk11.DeoptimizationLoopAnalyzer recording.jfr [minCycles]
+ * </pre>
+ *
+ * A cycle is a deoptimization of a call target that is followed by another successful compilation
+ * of the same root function. Targets with fewer than {@code minCycles} cycles (default 2) are not
+ * reported. The reason reported for a target is the reason of its last invalidation.
+ */
+public final class DeoptimizationLoopAnalyzer {
+
+    private static final String COMPILATION = "org.graalvm.compiler.truffle.jfr.impl.CompilationEventImpl";
+    private static final String DEOPTIMIZATION = "org.graalvm.compiler.truffle.jfr.impl.DeoptimizationEventImpl";
+    private static final String INVALIDATION = "org.graalvm.compiler.truffle.jfr.impl.InvalidationEventImpl";
+
+    private final Map<String, TargetHistory> targets = new LinkedHashMap<>();
+
+    private DeoptimizationLoopAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: DeoptimizationLoopAnalyzer <recording.jfr> [minCycles]");
+            System.exit(1);
+        }
+        int minCycles = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        analyze(Paths.get(args[0]), minCycles, System.out);
+    }
+
+    /**
+     * Analyzes the recording in {@code file} and prints the targets with at least
+     * {@code minCycles} deoptimization and recompilation cycles to {@code out}.
+     */
+    public static void analyze(Path file, int minCycles, PrintStream out) throws IOException {
+        DeoptimizationLoopAnalyzer analyzer = new DeoptimizationLoopAnalyzer();
+        List<RecordedEvent> events = new ArrayList<>(RecordingFile.readAllEvents(file));
+        events.sort((e1, e2) -> e1.getStartTime().compareTo(e2.getStartTime()));
+        for (RecordedEvent event : events) {
+            analyzer.accept(event);
+        }
+        analyzer.report(minCycles, out);
+    }
+
+    private void accept(RecordedEvent event) {
+        String type = event.getEventType().getName();
+        if (COMPILATION.equals(type)) {
+            if (event.getBoolean("success")) {
+                history(event).compiled();
+            }
+        } else if (DEOPTIMIZATION.equals(type)) {
+            history(event).deoptimized();
+        } else if (INVALIDATION.equals(type)) {
+            history(event).invalidated(event.getString("reason"));
+        }
+    }
+
+    private TargetHistory history(RecordedEvent event) {
+        String source = event.getString("source");
+        String rootFunction = event.getString("rootFunction");
+        String key = source + "|" + rootFunction;
+        TargetHistory history = targets.get(key);
+        if (history == null) {
+            String language = event.hasField("language") ? event.getString("language") : null;
+            int endLine = event.hasField("sourceEndLine") ? event.getInt("sourceEndLine") : 0;
+            history = new TargetHistory(source, rootFunction, language, endLine);
+            targets.put(key, history);
+        }
+        return history;
+    }
+
+    private void report(int minCycles, PrintStream out) {
+        List<TargetHistory> loops = new ArrayList<>();
+        for (TargetHistory history : targets.values()) {
+            if (history.cycles >= minCycles) {
+                loops.add(history);
+            }
+        }
+        loops.sort((h1, h2) -> Integer.compare(h2.cycles, h1.cycles));
+        if (loops.isEmpty()) {
+            out.printf("No call target deoptimized and recompiled at least %d times.%n", minCycles);
+            return;
+        }
+        out.printf("%-40s %-30s %-10s %8s %8s %8s  %s%n", "Source", "Root Function", "Language", "Cycles", "Compiles", "Deopts", "Last Reason");
+        for (TargetHistory history : loops) {
+            out.printf("%-40s %-30s %-10s %8d %8d %8d  %s%n", history.location(), history.rootFunction, history.language, history.cycles, history.compilations,
+                            history.deoptimizations, history.lastReason);
+        }
+    }
+
+    private static final class TargetHistory {
+
+        final String source;
+        final String rootFunction;
+        final String language;
+        final int endLine;
+        int compilations;
+        int deoptimizations;
+        int cycles;
+        String lastReason;
+        private boolean pendingDeoptimization;
+
+        TargetHistory(String source, String rootFunction, String language, int endLine) {
+            this.source = source;
+            this.rootFunction = rootFunction;
+            this.language = language;
+            this.endLine = endLine;
+        }
+
+        void compiled() {
+            compilations++;
+            if (pendingDeoptimization) {
+                cycles++;
+                pendingDeoptimization = false;
+            }
+        }
+
+        void deoptimized() {
+            deoptimizations++;
+            if (compilations > 0) {
+                pendingDeoptimization = true;
+            }
+        }
+
+        void invalidated(String reason) {
+            if (reason != null) {
+                lastReason = reason;
+            }
+        }
+
+        String location() {
+            if (source == null) {
+                return "<unknown>";
+            }
+            return endLine > 0 ? source + "-" + endLine : source;
+        }
+    }
+}
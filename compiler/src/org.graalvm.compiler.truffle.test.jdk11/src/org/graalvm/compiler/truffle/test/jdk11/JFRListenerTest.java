@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test.jdk11;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.truffle.jfr.EventFactory;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.serviceprovider.TruffleRuntimeServices;
+import org.graalvm.compiler.truffle.test.TestWithSynchronousCompiling;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.RootNode;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JFRListenerTest extends TestWithSynchronousCompiling {
+
+    private static final String COMPILATION = "org.graalvm.compiler.truffle.jfr.impl.CompilationEventImpl";
+    private static final String COMPILATION_QUEUE = "org.graalvm.compiler.truffle.jfr.impl.CompilationQueueEventImpl";
+    private static final String DEOPTIMIZATION = "org.graalvm.compiler.truffle.jfr.impl.DeoptimizationEventImpl";
+    private static final String INVALIDATION = "org.graalvm.compiler.truffle.jfr.impl.InvalidationEventImpl";
+
+    private Path recordingFile;
+
+    @Before
+    public void createRecordingFile() throws IOException {
+        Assume.assumeTrue("Truffle JFR events are not available", TruffleRuntimeServices.load(EventFactory.Provider.class).iterator().hasNext());
+        recordingFile = Files.createTempFile("truffle-jfr-listener", ".jfr");
+    }
+
+    @After
+    public void deleteRecordingFile() throws IOException {
+        if (recordingFile != null) {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    @Test
+    public void testCompilationEventFields() throws IOException {
+        setupContext("engine.MultiTier", "true");
+        OptimizedCallTarget callee = createTarget(new ConstantRootNode("callee"));
+        OptimizedCallTarget caller = createTarget(new CallerRootNode(callee));
+        List<RecordedEvent> events = record(() -> {
+            for (int i = 0; i < 5; i++) {
+                caller.call();
+            }
+            caller.compile(false);
+            caller.compile(true);
+        });
+
+        List<RecordedEvent> compilations = ofType(events, COMPILATION);
+        assertEquals(2, compilations.size());
+        for (int i = 0; i < compilations.size(); i++) {
+            RecordedEvent compilation = compilations.get(i);
+            assertEquals("caller", compilation.getString("rootFunction"));
+            assertTrue(compilation.getBoolean("success"));
+            // the tier is the tier of the compilation request, not of the installed code
+            assertEquals(i + 1, compilation.getInt("tier"));
+            assertTrue(compilation.getLong("queueTime") >= 0);
+            String callees = compilation.getString("inlinedCallees");
+            assertEquals(compilation.getInt("inlinedCalls") > 0, callees != null && callees.contains("callee"));
+        }
+    }
+
+    @Test
+    public void testCompilationQueueEvent() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            OptimizedCallTarget target = createTarget(new ConstantRootNode("queued"));
+            target.compile(true);
+        });
+        List<RecordedEvent> samples = ofType(events, COMPILATION_QUEUE);
+        assertFalse(samples.isEmpty());
+        for (RecordedEvent sample : samples) {
+            assertTrue(sample.getInt("queueSize") >= 0);
+        }
+    }
+
+    @Test
+    public void testDeoptimizationLoopAnalyzed() throws IOException {
+        OptimizedCallTarget target = createTarget(new DeoptimizingRootNode());
+        List<RecordedEvent> events = record(() -> {
+            for (int i = 0; i < 3; i++) {
+                target.call(i);
+                target.compile(true);
+                assertCompiled(target);
+            }
+            target.call(3);
+        });
+
+        List<RecordedEvent> deoptimizations = ofType(events, DEOPTIMIZATION);
+        assertEquals(3, deoptimizations.size());
+        for (RecordedEvent deoptimization : deoptimizations) {
+            assertEquals("deoptimizing", deoptimization.getString("rootFunction"));
+            assertTrue(deoptimization.getBoolean("codeInvalidated"));
+        }
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(report)) {
+            DeoptimizationLoopAnalyzer.analyze(recordingFile, 2, out);
+        }
+        String loops = report.toString();
+        assertTrue(loops, loops.contains("deoptimizing"));
+
+        report.reset();
+        try (PrintStream out = new PrintStream(report)) {
+            DeoptimizationLoopAnalyzer.analyze(recordingFile, 3, out);
+        }
+        assertTrue(report.toString(), report.toString().startsWith("No call target"));
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable(COMPILATION);
+            recording.enable(DEOPTIMIZATION);
+            recording.enable(INVALIDATION);
+            recording.enable(COMPILATION_QUEUE).with("period", "endChunk");
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        return RecordingFile.readAllEvents(recordingFile);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String type) {
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(type)) {
+                result.add(event);
+            }
+        }
+        result.sort((e1, e2) -> e1.getStartTime().compareTo(e2.getStartTime()));
+        return result;
+    }
+
+    private static OptimizedCallTarget createTarget(RootNode rootNode) {
+        return (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(rootNode);
+    }
+
+    private static final class ConstantRootNode extends RootNode {
+
+        private final String name;
+
+        ConstantRootNode(String name) {
+            super(null);
+            this.name = name;
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return 42;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class CallerRootNode extends RootNode {
+
+        @Child private DirectCallNode callNode;
+
+        CallerRootNode(OptimizedCallTarget callee) {
+            super(null);
+            this.callNode = GraalTruffleRuntime.getRuntime().createDirectCallNode(callee);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return callNode.call();
+        }
+
+        @Override
+        public String getName() {
+            return "caller";
+        }
+    }
+
+    /**
+     * Deoptimizes and invalidates its compiled code whenever it is called with a new argument.
+     */
+    private static final class DeoptimizingRootNode extends RootNode {
+
+        @CompilationFinal private int expected;
+
+        DeoptimizingRootNode() {
+            super(null);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            int value = (int) frame.getArguments()[0];
+            if (value != expected) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                expected = value;
+            }
+            return value;
+        }
+
+        @Override
+        public String getName() {
+            return "deoptimizing";
+        }
+    }
+}
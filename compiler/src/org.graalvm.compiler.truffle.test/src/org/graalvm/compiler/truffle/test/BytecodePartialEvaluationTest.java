@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.extended.IntegerSwitchNode;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.util.ObjectSizeEstimate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.dsl.GenerateBytecode;
+import com.oracle.truffle.api.dsl.GenerateBytecode.Operation;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.FrameUtil;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class BytecodePartialEvaluationTest extends PartialEvaluationTest {
+
+    @GenerateBytecode
+    abstract static class SumRootNode extends RootNode {
+
+        protected SumRootNode(TruffleLanguage<?> language, FrameDescriptor frameDescriptor) {
+            super(language, frameDescriptor);
+        }
+
+        @Operation
+        static final class Add {
+
+            @Specialization
+            static long doLong(long left, long right) {
+                return left + right;
+            }
+        }
+
+        @Operation
+        static final class LessThan {
+
+            @Specialization
+            static boolean doLong(long left, long right) {
+                return left < right;
+            }
+        }
+
+    }
+
+    public static Object constant42() {
+        return 42L;
+    }
+
+    @Test
+    public void testConstantFolding() {
+        SumRootNodeGen.Builder b = SumRootNodeGen.newBuilder();
+        b.emitLoadConstant(40L);
+        b.emitLoadConstant(2L);
+        b.emitAdd();
+        b.emitReturn();
+        assertPartialEvalEquals("constant42", b.build(null));
+    }
+
+    @Test
+    public void testLoopExplosion() {
+        OptimizedCallTarget target = (OptimizedCallTarget) Truffle.getRuntime().createCallTarget(createLoop());
+        StructuredGraph graph = partialEval(target, new Object[]{10L});
+        Assert.assertEquals(45L, target.call(10L));
+        // the dispatch on the bytecode index is folded and the bytecode loop is the only loop left
+        Assert.assertEquals(0, graph.getNodes().filter(IntegerSwitchNode.class).count());
+        Assert.assertEquals(1, graph.getNodes(LoopBeginNode.TYPE).count());
+        assertPartialEvalNoInvokes(createLoop(), new Object[]{10L});
+    }
+
+    @Test
+    public void testFootprint() throws IllegalAccessException {
+        SumRootNode bytecode = createLoop();
+        AstRootNode ast = createAstLoop();
+        Assert.assertEquals(45L, Truffle.getRuntime().createCallTarget(createLoop()).call(10L));
+        Assert.assertEquals(45L, Truffle.getRuntime().createCallTarget(createAstLoop()).call(10L));
+
+        int bytecodeBytes = footprint(bytecode);
+        int astBytes = footprint(ast);
+        Assert.assertTrue("bytecode " + bytecodeBytes + " bytes, AST " + astBytes + " bytes", bytecodeBytes < astBytes);
+    }
+
+    /**
+     * Estimates the bytes occupied by the nodes of a tree and by the arrays they declare. Objects
+     * referenced by the nodes and arrays, like the frame descriptor and its slots, are not counted.
+     */
+    private static int footprint(Node node) throws IllegalAccessException {
+        int bytes = shallowSize(node);
+        for (Class<?> c = node.getClass(); c != RootNode.class && c != Node.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && field.getType().isArray()) {
+                    field.setAccessible(true);
+                    Object array = field.get(node);
+                    if (array != null) {
+                        bytes += shallowSize(array);
+                    }
+                }
+            }
+        }
+        for (Node child : node.getChildren()) {
+            bytes += footprint(child);
+        }
+        return bytes;
+    }
+
+    private static int shallowSize(Object object) {
+        return ObjectSizeEstimate.forObject(object, 0).getCompressedTotalBytes();
+    }
+
+    private static SumRootNode createLoop() {
+        SumRootNodeGen.Builder b = SumRootNodeGen.newBuilder();
+        int n = b.createLocal();
+        int sum = b.createLocal();
+        int i = b.createLocal();
+        int loop = b.createLabel();
+        int end = b.createLabel();
+
+        b.emitLoadArgument(0);
+        b.emitStoreLocal(n);
+        b.emitLoadConstant(0L);
+        b.emitStoreLocal(sum);
+        b.emitLoadConstant(0L);
+        b.emitStoreLocal(i);
+
+        b.markLabel(loop);
+        b.emitLoadLocal(i);
+        b.emitLoadLocal(n);
+        b.emitLessThan();
+        b.emitBranchFalse(end);
+        b.emitLoadLocal(sum);
+        b.emitLoadLocal(i);
+        b.emitAdd();
+        b.emitStoreLocal(sum);
+        b.emitLoadLocal(i);
+        b.emitLoadConstant(1L);
+        b.emitAdd();
+        b.emitStoreLocal(i);
+        b.emitBranch(loop);
+
+        b.markLabel(end);
+        b.emitLoadLocal(sum);
+        b.emitReturn();
+        return b.build(null);
+    }
+
+    private static AstRootNode createAstLoop() {
+        FrameDescriptor descriptor = new FrameDescriptor();
+        FrameSlot n = descriptor.addFrameSlot("n", FrameSlotKind.Long);
+        FrameSlot sum = descriptor.addFrameSlot("sum", FrameSlotKind.Long);
+        FrameSlot i = descriptor.addFrameSlot("i", FrameSlotKind.Long);
+        return new AstRootNode(descriptor, new StatementNode[]{
+                        new WriteLocalNode(n, new ArgumentNode(0)),
+                        new WriteLocalNode(sum, new ConstantNode(0L)),
+                        new WriteLocalNode(i, new ConstantNode(0L)),
+                        new WhileNode(new LessThanNode(new ReadLocalNode(i), new ReadLocalNode(n)), new StatementNode[]{
+                                        new WriteLocalNode(sum, new AddNode(new ReadLocalNode(sum), new ReadLocalNode(i))),
+                                        new WriteLocalNode(i, new AddNode(new ReadLocalNode(i), new ConstantNode(1L)))
+                        })
+        }, new ReadLocalNode(sum));
+    }
+
+    private static final class AstRootNode extends RootNode {
+
+        @Children private final StatementNode[] statements;
+        @Child private ExpressionNode result;
+
+        AstRootNode(FrameDescriptor descriptor, StatementNode[] statements, ExpressionNode result) {
+            super(null, descriptor);
+            this.statements = statements;
+            this.result = result;
+        }
+
+        @Override
+        @ExplodeLoop
+        public Object execute(VirtualFrame frame) {
+            for (StatementNode statement : statements) {
+                statement.execute(frame);
+            }
+            return result.execute(frame);
+        }
+    }
+
+    abstract static class StatementNode extends Node {
+
+        abstract void execute(VirtualFrame frame);
+    }
+
+    abstract static class ExpressionNode extends Node {
+
+        abstract long execute(VirtualFrame frame);
+    }
+
+    private static final class WriteLocalNode extends StatementNode {
+
+        private final FrameSlot slot;
+        @Child private ExpressionNode value;
+
+        WriteLocalNode(FrameSlot slot, ExpressionNode value) {
+            this.slot = slot;
+            this.value = value;
+        }
+
+        @Override
+        void execute(VirtualFrame frame) {
+            frame.setLong(slot, value.execute(frame));
+        }
+    }
+
+    private static final class WhileNode extends StatementNode {
+
+        @Child private LessThanNode condition;
+        @Children private final StatementNode[] body;
+
+        WhileNode(LessThanNode condition, StatementNode[] body) {
+            this.condition = condition;
+            this.body = body;
+        }
+
+        @Override
+        void execute(VirtualFrame frame) {
+            while (condition.execute(frame)) {
+                for (StatementNode statement : body) {
+                    statement.execute(frame);
+                }
+            }
+        }
+    }
+
+    private static final class LessThanNode extends Node {
+
+        @Child private ExpressionNode left;
+        @Child private ExpressionNode right;
+
+        LessThanNode(ExpressionNode left, ExpressionNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        boolean execute(VirtualFrame frame) {
+            return left.execute(frame) < right.execute(frame);
+        }
+    }
+
+    private static final class AddNode extends ExpressionNode {
+
+        @Child private ExpressionNode left;
+        @Child private ExpressionNode right;
+
+        AddNode(ExpressionNode left, ExpressionNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        long execute(VirtualFrame frame) {
+            return left.execute(frame) + right.execute(frame);
+        }
+    }
+
+    private static final class ReadLocalNode extends ExpressionNode {
+
+        private final FrameSlot slot;
+
+        ReadLocalNode(FrameSlot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        long execute(VirtualFrame frame) {
+            return FrameUtil.getLongSafe(frame, slot);
+        }
+    }
+
+    private static final class ArgumentNode extends ExpressionNode {
+
+        private final int index;
+
+        ArgumentNode(int index) {
+            this.index = index;
+        }
+
+        @Override
+        long execute(VirtualFrame frame) {
+            return (long) frame.getArguments()[index];
+        }
+    }
+
+    private static final class ConstantNode extends ExpressionNode {
+
+        private final long value;
+
+        ConstantNode(long value) {
+            this.value = value;
+        }
+
+        @Override
+        long execute(VirtualFrame frame) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+
+import org.graalvm.compiler.truffle.runtime.CodeCacheManager;
+import org.graalvm.compiler.truffle.runtime.EngineData;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.options.OptionValues;
+import org.junit.Test;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.test.ReflectionUtils;
+
+public class CodeCacheEvictionTest extends TestWithSynchronousCompiling {
+
+    @Test
+    public void testIdleTargetEvicted() {
+        setupContext("engine.CompilationThreshold", "1000", "engine.CodeCacheCapacity", "1", "engine.CodeCacheEvictionMinIdle", "0");
+        OptimizedCallTarget cold = createTarget();
+        cold.call();
+        cold.compile(true);
+        assertCompiled(cold);
+
+        OptimizedCallTarget hot = createTarget();
+        hot.compile(true);
+        assertCompiled(hot);
+        assertNotCompiled(cold);
+        assertEquals(0, cold.getCallCount());
+
+        CodeCacheManager manager = hot.engine.getCodeCacheManager();
+        assertEquals(1, manager.getEvictionCount());
+        assertEquals(1, manager.getInstalledCount());
+    }
+
+    @Test
+    public void testRecentlyActiveTargetNotEvicted() {
+        setupContext("engine.CompilationThreshold", "1000", "engine.CodeCacheCapacity", "1", "engine.CodeCacheEvictionMinIdle", "600000");
+        OptimizedCallTarget first = createTarget();
+        first.compile(true);
+        OptimizedCallTarget second = createTarget();
+        second.compile(true);
+        assertCompiled(first);
+        assertCompiled(second);
+
+        CodeCacheManager manager = second.engine.getCodeCacheManager();
+        assertEquals(0, manager.getEvictionCount());
+        assertEquals(2, manager.getInstalledCount());
+    }
+
+    @Test
+    public void testColdestTargetEvictedFirst() {
+        setupContext("engine.CompilationThreshold", "1000", "engine.CodeCacheCapacity", String.valueOf(Integer.MAX_VALUE));
+        OptimizedCallTarget measured = createTarget();
+        measured.compile(true);
+        long codeSize = measured.engine.getCodeCacheManager().getOccupancy();
+
+        // room for two but not three call targets, so exactly one is evicted
+        String capacity = String.valueOf(codeSize * 5 / 2);
+        setupContext("engine.CompilationThreshold", "1000", "engine.CodeCacheCapacity", capacity, "engine.CodeCacheEvictionRatio", "1", "engine.CodeCacheEvictionMinIdle", "0");
+        OptimizedCallTarget older = createTarget();
+        older.compile(true);
+        OptimizedCallTarget newer = createTarget();
+        newer.compile(true);
+        // calls in compiled code make the older call target the most recently active one
+        for (int i = 0; i < 10; i++) {
+            older.call();
+        }
+        OptimizedCallTarget last = createTarget();
+        last.compile(true);
+
+        assertCompiled(older);
+        assertNotCompiled(newer);
+        assertCompiled(last);
+        CodeCacheManager manager = last.engine.getCodeCacheManager();
+        assertEquals(1, manager.getEvictionCount());
+        assertEquals(2, manager.getInstalledCount());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        setupContext("engine.CompilationThreshold", "1000");
+        OptimizedCallTarget target = createTarget();
+        assertNull(target.engine.getCodeCacheManager());
+    }
+
+    @Test
+    public void testOptionReloadKeepsInstalledCode() throws ReflectiveOperationException {
+        OptionValues changedOptions = engineOptions("engine.CompilationThreshold", "1000", "engine.CodeCacheCapacity", String.valueOf(Integer.MAX_VALUE), "engine.CodeCacheEvictionRatio", "0.5");
+        setupContext("engine.CompilationThreshold", "1000", "engine.CodeCacheCapacity", String.valueOf(Integer.MAX_VALUE));
+        OptimizedCallTarget target = createTarget();
+        target.compile(true);
+        assertCompiled(target);
+        CodeCacheManager manager = target.engine.getCodeCacheManager();
+        long occupancy = manager.getOccupancy();
+
+        // an unchanged configuration keeps the manager
+        reloadOptions(target.engine, target.engine.getEngineOptions());
+        assertSame(manager, target.engine.getCodeCacheManager());
+        assertEquals(1, manager.getInstalledCount());
+
+        // a changed configuration moves the installed code to the new manager
+        reloadOptions(target.engine, changedOptions);
+        CodeCacheManager reloaded = target.engine.getCodeCacheManager();
+        assertNotSame(manager, reloaded);
+        assertEquals(1, reloaded.getInstalledCount());
+        assertEquals(occupancy, reloaded.getOccupancy());
+    }
+
+    private OptionValues engineOptions(String... keyValuePairs) {
+        setupContext(keyValuePairs);
+        return createTarget().engine.getEngineOptions();
+    }
+
+    private static void reloadOptions(EngineData engine, OptionValues options) throws ReflectiveOperationException {
+        Method loadOptions = EngineData.class.getDeclaredMethod("loadOptions", OptionValues.class);
+        ReflectionUtils.setAccessible(loadOptions, true);
+        loadOptions.invoke(engine, options);
+    }
+
+    private static OptimizedCallTarget createTarget() {
+        return (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(new RootNode(null) {
+            @Override
+            public Object execute(VirtualFrame frame) {
+                return 42;
+            }
+        });
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.api.test.polyglot.ProxyLanguage;
+
+public class CompilationProfileCacheTest extends TestWithSynchronousCompiling {
+
+    private static final int MIN_INVOKE_THRESHOLD = 3;
+    private static final String CACHE_FILE = "truffle-compilation-profile";
+
+    private Path cacheDirectory;
+
+    @Before
+    public void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("truffle-profile-cache");
+    }
+
+    @After
+    public void deleteCacheDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach((p) -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRecordedTargetCompiledEarly() {
+        setupCacheContext();
+        OptimizedCallTarget target = createTarget("function foo() { return 42; }");
+        target.compile(true);
+        assertCompiled(target);
+
+        // closes the previous engine, which persists the cache
+        setupCacheContext();
+        assertTrue(Files.exists(cacheDirectory.resolve(CACHE_FILE)));
+        OptimizedCallTarget restarted = createTarget("function foo() { return 42; }");
+        for (int i = 0; i < MIN_INVOKE_THRESHOLD; i++) {
+            restarted.call();
+        }
+        assertCompiled(restarted);
+    }
+
+    @Test
+    public void testChangedSourceNotCompiledEarly() {
+        setupCacheContext();
+        OptimizedCallTarget target = createTarget("function foo() { return 42; }");
+        target.compile(true);
+        assertCompiled(target);
+
+        setupCacheContext();
+        OptimizedCallTarget restarted = createTarget("function foo() { return 43; }");
+        for (int i = 0; i < MIN_INVOKE_THRESHOLD; i++) {
+            restarted.call();
+        }
+        assertNotCompiled(restarted);
+    }
+
+    @Test
+    public void testNoSourceSectionNotRecorded() throws IOException {
+        setupCacheContext();
+        OptimizedCallTarget target = (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(new RootNode(null) {
+            @Override
+            public Object execute(VirtualFrame frame) {
+                return 42;
+            }
+        });
+        target.compile(true);
+        assertCompiled(target);
+
+        setupCacheContext();
+        assertEquals(0, Files.size(cacheDirectory.resolve(CACHE_FILE)));
+    }
+
+    @Test
+    public void testConcurrentEngineEntriesMerged() throws IOException {
+        setupCacheContext();
+        OptimizedCallTarget target = createTarget("function foo() { return 42; }");
+        target.compile(true);
+        assertCompiled(target);
+        // an entry written by another engine after this engine loaded the cache
+        Path cacheFile = cacheDirectory.resolve(CACHE_FILE);
+        Files.write(cacheFile, Arrays.asList("abc " + System.currentTimeMillis()), StandardCharsets.UTF_8);
+
+        setupCacheContext();
+        List<String> lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.stream().anyMatch((l) -> l.startsWith("abc ")));
+    }
+
+    @Test
+    public void testStaleEntriesPruned() throws IOException {
+        Path cacheFile = cacheDirectory.resolve(CACHE_FILE);
+        Files.write(cacheFile, Arrays.asList("abc 0", "def " + System.currentTimeMillis()), StandardCharsets.UTF_8);
+
+        setupCacheContext();
+        setupCacheContext();
+        List<String> lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+        assertFalse(lines.stream().anyMatch((l) -> l.startsWith("abc ")));
+        assertTrue(lines.stream().anyMatch((l) -> l.startsWith("def ")));
+    }
+
+    private Context setupCacheContext() {
+        return setupContext("engine.CompilationThreshold", "1000", "engine.CompilationProfileCache", cacheDirectory.toString());
+    }
+
+    private static OptimizedCallTarget createTarget(String code) {
+        Source source = Source.newBuilder(ProxyLanguage.ID, code, "cached.js").build();
+        return (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(new RootNode(null) {
+
+            @Override
+            public Object execute(VirtualFrame frame) {
+                return 42;
+            }
+
+            @Override
+            public String getName() {
+                return "foo";
+            }
+
+            @Override
+            public SourceSection getSourceSection() {
+                return source.createSection(0, code.length());
+            }
+        });
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.graalvm.compiler.truffle.runtime.CompilationTraceReader;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class CompilationTraceTest extends TestWithSynchronousCompiling {
+
+    private Path traceFile;
+
+    @Before
+    public void createTraceFile() throws IOException {
+        traceFile = Files.createTempFile("truffle-compilation-trace", ".bin");
+    }
+
+    @After
+    public void deleteTraceFile() throws IOException {
+        Files.deleteIfExists(traceFile);
+    }
+
+    @Test
+    public void testCompilationRecorded() throws IOException {
+        setupContext("engine.CompilationTraceBufferSize", "65536", "engine.CompilationTraceFile", traceFile.toString());
+        OptimizedCallTarget target = createTarget("traced");
+        target.compile(true);
+        assertCompiled(target);
+
+        // closes the engine, which writes the trace
+        setupContext();
+        String trace = decodeTrace();
+        assertTrue(trace, trace.contains("STARTED"));
+        assertTrue(trace, trace.contains("TRUFFLE_TIER_FINISHED"));
+        assertTrue(trace, trace.matches("(?s).*SUCCEEDED\\s+traced#.*"));
+    }
+
+    @Test
+    public void testOldestRecordsDropped() throws IOException {
+        setupContext("engine.CompilationTraceBufferSize", "128", "engine.CompilationTraceFile", traceFile.toString());
+        for (int i = 0; i < 10; i++) {
+            OptimizedCallTarget target = createTarget("traced" + i);
+            target.compile(true);
+            assertCompiled(target);
+        }
+
+        setupContext();
+        String trace = decodeTrace();
+        assertTrue(trace, trace.contains("older records dropped"));
+        assertTrue(trace, trace.contains("traced9#"));
+        assertFalse(trace, trace.contains("traced0#"));
+    }
+
+    @Test
+    public void testEngineTracesAppended() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            setupContext("engine.CompilationTraceBufferSize", "65536", "engine.CompilationTraceFile", traceFile.toString());
+            OptimizedCallTarget target = createTarget("traced");
+            target.compile(true);
+            assertCompiled(target);
+        }
+
+        setupContext();
+        String trace = decodeTrace();
+        assertEquals(trace, 2, trace.split("\\[engine ", -1).length - 1);
+        assertEquals(trace, 2, trace.split("SUCCEEDED", -1).length - 1);
+    }
+
+    private String decodeTrace() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = Files.newInputStream(traceFile); PrintStream out = new PrintStream(bytes)) {
+            CompilationTraceReader.decode(in, out);
+        }
+        return bytes.toString();
+    }
+
+    private static OptimizedCallTarget createTarget(String name) {
+        return (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(new RootNode(null) {
+            @Override
+            public Object execute(VirtualFrame frame) {
+                return 42;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        });
+    }
+}
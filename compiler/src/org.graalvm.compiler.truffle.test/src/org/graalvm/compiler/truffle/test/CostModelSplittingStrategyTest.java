@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.Node;
+
+public class CostModelSplittingStrategyTest extends AbstractSplittingStrategyTest {
+
+    @Before
+    public void enableCostModel() {
+        setupContext("engine.Compilation", "false",
+                        "engine.SplittingGrowthLimit", "2.0",
+                        "engine.SplittingMaxNumberOfSplitNodes", "1000",
+                        "engine.SplittingCostModel", "true",
+                        "engine.SplittingMinBenefit", "1.0");
+        createDummyTargetsToBoostGrowingSplitLimit();
+    }
+
+    static class ReportsPolymorphismNode extends Node {
+        void report() {
+            reportPolymorphicSpecialize();
+        }
+    }
+
+    class ReportsPolymorphismRootNode extends SplittableRootNode {
+
+        @Child ReportsPolymorphismNode node = new ReportsPolymorphismNode();
+
+        void report() {
+            node.report();
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return null;
+        }
+    }
+
+    @Test
+    public void testSplitsSharedCallSite() {
+        ReportsPolymorphismRootNode rootNode = new ReportsPolymorphismRootNode();
+        OptimizedCallTarget callTarget = (OptimizedCallTarget) runtime.createCallTarget(rootNode);
+        DirectCallNode first = runtime.createDirectCallNode(callTarget);
+        DirectCallNode second = runtime.createDirectCallNode(callTarget);
+        for (int i = 0; i < 20; i++) {
+            first.call(noArguments);
+            second.call(noArguments);
+        }
+        rootNode.report();
+        Assert.assertTrue(getNeedsSplit(callTarget));
+        first.call(noArguments);
+        Assert.assertTrue("Call site with a high split benefit is not split", first.isCallTargetCloned());
+    }
+
+    @Test
+    public void testDefersColdCallSite() {
+        ReportsPolymorphismRootNode rootNode = new ReportsPolymorphismRootNode();
+        OptimizedCallTarget callTarget = (OptimizedCallTarget) runtime.createCallTarget(rootNode);
+        DirectCallNode cold = runtime.createDirectCallNode(callTarget);
+        DirectCallNode hot = runtime.createDirectCallNode(callTarget);
+        cold.call(noArguments);
+        for (int i = 0; i < 40; i++) {
+            hot.call(noArguments);
+        }
+        rootNode.report();
+        Assert.assertTrue(getNeedsSplit(callTarget));
+        cold.call(noArguments);
+        Assert.assertFalse("Call site with a low split benefit is split", cold.isCallTargetCloned());
+        for (int i = 0; i < 10 && !cold.isCallTargetCloned(); i++) {
+            cold.call(noArguments);
+        }
+        Assert.assertTrue("Deferred call site is not split after it got hotter", cold.isCallTargetCloned());
+    }
+}
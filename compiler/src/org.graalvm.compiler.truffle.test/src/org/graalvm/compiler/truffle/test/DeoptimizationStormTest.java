@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.junit.Test;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class DeoptimizationStormTest extends TestWithSynchronousCompiling {
+
+    private static final int STORM_THRESHOLD = 3;
+    private static final int CALLS_PER_COMPILATION = 5;
+
+    @Test
+    public void testStormResetsCompilationProfile() {
+        setupContext("engine.CompilationThreshold", "1000", "engine.DeoptimizationStormThreshold", String.valueOf(STORM_THRESHOLD),
+                        "engine.DeoptimizationStormWindow", "600000");
+        OptimizedCallTarget target = createTarget();
+        for (int i = 1; i < STORM_THRESHOLD; i++) {
+            compileAndInvalidate(target);
+            assertNotEquals(0, target.getCallCount());
+        }
+        compileAndInvalidate(target);
+        assertEquals(0, target.getCallCount());
+    }
+
+    @Test
+    public void testRepeatedInvalidationCountedOnce() {
+        setupContext("engine.CompilationThreshold", "1000", "engine.DeoptimizationStormThreshold", String.valueOf(STORM_THRESHOLD),
+                        "engine.DeoptimizationStormWindow", "600000");
+        OptimizedCallTarget target = createTarget();
+        compileAndInvalidate(target);
+        for (int i = 0; i < STORM_THRESHOLD; i++) {
+            target.invalidate(null, "unstable profile");
+        }
+        assertNotEquals(0, target.getCallCount());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        setupContext("engine.CompilationThreshold", "1000");
+        OptimizedCallTarget target = createTarget();
+        for (int i = 0; i < STORM_THRESHOLD * 2; i++) {
+            compileAndInvalidate(target);
+        }
+        assertNotEquals(0, target.getCallCount());
+    }
+
+    @Test
+    public void testArgumentTypeStormDisablesArgumentTypeSpeculation() {
+        setupContext("engine.CompilationThreshold", "1000", "engine.DeoptimizationStormThreshold", String.valueOf(STORM_THRESHOLD),
+                        "engine.DeoptimizationStormWindow", "600000");
+        OptimizedCallTarget target = createTarget();
+        Object[] arguments = new Object[STORM_THRESHOLD + 1];
+        Arrays.fill(arguments, 42);
+        for (int i = 0; i < CALLS_PER_COMPILATION; i++) {
+            target.callDirect(null, arguments);
+        }
+        // each new argument type fails the argument type profile of the compiled code once
+        for (int i = 0; i < STORM_THRESHOLD; i++) {
+            target.compile(true);
+            assertCompiled(target);
+            arguments[i] = "changed";
+            target.callDirect(null, arguments);
+            assertFalse(target.isValid());
+        }
+        target.compile(true);
+        arguments[STORM_THRESHOLD] = "changed";
+        target.callDirect(null, arguments);
+        assertCompiled(target);
+    }
+
+    @Test
+    public void testReturnTypeStormDisablesCalleeReturnTypeSpeculation() {
+        setupContext("engine.CompilationThreshold", "1000", "engine.Inlining", "false", "engine.DeoptimizationStormThreshold", String.valueOf(STORM_THRESHOLD),
+                        "engine.DeoptimizationStormWindow", "600000");
+        ReturnValueRootNode[] callees = new ReturnValueRootNode[STORM_THRESHOLD + 1];
+        OptimizedCallTarget[] calleeTargets = new OptimizedCallTarget[callees.length];
+        for (int i = 0; i < callees.length; i++) {
+            callees[i] = new ReturnValueRootNode();
+            calleeTargets[i] = (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(callees[i]);
+        }
+        OptimizedCallTarget caller = (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(new CallerRootNode(calleeTargets));
+        for (int i = 0; i < CALLS_PER_COMPILATION; i++) {
+            caller.call();
+        }
+        // a callee returning a new type invalidates the caller that relied on its return type
+        for (int i = 0; i < STORM_THRESHOLD; i++) {
+            caller.compile(true);
+            assertCompiled(caller);
+            callees[i].value = "changed";
+            caller.call();
+            assertFalse(caller.isValid());
+        }
+        caller.compile(true);
+        callees[STORM_THRESHOLD].value = "changed";
+        caller.call();
+        assertCompiled(caller);
+    }
+
+    private static void compileAndInvalidate(OptimizedCallTarget target) {
+        for (int i = 0; i < CALLS_PER_COMPILATION; i++) {
+            target.call();
+        }
+        target.compile(true);
+        assertCompiled(target);
+        target.invalidate(null, "unstable profile");
+        assertNotCompiled(target);
+    }
+
+    private static final class ReturnValueRootNode extends RootNode {
+
+        Object value = 42;
+
+        ReturnValueRootNode() {
+            super(null);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return value;
+        }
+    }
+
+    private static final class CallerRootNode extends RootNode {
+
+        @Children private final DirectCallNode[] callNodes;
+
+        CallerRootNode(OptimizedCallTarget[] callees) {
+            super(null);
+            this.callNodes = new DirectCallNode[callees.length];
+            for (int i = 0; i < callees.length; i++) {
+                callNodes[i] = GraalTruffleRuntime.getRuntime().createDirectCallNode(callees[i]);
+            }
+        }
+
+        @Override
+        @ExplodeLoop
+        public Object execute(VirtualFrame frame) {
+            Object result = null;
+            for (DirectCallNode callNode : callNodes) {
+                result = callNode.call();
+            }
+            return result;
+        }
+    }
+
+    private static OptimizedCallTarget createTarget() {
+        return (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(new RootNode(null) {
+            @Override
+            public Object execute(VirtualFrame frame) {
+                return 42;
+            }
+        });
+    }
+}
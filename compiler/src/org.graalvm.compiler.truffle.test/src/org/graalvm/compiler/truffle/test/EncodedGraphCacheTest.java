@@ -112,6 +112,65 @@ public final class EncodedGraphCacheTest extends PartialEvaluationTest {
         }
     }
 
+    @SuppressWarnings("serial")
+    static class PartialException extends RuntimeException {
+    }
+
+    @SuppressWarnings("serial")
+    static class PartialChildException extends PartialException {
+        public static void ensureInitialized() {
+            // nop: Invalidates HotSpot's leaf class assumption for PartialException.
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static class StableException extends RuntimeException {
+    }
+
+    static class PartialInvalidationTestNode extends AbstractTestNode {
+        @Override
+        public int execute(VirtualFrame frame) {
+            try {
+                boundary();
+            } catch (PartialException e) {
+                return -1;
+            }
+            return 21;
+        }
+
+        @TruffleBoundary
+        private void boundary() {
+            // nop
+        }
+    }
+
+    static class StableTestNode extends AbstractTestNode {
+        @Override
+        public int execute(VirtualFrame frame) {
+            try {
+                boundary();
+            } catch (StableException e) {
+                return -1;
+            }
+            return 21;
+        }
+
+        @TruffleBoundary
+        private void boundary() {
+            // nop
+        }
+    }
+
+    static class PartialInvalidationRootNode extends AbstractTestNode {
+        @Child private AbstractTestNode invalidated = new PartialInvalidationTestNode();
+        @Child private AbstractTestNode stable = new StableTestNode();
+
+        @Override
+        public int execute(VirtualFrame frame) {
+            return invalidated.execute(frame) + stable.execute(frame);
+        }
+    }
+
     final ResolvedJavaMethod testMethod = getResolvedJavaMethod(InvalidationTestNode.class, "execute");
 
     private static RootTestNode rootTestNode() {
@@ -204,6 +263,40 @@ public final class EncodedGraphCacheTest extends PartialEvaluationTest {
         Assert.assertEquals(42, (int) callTarget.call());
     }
 
+    @Test
+    public void testPartialCacheInvalidation() {
+        setupContext(Context.newBuilder() //
+                        .allowExperimentalOptions(true) //
+                        .option("engine.EncodedGraphCacheCapacity", "1024") //
+                        .option("engine.EncodedGraphCachePurgeDelay", "10000" /* 10s */) //
+                        .option("engine.CompilerIdleDelay", "0"));
+
+        ResolvedJavaMethod invalidatedMethod = getResolvedJavaMethod(PartialInvalidationTestNode.class, "execute");
+        ResolvedJavaMethod stableMethod = getResolvedJavaMethod(StableTestNode.class, "execute");
+        RootTestNode rootTestNode = new RootTestNode(new FrameDescriptor(), "partial", new PartialInvalidationRootNode());
+        OptimizedCallTarget callTarget = compileAST(rootTestNode);
+        TruffleCompilerImpl truffleCompiler = getTruffleCompilerFromRuntime(callTarget);
+
+        assertTrue("PartialInvalidationTestNode.execute is cached", encodedGraphCacheContains(truffleCompiler, invalidatedMethod));
+        assertTrue("StableTestNode.execute is cached", encodedGraphCacheContains(truffleCompiler, stableMethod));
+
+        // Invalidates HotSpot's leaf class assumption for PartialException only.
+        PartialChildException.ensureInitialized();
+
+        try {
+            compileAST(rootTestNode);
+            fail("Should fail on code installation due to invalid dependencies");
+        } catch (BailoutException expected) {
+            assertFalse(expected.isPermanent());
+        }
+
+        assertFalse("PartialInvalidationTestNode.execute was evicted", encodedGraphCacheContains(truffleCompiler, invalidatedMethod));
+        assertTrue("StableTestNode.execute is still cached", encodedGraphCacheContains(truffleCompiler, stableMethod));
+
+        callTarget = compileAST(rootTestNode);
+        Assert.assertEquals(42, (int) callTarget.call());
+    }
+
     @Test
     public void testCacheIsDisabled() {
         setupContext(Context.newBuilder() //
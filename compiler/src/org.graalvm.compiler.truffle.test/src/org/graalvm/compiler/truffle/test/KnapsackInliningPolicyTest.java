@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.java.MethodCallTargetNode;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.OptimizedDirectCallNode;
+import org.graalvm.polyglot.Context;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class KnapsackInliningPolicyTest extends AgnosticInliningPhaseTest {
+
+    @Override
+    public void before() {
+        setupKnapsackContext(10000);
+    }
+
+    @Test
+    public void testInlinesWithinBudget() {
+        final OptimizedCallTarget callTarget = (OptimizedCallTarget) runtime.createCallTarget(new CallsInnerNodeTwice(createDummyNode()));
+        callTarget.call();
+        final StructuredGraph graph = runLanguageAgnosticInliningPhase(callTarget);
+        Assert.assertEquals(0, graph.getNodes(MethodCallTargetNode.TYPE).count());
+    }
+
+    @Test
+    public void testRespectsBudget() {
+        setupKnapsackContext(1);
+        final OptimizedCallTarget callTarget = (OptimizedCallTarget) runtime.createCallTarget(new CallsInnerNodeTwice(createDummyNode()));
+        callTarget.call();
+        final StructuredGraph graph = runLanguageAgnosticInliningPhase(callTarget);
+        Assert.assertTrue(graph.getNodes(MethodCallTargetNode.TYPE).count() > 0);
+    }
+
+    /*
+     * Two callees of the same size where only one fits the budget: the one called more often per
+     * call of the root must be inlined.
+     */
+    @Test
+    public void testPrefersFrequentCalleeWhenBudgetIsBinding() {
+        int low = 1;
+        int high = 10000;
+        Assert.assertTrue(remainingCallees(high).isEmpty());
+        // the smallest budget that inlines a callee leaves room for exactly one of them
+        while (low < high) {
+            int budget = (low + high) >>> 1;
+            if (remainingCallees(budget).size() < 2) {
+                high = budget;
+            } else {
+                low = budget + 1;
+            }
+        }
+        List<String> remaining = remainingCallees(high);
+        Assert.assertEquals(1, remaining.size());
+        Assert.assertEquals("rare", remaining.get(0));
+    }
+
+    /**
+     * Runs the inlining phase with {@code inliningBudget} on a root that calls a "frequent" callee
+     * ten times and a "rare" callee once per call and returns the names of the callees that were
+     * not inlined.
+     */
+    private List<String> remainingCallees(int inliningBudget) {
+        setupKnapsackContext(inliningBudget);
+        OptimizedCallTarget frequent = (OptimizedCallTarget) runtime.createCallTarget(new NamedRootNode("frequent"));
+        OptimizedCallTarget rare = (OptimizedCallTarget) runtime.createCallTarget(new NamedRootNode("rare"));
+        OptimizedCallTarget callTarget = (OptimizedCallTarget) runtime.createCallTarget(new CallsFrequentAndRare(frequent, rare));
+        for (int i = 0; i < 10; i++) {
+            callTarget.call(10);
+        }
+        StructuredGraph graph = runLanguageAgnosticInliningPhase(callTarget);
+        List<String> remaining = new ArrayList<>();
+        for (MethodCallTargetNode callTargetNode : graph.getNodes(MethodCallTargetNode.TYPE)) {
+            ValueNode receiver = callTargetNode.arguments().get(0);
+            Assert.assertTrue(receiver.isConstant());
+            remaining.add(getSnippetReflection().asObject(OptimizedCallTarget.class, receiver.asJavaConstant()).getName());
+        }
+        return remaining;
+    }
+
+    private static final class NamedRootNode extends RootNode {
+
+        private final String name;
+
+        NamedRootNode(String name) {
+            super(null);
+            this.name = name;
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final class CallsFrequentAndRare extends RootNode {
+
+        @Child private OptimizedDirectCallNode frequentCall;
+        @Child private OptimizedDirectCallNode rareCall;
+
+        CallsFrequentAndRare(OptimizedCallTarget frequent, OptimizedCallTarget rare) {
+            super(null);
+            this.frequentCall = (OptimizedDirectCallNode) runtime.createDirectCallNode(frequent);
+            this.rareCall = (OptimizedDirectCallNode) runtime.createDirectCallNode(rare);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            int count = (int) frame.getArguments()[0];
+            for (int i = 0; i < count; i++) {
+                frequentCall.call();
+            }
+            return rareCall.call();
+        }
+    }
+
+    private void setupKnapsackContext(int inliningBudget) {
+        setupContext(Context.newBuilder().allowAllAccess(true).allowExperimentalOptions(true).option("engine.LanguageAgnosticInlining", Boolean.TRUE.toString()).option("engine.InliningPolicy",
+                        "Knapsack").option("engine.InliningInliningBudget", Integer.toString(inliningBudget)).build());
+    }
+}
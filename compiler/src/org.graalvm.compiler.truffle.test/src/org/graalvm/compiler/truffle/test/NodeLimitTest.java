@@ -24,12 +24,22 @@
  */
 package org.graalvm.compiler.truffle.test;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.graalvm.compiler.core.common.CompilationIdentifier;
 import org.graalvm.compiler.core.common.PermanentBailoutException;
 import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.CompilationResultInfo;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntimeListener;
 import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.TruffleInlining;
+import org.graalvm.compiler.truffle.runtime.TruffleInliningDecision;
 import org.junit.Assert;
 import org.junit.Assume;
 import org.junit.Before;
@@ -85,6 +95,86 @@ public class NodeLimitTest extends PartialEvaluationTest {
         partialEval((OptimizedCallTarget) target, arguments, CompilationIdentifier.INVALID_COMPILATION_ID);
     }
 
+    @Test
+    public void testRetryWithoutInlining() {
+        Assume.assumeFalse(dummyTarget().getOptionValue(PolyglotCompilerOptions.LanguageAgnosticInlining));
+        int callerNodeCount = getBaselineGraphNodeCount(createRootNode());
+        int calleeNodeCount = getBaselineGraphNodeCount(new LargeRootNode());
+        Assume.assumeTrue(calleeNodeCount > 2 * callerNodeCount);
+        int nodeLimit = callerNodeCount + calleeNodeCount / 2;
+
+        setupContext(Context.newBuilder().allowAllAccess(true).allowExperimentalOptions(true).option("engine.MaximumGraalNodeCount", Integer.toString(nodeLimit)).option(
+                        "engine.BackgroundCompilation", "false").build());
+        OptimizedCallTarget target = (OptimizedCallTarget) Truffle.getRuntime().createCallTarget(createRootNodeWithCall(new LargeRootNode()));
+        AtomicInteger retries = new AtomicInteger();
+        AtomicBoolean reportedInlined = new AtomicBoolean();
+        GraalTruffleRuntimeListener listener = new GraalTruffleRuntimeListener() {
+            @Override
+            public void onCompilationBudgetExceeded(OptimizedCallTarget t, int nodeCount, boolean retry) {
+                if (t == target) {
+                    Assert.assertTrue(retry);
+                    Assert.assertTrue(nodeCount > nodeLimit);
+                    retries.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onCompilationSuccess(OptimizedCallTarget t, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result) {
+                if (t == target) {
+                    for (TruffleInliningDecision decision : inliningDecision) {
+                        reportedInlined.compareAndSet(false, decision.shouldInline());
+                    }
+                }
+            }
+        };
+        GraalTruffleRuntime runtime = GraalTruffleRuntime.getRuntime();
+        runtime.addListener(listener);
+        try {
+            target.call(1);
+            target.compile(true);
+            Assert.assertTrue(target.isValid());
+            Assert.assertEquals(1, retries.get());
+            // the retried compilation inlined nothing, so no inlining must be reported
+            Assert.assertFalse(reportedInlined.get());
+        } finally {
+            runtime.removeListener(listener);
+        }
+    }
+
+    @Test
+    public void testRetryBudgetExceededReported() {
+        Assume.assumeFalse(dummyTarget().getOptionValue(PolyglotCompilerOptions.LanguageAgnosticInlining));
+        int callerNodeCount = getBaselineGraphNodeCount(createRootNode());
+        int nodeLimit = callerNodeCount / 2;
+
+        setupContext(Context.newBuilder().allowAllAccess(true).allowExperimentalOptions(true).option("engine.MaximumGraalNodeCount", Integer.toString(nodeLimit)).option(
+                        "engine.BackgroundCompilation", "false").build());
+        OptimizedCallTarget target = (OptimizedCallTarget) Truffle.getRuntime().createCallTarget(createRootNodeWithCall(new LargeRootNode()));
+        List<Boolean> retries = new CopyOnWriteArrayList<>();
+        GraalTruffleRuntimeListener listener = new GraalTruffleRuntimeListener() {
+            @Override
+            public void onCompilationBudgetExceeded(OptimizedCallTarget t, int nodeCount, boolean retry) {
+                if (t == target) {
+                    Assert.assertTrue(nodeCount > nodeLimit);
+                    retries.add(retry);
+                }
+            }
+        };
+        GraalTruffleRuntime runtime = GraalTruffleRuntime.getRuntime();
+        runtime.addListener(listener);
+        try {
+            target.call(1);
+            target.compile(true);
+            Assert.assertFalse(target.isValid());
+            // the caller alone exceeds the budget, so the retry without inlining fails as well
+            Assert.assertEquals(2, retries.size());
+            Assert.assertTrue(retries.get(0));
+            Assert.assertFalse(retries.get(1));
+        } finally {
+            runtime.removeListener(listener);
+        }
+    }
+
     @Test(expected = PermanentBailoutException.class)
     public void testDefaultLimit() {
         // NOTE: the following code is intentionally written to explode during partial evaluation!
@@ -139,6 +229,18 @@ public class NodeLimitTest extends PartialEvaluationTest {
         }
     }
 
+    private static class LargeRootNode extends TestRootNode {
+
+        @Override
+        @ExplodeLoop
+        public Object execute(VirtualFrame frame) {
+            for (int i = 0; i < 20; i++) {
+                foo();
+            }
+            return null;
+        }
+    }
+
     private static RootNode createRootNode() {
         return new TestRootNode();
     }
@@ -132,6 +132,24 @@ public class OptimizedOSRLoopNodeTest extends TestWithSynchronousCompiling {
         assertCompiled(target);
     }
 
+    /*
+     * Test that with multi-tier compilation a loop is first replaced with first tier code and then
+     * with last tier code once it keeps running in the first tier.
+     */
+    @Theory
+    public void testTieredOSR(OSRLoopFactory factory) {
+        setupContext("engine.MultiTier", "true");
+        TestRootNode rootNode = new TestRootNode(osrThreshold, factory, new TestRepeatingNode());
+        CallTarget target = runtime.createCallTarget(rootNode);
+        target.call(osrThreshold + 1);
+        assertCompiled(rootNode.getOSRTarget());
+        Assert.assertFalse(rootNode.getOSRTarget().isValidLastTier());
+        target.call(osrThreshold * 2 + 1);
+        assertCompiled(rootNode.getOSRTarget());
+        Assert.assertTrue(rootNode.getOSRTarget().isValidLastTier());
+        Assert.assertTrue(rootNode.wasRepeatingCalledCompiled());
+    }
+
     /*
      * Test that calling CompilerDirectives.transferToInterpreter does not invalidate the target.
      */
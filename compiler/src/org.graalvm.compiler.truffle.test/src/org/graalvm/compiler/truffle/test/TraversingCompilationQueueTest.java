@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.compiler.truffle.runtime.BackgroundCompileQueue;
+import org.graalvm.compiler.truffle.runtime.BackgroundCompileQueue.Priority;
+import org.graalvm.compiler.truffle.runtime.CancellableCompileTask;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntimeListener;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class TraversingCompilationQueueTest {
+
+    @Test
+    public void testAllTargetsCompiled() {
+        GraalTruffleRuntime runtime = GraalTruffleRuntime.getRuntime();
+        Map<OptimizedCallTarget, Long> queueTimes = new ConcurrentHashMap<>();
+        GraalTruffleRuntimeListener listener = new GraalTruffleRuntimeListener() {
+            @Override
+            public void onCompilationPolled(OptimizedCallTarget target, long queueTimeNanos, int queueSize) {
+                assertTrue(queueSize >= 0);
+                queueTimes.put(target, queueTimeNanos);
+            }
+        };
+        runtime.addListener(listener);
+        Context context = Context.newBuilder().allowExperimentalOptions(true).option("engine.BackgroundCompilation", "true").option("engine.CompilationThreshold", "3").option(
+                        "engine.TraversingCompilationQueue", "true").build();
+        context.enter();
+        try {
+            OptimizedCallTarget[] targets = new OptimizedCallTarget[50];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = createConstantCallTarget(i);
+            }
+            for (OptimizedCallTarget target : targets) {
+                for (int j = 0; j < 3; j++) {
+                    target.call();
+                }
+            }
+            for (OptimizedCallTarget target : targets) {
+                target.waitForCompilation();
+                assertTrue(target.isValid());
+                Long queueTime = queueTimes.get(target);
+                assertTrue(queueTime != null && queueTime >= 0);
+            }
+        } finally {
+            runtime.removeListener(listener);
+            context.leave();
+            context.close();
+        }
+    }
+
+    @Test
+    public void testOrderedByRate() throws InterruptedException {
+        List<String> order = runQueue((queue, record) -> {
+            OptimizedCallTarget cold = createConstantCallTarget(1);
+            OptimizedCallTarget hot = createConstantCallTarget(2);
+            cold.call();
+            for (int i = 0; i < 10000; i++) {
+                hot.call();
+            }
+            queue.submitTask(Priority.LAST_TIER, cold, record);
+            queue.submitTask(Priority.LAST_TIER, hot, record);
+        });
+        assertEquals(Arrays.asList("2", "1"), order);
+    }
+
+    @Test
+    public void testOrderedByAge() throws InterruptedException {
+        List<String> order = runQueue((queue, record) -> {
+            OptimizedCallTarget first = createConstantCallTarget(1);
+            OptimizedCallTarget second = createConstantCallTarget(2);
+            queue.submitTask(Priority.LAST_TIER, first, record);
+            // an uncalled target has no rate, so the older request wins
+            queue.submitTask(Priority.LAST_TIER, second, record);
+        });
+        assertEquals(Arrays.asList("1", "2"), order);
+    }
+
+    @Test
+    public void testAgingOvertakesTier() throws InterruptedException {
+        List<String> order = runQueue((queue, record) -> {
+            OptimizedCallTarget lastTier = createConstantCallTarget(1);
+            OptimizedCallTarget firstTier = createConstantCallTarget(2);
+            queue.submitTask(Priority.LAST_TIER, lastTier, record);
+            try {
+                // more than one aging period, which outweighs the first tier preference
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            queue.submitTask(Priority.FIRST_TIER, firstTier, record);
+        });
+        assertEquals(Arrays.asList("1", "2"), order);
+    }
+
+    private interface QueueFiller {
+        void fill(BackgroundCompileQueue queue, BackgroundCompileQueue.Request record);
+    }
+
+    /**
+     * Blocks the only compiler thread of a fresh queue created under the test's options, fills the
+     * queue and returns the order in which the queued requests were executed.
+     */
+    private static List<String> runQueue(QueueFiller filler) throws InterruptedException {
+        GraalTruffleRuntime runtime = GraalTruffleRuntime.getRuntime();
+        Context context = Context.newBuilder().allowExperimentalOptions(true).option("engine.CompilerThreads", "1").option("engine.CompilationThreshold", "100000").option(
+                        "engine.TraversingCompilationQueue", "true").build();
+        context.enter();
+        BackgroundCompileQueue queue = new BackgroundCompileQueue(runtime);
+        try {
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            queue.submitTask(Priority.LAST_TIER, createConstantCallTarget(0), new BackgroundCompileQueue.Request() {
+                @Override
+                protected void execute(CancellableCompileTask task, WeakReference<OptimizedCallTarget> targetRef) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            });
+            assertTrue(blocked.await(1, TimeUnit.MINUTES));
+            List<String> order = new ArrayList<>();
+            CountDownLatch done = new CountDownLatch(2);
+            filler.fill(queue, new BackgroundCompileQueue.Request() {
+                @Override
+                protected void execute(CancellableCompileTask task, WeakReference<OptimizedCallTarget> targetRef) {
+                    synchronized (order) {
+                        order.add(targetRef.get().getName());
+                    }
+                    done.countDown();
+                }
+            });
+            release.countDown();
+            assertTrue(done.await(1, TimeUnit.MINUTES));
+            synchronized (order) {
+                return new ArrayList<>(order);
+            }
+        } finally {
+            queue.shutdownAndAwaitTermination(1000);
+            context.leave();
+            context.close();
+        }
+    }
+
+    private static OptimizedCallTarget createConstantCallTarget(int i) {
+        return (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(new RootNode(null) {
+
+            @Override
+            public Object execute(VirtualFrame frame) {
+                return i;
+            }
+
+            @Override
+            public String getName() {
+                return String.valueOf(i);
+            }
+
+            @Override
+            public String toString() {
+                return getName();
+            }
+        });
+    }
+}
@@ -130,6 +130,10 @@ public class JNIExceptionWrapperTest extends TestWithPolyglotOptions {
         public void onGraalTierFinished(CompilableTruffleAST compilable, GraphInfo graph) {
         }
 
+        @Override
+        public void onPartialEvaluationBudgetExceeded(CompilableTruffleAST compilable, int nodeCount, boolean retry) {
+        }
+
         @Override
         public void onSuccess(CompilableTruffleAST compilable, TruffleInliningPlan inliningPlan, GraphInfo graphInfo, CompilationResultInfo compilationResultInfo) {
         }
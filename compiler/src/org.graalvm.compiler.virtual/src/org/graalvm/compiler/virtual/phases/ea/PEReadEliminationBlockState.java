@@ -32,10 +32,13 @@ import org.graalvm.collections.Equivalence;
 import org.graalvm.compiler.core.common.type.IntegerStamp;
 import org.graalvm.compiler.core.common.type.Stamp;
 import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.FieldLocationIdentity;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
 import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.virtual.AllocatedObjectNode;
+import org.graalvm.compiler.nodes.virtual.VirtualArrayNode;
 import org.graalvm.compiler.nodes.virtual.VirtualInstanceNode;
 import org.graalvm.compiler.nodes.virtual.VirtualObjectNode;
 import org.graalvm.compiler.options.OptionValues;
@@ -136,7 +139,42 @@ public final class PEReadEliminationBlockState extends PartialEscapeBlockState<P
                     readCache.put(new ReadCacheEntry(new FieldLocationIdentity(instance.field(i)), representation, -1, declaredKind, false), values.get(i));
                 }
             }
+        } else if (virtual instanceof VirtualArrayNode) {
+            /*
+             * Remember the elements of materialized arrays as well, so that reads through an
+             * escaped container (e.g. the locals of a materialized Truffle frame) that is read back
+             * in the same compilation unit still see the values known at materialization time.
+             */
+            VirtualArrayNode array = (VirtualArrayNode) virtual;
+            JavaKind componentKind = array.componentType().getJavaKind();
+            LocationIdentity location = NamedLocationIdentity.getArrayLocation(componentKind);
+            for (int i = 0; i < array.entryCount(); i++) {
+                ValueNode value = values.get(i);
+                if (isCacheableArrayElement(componentKind, value)) {
+                    readCache.put(new ReadCacheEntry(location, representation, i, componentKind, false), value);
+                }
+            }
+            readCache.put(new ReadCacheEntry(NamedLocationIdentity.ARRAY_LENGTH_LOCATION, representation, -1, JavaKind.Int, false),
+                            ConstantNode.forInt(array.entryCount(), representation.graph()));
+        }
+    }
+
+    /**
+     * Determines whether {@code value} is what an aligned read of an element of kind
+     * {@code componentKind} returns. Entries written with a different access kind are not cached.
+     * Sub-word elements are usually initialized with {@code int} constants, which are accepted if
+     * they survive the narrowing store unchanged.
+     */
+    private static boolean isCacheableArrayElement(JavaKind componentKind, ValueNode value) {
+        JavaKind valueKind = stampToJavaKind(value.stamp(NodeView.DEFAULT));
+        if (valueKind == componentKind) {
+            return true;
+        }
+        if (componentKind.isNumericInteger() && componentKind.getBitCount() < 32 && valueKind == JavaKind.Int && value.isJavaConstant()) {
+            long constant = value.asJavaConstant().asLong();
+            return constant >= componentKind.getMinValue() && constant <= componentKind.getMaxValue();
         }
+        return false;
     }
 
     @Override
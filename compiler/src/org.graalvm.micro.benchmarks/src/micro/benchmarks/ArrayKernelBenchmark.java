@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Simple counted loops over primitive arrays.
+ */
+@State(Scope.Thread)
+public class ArrayKernelBenchmark extends BenchmarkBase {
+
+    @Param({"16", "1024", "65536"}) int size;
+
+    int[] ints;
+    long[] longs;
+    float[] x;
+    float[] y;
+    byte[] bytes1;
+    byte[] bytes2;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ints = new int[size];
+        longs = new long[size];
+        x = new float[size];
+        y = new float[size];
+        bytes1 = new byte[size];
+        bytes2 = new byte[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = random.nextInt();
+            longs[i] = random.nextLong();
+            x[i] = random.nextFloat();
+            y[i] = random.nextFloat();
+        }
+        random.nextBytes(bytes1);
+        System.arraycopy(bytes1, 0, bytes2, 0, size);
+    }
+
+    @Benchmark
+    public int intSum() {
+        int sum = 0;
+        for (int i = 0; i < ints.length; i++) {
+            sum += ints[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longXor() {
+        long hash = 0;
+        for (int i = 0; i < longs.length; i++) {
+            hash ^= longs[i];
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public float[] saxpy() {
+        float a = 1.5f;
+        for (int i = 0; i < x.length; i++) {
+            y[i] = a * x[i] + y[i];
+        }
+        return y;
+    }
+
+    @Benchmark
+    public int byteCompare() {
+        for (int i = 0; i < bytes1.length; i++) {
+            if (bytes1[i] != bytes2[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -52,6 +52,7 @@ import java.time.ZonedDateTime;
 import java.time.zone.ZoneRules;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
@@ -100,6 +101,11 @@ import org.graalvm.polyglot.proxy.Proxy;
  * <li>{@link #hasMembers() Members}: This value may contain members. Members are structural
  * elements of an object. For example, the members of a Java object are all public methods and
  * fields. Members are accessible using {@link #getMember(String)}.
+ * <li>{@link #hasHashEntries() Hash Entries}: This value may contain hash entries. Unlike members,
+ * hash keys may be arbitrary values. Hash entries are accessible using
+ * {@link #getHashValue(Object)} and can be iterated using {@link #getHashEntriesIterator()}.
+ * <li>{@link #hasIterator() Iterable}: This value provides an {@link #getIterator() iterator}
+ * which can be used to {@link #getIteratorNextElement() iterate} value elements.
  * <li>{@link #canExecute() Executable}: This value can be {@link #execute(Object...) executed}.
  * This indicates that the value represents an element that can be executed. Guest language examples
  * for executable elements are functions, methods, closures or promises.
@@ -420,6 +426,180 @@ public final class Value {
         return impl.removeMember(receiver, identifier);
     }
 
+    // hash entries
+
+    /**
+     * Returns <code>true</code> if this polyglot value represents a map. If polyglot value has hash
+     * entries, it may also support {@link #getHashValue(Object)},
+     * {@link #putHashEntry(Object, Object)}, {@link #removeHashEntry(Object)} and
+     * {@link #getHashEntriesIterator()}.
+     *
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @see #getHashSize()
+     * @since 20.3
+     */
+    public boolean hasHashEntries() {
+        return impl.hasHashEntries(receiver);
+    }
+
+    /**
+     * Returns the number of entries for values with hash entries.
+     *
+     * @throws UnsupportedOperationException if the value does not have any
+     *             {@link #hasHashEntries() hash entries}.
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public long getHashSize() throws UnsupportedOperationException {
+        return impl.getHashSize(receiver);
+    }
+
+    /**
+     * Returns <code>true</code> if a mapping for the specified key exists. If the value has no
+     * {@link #hasHashEntries() hash entries} then {@link #hasHashEntry(Object)} returns
+     * <code>false</code>. The key is subject to polyglot value mapping rules as described in
+     * {@link Context#asValue(Object)}.
+     *
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public boolean hasHashEntry(Object key) {
+        return impl.hasHashEntry(receiver, key);
+    }
+
+    /**
+     * Returns the value for the specified key or <code>null</code> if the mapping for the specified
+     * key does not exist. The key is subject to polyglot value mapping rules as described in
+     * {@link Context#asValue(Object)}.
+     *
+     * @throws UnsupportedOperationException if the value has no {@link #hasHashEntries() hash
+     *             entries} at all or if the mapping for the specified key exists but is not
+     *             readable.
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public Value getHashValue(Object key) throws UnsupportedOperationException {
+        return impl.getHashValue(receiver, key);
+    }
+
+    /**
+     * Associates the specified value with the specified key. The key and the value are subject to
+     * polyglot value mapping rules as described in {@link Context#asValue(Object)}.
+     *
+     * @throws UnsupportedOperationException if the value has no {@link #hasHashEntries() hash
+     *             entries} at all or if the mapping for the specified key cannot be written.
+     * @throws IllegalArgumentException if the key or the value is not accepted by the hash.
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public void putHashEntry(Object key, Object value) throws UnsupportedOperationException, IllegalArgumentException {
+        impl.putHashEntry(receiver, key, value);
+    }
+
+    /**
+     * Removes the mapping for a given key. Returns <code>true</code> if the mapping was removed,
+     * <code>false</code> if such a mapping does not exist. The key is subject to polyglot value
+     * mapping rules as described in {@link Context#asValue(Object)}.
+     *
+     * @throws UnsupportedOperationException if the value has no {@link #hasHashEntries() hash
+     *             entries} at all or if the mapping for the specified key exists but cannot be
+     *             removed.
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public boolean removeHashEntry(Object key) throws UnsupportedOperationException {
+        return impl.removeHashEntry(receiver, key);
+    }
+
+    /**
+     * Returns an {@link #isIterator() iterator} of the hash entries. Each element of the iterator
+     * has two {@link #hasArrayElements() array elements}: the key at index 0 and the value at
+     * index 1. The keys are not materialized up-front, iterating a large hash allocates only the
+     * elements that are consumed.
+     *
+     * @throws UnsupportedOperationException if the value has no {@link #hasHashEntries() hash
+     *             entries}.
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public Value getHashEntriesIterator() throws UnsupportedOperationException {
+        return impl.getHashEntriesIterator(receiver);
+    }
+
+    // iterators
+
+    /**
+     * Returns <code>true</code> if the value provides an {@link #getIterator() iterator}. For
+     * example, a guest array or list may provide an iterator over its elements.
+     *
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public boolean hasIterator() {
+        return impl.hasIterator(receiver);
+    }
+
+    /**
+     * Returns an iterator for this value. The returned value is always an
+     * {@link #isIterator() iterator}.
+     *
+     * @throws UnsupportedOperationException if the value does not {@link #hasIterator() provide an
+     *             iterator}.
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public Value getIterator() throws UnsupportedOperationException {
+        return impl.getIterator(receiver);
+    }
+
+    /**
+     * Returns <code>true</code> if the value represents an iterator.
+     *
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @see #hasIteratorNextElement()
+     * @see #getIteratorNextElement()
+     * @since 20.3
+     */
+    public boolean isIterator() {
+        return impl.isIterator(receiver);
+    }
+
+    /**
+     * Returns <code>true</code> if the iterator has more elements. Calling this method repeatedly
+     * does not consume any elements.
+     *
+     * @throws UnsupportedOperationException if the value is not an {@link #isIterator() iterator}.
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public boolean hasIteratorNextElement() throws UnsupportedOperationException {
+        return impl.hasIteratorNextElement(receiver);
+    }
+
+    /**
+     * Returns the next element of the iterator.
+     *
+     * @throws NoSuchElementException if the iteration has no more elements.
+     * @throws UnsupportedOperationException if the value is not an {@link #isIterator() iterator}.
+     * @throws IllegalStateException if the context is already closed.
+     * @throws PolyglotException if a guest language error occurred during execution.
+     * @since 20.3
+     */
+    public Value getIteratorNextElement() throws NoSuchElementException, UnsupportedOperationException {
+        return impl.getIteratorNextElement(receiver);
+    }
+
     // executable
 
     /**
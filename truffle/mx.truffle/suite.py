@@ -379,6 +379,17 @@ suite = {
       "workingSets" : "API,Truffle",
     },
 
+    "com.oracle.truffle.api.staticobject" : {
+      "subDir" : "src",
+      "sourceDirs" : ["src"],
+      "dependencies" : [
+        "com.oracle.truffle.api.interop",
+      ],
+      "checkstyle" : "com.oracle.truffle.api",
+      "javaCompliance" : "8+",
+      "workingSets" : "API,Truffle",
+    },
+
     "com.oracle.truffle.api.object.dsl" : {
       "subDir" : "src",
       "sourceDirs" : ["src"],
@@ -788,6 +799,7 @@ suite = {
           "com.oracle.truffle.api.profiles",
           "com.oracle.truffle.api.interop",
           "com.oracle.truffle.api.object",
+          "com.oracle.truffle.api.staticobject",
           "com.oracle.truffle.api.utilities",
           "com.oracle.truffle.api.library",
 
@@ -806,6 +818,7 @@ suite = {
         "com.oracle.truffle.api.utilities",
         "com.oracle.truffle.object",
         "com.oracle.truffle.api.object.dsl",
+        "com.oracle.truffle.api.staticobject",
         "com.oracle.truffle.polyglot",
       ],
       "distDependencies" : [
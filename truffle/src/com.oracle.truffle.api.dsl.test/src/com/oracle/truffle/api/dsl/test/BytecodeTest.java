@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.dsl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.dsl.GenerateBytecode;
+import com.oracle.truffle.api.dsl.GenerateBytecode.Operation;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class BytecodeTest {
+
+    @GenerateBytecode
+    abstract static class CalcRootNode extends RootNode {
+
+        protected CalcRootNode(TruffleLanguage<?> language, FrameDescriptor frameDescriptor) {
+            super(language, frameDescriptor);
+        }
+
+        @Operation
+        static final class Add {
+
+            @Specialization(rewriteOn = ArithmeticException.class)
+            static long doLong(long left, long right) {
+                return Math.addExact(left, right);
+            }
+
+            @Specialization
+            static BigInteger doBigInteger(long left, long right) {
+                return BigInteger.valueOf(left).add(BigInteger.valueOf(right));
+            }
+
+            @Specialization
+            static String doString(String left, String right) {
+                return left + right;
+            }
+        }
+
+        @Operation
+        static final class LessThan {
+
+            @Specialization
+            static boolean doLong(long left, long right) {
+                return left < right;
+            }
+        }
+
+    }
+
+    // two LOAD_ARGUMENT instructions with one operand each precede the Add instruction
+    private static final int ADD_BCI = 4;
+
+    private static CalcRootNode createAddRoot() {
+        CalcRootNodeGen.Builder b = CalcRootNodeGen.newBuilder();
+        b.emitLoadArgument(0);
+        b.emitLoadArgument(1);
+        b.emitAdd();
+        b.emitReturn();
+        return b.build(null);
+    }
+
+    private static CallTarget createAdd() {
+        return Truffle.getRuntime().createCallTarget(createAddRoot());
+    }
+
+    private static CalcRootNode createLoopRoot() {
+        CalcRootNodeGen.Builder b = CalcRootNodeGen.newBuilder();
+        int n = b.createLocal();
+        int sum = b.createLocal();
+        int i = b.createLocal();
+        int loop = b.createLabel();
+        int end = b.createLabel();
+
+        b.emitLoadArgument(0);
+        b.emitStoreLocal(n);
+        b.emitLoadConstant(0L);
+        b.emitStoreLocal(sum);
+        b.emitLoadConstant(0L);
+        b.emitStoreLocal(i);
+
+        b.markLabel(loop);
+        b.emitLoadLocal(i);
+        b.emitLoadLocal(n);
+        b.emitLessThan();
+        b.emitBranchFalse(end);
+        b.emitLoadLocal(sum);
+        b.emitLoadLocal(i);
+        b.emitAdd();
+        b.emitStoreLocal(sum);
+        b.emitLoadLocal(i);
+        b.emitLoadConstant(1L);
+        b.emitAdd();
+        b.emitStoreLocal(i);
+        b.emitBranch(loop);
+
+        b.markLabel(end);
+        b.emitLoadLocal(sum);
+        b.emitReturn();
+        return b.build(null);
+    }
+
+    private static short opcode(String name) throws ReflectiveOperationException {
+        Field field = CalcRootNodeGen.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.getShort(null);
+    }
+
+    private static short[] bytecodes(CalcRootNode root) throws ReflectiveOperationException {
+        Field field = CalcRootNodeGen.class.getDeclaredField("bc");
+        field.setAccessible(true);
+        return (short[]) field.get(root);
+    }
+
+    @Test
+    public void testLoop() {
+        CallTarget target = Truffle.getRuntime().createCallTarget(createLoopRoot());
+        assertEquals(45L, target.call(10L));
+        assertEquals(0L, target.call(0L));
+        assertEquals(4950L, target.call(100L));
+    }
+
+    @Test
+    public void testQuickening() throws ReflectiveOperationException {
+        CalcRootNode root = createAddRoot();
+        CallTarget target = Truffle.getRuntime().createCallTarget(root);
+        assertEquals(opcode("ADD"), bytecodes(root)[ADD_BCI]);
+
+        assertEquals(3L, target.call(1L, 2L));
+        assertEquals(opcode("ADD_DO_LONG"), bytecodes(root)[ADD_BCI]);
+
+        // the quickened instruction falls back to the generic one for boxed operands
+        assertEquals(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE), target.call(Long.MAX_VALUE, 1L));
+        assertEquals(opcode("ADD_DO_BIG_INTEGER"), bytecodes(root)[ADD_BCI]);
+
+        // polymorphic operations are not quickened
+        assertEquals("ab", target.call("a", "b"));
+        assertEquals(opcode("ADD"), bytecodes(root)[ADD_BCI]);
+        assertEquals(BigInteger.valueOf(3), target.call(1L, 2L));
+        assertEquals(opcode("ADD"), bytecodes(root)[ADD_BCI]);
+    }
+
+    @Test
+    public void testPrimitiveSlots() {
+        CalcRootNode root = createLoopRoot();
+        FrameDescriptor descriptor = root.getFrameDescriptor();
+        FrameSlot n = descriptor.findFrameSlot("local0");
+        FrameSlot sum = descriptor.findFrameSlot("local1");
+        FrameSlot i = descriptor.findFrameSlot("local2");
+
+        VirtualFrame frame = Truffle.getRuntime().createVirtualFrame(new Object[]{10L}, descriptor);
+        assertEquals(45L, root.execute(frame));
+        // the argument is boxed, but values produced by quickened instructions are not
+        assertFalse(frame.isLong(n));
+        assertTrue(frame.isLong(sum));
+        assertTrue(frame.isLong(i));
+    }
+
+    @Test
+    public void testBranchFalseNotBoolean() {
+        CalcRootNodeGen.Builder b = CalcRootNodeGen.newBuilder();
+        int label = b.createLabel();
+        b.emitLoadArgument(0);
+        b.emitBranchFalse(label);
+        b.emitLoadConstant(1L);
+        b.emitReturn();
+        b.markLabel(label);
+        b.emitLoadConstant(0L);
+        b.emitReturn();
+        CallTarget target = Truffle.getRuntime().createCallTarget(b.build(null));
+
+        assertEquals(1L, target.call(true));
+        assertEquals(0L, target.call(false));
+        try {
+            target.call(42L);
+            fail();
+        } catch (UnsupportedSpecializationException e) {
+            assertEquals(1, e.getSuppliedValues().length);
+            assertEquals(42L, e.getSuppliedValues()[0]);
+        }
+    }
+
+    @Test
+    public void testRewriteOn() {
+        CallTarget target = createAdd();
+        assertEquals(3L, target.call(1L, 2L));
+        assertEquals(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE), target.call(Long.MAX_VALUE, 1L));
+        // doLong is excluded after the overflow
+        assertEquals(BigInteger.valueOf(3), target.call(1L, 2L));
+    }
+
+    @Test
+    public void testPolymorphic() {
+        CallTarget target = createAdd();
+        assertEquals(3L, target.call(1L, 2L));
+        assertEquals("ab", target.call("a", "b"));
+        assertEquals(7L, target.call(3L, 4L));
+        assertEquals("cd", target.call("c", "d"));
+    }
+
+    @Test
+    public void testUnsupported() {
+        CallTarget target = createAdd();
+        try {
+            target.call(1L, "a");
+            fail();
+        } catch (UnsupportedSpecializationException e) {
+            assertEquals(2, e.getSuppliedValues().length);
+        }
+        assertEquals(3L, target.call(1L, 2L));
+    }
+
+    @Test
+    public void testBuilderErrors() {
+        CalcRootNodeGen.Builder b = CalcRootNodeGen.newBuilder();
+        try {
+            b.emitAdd();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+
+        b = CalcRootNodeGen.newBuilder();
+        try {
+            b.emitLoadLocal(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        b = CalcRootNodeGen.newBuilder();
+        b.emitLoadConstant(42L);
+        try {
+            b.build(null);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+
+        b = CalcRootNodeGen.newBuilder();
+        b.emitBranch(b.createLabel());
+        try {
+            b.build(null);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+
+        b = CalcRootNodeGen.newBuilder();
+        int label = b.createLabel();
+        b.emitLoadConstant(true);
+        b.emitBranchFalse(label);
+        b.emitLoadConstant(42L);
+        try {
+            b.markLabel(label);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+    }
+
+    @ExpectError("Bytecode root nodes must be abstract.")
+    @GenerateBytecode
+    static class ErrorNotAbstractRootNode extends RootNode {
+
+        protected ErrorNotAbstractRootNode(TruffleLanguage<?> language, FrameDescriptor frameDescriptor) {
+            super(language, frameDescriptor);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return null;
+        }
+
+    }
+
+    @ExpectError("Bytecode root nodes must not implement the execute method. The execute method is generated.")
+    @GenerateBytecode
+    abstract static class ErrorExecuteRootNode extends RootNode {
+
+        protected ErrorExecuteRootNode(TruffleLanguage<?> language, FrameDescriptor frameDescriptor) {
+            super(language, frameDescriptor);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return null;
+        }
+
+    }
+
+    @ExpectError("Bytecode root node constructors must declare a TruffleLanguage and a FrameDescriptor as first parameters.")
+    @GenerateBytecode
+    abstract static class ErrorConstructorRootNode extends RootNode {
+
+        protected ErrorConstructorRootNode(TruffleLanguage<?> language) {
+            super(language);
+        }
+
+    }
+
+    @GenerateBytecode
+    abstract static class ErrorOperationRootNode extends RootNode {
+
+        protected ErrorOperationRootNode(TruffleLanguage<?> language, FrameDescriptor frameDescriptor) {
+            super(language, frameDescriptor);
+        }
+
+        @ExpectError("The operation name 'Pop' is reserved for a built-in instruction. Rename the operation to resolve this.")
+        @Operation
+        static final class Pop {
+
+            @Specialization
+            static long doLong(long value) {
+                return value;
+            }
+        }
+
+        @ExpectError("Operation specializations must be static and not private.")
+        @Operation
+        static final class NotStatic {
+
+            @Specialization
+            long doLong(long value) {
+                return value;
+            }
+        }
+
+        @ExpectError("The guards attribute is not supported for operation specializations.")
+        @Operation
+        static final class Guards {
+
+            @Specialization(guards = "value > 0")
+            static long doLong(long value) {
+                return value;
+            }
+        }
+
+        @ExpectError("Checked exception IOException of specialization 'doLong' must be declared in rewriteOn.")
+        @Operation
+        static final class CheckedException {
+
+            @Specialization
+            static long doLong(long value) throws IOException {
+                return value;
+            }
+        }
+
+        @ExpectError("All specializations of an operation must declare the same number of parameters. Expected 1 parameters.")
+        @Operation
+        static final class Arity {
+
+            @Specialization
+            static long doLong(long value) {
+                return value;
+            }
+
+            @Specialization
+            static long doLong2(long left, long right) {
+                return left + right;
+            }
+        }
+
+        @ExpectError("Operations must declare at least one specialization.")
+        @Operation
+        static final class Empty {
+        }
+
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.dsl;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a bytecode interpreter for a root node. Instead of building a tree of nodes for each
+ * guest function, a bytecode root node stores the function as a compact array of instructions and
+ * interprets it with a single dispatch loop. This reduces the memory footprint of rarely executed
+ * functions significantly, while the dispatch loop is written such that partial evaluation produces
+ * the same code as for an equivalent AST interpreter.
+ * <p>
+ * The annotated class must be an abstract subclass of <code>RootNode</code> that does not implement
+ * <code>execute</code>. Every non-private constructor must declare a <code>TruffleLanguage</code>
+ * and a <code>FrameDescriptor</code> as its first two parameters. The operations of the interpreter
+ * are declared as static inner classes annotated with {@link Operation}. Operations declare their
+ * semantics with static {@link Specialization specializations}. All specializations of an operation
+ * must declare the same number of parameters, which are the operands popped from the operand stack.
+ * If the specializations return a value then it is pushed onto the operand stack.
+ * <p>
+ * For a class <code>MyRootNode</code> a class <code>MyRootNodeGen</code> is generated in the same
+ * package. It provides a <code>newBuilder()</code> method to create a builder that emits the
+ * instructions of a function. Besides one <code>emit</code> method per operation, the builder
+ * supports the following built-in instructions:
+ * <ul>
+ * <li><code>emitLoadConstant(Object)</code> and <code>emitLoadArgument(int)</code> push a constant
+ * or a frame argument.
+ * <li><code>createLocal()</code>, <code>emitLoadLocal(int)</code> and
+ * <code>emitStoreLocal(int)</code> declare and access local variables.
+ * <li><code>createLabel()</code>, <code>markLabel(int)</code>, <code>emitBranch(int)</code> and
+ * <code>emitBranchFalse(int)</code> implement control flow. The condition of a conditional branch
+ * must be a boolean value, otherwise an {@link UnsupportedSpecializationException} is thrown.
+ * <li><code>emitPop()</code> discards a value and <code>emitReturn()</code> returns a value from the
+ * function.
+ * </ul>
+ * The builder creates the root node with one <code>build</code> method per constructor. It takes
+ * the language and the remaining constructor parameters, the frame descriptor is created by the
+ * builder.
+ * <p>
+ * The generated interpreter stores the operand stack in frame slots and uses the specialization
+ * state of each instruction to quicken it. An instruction with exactly one active specialization
+ * that has primitive parameters or a primitive return type is rewritten to a quickened instruction
+ * that reads and writes its operands as primitive frame values. This avoids boxing if producer and
+ * consumer of a value are both quickened. Quickened instructions revert to the generic instruction
+ * if they encounter an unexpected operand type.
+ * <p>
+ * Operation specializations support the {@link Specialization#rewriteOn() rewriteOn} and
+ * {@link Specialization#replaces() replaces} attributes. Guards, assumptions, cached parameters,
+ * implicit casts and {@link Fallback fallback} specializations are not supported. If no
+ * specialization matches the operands then an {@link UnsupportedSpecializationException} is thrown.
+ * <p>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * &#64;GenerateBytecode
+ * abstract class CalcRootNode extends RootNode {
+ *
+ *     protected CalcRootNode(TruffleLanguage&lt;?&gt; language, FrameDescriptor frameDescriptor) {
+ *         super(language, frameDescriptor);
+ *     }
+ *
+ *     &#64;Operation
+ *     static final class Add {
+ *         &#64;Specialization(rewriteOn = ArithmeticException.class)
+ *         static long doLong(long left, long right) {
+ *             return Math.addExact(left, right);
+ *         }
+ *
+ *         &#64;Specialization
+ *         static String doString(String left, String right) {
+ *             return left + right;
+ *         }
+ *     }
+ * }
+ *
+ * CalcRootNodeGen.Builder b = CalcRootNodeGen.newBuilder();
+ * b.emitLoadArgument(0);
+ * b.emitLoadConstant(42L);
+ * b.emitAdd();
+ * b.emitReturn();
+ * CalcRootNode root = b.build(language);
+ * </pre>
+ *
+ * @since 20.3
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE})
+public @interface GenerateBytecode {
+
+    /**
+     * Declares an operation of a {@link GenerateBytecode bytecode} root node. The annotated class
+     * must be a static inner class of the root node and declare at least one static
+     * {@link Specialization specialization}. The simple name of the class is used as the name of
+     * the operation.
+     *
+     * @since 20.3
+     */
+    @Retention(RetentionPolicy.CLASS)
+    @Target({ElementType.TYPE})
+    @interface Operation {
+    }
+
+}
@@ -49,6 +49,7 @@ import static com.oracle.truffle.api.interop.AssertUtils.validReturn;
 import static com.oracle.truffle.api.interop.AssertUtils.violationInvariant;
 import static com.oracle.truffle.api.interop.AssertUtils.violationPost;
 
+import java.nio.ByteOrder;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -964,6 +965,565 @@ public abstract class InteropLibrary extends Library {
         return isArrayElementModifiable(receiver, index) || isArrayElementReadable(receiver, index) || isArrayElementRemovable(receiver, index);
     }
 
+    // Buffer Messages
+
+    /**
+     * Returns <code>true</code> if the receiver may have buffer elements. A buffer is a contiguous
+     * sequence of bytes that can be accessed by byte offset and read or written as primitive values
+     * in an explicit {@link ByteOrder byte order}, or copied in bulk with
+     * {@link #readBuffer(Object, long, byte[], int, int)} and
+     * {@link #writeBuffer(Object, long, byte[], int, int)}. Unlike array elements, buffer elements
+     * are never boxed, so large binary payloads can cross language boundaries without per-element
+     * overhead. An object may have both array and buffer elements. Invoking this message does not
+     * cause any observable side-effects. Returns <code>false</code> by default.
+     *
+     * @see #getBufferSize(Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = {"getBufferSize", "isBufferWritable", "readBufferByte", "readBufferShort", "readBufferInt", "readBufferLong", "readBufferFloat", "readBufferDouble"})
+    public boolean hasBufferElements(Object receiver) {
+        return false;
+    }
+
+    /**
+     * Returns <code>true</code> if the buffer elements of the receiver can be written. Invoking this
+     * message does not cause any observable side-effects.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @since 20.3
+     */
+    @Abstract(ifExported = {"hasBufferElements", "writeBufferByte", "writeBufferShort", "writeBufferInt", "writeBufferLong", "writeBufferFloat", "writeBufferDouble"})
+    public boolean isBufferWritable(Object receiver) throws UnsupportedMessageException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Returns the buffer size of the receiver in bytes.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasBufferElements")
+    public long getBufferSize(Object receiver) throws UnsupportedMessageException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Reads the byte at the given byte offset from the start of the buffer. This method must have
+     * no observable side-effects.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or the byte at the offset
+     *             is out of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasBufferElements")
+    public byte readBufferByte(Object receiver, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Writes the byte at the given byte offset from the start of the buffer.
+     *
+     * @throws UnsupportedMessageException if {@link #hasBufferElements(Object)} or
+     *             {@link #isBufferWritable(Object)} returns <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or the byte at the offset
+     *             is out of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isBufferWritable")
+    public void writeBufferByte(Object receiver, long byteOffset, byte value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Reads the short composed of the 2 bytes at the given byte offset from the start of the
+     * buffer in the given byte order. Unaligned offsets are supported. This method must have no
+     * observable side-effects.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasBufferElements")
+    public short readBufferShort(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Writes the short at the given byte offset from the start of the buffer in the given byte
+     * order. Unaligned offsets are supported.
+     *
+     * @throws UnsupportedMessageException if {@link #hasBufferElements(Object)} or
+     *             {@link #isBufferWritable(Object)} returns <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isBufferWritable")
+    public void writeBufferShort(Object receiver, ByteOrder order, long byteOffset, short value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Reads the int composed of the 4 bytes at the given byte offset from the start of the
+     * buffer in the given byte order. Unaligned offsets are supported. This method must have no
+     * observable side-effects.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasBufferElements")
+    public int readBufferInt(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Writes the int at the given byte offset from the start of the buffer in the given byte
+     * order. Unaligned offsets are supported.
+     *
+     * @throws UnsupportedMessageException if {@link #hasBufferElements(Object)} or
+     *             {@link #isBufferWritable(Object)} returns <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isBufferWritable")
+    public void writeBufferInt(Object receiver, ByteOrder order, long byteOffset, int value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Reads the long composed of the 8 bytes at the given byte offset from the start of the
+     * buffer in the given byte order. Unaligned offsets are supported. This method must have no
+     * observable side-effects.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasBufferElements")
+    public long readBufferLong(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Writes the long at the given byte offset from the start of the buffer in the given byte
+     * order. Unaligned offsets are supported.
+     *
+     * @throws UnsupportedMessageException if {@link #hasBufferElements(Object)} or
+     *             {@link #isBufferWritable(Object)} returns <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isBufferWritable")
+    public void writeBufferLong(Object receiver, ByteOrder order, long byteOffset, long value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Reads the float composed of the 4 bytes at the given byte offset from the start of the
+     * buffer in the given byte order. Unaligned offsets are supported. This method must have no
+     * observable side-effects.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasBufferElements")
+    public float readBufferFloat(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Writes the float at the given byte offset from the start of the buffer in the given byte
+     * order. Unaligned offsets are supported.
+     *
+     * @throws UnsupportedMessageException if {@link #hasBufferElements(Object)} or
+     *             {@link #isBufferWritable(Object)} returns <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isBufferWritable")
+    public void writeBufferFloat(Object receiver, ByteOrder order, long byteOffset, float value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Reads the double composed of the 8 bytes at the given byte offset from the start of the
+     * buffer in the given byte order. Unaligned offsets are supported. This method must have no
+     * observable side-effects.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasBufferElements")
+    public double readBufferDouble(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Writes the double at the given byte offset from the start of the buffer in the given byte
+     * order. Unaligned offsets are supported.
+     *
+     * @throws UnsupportedMessageException if {@link #hasBufferElements(Object)} or
+     *             {@link #isBufferWritable(Object)} returns <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isBufferWritable")
+    public void writeBufferDouble(Object receiver, ByteOrder order, long byteOffset, double value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Copies <code>length</code> bytes starting at the given byte offset of the buffer into
+     * <code>destination</code> starting at <code>destinationOffset</code>. Receivers backed by
+     * contiguous memory should export this message to copy all bytes at once; by default the bytes
+     * are read one by one with {@link #readBufferByte(Object, long)}. This method must have no
+     * observable side-effects other than the changed destination.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasBufferElements(Object)} returns
+     *             <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the destination.
+     * @since 20.3
+     */
+    public void readBuffer(Object receiver, long byteOffset, byte[] destination, int destinationOffset, int length) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (destinationOffset < 0 || length < 0 || destinationOffset > destination.length - length) {
+            CompilerDirectives.transferToInterpreter();
+            throw new IndexOutOfBoundsException();
+        }
+        for (int i = 0; i < length; i++) {
+            destination[destinationOffset + i] = readBufferByte(receiver, byteOffset + i);
+        }
+    }
+
+    /**
+     * Copies <code>length</code> bytes of <code>source</code> starting at
+     * <code>sourceOffset</code> into the buffer starting at the given byte offset. Receivers backed
+     * by contiguous memory should export this message to copy all bytes at once; by default the
+     * bytes are written one by one with {@link #writeBufferByte(Object, long, byte)}.
+     *
+     * @throws UnsupportedMessageException if {@link #hasBufferElements(Object)} or
+     *             {@link #isBufferWritable(Object)} returns <code>false</code>.
+     * @throws InvalidBufferOffsetException if the byte offset is negative or any of the bytes is out
+     *             of the bounds of the buffer.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the source.
+     * @since 20.3
+     */
+    public void writeBuffer(Object receiver, long byteOffset, byte[] source, int sourceOffset, int length) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (sourceOffset < 0 || length < 0 || sourceOffset > source.length - length) {
+            CompilerDirectives.transferToInterpreter();
+            throw new IndexOutOfBoundsException();
+        }
+        for (int i = 0; i < length; i++) {
+            writeBufferByte(receiver, byteOffset + i, source[sourceOffset + i]);
+        }
+    }
+
+    // Hash Messages
+
+    /**
+     * Returns <code>true</code> if the receiver may have hash entries. Therefore, at least one of
+     * {@link #readHashValue(Object, Object)}, {@link #writeHashEntry(Object, Object, Object)},
+     * {@link #removeHashEntry(Object, Object)} must not throw {@link UnsupportedMessageException}.
+     * For example, the contents of a map data structure could be interpreted as hash elements.
+     * Unlike {@link #hasMembers(Object) members}, hash keys may be arbitrary interop values and
+     * hash entries can be iterated without materializing all keys using
+     * {@link #getHashEntriesIterator(Object)}. Invoking this message does not cause any observable
+     * side-effects. Returns <code>false</code> by default.
+     *
+     * @see #getHashSize(Object)
+     * @see #getHashEntriesIterator(Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = {"getHashSize", "isHashEntryReadable", "readHashValue", "getHashEntriesIterator"})
+    public boolean hasHashEntries(Object receiver) {
+        return false;
+    }
+
+    /**
+     * Returns the number of receiver entries.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasHashEntries(Object)} returns
+     *             <code>false</code>.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasHashEntries")
+    public long getHashSize(Object receiver) throws UnsupportedMessageException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Returns <code>true</code> if mapping for the specified key exists and is
+     * {@link #readHashValue(Object, Object) readable}. This method may only return
+     * <code>true</code> if {@link #hasHashEntries(Object)} returns <code>true</code> as well.
+     * Invoking this message does not cause any observable side-effects. Returns <code>false</code>
+     * by default.
+     *
+     * @see #readHashValue(Object, Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasHashEntries")
+    public boolean isHashEntryReadable(Object receiver, Object key) {
+        return false;
+    }
+
+    /**
+     * Reads the value for the specified key.
+     *
+     * @throws UnsupportedMessageException if the receiver does not support reading at all. An
+     *             empty receiver with no readable hash entries supports the read operation (even
+     *             though there is nothing to read), therefore it throws
+     *             {@link UnknownKeyException} for all arguments instead.
+     * @throws UnknownKeyException if mapping for the specified key is not
+     *             {@link #isHashEntryReadable(Object, Object) readable}, e.g. when the hash does
+     *             not contain specified key.
+     * @see #isHashEntryReadable(Object, Object)
+     * @see #readHashValueOrDefault(Object, Object, Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasHashEntries")
+    public Object readHashValue(Object receiver, Object key) throws UnsupportedMessageException, UnknownKeyException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Reads the value for the specified key or returns the {@code defaultValue} when the mapping
+     * for the specified key does not exist or is not readable. By default the value is read with
+     * {@link #readHashValue(Object, Object)}. Implementations should override this message to
+     * avoid the exception for missing keys.
+     *
+     * @throws UnsupportedMessageException if the receiver does not support reading at all.
+     * @see #readHashValue(Object, Object)
+     * @since 20.3
+     */
+    public Object readHashValueOrDefault(Object receiver, Object key, Object defaultValue) throws UnsupportedMessageException {
+        try {
+            return readHashValue(receiver, key);
+        } catch (UnknownKeyException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if mapping for the specified key exists and is
+     * {@link #writeHashEntry(Object, Object, Object) writable}. This method may only return
+     * <code>true</code> if {@link #hasHashEntries(Object)} returns <code>true</code> as well and
+     * {@link #isHashEntryInsertable(Object, Object)} returns <code>false</code>. Invoking this
+     * message does not cause any observable side-effects. Returns <code>false</code> by default.
+     *
+     * @see #writeHashEntry(Object, Object, Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "writeHashEntry")
+    public boolean isHashEntryModifiable(Object receiver, Object key) {
+        return false;
+    }
+
+    /**
+     * Returns <code>true</code> if mapping for the specified key does not exist and is
+     * {@link #writeHashEntry(Object, Object, Object) insertable}. This method may only return
+     * <code>true</code> if {@link #hasHashEntries(Object)} returns <code>true</code> as well and
+     * {@link #isHashEntryExisting(Object, Object)} returns <code>false</code>. Invoking this
+     * message does not cause any observable side-effects. Returns <code>false</code> by default.
+     *
+     * @see #writeHashEntry(Object, Object, Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "writeHashEntry")
+    public boolean isHashEntryInsertable(Object receiver, Object key) {
+        return false;
+    }
+
+    /**
+     * Returns true if mapping for the specified key is
+     * {@link #isHashEntryModifiable(Object, Object) modifiable} or
+     * {@link #isHashEntryInsertable(Object, Object) insertable}.
+     *
+     * @since 20.3
+     */
+    public final boolean isHashEntryWritable(Object receiver, Object key) {
+        return isHashEntryModifiable(receiver, key) || isHashEntryInsertable(receiver, key);
+    }
+
+    /**
+     * Associates the specified value with the specified key in the receiver. Writing the entry is
+     * allowed if is existing and {@link #isHashEntryModifiable(Object, Object) modifiable}, or not
+     * existing and {@link #isHashEntryInsertable(Object, Object) insertable}.
+     *
+     * @throws UnsupportedMessageException when the receiver does not support writing at all, e.g.
+     *             when it is immutable.
+     * @throws UnknownKeyException if mapping for the specified key is not
+     *             {@link #isHashEntryModifiable(Object, Object) modifiable} nor
+     *             {@link #isHashEntryInsertable(Object, Object) insertable}.
+     * @throws UnsupportedTypeException if the provided key type or value type is not allowed to be
+     *             written.
+     * @since 20.3
+     */
+    @Abstract(ifExported = {"isHashEntryModifiable", "isHashEntryInsertable"})
+    public void writeHashEntry(Object receiver, Object key, Object value) throws UnsupportedMessageException, UnknownKeyException, UnsupportedTypeException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Returns <code>true</code> if mapping for the specified key exists and is
+     * {@link #removeHashEntry(Object, Object) removable}. This method may only return
+     * <code>true</code> if {@link #hasHashEntries(Object)} returns <code>true</code> as well and
+     * {@link #isHashEntryInsertable(Object, Object)} returns <code>false</code>. Invoking this
+     * message does not cause any observable side-effects. Returns <code>false</code> by default.
+     *
+     * @see #removeHashEntry(Object, Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "removeHashEntry")
+    public boolean isHashEntryRemovable(Object receiver, Object key) {
+        return false;
+    }
+
+    /**
+     * Removes the mapping for a given key from the receiver. Mapping removing is allowed if it is
+     * {@link #isHashEntryRemovable(Object, Object) removable}.
+     *
+     * @throws UnsupportedMessageException when the receiver does not support removing at all, e.g.
+     *             when it is immutable.
+     * @throws UnknownKeyException if the given mapping is not
+     *             {@link #isHashEntryRemovable(Object, Object) removable}, e.g. the receiver does
+     *             not have a mapping for given key.
+     * @see #isHashEntryRemovable(Object, Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isHashEntryRemovable")
+    public void removeHashEntry(Object receiver, Object key) throws UnsupportedMessageException, UnknownKeyException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Returns true if the mapping for the specified key is
+     * {@link #isHashEntryModifiable(Object, Object) modifiable},
+     * {@link #isHashEntryReadable(Object, Object) readable} or
+     * {@link #isHashEntryRemovable(Object, Object) removable}.
+     *
+     * @since 20.3
+     */
+    public final boolean isHashEntryExisting(Object receiver, Object key) {
+        return isHashEntryReadable(receiver, key) || isHashEntryModifiable(receiver, key) || isHashEntryRemovable(receiver, key);
+    }
+
+    /**
+     * Returns the hash entries {@link #isIterator(Object) iterator} for the receiver. The return
+     * value is always an {@link #isIterator(Object) iterator}. Each element of the iterator is a
+     * key value pair, represented as an object with two {@link #hasArrayElements(Object) array
+     * elements}: the key at index 0 and the value at index 1. The iterator does not materialize
+     * the keys, so iterating a hash is linear in its size without any up-front allocation
+     * proportional to it.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasHashEntries(Object)} returns
+     *             <code>false</code>.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasHashEntries")
+    public Object getHashEntriesIterator(Object receiver) throws UnsupportedMessageException {
+        throw UnsupportedMessageException.create();
+    }
+
+    // Iterator Messages
+
+    /**
+     * Returns <code>true</code> if the receiver provides an {@link #getIterator(Object) iterator}.
+     * For example, an array or a list provide an iterator over their content. Invoking this message
+     * does not cause any observable side-effects. Returns <code>false</code> by default.
+     *
+     * @see #getIterator(Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "getIterator")
+    public boolean hasIterator(Object receiver) {
+        return false;
+    }
+
+    /**
+     * Returns the iterator for the receiver. The return value is always an
+     * {@link #isIterator(Object) iterator}.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #hasIterator(Object)} returns
+     *             <code>false</code>.
+     * @since 20.3
+     */
+    @Abstract(ifExported = "hasIterator")
+    public Object getIterator(Object receiver) throws UnsupportedMessageException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Returns <code>true</code> if the receiver represents an iterator. Invoking this message does
+     * not cause any observable side-effects. Returns <code>false</code> by default.
+     *
+     * @see #hasIterator(Object)
+     * @see #getIterator(Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = {"hasIteratorNextElement", "getIteratorNextElement"})
+    public boolean isIterator(Object receiver) {
+        return false;
+    }
+
+    /**
+     * Returns <code>true</code> if the receiver is an iterator which has more elements, else
+     * <code>false</code>. Multiple calls to the {@link #hasIteratorNextElement(Object)} without an
+     * interleaving {@link #getIteratorNextElement(Object)} must not consume any elements.
+     *
+     * @throws UnsupportedMessageException if and only if {@link #isIterator(Object)} returns
+     *             <code>false</code>.
+     * @see #isIterator(Object)
+     * @see #getIteratorNextElement(Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isIterator")
+    public boolean hasIteratorNextElement(Object receiver) throws UnsupportedMessageException {
+        throw UnsupportedMessageException.create();
+    }
+
+    /**
+     * Returns the next element in the iteration. When the underlying data structure is modified
+     * the {@link #getIteratorNextElement(Object)} may throw the guest language's concurrent
+     * modification error or return the element according to the language semantics.
+     *
+     * @throws UnsupportedMessageException if the receiver does not support iteration at all, e.g.
+     *             when {@link #isIterator(Object)} returns <code>false</code>.
+     * @throws StopIterationException if the iteration has no more elements. Even if the
+     *             {@link StopIterationException} was thrown it might not be thrown again by a next
+     *             {@link #getIteratorNextElement(Object)} invocation on the same receiver due to a
+     *             modification of an underlying iterable.
+     * @see #isIterator(Object)
+     * @see #hasIteratorNextElement(Object)
+     * @since 20.3
+     */
+    @Abstract(ifExported = "isIterator")
+    public Object getIteratorNextElement(Object receiver) throws UnsupportedMessageException, StopIterationException {
+        throw UnsupportedMessageException.create();
+    }
+
     /**
      * Returns <code>true</code> if the receiver value represents a native pointer. Native pointers
      * are represented as 64 bit pointers. Invoking this message does not cause any observable
@@ -2521,6 +3081,484 @@ public abstract class InteropLibrary extends Library {
             return result;
         }
 
+        @Override
+        public boolean hasBufferElements(Object receiver) {
+            assert preCondition(receiver);
+            return delegate.hasBufferElements(receiver);
+        }
+
+        @Override
+        public boolean isBufferWritable(Object receiver) throws UnsupportedMessageException {
+            assert preCondition(receiver);
+            try {
+                boolean result = delegate.isBufferWritable(receiver);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public long getBufferSize(Object receiver) throws UnsupportedMessageException {
+            assert preCondition(receiver);
+            try {
+                long result = delegate.getBufferSize(receiver);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+                assert result >= 0 : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public byte readBufferByte(Object receiver, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.readBufferByte(receiver, byteOffset);
+            }
+            assert preCondition(receiver);
+            try {
+                byte result = delegate.readBufferByte(receiver, byteOffset);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void writeBufferByte(Object receiver, long byteOffset, byte value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.writeBufferByte(receiver, byteOffset, value);
+                return;
+            }
+            assert preCondition(receiver);
+            try {
+                delegate.writeBufferByte(receiver, byteOffset, value);
+                assert delegate.isBufferWritable(receiver) : violationInvariant(receiver);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public short readBufferShort(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.readBufferShort(receiver, order, byteOffset);
+            }
+            assert preCondition(receiver);
+            try {
+                short result = delegate.readBufferShort(receiver, order, byteOffset);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void writeBufferShort(Object receiver, ByteOrder order, long byteOffset, short value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.writeBufferShort(receiver, order, byteOffset, value);
+                return;
+            }
+            assert preCondition(receiver);
+            try {
+                delegate.writeBufferShort(receiver, order, byteOffset, value);
+                assert delegate.isBufferWritable(receiver) : violationInvariant(receiver);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public int readBufferInt(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.readBufferInt(receiver, order, byteOffset);
+            }
+            assert preCondition(receiver);
+            try {
+                int result = delegate.readBufferInt(receiver, order, byteOffset);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void writeBufferInt(Object receiver, ByteOrder order, long byteOffset, int value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.writeBufferInt(receiver, order, byteOffset, value);
+                return;
+            }
+            assert preCondition(receiver);
+            try {
+                delegate.writeBufferInt(receiver, order, byteOffset, value);
+                assert delegate.isBufferWritable(receiver) : violationInvariant(receiver);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public long readBufferLong(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.readBufferLong(receiver, order, byteOffset);
+            }
+            assert preCondition(receiver);
+            try {
+                long result = delegate.readBufferLong(receiver, order, byteOffset);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void writeBufferLong(Object receiver, ByteOrder order, long byteOffset, long value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.writeBufferLong(receiver, order, byteOffset, value);
+                return;
+            }
+            assert preCondition(receiver);
+            try {
+                delegate.writeBufferLong(receiver, order, byteOffset, value);
+                assert delegate.isBufferWritable(receiver) : violationInvariant(receiver);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public float readBufferFloat(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.readBufferFloat(receiver, order, byteOffset);
+            }
+            assert preCondition(receiver);
+            try {
+                float result = delegate.readBufferFloat(receiver, order, byteOffset);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void writeBufferFloat(Object receiver, ByteOrder order, long byteOffset, float value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.writeBufferFloat(receiver, order, byteOffset, value);
+                return;
+            }
+            assert preCondition(receiver);
+            try {
+                delegate.writeBufferFloat(receiver, order, byteOffset, value);
+                assert delegate.isBufferWritable(receiver) : violationInvariant(receiver);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public double readBufferDouble(Object receiver, ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.readBufferDouble(receiver, order, byteOffset);
+            }
+            assert preCondition(receiver);
+            try {
+                double result = delegate.readBufferDouble(receiver, order, byteOffset);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void writeBufferDouble(Object receiver, ByteOrder order, long byteOffset, double value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.writeBufferDouble(receiver, order, byteOffset, value);
+                return;
+            }
+            assert preCondition(receiver);
+            try {
+                delegate.writeBufferDouble(receiver, order, byteOffset, value);
+                assert delegate.isBufferWritable(receiver) : violationInvariant(receiver);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void readBuffer(Object receiver, long byteOffset, byte[] destination, int destinationOffset, int length) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.readBuffer(receiver, byteOffset, destination, destinationOffset, length);
+                return;
+            }
+            assert preCondition(receiver);
+            try {
+                delegate.readBuffer(receiver, byteOffset, destination, destinationOffset, length);
+                assert delegate.hasBufferElements(receiver) : violationInvariant(receiver);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void writeBuffer(Object receiver, long byteOffset, byte[] source, int sourceOffset, int length) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.writeBuffer(receiver, byteOffset, source, sourceOffset, length);
+                return;
+            }
+            assert preCondition(receiver);
+            try {
+                delegate.writeBuffer(receiver, byteOffset, source, sourceOffset, length);
+                assert delegate.isBufferWritable(receiver) : violationInvariant(receiver);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof InvalidBufferOffsetException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasHashEntries(Object receiver) {
+            assert preCondition(receiver);
+            return delegate.hasHashEntries(receiver);
+        }
+
+        @Override
+        public long getHashSize(Object receiver) throws UnsupportedMessageException {
+            assert preCondition(receiver);
+            try {
+                long result = delegate.getHashSize(receiver);
+                assert delegate.hasHashEntries(receiver) : violationInvariant(receiver);
+                assert result >= 0 : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean isHashEntryReadable(Object receiver, Object key) {
+            assert preCondition(receiver);
+            assert validArgument(receiver, key);
+            boolean result = delegate.isHashEntryReadable(receiver, key);
+            assert !result || delegate.hasHashEntries(receiver) && !delegate.isHashEntryInsertable(receiver, key) : violationInvariant(receiver, key);
+            return result;
+        }
+
+        @Override
+        public Object readHashValue(Object receiver, Object key) throws UnsupportedMessageException, UnknownKeyException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.readHashValue(receiver, key);
+            }
+            assert preCondition(receiver);
+            assert validArgument(receiver, key);
+            boolean wasReadable = delegate.isHashEntryReadable(receiver, key);
+            try {
+                Object result = delegate.readHashValue(receiver, key);
+                assert delegate.hasHashEntries(receiver) : violationInvariant(receiver, key);
+                assert wasReadable || isMultiThreaded(receiver) : violationInvariant(receiver, key);
+                assert validReturn(receiver, result);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof UnknownKeyException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public Object readHashValueOrDefault(Object receiver, Object key, Object defaultValue) throws UnsupportedMessageException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.readHashValueOrDefault(receiver, key, defaultValue);
+            }
+            assert preCondition(receiver);
+            assert validArgument(receiver, key);
+            assert validArgument(receiver, defaultValue);
+            try {
+                Object result = delegate.readHashValueOrDefault(receiver, key, defaultValue);
+                assert delegate.hasHashEntries(receiver) : violationInvariant(receiver, key);
+                assert validReturn(receiver, result);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean isHashEntryModifiable(Object receiver, Object key) {
+            assert preCondition(receiver);
+            assert validArgument(receiver, key);
+            boolean result = delegate.isHashEntryModifiable(receiver, key);
+            assert !result || delegate.hasHashEntries(receiver) && !delegate.isHashEntryInsertable(receiver, key) : violationInvariant(receiver, key);
+            return result;
+        }
+
+        @Override
+        public boolean isHashEntryInsertable(Object receiver, Object key) {
+            assert preCondition(receiver);
+            assert validArgument(receiver, key);
+            boolean result = delegate.isHashEntryInsertable(receiver, key);
+            assert !result || delegate.hasHashEntries(receiver) && !delegate.isHashEntryExisting(receiver, key) : violationInvariant(receiver, key);
+            return result;
+        }
+
+        @Override
+        public void writeHashEntry(Object receiver, Object key, Object value) throws UnsupportedMessageException, UnknownKeyException, UnsupportedTypeException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.writeHashEntry(receiver, key, value);
+                return;
+            }
+            assert preCondition(receiver);
+            assert validArgument(receiver, key);
+            assert validArgument(receiver, value);
+            boolean wasWritable = delegate.isHashEntryModifiable(receiver, key) || delegate.isHashEntryInsertable(receiver, key);
+            try {
+                delegate.writeHashEntry(receiver, key, value);
+                assert delegate.hasHashEntries(receiver) : violationInvariant(receiver, key);
+                assert wasWritable || isMultiThreaded(receiver) : violationInvariant(receiver, key);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof UnknownKeyException || e instanceof UnsupportedTypeException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean isHashEntryRemovable(Object receiver, Object key) {
+            assert preCondition(receiver);
+            assert validArgument(receiver, key);
+            boolean result = delegate.isHashEntryRemovable(receiver, key);
+            assert !result || delegate.hasHashEntries(receiver) && !delegate.isHashEntryInsertable(receiver, key) : violationInvariant(receiver, key);
+            return result;
+        }
+
+        @Override
+        public void removeHashEntry(Object receiver, Object key) throws UnsupportedMessageException, UnknownKeyException {
+            if (CompilerDirectives.inCompiledCode()) {
+                delegate.removeHashEntry(receiver, key);
+                return;
+            }
+            assert preCondition(receiver);
+            assert validArgument(receiver, key);
+            boolean wasRemovable = delegate.isHashEntryRemovable(receiver, key);
+            try {
+                delegate.removeHashEntry(receiver, key);
+                assert delegate.hasHashEntries(receiver) : violationInvariant(receiver, key);
+                assert wasRemovable || isMultiThreaded(receiver) : violationInvariant(receiver, key);
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof UnknownKeyException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public Object getHashEntriesIterator(Object receiver) throws UnsupportedMessageException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.getHashEntriesIterator(receiver);
+            }
+            assert preCondition(receiver);
+            try {
+                Object result = delegate.getHashEntriesIterator(receiver);
+                assert delegate.hasHashEntries(receiver) : violationInvariant(receiver);
+                assert validReturn(receiver, result);
+                assert InteropLibrary.getFactory().getUncached(result).isIterator(result) : violationPost(receiver, result);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException : violationPost(receiver, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasIterator(Object receiver) {
+            assert preCondition(receiver);
+            return delegate.hasIterator(receiver);
+        }
+
+        @Override
+        public Object getIterator(Object receiver) throws UnsupportedMessageException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.getIterator(receiver);
+            }
+            assert preCondition(receiver);
+            boolean hadIterator = delegate.hasIterator(receiver);
+            try {
+                Object result = delegate.getIterator(receiver);
+                assert hadIterator : violationInvariant(receiver);
+                assert validReturn(receiver, result);
+                assert InteropLibrary.getFactory().getUncached(result).isIterator(result) : violationPost(receiver, result);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException : violationPost(receiver, e);
+                assert !hadIterator : violationInvariant(receiver);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean isIterator(Object receiver) {
+            assert preCondition(receiver);
+            return delegate.isIterator(receiver);
+        }
+
+        @Override
+        public boolean hasIteratorNextElement(Object receiver) throws UnsupportedMessageException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.hasIteratorNextElement(receiver);
+            }
+            assert preCondition(receiver);
+            boolean wasIterator = delegate.isIterator(receiver);
+            try {
+                boolean result = delegate.hasIteratorNextElement(receiver);
+                assert wasIterator : violationInvariant(receiver);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException : violationPost(receiver, e);
+                assert !wasIterator : violationInvariant(receiver);
+                throw e;
+            }
+        }
+
+        @Override
+        public Object getIteratorNextElement(Object receiver) throws UnsupportedMessageException, StopIterationException {
+            if (CompilerDirectives.inCompiledCode()) {
+                return delegate.getIteratorNextElement(receiver);
+            }
+            assert preCondition(receiver);
+            boolean wasIterator = delegate.isIterator(receiver);
+            try {
+                Object result = delegate.getIteratorNextElement(receiver);
+                assert wasIterator : violationInvariant(receiver);
+                assert validReturn(receiver, result);
+                return result;
+            } catch (InteropException e) {
+                assert e instanceof UnsupportedMessageException || e instanceof StopIterationException : violationPost(receiver, e);
+                assert !(e instanceof UnsupportedMessageException) || !wasIterator : violationInvariant(receiver);
+                throw e;
+            }
+        }
+
         @Override
         public boolean isPointer(Object receiver) {
             assert preCondition(receiver);
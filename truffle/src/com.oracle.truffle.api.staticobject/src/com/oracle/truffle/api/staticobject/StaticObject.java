@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.staticobject;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+import com.oracle.truffle.api.interop.TruffleObject;
+
+/**
+ * An object with a fixed set of properties described by a {@link StaticShape}. Unlike dynamic
+ * objects, the shape of a static object never changes, and properties are stored at fixed offsets
+ * in storage that is allocated with the object. Properties are accessed with
+ * {@link StaticProperty}.
+ * <p>
+ * Like dynamic objects, static objects store their first properties in pre-declared fields. Up to
+ * 24 bytes of primitive properties are packed into three {@code long} fields, and up to four
+ * object properties are stored in object fields. An object whose properties fit into these fields occupies a single object on the
+ * heap, and its properties are accessed without loading a storage array first. Properties that do
+ * not fit are stored in a byte array and an object array that are allocated with the object.
+ *
+ * Languages can use this class directly with {@link StaticShape#newInstance()}, or extend it, e.g.
+ * to export interop messages:
+ *
+ * <pre>
+ * <code>
+ * public class MyObject extends StaticObject {
+ *     public MyObject(StaticShape shape) {
+ *         super(shape);
+ *     }
+ * }
+ * </code>
+ * </pre>
+ *
+ * @see StaticShape
+ * @see StaticProperty
+ * @since 20.3
+ */
+public class StaticObject implements TruffleObject {
+
+    static final int INLINE_PRIMITIVE_BYTES = 3 * Long.BYTES;
+    static final int INLINE_OBJECT_COUNT = 4;
+    static final long[] PRIMITIVE_FIELD_OFFSETS = fieldOffsets("primitive", INLINE_PRIMITIVE_BYTES / Long.BYTES);
+    static final long[] OBJECT_FIELD_OFFSETS = fieldOffsets("object", INLINE_OBJECT_COUNT);
+
+    final StaticShape shape;
+    /* Fields accessed through the offsets assigned by StaticShape.Builder#build(). */
+    @SuppressWarnings("unused")
+    private long primitive1;
+    @SuppressWarnings("unused")
+    private long primitive2;
+    @SuppressWarnings("unused")
+    private long primitive3;
+    @SuppressWarnings("unused")
+    private Object object1;
+    @SuppressWarnings("unused")
+    private Object object2;
+    @SuppressWarnings("unused")
+    private Object object3;
+    @SuppressWarnings("unused")
+    private Object object4;
+    /** Storage of primitive properties that do not fit into the fields, or {@code null}. */
+    final byte[] primitiveStore;
+    /** Storage of object properties that do not fit into the fields, or {@code null}. */
+    final Object[] objectStore;
+
+    /**
+     * Constructor for {@link StaticObject} subclasses. Allocates the storage for all properties of
+     * the shape and initializes them to their default values.
+     *
+     * @param shape the shape of this object
+     * @since 20.3
+     */
+    protected StaticObject(StaticShape shape) {
+        this.shape = Objects.requireNonNull(shape);
+        this.primitiveStore = shape.primitiveStoreSize == 0 ? null : new byte[shape.primitiveStoreSize];
+        this.objectStore = shape.objectStoreSize == 0 ? null : new Object[shape.objectStoreSize];
+    }
+
+    /**
+     * Returns the shape of this object.
+     *
+     * @since 20.3
+     */
+    public final StaticShape getShape() {
+        return shape;
+    }
+
+    private static long[] fieldOffsets(String prefix, int count) {
+        long[] offsets = new long[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                Field field = StaticObject.class.getDeclaredField(prefix + (i + 1));
+                offsets[i] = StaticProperty.UNSAFE.objectFieldOffset(field);
+            }
+        } catch (NoSuchFieldException e) {
+            throw new AssertionError(e);
+        }
+        return offsets;
+    }
+}
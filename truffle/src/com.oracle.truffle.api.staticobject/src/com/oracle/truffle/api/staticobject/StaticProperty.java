@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.staticobject;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import sun.misc.Unsafe;
+
+/**
+ * A property of a {@link StaticShape}. The type of a property is either a primitive type or
+ * {@code Object}, and is fixed when the property is created. The property can only be accessed
+ * with the accessor methods of its type, e.g. {@link #getInt(StaticObject)} and
+ * {@link #setInt(StaticObject, int)} for {@code int} properties.
+ *
+ * <p>
+ * A property belongs to at most one shape and is assigned a fixed location when the shape is
+ * {@linkplain StaticShape.Builder#build() built}, either in a field of the {@link StaticObject} or
+ * in one of its storage arrays. If the property is a partial evaluation constant, the type and
+ * location checks of an access fold away and only the check of the receiver shape remains. The
+ * shape check keeps the raw memory accesses safe.
+ *
+ * @see StaticShape
+ * @see StaticObject
+ * @since 20.3
+ */
+public final class StaticProperty {
+
+    static final Unsafe UNSAFE = getUnsafe();
+    static final long ARRAY_BYTE_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+    static final long ARRAY_OBJECT_BASE_OFFSET = UNSAFE.arrayBaseOffset(Object[].class);
+    static final long ARRAY_OBJECT_INDEX_SCALE = UNSAFE.arrayIndexScale(Object[].class);
+    private static final AtomicReferenceFieldUpdater<StaticProperty, StaticShape> SHAPE_UPDATER = AtomicReferenceFieldUpdater.newUpdater(StaticProperty.class, StaticShape.class, "shape");
+
+    private final String id;
+    private final Class<?> type;
+    /**
+     * The shape of this property, {@link StaticShape#CLAIMED} while a shape builder assigns the
+     * offset, or {@code null}. The offset is written before the shape, so a thread that reads the
+     * shape also sees the offset.
+     */
+    @CompilationFinal private volatile StaticShape shape;
+    /** Offset of the value in the object if it is inline, otherwise in the storage array. */
+    @CompilationFinal private long offset;
+    /** Whether the value is stored in a field of the object rather than in a storage array. */
+    @CompilationFinal private boolean inline;
+
+    /**
+     * Creates a new property. The property must be added to a {@linkplain StaticShape.Builder
+     * shape builder} before it can be used to access static objects.
+     *
+     * @param id the id of the property, unique within a shape
+     * @param type a primitive type or {@code Object.class}
+     * @throws IllegalArgumentException if the type is neither a primitive type, excluding
+     *             {@code void}, nor {@code Object.class}
+     * @since 20.3
+     */
+    public StaticProperty(String id, Class<?> type) {
+        if (!(type == Object.class || (type.isPrimitive() && type != void.class))) {
+            throw new IllegalArgumentException(String.format("Invalid property type %s, must be a primitive type or Object", type.getName()));
+        }
+        this.id = id;
+        this.type = type;
+    }
+
+    /**
+     * Returns the id of this property.
+     *
+     * @since 20.3
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the type of this property.
+     *
+     * @since 20.3
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the shape this property belongs to, or {@code null} if it was not built into a shape
+     * yet.
+     *
+     * @since 20.3
+     */
+    public StaticShape getShape() {
+        StaticShape result = shape;
+        return result == StaticShape.CLAIMED ? null : result;
+    }
+
+    /**
+     * Reads the value of this {@code Object} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code Object} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public Object getObject(StaticObject obj) {
+        checkKind(Object.class);
+        return UNSAFE.getObject(objectStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code Object} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code Object} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setObject(StaticObject obj, Object value) {
+        checkKind(Object.class);
+        UNSAFE.putObject(objectStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * Reads the value of this {@code boolean} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code boolean} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public boolean getBoolean(StaticObject obj) {
+        checkKind(boolean.class);
+        return UNSAFE.getBoolean(primitiveStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code boolean} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code boolean} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setBoolean(StaticObject obj, boolean value) {
+        checkKind(boolean.class);
+        UNSAFE.putBoolean(primitiveStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * Reads the value of this {@code byte} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code byte} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public byte getByte(StaticObject obj) {
+        checkKind(byte.class);
+        return UNSAFE.getByte(primitiveStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code byte} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code byte} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setByte(StaticObject obj, byte value) {
+        checkKind(byte.class);
+        UNSAFE.putByte(primitiveStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * Reads the value of this {@code char} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code char} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public char getChar(StaticObject obj) {
+        checkKind(char.class);
+        return UNSAFE.getChar(primitiveStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code char} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code char} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setChar(StaticObject obj, char value) {
+        checkKind(char.class);
+        UNSAFE.putChar(primitiveStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * Reads the value of this {@code short} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code short} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public short getShort(StaticObject obj) {
+        checkKind(short.class);
+        return UNSAFE.getShort(primitiveStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code short} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code short} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setShort(StaticObject obj, short value) {
+        checkKind(short.class);
+        UNSAFE.putShort(primitiveStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * Reads the value of this {@code int} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code int} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public int getInt(StaticObject obj) {
+        checkKind(int.class);
+        return UNSAFE.getInt(primitiveStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code int} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code int} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setInt(StaticObject obj, int value) {
+        checkKind(int.class);
+        UNSAFE.putInt(primitiveStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * Reads the value of this {@code long} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code long} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public long getLong(StaticObject obj) {
+        checkKind(long.class);
+        return UNSAFE.getLong(primitiveStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code long} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code long} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setLong(StaticObject obj, long value) {
+        checkKind(long.class);
+        UNSAFE.putLong(primitiveStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * Reads the value of this {@code float} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code float} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public float getFloat(StaticObject obj) {
+        checkKind(float.class);
+        return UNSAFE.getFloat(primitiveStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code float} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code float} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setFloat(StaticObject obj, float value) {
+        checkKind(float.class);
+        UNSAFE.putFloat(primitiveStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * Reads the value of this {@code double} property from the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code double} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public double getDouble(StaticObject obj) {
+        checkKind(double.class);
+        return UNSAFE.getDouble(primitiveStorage(checkShape(obj)), offset);
+    }
+
+    /**
+     * Writes the value of this {@code double} property to the given object.
+     *
+     * @throws IllegalArgumentException if this property is not of type {@code double} or does not
+     *             belong to the shape of the object
+     * @since 20.3
+     */
+    public void setDouble(StaticObject obj, double value) {
+        checkKind(double.class);
+        UNSAFE.putDouble(primitiveStorage(checkShape(obj)), offset, value);
+    }
+
+    /**
+     * @since 20.3
+     */
+    @Override
+    public String toString() {
+        return id + ":" + type.getName();
+    }
+
+    boolean claim() {
+        return SHAPE_UPDATER.compareAndSet(this, null, StaticShape.CLAIMED);
+    }
+
+    void release() {
+        assert shape == StaticShape.CLAIMED;
+        shape = null;
+    }
+
+    void install(StaticShape newShape, long newOffset, boolean newInline) {
+        assert shape == StaticShape.CLAIMED;
+        offset = newOffset;
+        inline = newInline;
+        shape = newShape;
+    }
+
+    int getByteSize() {
+        if (type == long.class || type == double.class) {
+            return Long.BYTES;
+        } else if (type == int.class || type == float.class) {
+            return Integer.BYTES;
+        } else if (type == short.class || type == char.class) {
+            return Short.BYTES;
+        } else {
+            assert type == byte.class || type == boolean.class;
+            return Byte.BYTES;
+        }
+    }
+
+    private void checkKind(Class<?> expectedType) {
+        if (type != expectedType) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw illegalAccess(String.format("Property %s of type %s cannot be accessed as %s", id, type.getName(), expectedType.getName()));
+        }
+    }
+
+    /**
+     * The shape check also guarantees that the storage of the object is large enough for the raw
+     * access at the offset of this property. It reads the shape of this property before the
+     * location, so the location is the one assigned for that shape. A claimed property never matches
+     * the shape of an object.
+     */
+    private StaticObject checkShape(StaticObject obj) {
+        if (obj.shape != shape) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw illegalAccess(String.format("Property %s does not belong to the shape of the object", id));
+        }
+        return obj;
+    }
+
+    private Object primitiveStorage(StaticObject obj) {
+        return inline ? obj : obj.primitiveStore;
+    }
+
+    private Object objectStorage(StaticObject obj) {
+        return inline ? obj : obj.objectStore;
+    }
+
+    @TruffleBoundary(transferToInterpreterOnException = false)
+    private static IllegalArgumentException illegalAccess(String message) {
+        throw new IllegalArgumentException(message);
+    }
+
+    private static Unsafe getUnsafe() {
+        try {
+            return Unsafe.getUnsafe();
+        } catch (SecurityException e) {
+        }
+        try {
+            Field theUnsafeInstance = Unsafe.class.getDeclaredField("theUnsafe");
+            theUnsafeInstance.setAccessible(true);
+            return (Unsafe) theUnsafeInstance.get(Unsafe.class);
+        } catch (Exception e) {
+            throw new RuntimeException("exception while trying to get Unsafe.theUnsafe via reflection:", e);
+        }
+    }
+}
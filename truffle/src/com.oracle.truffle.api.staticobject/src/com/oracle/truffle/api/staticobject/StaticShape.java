@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.staticobject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The layout of {@link StaticObject static objects}. A static shape is built once from a fixed set
+ * of {@link StaticProperty properties} and cannot be changed afterwards, so objects of this shape
+ * never go through shape transitions. Each property is assigned a fixed location in the fields or
+ * in the storage arrays of the object when the shape is built.
+ *
+ * <p>
+ * Static shapes should be created once per layout, ideally per TruffleLanguage instance, and the
+ * properties stored in compilation final fields or constants so that property accesses can be
+ * constant folded during partial evaluation.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * <code>
+ * StaticProperty x = new StaticProperty("x", int.class);
+ * StaticProperty name = new StaticProperty("name", Object.class);
+ * StaticShape shape = StaticShape.newBuilder().property(x).property(name).build();
+ *
+ * StaticObject obj = shape.newInstance();
+ * x.setInt(obj, 42);
+ * name.setObject(obj, "point");
+ * </code>
+ * </pre>
+ *
+ * @see StaticObject
+ * @see StaticProperty
+ * @since 20.3
+ */
+public final class StaticShape {
+
+    /** Marks a property that is being built into a shape and has no offset yet. */
+    static final StaticShape CLAIMED = new StaticShape(Collections.emptyMap(), 0, 0);
+
+    private final Map<String, StaticProperty> properties;
+    /** Size of the primitive storage array of an object, in bytes. */
+    final int primitiveStoreSize;
+    /** Length of the object storage array of an object. */
+    final int objectStoreSize;
+
+    private StaticShape(Map<String, StaticProperty> properties, int primitiveStoreSize, int objectStoreSize) {
+        this.properties = properties;
+        this.primitiveStoreSize = primitiveStoreSize;
+        this.objectStoreSize = objectStoreSize;
+    }
+
+    /**
+     * Creates a new static shape builder.
+     *
+     * @since 20.3
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Allocates a new {@link StaticObject} of this shape. All properties are initialized to their
+     * default values, i.e. zero, {@code false} or {@code null}.
+     *
+     * @since 20.3
+     */
+    public StaticObject newInstance() {
+        return new StaticObject(this);
+    }
+
+    /**
+     * Returns the property with the given id, or {@code null} if this shape has no such property.
+     *
+     * @since 20.3
+     */
+    @TruffleBoundary
+    public StaticProperty getProperty(String id) {
+        return properties.get(id);
+    }
+
+    /**
+     * Returns an unmodifiable list of the properties of this shape, in declaration order.
+     *
+     * @since 20.3
+     */
+    @TruffleBoundary
+    public List<StaticProperty> getProperties() {
+        return Collections.unmodifiableList(new ArrayList<>(properties.values()));
+    }
+
+    /**
+     * @since 20.3
+     */
+    @Override
+    public String toString() {
+        return "StaticShape" + properties.values();
+    }
+
+    /**
+     * Builder class to construct {@link StaticShape} instances. The builder instance is not
+     * thread-safe and must not be used from multiple threads at the same time.
+     *
+     * @see StaticShape#newBuilder()
+     * @since 20.3
+     */
+    public static final class Builder {
+
+        private final Map<String, StaticProperty> properties = new LinkedHashMap<>();
+
+        Builder() {
+        }
+
+        /**
+         * Adds a property to the shape.
+         *
+         * @throws IllegalArgumentException if a property with the same id was already added or if
+         *             the property already belongs to another shape
+         * @since 20.3
+         */
+        public Builder property(StaticProperty property) {
+            if (property.getShape() != null) {
+                throw new IllegalArgumentException(String.format("Property %s already belongs to a shape", property.getId()));
+            }
+            if (properties.containsKey(property.getId())) {
+                throw new IllegalArgumentException(String.format("Duplicate property id: %s", property.getId()));
+            }
+            properties.put(property.getId(), property);
+            return this;
+        }
+
+        /**
+         * Builds a new shape from the added properties and assigns the storage offsets of the
+         * properties. Primitive properties are ordered by decreasing size and packed into the
+         * primitive fields of the object first, then into its primitive storage array. Since all
+         * sizes are powers of two, every primitive value is naturally aligned and never spans two
+         * fields. Object properties fill the object fields first, then the object storage array.
+         * <p>
+         * Each property is claimed atomically before its offset is assigned, so a property that is
+         * built into shapes from multiple threads at the same time ends up in exactly one of them.
+         *
+         * @throws IllegalArgumentException if one of the properties was added to another shape in
+         *             the meantime
+         * @since 20.3
+         */
+        public StaticShape build() {
+            Map<String, StaticProperty> shapeProperties = new LinkedHashMap<>(properties);
+            List<StaticProperty> claimed = new ArrayList<>(shapeProperties.size());
+            for (StaticProperty property : shapeProperties.values()) {
+                if (!property.claim()) {
+                    for (StaticProperty claimedProperty : claimed) {
+                        claimedProperty.release();
+                    }
+                    throw new IllegalArgumentException(String.format("Property %s already belongs to a shape", property.getId()));
+                }
+                claimed.add(property);
+            }
+
+            List<StaticProperty> primitives = new ArrayList<>();
+            for (StaticProperty property : claimed) {
+                if (property.getType().isPrimitive()) {
+                    primitives.add(property);
+                }
+            }
+            // stable sort, properties of the same size keep their declaration order
+            primitives.sort((a, b) -> Integer.compare(b.getByteSize(), a.getByteSize()));
+            int primitiveSize = 0;
+            for (StaticProperty property : primitives) {
+                primitiveSize += property.getByteSize();
+            }
+            int objectCount = claimed.size() - primitives.size();
+            int primitiveStoreSize = Math.max(0, primitiveSize - StaticObject.INLINE_PRIMITIVE_BYTES);
+            int objectStoreSize = Math.max(0, objectCount - StaticObject.INLINE_OBJECT_COUNT);
+            StaticShape shape = new StaticShape(shapeProperties, primitiveStoreSize, objectStoreSize);
+
+            int position = 0;
+            for (StaticProperty property : primitives) {
+                if (position < StaticObject.INLINE_PRIMITIVE_BYTES) {
+                    long fieldOffset = StaticObject.PRIMITIVE_FIELD_OFFSETS[position / Long.BYTES];
+                    property.install(shape, fieldOffset + position % Long.BYTES, true);
+                } else {
+                    property.install(shape, StaticProperty.ARRAY_BYTE_BASE_OFFSET + position - StaticObject.INLINE_PRIMITIVE_BYTES, false);
+                }
+                position += property.getByteSize();
+            }
+            int index = 0;
+            for (StaticProperty property : claimed) {
+                if (!property.getType().isPrimitive()) {
+                    if (index < StaticObject.INLINE_OBJECT_COUNT) {
+                        property.install(shape, StaticObject.OBJECT_FIELD_OFFSETS[index], true);
+                    } else {
+                        long arrayIndex = index - StaticObject.INLINE_OBJECT_COUNT;
+                        property.install(shape, StaticProperty.ARRAY_OBJECT_BASE_OFFSET + arrayIndex * StaticProperty.ARRAY_OBJECT_INDEX_SCALE, false);
+                    }
+                    index++;
+                }
+            }
+            return shape;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.test.interop;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+public final class InteropBufferTest extends InteropLibraryBaseTest {
+
+    @ExportLibrary(InteropLibrary.class)
+    static class Defaults implements TruffleObject {
+
+    }
+
+    @Test
+    public void testDefaults() {
+        Defaults o = new Defaults();
+        InteropLibrary library = createLibrary(InteropLibrary.class, o);
+        assertFalse(library.hasBufferElements(o));
+
+        assertFails(() -> library.isBufferWritable(o), UnsupportedMessageException.class);
+        assertFails(() -> library.getBufferSize(o), UnsupportedMessageException.class);
+        assertFails(() -> library.readBufferByte(o, 0), UnsupportedMessageException.class);
+        assertFails(() -> library.readBufferInt(o, ByteOrder.LITTLE_ENDIAN, 0), UnsupportedMessageException.class);
+        assertFails(() -> library.readBufferDouble(o, ByteOrder.BIG_ENDIAN, 0), UnsupportedMessageException.class);
+        assertFails(() -> {
+            library.writeBufferByte(o, 0, (byte) 0);
+            return null;
+        }, UnsupportedMessageException.class);
+        assertFails(() -> {
+            library.readBuffer(o, 0, new byte[1], 0, 1);
+            return null;
+        }, UnsupportedMessageException.class);
+    }
+
+    /**
+     * Exports every buffer message except the bulk copies, so the default implementations of
+     * {@link InteropLibrary#readBuffer(Object, long, byte[], int, int)} and
+     * {@link InteropLibrary#writeBuffer(Object, long, byte[], int, int)} are used.
+     */
+    @ExportLibrary(InteropLibrary.class)
+    @SuppressWarnings("static-method")
+    static class ByteArrayBuffer implements TruffleObject {
+
+        private final byte[] data;
+        private final boolean writable;
+
+        ByteArrayBuffer(byte[] data, boolean writable) {
+            this.data = data;
+            this.writable = writable;
+        }
+
+        @ExportMessage
+        final boolean hasBufferElements() {
+            return true;
+        }
+
+        @ExportMessage
+        final boolean isBufferWritable() {
+            return writable;
+        }
+
+        @ExportMessage
+        final long getBufferSize() {
+            return data.length;
+        }
+
+        private void checkAccess(long byteOffset, int length, boolean write) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            if (write && !writable) {
+                throw UnsupportedMessageException.create();
+            }
+            if (byteOffset < 0 || byteOffset > data.length - length) {
+                throw InvalidBufferOffsetException.create(byteOffset, length);
+            }
+        }
+
+        @TruffleBoundary
+        private ByteBuffer view(ByteOrder order) {
+            return ByteBuffer.wrap(data).order(order);
+        }
+
+        @ExportMessage
+        final byte readBufferByte(long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Byte.BYTES, false);
+            return data[(int) byteOffset];
+        }
+
+        @ExportMessage
+        final void writeBufferByte(long byteOffset, byte value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Byte.BYTES, true);
+            data[(int) byteOffset] = value;
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final short readBufferShort(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Short.BYTES, false);
+            return view(order).getShort((int) byteOffset);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final void writeBufferShort(ByteOrder order, long byteOffset, short value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Short.BYTES, true);
+            view(order).putShort((int) byteOffset, value);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final int readBufferInt(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Integer.BYTES, false);
+            return view(order).getInt((int) byteOffset);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final void writeBufferInt(ByteOrder order, long byteOffset, int value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Integer.BYTES, true);
+            view(order).putInt((int) byteOffset, value);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final long readBufferLong(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Long.BYTES, false);
+            return view(order).getLong((int) byteOffset);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final void writeBufferLong(ByteOrder order, long byteOffset, long value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Long.BYTES, true);
+            view(order).putLong((int) byteOffset, value);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final float readBufferFloat(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Float.BYTES, false);
+            return view(order).getFloat((int) byteOffset);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final void writeBufferFloat(ByteOrder order, long byteOffset, float value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Float.BYTES, true);
+            view(order).putFloat((int) byteOffset, value);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final double readBufferDouble(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Double.BYTES, false);
+            return view(order).getDouble((int) byteOffset);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        final void writeBufferDouble(ByteOrder order, long byteOffset, double value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+            checkAccess(byteOffset, Double.BYTES, true);
+            view(order).putDouble((int) byteOffset, value);
+        }
+    }
+
+    @Test
+    public void testByteOrder() throws InteropException {
+        byte[] data = new byte[8];
+        ByteArrayBuffer o = new ByteArrayBuffer(data, true);
+        InteropLibrary library = createLibrary(InteropLibrary.class, o);
+        assertTrue(library.hasBufferElements(o));
+        assertTrue(library.isBufferWritable(o));
+        assertEquals(8, library.getBufferSize(o));
+
+        library.writeBufferInt(o, ByteOrder.BIG_ENDIAN, 0, 0x0A0B0C0D);
+        assertEquals(0x0A, data[0]);
+        assertEquals(0x0D0C0B0A, library.readBufferInt(o, ByteOrder.LITTLE_ENDIAN, 0));
+        assertEquals((short) 0x0B0A, library.readBufferShort(o, ByteOrder.LITTLE_ENDIAN, 0));
+
+        library.writeBufferLong(o, ByteOrder.LITTLE_ENDIAN, 0, 0x0102030405060708L);
+        assertEquals(0x08, data[0]);
+        assertEquals(0x0807060504030201L, library.readBufferLong(o, ByteOrder.BIG_ENDIAN, 0));
+
+        library.writeBufferFloat(o, ByteOrder.BIG_ENDIAN, 4, 1.5f);
+        assertEquals(1.5f, library.readBufferFloat(o, ByteOrder.BIG_ENDIAN, 4), 0f);
+        library.writeBufferDouble(o, ByteOrder.LITTLE_ENDIAN, 0, -2.25d);
+        assertEquals(-2.25d, library.readBufferDouble(o, ByteOrder.LITTLE_ENDIAN, 0), 0d);
+    }
+
+    @Test
+    public void testBulkDefaults() throws InteropException {
+        byte[] data = new byte[]{1, 2, 3, 4, 5, 6};
+        ByteArrayBuffer o = new ByteArrayBuffer(data, true);
+        InteropLibrary library = createLibrary(InteropLibrary.class, o);
+
+        byte[] destination = new byte[5];
+        library.readBuffer(o, 2, destination, 1, 4);
+        assertArrayEquals(new byte[]{0, 3, 4, 5, 6}, destination);
+
+        library.writeBuffer(o, 0, new byte[]{9, 8, 7}, 1, 2);
+        assertArrayEquals(new byte[]{8, 7, 3, 4, 5, 6}, data);
+
+        assertFails(() -> {
+            library.readBuffer(o, 4, destination, 0, 3);
+            return null;
+        }, InvalidBufferOffsetException.class);
+        assertFails(() -> {
+            library.readBuffer(o, 0, destination, 3, 3);
+            return null;
+        }, IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testInvalidAccess() {
+        ByteArrayBuffer o = new ByteArrayBuffer(new byte[4], false);
+        InteropLibrary library = createLibrary(InteropLibrary.class, o);
+        assertFails(() -> library.readBufferByte(o, -1), InvalidBufferOffsetException.class);
+        assertFails(() -> library.readBufferByte(o, 4), InvalidBufferOffsetException.class);
+        assertFails(() -> library.readBufferInt(o, ByteOrder.BIG_ENDIAN, 1), InvalidBufferOffsetException.class);
+        assertFails(() -> {
+            library.writeBufferByte(o, 0, (byte) 1);
+            return null;
+        }, UnsupportedMessageException.class);
+
+        assertFails(() -> library.readBufferLong(o, ByteOrder.LITTLE_ENDIAN, 0), InvalidBufferOffsetException.class, (e) -> {
+            assertEquals(0, e.getByteOffset());
+            assertEquals(Long.BYTES, e.getLength());
+        });
+    }
+}
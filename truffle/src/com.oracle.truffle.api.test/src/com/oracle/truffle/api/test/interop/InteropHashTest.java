@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.test.interop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.StopIterationException;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownKeyException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+public final class InteropHashTest extends InteropLibraryBaseTest {
+
+    @ExportLibrary(InteropLibrary.class)
+    static class Defaults implements TruffleObject {
+
+    }
+
+    @Test
+    public void testDefaults() {
+        Defaults o = new Defaults();
+        InteropLibrary library = createLibrary(InteropLibrary.class, o);
+        assertFalse(library.hasHashEntries(o));
+        assertFalse(library.isHashEntryReadable(o, "key"));
+        assertFalse(library.isHashEntryWritable(o, "key"));
+        assertFalse(library.isHashEntryRemovable(o, "key"));
+        assertFalse(library.isHashEntryExisting(o, "key"));
+        assertFalse(library.hasIterator(o));
+        assertFalse(library.isIterator(o));
+
+        assertFails(() -> library.getHashSize(o), UnsupportedMessageException.class);
+        assertFails(() -> library.readHashValue(o, "key"), UnsupportedMessageException.class);
+        assertFails(() -> library.readHashValueOrDefault(o, "key", "default"), UnsupportedMessageException.class);
+        assertFails(() -> {
+            library.writeHashEntry(o, "key", "value");
+            return null;
+        }, UnsupportedMessageException.class);
+        assertFails(() -> {
+            library.removeHashEntry(o, "key");
+            return null;
+        }, UnsupportedMessageException.class);
+        assertFails(() -> library.getHashEntriesIterator(o), UnsupportedMessageException.class);
+        assertFails(() -> library.getIterator(o), UnsupportedMessageException.class);
+        assertFails(() -> library.hasIteratorNextElement(o), UnsupportedMessageException.class);
+        assertFails(() -> library.getIteratorNextElement(o), UnsupportedMessageException.class);
+    }
+
+    @ExportLibrary(InteropLibrary.class)
+    @SuppressWarnings("static-method")
+    static final class Hash implements TruffleObject {
+
+        final Map<Object, Object> entries = new HashMap<>();
+
+        @ExportMessage
+        boolean hasHashEntries() {
+            return true;
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        long getHashSize() {
+            return entries.size();
+        }
+
+        @ExportMessage(name = "isHashEntryReadable")
+        @ExportMessage(name = "isHashEntryModifiable")
+        @ExportMessage(name = "isHashEntryRemovable")
+        @TruffleBoundary
+        boolean isExisting(Object key) {
+            return entries.containsKey(key);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        boolean isHashEntryInsertable(Object key) {
+            return !entries.containsKey(key);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        Object readHashValue(Object key) throws UnknownKeyException {
+            if (!entries.containsKey(key)) {
+                throw UnknownKeyException.create(key);
+            }
+            return entries.get(key);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        void writeHashEntry(Object key, Object value) {
+            entries.put(key, value);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        void removeHashEntry(Object key) throws UnknownKeyException {
+            if (!entries.containsKey(key)) {
+                throw UnknownKeyException.create(key);
+            }
+            entries.remove(key);
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        Object getHashEntriesIterator() {
+            return new EntriesIterator(entries.entrySet().iterator());
+        }
+    }
+
+    @ExportLibrary(InteropLibrary.class)
+    @SuppressWarnings("static-method")
+    static final class EntriesIterator implements TruffleObject {
+
+        private final Iterator<Map.Entry<Object, Object>> delegate;
+
+        EntriesIterator(Iterator<Map.Entry<Object, Object>> delegate) {
+            this.delegate = delegate;
+        }
+
+        @ExportMessage
+        boolean isIterator() {
+            return true;
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        boolean hasIteratorNextElement() {
+            return delegate.hasNext();
+        }
+
+        @ExportMessage
+        @TruffleBoundary
+        Object getIteratorNextElement() throws StopIterationException {
+            if (!delegate.hasNext()) {
+                throw StopIterationException.create();
+            }
+            Map.Entry<Object, Object> entry = delegate.next();
+            return new Entry(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @ExportLibrary(InteropLibrary.class)
+    @SuppressWarnings("static-method")
+    static final class Entry implements TruffleObject {
+
+        private final Object key;
+        private final Object value;
+
+        Entry(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @ExportMessage
+        boolean hasArrayElements() {
+            return true;
+        }
+
+        @ExportMessage
+        long getArraySize() {
+            return 2;
+        }
+
+        @ExportMessage
+        boolean isArrayElementReadable(long index) {
+            return index == 0 || index == 1;
+        }
+
+        @ExportMessage
+        Object readArrayElement(long index) throws InvalidArrayIndexException {
+            if (index == 0) {
+                return key;
+            } else if (index == 1) {
+                return value;
+            }
+            throw InvalidArrayIndexException.create(index);
+        }
+    }
+
+    @Test
+    public void testHashEntries() throws InteropException {
+        Hash o = new Hash();
+        InteropLibrary library = createLibrary(InteropLibrary.class, o);
+        assertTrue(library.hasHashEntries(o));
+        assertEquals(0, library.getHashSize(o));
+        assertTrue(library.isHashEntryInsertable(o, 1));
+        assertTrue(library.isHashEntryWritable(o, 1));
+        assertFalse(library.isHashEntryExisting(o, 1));
+
+        library.writeHashEntry(o, 1, "one");
+        library.writeHashEntry(o, "two", 2);
+        assertEquals(2, library.getHashSize(o));
+        assertTrue(library.isHashEntryExisting(o, 1));
+        assertEquals("one", library.readHashValue(o, 1));
+        assertEquals(2, library.readHashValue(o, "two"));
+        assertEquals("default", library.readHashValueOrDefault(o, 3, "default"));
+        assertFails(() -> library.readHashValue(o, 3), UnknownKeyException.class, (e) -> assertEquals(3, e.getUnknownKey()));
+
+        library.removeHashEntry(o, 1);
+        assertFalse(library.isHashEntryExisting(o, 1));
+        assertFails(() -> {
+            library.removeHashEntry(o, 1);
+            return null;
+        }, UnknownKeyException.class);
+    }
+
+    @Test
+    public void testHashEntriesIterator() throws InteropException {
+        Hash o = new Hash();
+        o.entries.put(1, "one");
+        o.entries.put(2, "two");
+        InteropLibrary library = createLibrary(InteropLibrary.class, o);
+        Object iterator = library.getHashEntriesIterator(o);
+        InteropLibrary iteratorLibrary = createLibrary(InteropLibrary.class, iterator);
+        assertTrue(iteratorLibrary.isIterator(iterator));
+        Map<Object, Object> seen = new HashMap<>();
+        while (iteratorLibrary.hasIteratorNextElement(iterator)) {
+            Object entry = iteratorLibrary.getIteratorNextElement(iterator);
+            InteropLibrary entryLibrary = createLibrary(InteropLibrary.class, entry);
+            assertEquals(2, entryLibrary.getArraySize(entry));
+            seen.put(entryLibrary.readArrayElement(entry, 0), entryLibrary.readArrayElement(entry, 1));
+        }
+        assertEquals(o.entries, seen);
+        assertFails(() -> iteratorLibrary.getIteratorNextElement(iterator), StopIterationException.class);
+    }
+
+    @Test
+    public void testPolyglotHash() {
+        try (Context context = Context.create()) {
+            Hash o = new Hash();
+            o.entries.put(1, "one");
+            Value hash = context.asValue(o);
+            assertTrue(hash.hasHashEntries());
+            assertFalse(hash.hasMembers());
+            assertEquals(1, hash.getHashSize());
+            assertTrue(hash.hasHashEntry(1));
+            assertEquals("one", hash.getHashValue(1).asString());
+            assertNull(hash.getHashValue(2));
+
+            hash.putHashEntry(2, "two");
+            assertEquals("two", o.entries.get(2));
+            assertTrue(hash.removeHashEntry(1));
+            assertFalse(hash.removeHashEntry(1));
+
+            Value iterator = hash.getHashEntriesIterator();
+            assertTrue(iterator.isIterator());
+            assertTrue(iterator.hasIteratorNextElement());
+            Value entry = iterator.getIteratorNextElement();
+            assertEquals(2, entry.getArrayElement(0).asInt());
+            assertEquals("two", entry.getArrayElement(1).asString());
+            assertFalse(iterator.hasIteratorNextElement());
+            assertFails(() -> iterator.getIteratorNextElement(), NoSuchElementException.class);
+
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> map = hash.as(Map.class);
+            assertEquals(1, map.size());
+            assertEquals("two", map.get(2));
+            map.put(3, "three");
+            assertEquals("three", o.entries.get(3));
+            assertEquals(2, map.entrySet().size());
+            assertEquals("three", map.remove(3));
+            assertFalse(map.containsKey(3));
+        }
+    }
+
+    @Test
+    public void testMapEntrySet() {
+        try (Context context = Context.create()) {
+            Hash o = new Hash();
+            for (int i = 0; i < 10; i++) {
+                o.entries.put(i, "v" + i);
+            }
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> map = context.asValue(o).as(Map.class);
+
+            assertTrue(map.entrySet().contains(new SimpleEntry<>(1, "v1")));
+            assertFalse(map.entrySet().contains(new SimpleEntry<>(1, "v2")));
+            assertFalse(map.entrySet().contains(new SimpleEntry<>(10, "v10")));
+            assertFalse(map.entrySet().contains(1));
+
+            // removing through the iterator must not advance the guest iterator after a modification
+            int visited = 0;
+            for (Iterator<Map.Entry<Object, Object>> iterator = map.entrySet().iterator(); iterator.hasNext();) {
+                Map.Entry<Object, Object> entry = iterator.next();
+                if (((Integer) entry.getKey()) % 2 == 0) {
+                    iterator.remove();
+                }
+                visited++;
+            }
+            assertEquals(10, visited);
+            assertEquals(5, o.entries.size());
+            for (Object key : o.entries.keySet()) {
+                assertEquals(1, ((Integer) key) % 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.test.polyglot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class CrossEngineSharingTest {
+
+    private static final Source SOURCE = Source.create(ProxyLanguage.ID, "42");
+
+    private final AtomicInteger parseCount = new AtomicInteger();
+
+    @Before
+    public void setup() {
+        ProxyLanguage.setDelegate(new ProxyLanguage() {
+            @Override
+            protected CallTarget parse(TruffleLanguage.ParsingRequest request) throws Exception {
+                parseCount.incrementAndGet();
+                return Truffle.getRuntime().createCallTarget(new RootNode(this.languageInstance) {
+                    @Override
+                    public Object execute(VirtualFrame frame) {
+                        return 42;
+                    }
+                });
+            }
+        });
+    }
+
+    @Test
+    public void testIdenticalEnginesShareCode() {
+        Engine engine1 = newSharingEngine().build();
+        Engine engine2 = newSharingEngine().build();
+        assertEquals(42, eval(engine1));
+        assertEquals(42, eval(engine2));
+        assertEquals(1, parseCount.get());
+        engine1.close();
+        engine2.close();
+    }
+
+    @Test
+    public void testCustomStreamsNotShared() {
+        Engine engine1 = newSharingEngine().build();
+        Engine engine2 = newSharingEngine().out(new ByteArrayOutputStream()).build();
+        eval(engine1);
+        eval(engine2);
+        assertEquals(2, parseCount.get());
+        engine1.close();
+        engine2.close();
+    }
+
+    @Test
+    public void testClosedByLastEngine() {
+        Engine engine1 = newSharingEngine().build();
+        Engine engine2 = newSharingEngine().build();
+        eval(engine1);
+        engine1.close();
+        // still alive for engine2
+        eval(engine2);
+        assertEquals(1, parseCount.get());
+        engine2.close();
+
+        Engine engine3 = newSharingEngine().build();
+        eval(engine3);
+        assertEquals(2, parseCount.get());
+        engine3.close();
+    }
+
+    @Test
+    public void testCloseTwice() {
+        Engine engine1 = newSharingEngine().build();
+        Engine engine2 = newSharingEngine().build();
+        eval(engine1);
+        engine1.close();
+        engine1.close();
+        // closing engine1 twice must not release engine2's share
+        eval(engine2);
+        assertEquals(1, parseCount.get());
+        engine2.close();
+        engine2.close();
+    }
+
+    @Test
+    public void testCloseClosesOwnContexts() {
+        Engine engine1 = newSharingEngine().build();
+        Engine engine2 = newSharingEngine().build();
+        Context context1 = Context.newBuilder().engine(engine1).build();
+        Context context2 = Context.newBuilder().engine(engine2).build();
+        assertSame(engine1, context1.getEngine());
+        assertSame(engine2, context2.getEngine());
+        context1.eval(SOURCE);
+        context2.eval(SOURCE);
+
+        engine1.close();
+        try {
+            context1.eval(SOURCE);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        assertEquals(42, context2.eval(SOURCE).asInt());
+        engine2.close();
+        try {
+            context2.eval(SOURCE);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+    }
+
+    @Test
+    public void testEnabledBySystemProperty() {
+        String property = "polyglot.engine.CrossEngineSharing";
+        System.setProperty(property, "true");
+        try {
+            Engine engine1 = Engine.newBuilder().allowExperimentalOptions(true).build();
+            Engine engine2 = Engine.newBuilder().allowExperimentalOptions(true).build();
+            eval(engine1);
+            eval(engine2);
+            assertEquals(1, parseCount.get());
+            engine1.close();
+            engine2.close();
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        Engine engine1 = Engine.create();
+        Engine engine2 = Engine.create();
+        eval(engine1);
+        eval(engine2);
+        assertEquals(2, parseCount.get());
+        engine1.close();
+        engine2.close();
+    }
+
+    private static Engine.Builder newSharingEngine() {
+        return Engine.newBuilder().allowExperimentalOptions(true).option("engine.CrossEngineSharing", "true");
+    }
+
+    private static int eval(Engine engine) {
+        try (Context context = Context.newBuilder().engine(engine).build()) {
+            return context.eval(SOURCE).asInt();
+        }
+    }
+}
@@ -49,6 +49,8 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -59,6 +61,7 @@ import org.junit.Test;
 
 import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.test.polyglot.ValueHostInteropTest.Data;
@@ -367,6 +370,75 @@ public class LanguageSPIHostInteropTest extends AbstractPolyglotTest {
         assertFalse(languageEnv.isHostFunction(false));
     }
 
+    @Test
+    public void testHostBuffers() throws InteropException {
+        byte[] bytes = new byte[16];
+        Object array = languageEnv.asGuestValue(bytes);
+        assertTrue(INTEROP.hasBufferElements(array));
+        assertTrue(INTEROP.isBufferWritable(array));
+        assertEquals(16, INTEROP.getBufferSize(array));
+        INTEROP.writeBufferInt(array, ByteOrder.BIG_ENDIAN, 1, 0x01020304);
+        assertEquals(0x01, bytes[1]);
+        assertEquals(0x04, bytes[4]);
+        assertEquals(0x04030201, INTEROP.readBufferInt(array, ByteOrder.LITTLE_ENDIAN, 1));
+        INTEROP.writeBufferDouble(array, ByteOrder.LITTLE_ENDIAN, 8, 42.5d);
+        assertEquals(42.5d, ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getDouble(8), 0d);
+
+        byte[] copy = new byte[4];
+        INTEROP.readBuffer(array, 1, copy, 0, 4);
+        assertEquals(0x02, copy[1]);
+        INTEROP.writeBuffer(array, 12, new byte[]{5, 6, 7, 8}, 0, 4);
+        assertEquals(8, bytes[15]);
+        assertError(() -> INTEROP.readBufferLong(array, ByteOrder.BIG_ENDIAN, 9), InvalidBufferOffsetException.class);
+        assertError(() -> INTEROP.readBufferByte(array, -1), InvalidBufferOffsetException.class);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        Object direct = languageEnv.asGuestValue(buffer);
+        assertTrue(INTEROP.hasBufferElements(direct));
+        INTEROP.writeBufferShort(direct, ByteOrder.BIG_ENDIAN, 2, (short) 0x0102);
+        assertEquals(0x0102, buffer.getShort(2));
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+
+        Object readOnly = languageEnv.asGuestValue(buffer.asReadOnlyBuffer());
+        assertFalse(INTEROP.isBufferWritable(readOnly));
+        assertEquals(0x01, INTEROP.readBufferByte(readOnly, 2));
+        assertError(() -> {
+            INTEROP.writeBufferByte(readOnly, 0, (byte) 1);
+            return null;
+        }, UnsupportedMessageException.class);
+
+        assertFalse(INTEROP.hasBufferElements(languageEnv.asGuestValue(new int[4])));
+    }
+
+    @Test
+    public void testHostBufferByteOrders() throws InteropException {
+        // a heap buffer with an array offset is accessed relative to its own start
+        byte[] bytes = new byte[16];
+        ByteBuffer slice = ByteBuffer.wrap(bytes, 4, 12).slice();
+        Object heap = languageEnv.asGuestValue(slice);
+        assertEquals(12, INTEROP.getBufferSize(heap));
+        INTEROP.writeBufferLong(heap, ByteOrder.LITTLE_ENDIAN, 0, 0x0807060504030201L);
+        assertEquals(0x01, bytes[4]);
+        assertEquals(0x08, bytes[11]);
+        assertEquals(0x0102030405060708L, INTEROP.readBufferLong(heap, ByteOrder.BIG_ENDIAN, 0));
+        assertEquals((short) 0x0201, INTEROP.readBufferShort(heap, ByteOrder.LITTLE_ENDIAN, 0));
+        INTEROP.writeBufferFloat(heap, ByteOrder.BIG_ENDIAN, 8, 1.5f);
+        assertEquals(1.5f, ByteBuffer.wrap(bytes).getFloat(12), 0f);
+        assertEquals(1.5f, INTEROP.readBufferFloat(heap, ByteOrder.BIG_ENDIAN, 8), 0f);
+        assertEquals((short) 0xFFFF, INTEROP.readBufferShort(languageEnv.asGuestValue(new byte[]{-1, -1}), ByteOrder.BIG_ENDIAN, 0));
+        assertError(() -> INTEROP.readBufferInt(heap, ByteOrder.BIG_ENDIAN, 10), InvalidBufferOffsetException.class);
+
+        // a direct buffer accessed in the opposite byte order keeps its own byte order
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16).order(ByteOrder.LITTLE_ENDIAN);
+        Object direct = languageEnv.asGuestValue(buffer);
+        INTEROP.writeBufferInt(direct, ByteOrder.BIG_ENDIAN, 0, 0x01020304);
+        assertEquals(0x04030201, buffer.getInt(0));
+        assertEquals(0x01020304, INTEROP.readBufferInt(direct, ByteOrder.BIG_ENDIAN, 0));
+        INTEROP.writeBufferDouble(direct, ByteOrder.BIG_ENDIAN, 8, 42.5d);
+        assertEquals(42.5d, buffer.order(ByteOrder.BIG_ENDIAN).getDouble(8), 0d);
+        assertEquals(42.5d, INTEROP.readBufferDouble(direct, ByteOrder.BIG_ENDIAN, 8), 0d);
+    }
+
     public static final class TestJavaObject {
         public int aField = 10;
     }
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.test.staticobject;
+
+import static com.oracle.truffle.api.test.polyglot.AbstractPolyglotTest.assertFails;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.staticobject.StaticObject;
+import com.oracle.truffle.api.staticobject.StaticProperty;
+import com.oracle.truffle.api.staticobject.StaticShape;
+
+public class StaticObjectTest {
+
+    @Test
+    public void testPrimitiveProperties() {
+        StaticProperty z = new StaticProperty("z", boolean.class);
+        StaticProperty b = new StaticProperty("b", byte.class);
+        StaticProperty c = new StaticProperty("c", char.class);
+        StaticProperty s = new StaticProperty("s", short.class);
+        StaticProperty i = new StaticProperty("i", int.class);
+        StaticProperty j = new StaticProperty("j", long.class);
+        StaticProperty f = new StaticProperty("f", float.class);
+        StaticProperty d = new StaticProperty("d", double.class);
+        StaticShape shape = StaticShape.newBuilder().property(z).property(b).property(c).property(s).property(i).property(j).property(f).property(d).build();
+
+        StaticObject obj = shape.newInstance();
+        assertFalse(z.getBoolean(obj));
+        assertEquals(0, i.getInt(obj));
+        assertEquals(0L, j.getLong(obj));
+
+        z.setBoolean(obj, true);
+        b.setByte(obj, (byte) -42);
+        c.setChar(obj, 'x');
+        s.setShort(obj, Short.MIN_VALUE);
+        i.setInt(obj, Integer.MAX_VALUE);
+        j.setLong(obj, Long.MIN_VALUE);
+        f.setFloat(obj, 4.2f);
+        d.setDouble(obj, -1.5);
+
+        assertTrue(z.getBoolean(obj));
+        assertEquals((byte) -42, b.getByte(obj));
+        assertEquals('x', c.getChar(obj));
+        assertEquals(Short.MIN_VALUE, s.getShort(obj));
+        assertEquals(Integer.MAX_VALUE, i.getInt(obj));
+        assertEquals(Long.MIN_VALUE, j.getLong(obj));
+        assertEquals(4.2f, f.getFloat(obj), 0);
+        assertEquals(-1.5, d.getDouble(obj), 0);
+
+        StaticObject other = shape.newInstance();
+        assertFalse(z.getBoolean(other));
+        assertEquals(0, i.getInt(other));
+    }
+
+    @Test
+    public void testObjectProperties() {
+        StaticProperty name = new StaticProperty("name", Object.class);
+        StaticProperty value = new StaticProperty("value", Object.class);
+        StaticProperty count = new StaticProperty("count", int.class);
+        StaticShape shape = StaticShape.newBuilder().property(name).property(count).property(value).build();
+
+        StaticObject obj = shape.newInstance();
+        assertNull(name.getObject(obj));
+        name.setObject(obj, "foo");
+        value.setObject(obj, 42);
+        count.setInt(obj, 1);
+        assertEquals("foo", name.getObject(obj));
+        assertEquals(42, value.getObject(obj));
+        assertEquals(1, count.getInt(obj));
+
+        assertSame(shape, obj.getShape());
+        assertSame(shape, name.getShape());
+        assertSame(count, shape.getProperty("count"));
+        assertNull(shape.getProperty("unknown"));
+        assertEquals(Arrays.asList(name, count, value), shape.getProperties());
+    }
+
+    @Test
+    public void testSubclass() {
+        StaticProperty x = new StaticProperty("x", double.class);
+        StaticShape shape = StaticShape.newBuilder().property(x).build();
+        MyObject obj = new MyObject(shape);
+        x.setDouble(obj, 3.0);
+        assertEquals(3.0, x.getDouble(obj), 0);
+    }
+
+    @Test
+    public void testEmptyShape() {
+        StaticShape shape = StaticShape.newBuilder().build();
+        assertTrue(shape.getProperties().isEmpty());
+        assertSame(shape, shape.newInstance().getShape());
+    }
+
+    @Test
+    public void testInvalidAccess() {
+        StaticProperty i = new StaticProperty("i", int.class);
+        StaticProperty o = new StaticProperty("o", Object.class);
+        StaticShape shape = StaticShape.newBuilder().property(i).property(o).build();
+        StaticObject obj = shape.newInstance();
+
+        assertFails(() -> i.getLong(obj), IllegalArgumentException.class);
+        assertFails(() -> i.setObject(obj, 42), IllegalArgumentException.class);
+        assertFails(() -> o.getInt(obj), IllegalArgumentException.class);
+
+        StaticProperty j = new StaticProperty("i", int.class);
+        StaticObject otherObj = StaticShape.newBuilder().property(j).build().newInstance();
+        assertFails(() -> i.getInt(otherObj), IllegalArgumentException.class);
+        assertFails(() -> j.setInt(obj, 42), IllegalArgumentException.class);
+
+        StaticProperty unbound = new StaticProperty("unbound", int.class);
+        assertFails(() -> unbound.getInt(obj), IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testInvalidShape() {
+        assertFails(() -> new StaticProperty("v", void.class), IllegalArgumentException.class);
+        assertFails(() -> new StaticProperty("s", String.class), IllegalArgumentException.class);
+
+        StaticProperty a = new StaticProperty("a", int.class);
+        StaticShape.Builder builder = StaticShape.newBuilder().property(a);
+        assertFails(() -> builder.property(new StaticProperty("a", long.class)), IllegalArgumentException.class);
+        builder.build();
+        assertFails(() -> StaticShape.newBuilder().property(a), IllegalArgumentException.class);
+        assertFails(() -> builder.build(), IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFailedBuildReleasesProperties() {
+        StaticProperty a = new StaticProperty("a", int.class);
+        StaticProperty b = new StaticProperty("b", Object.class);
+        StaticShape.Builder builder = StaticShape.newBuilder().property(a).property(b);
+        StaticShape other = StaticShape.newBuilder().property(b).build();
+        assertFails(() -> builder.build(), IllegalArgumentException.class);
+        assertNull(a.getShape());
+        assertSame(other, b.getShape());
+
+        StaticShape shape = StaticShape.newBuilder().property(a).build();
+        StaticObject obj = shape.newInstance();
+        a.setInt(obj, 42);
+        assertEquals(42, a.getInt(obj));
+    }
+
+    @Test
+    public void testConcurrentBuilds() throws Exception {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int iteration = 0; iteration < 100; iteration++) {
+                StaticProperty x = new StaticProperty("x", long.class);
+                StaticProperty y = new StaticProperty("y", Object.class);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<StaticShape>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    // every builder declares a different number of properties before x and y
+                    int padding = i;
+                    results.add(executor.submit(() -> {
+                        StaticShape.Builder builder = StaticShape.newBuilder();
+                        for (int p = 0; p < padding; p++) {
+                            builder.property(new StaticProperty("p" + p, long.class));
+                        }
+                        builder.property(x).property(y);
+                        start.await();
+                        try {
+                            return builder.build();
+                        } catch (IllegalArgumentException e) {
+                            return null;
+                        }
+                    }));
+                }
+                start.countDown();
+                StaticShape winner = null;
+                for (Future<StaticShape> result : results) {
+                    StaticShape shape = result.get();
+                    if (shape != null) {
+                        assertNull(winner);
+                        winner = shape;
+                    }
+                }
+                assertSame(winner, x.getShape());
+                assertSame(winner, y.getShape());
+                StaticObject obj = winner.newInstance();
+                x.setLong(obj, Long.MAX_VALUE);
+                y.setObject(obj, "y");
+                assertEquals(Long.MAX_VALUE, x.getLong(obj));
+                assertEquals("y", y.getObject(obj));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static final class MyObject extends StaticObject {
+        MyObject(StaticShape shape) {
+            super(shape);
+        }
+    }
+}
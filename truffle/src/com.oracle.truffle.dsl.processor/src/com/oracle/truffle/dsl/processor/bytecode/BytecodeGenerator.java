@@ -0,0 +1,993 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.dsl.processor.bytecode;
+
+import static com.oracle.truffle.dsl.processor.generator.GeneratorUtils.createClass;
+import static com.oracle.truffle.dsl.processor.java.ElementUtils.modifiers;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import com.oracle.truffle.dsl.processor.AnnotationProcessor;
+import com.oracle.truffle.dsl.processor.ProcessorContext;
+import com.oracle.truffle.dsl.processor.generator.CodeTypeElementFactory;
+import com.oracle.truffle.dsl.processor.generator.GeneratorUtils;
+import com.oracle.truffle.dsl.processor.java.ElementUtils;
+import com.oracle.truffle.dsl.processor.java.model.CodeAnnotationMirror;
+import com.oracle.truffle.dsl.processor.java.model.CodeAnnotationValue;
+import com.oracle.truffle.dsl.processor.java.model.CodeExecutableElement;
+import com.oracle.truffle.dsl.processor.java.model.CodeTree;
+import com.oracle.truffle.dsl.processor.java.model.CodeTreeBuilder;
+import com.oracle.truffle.dsl.processor.java.model.CodeTypeElement;
+import com.oracle.truffle.dsl.processor.java.model.CodeTypeMirror.ArrayCodeTypeMirror;
+import com.oracle.truffle.dsl.processor.java.model.CodeVariableElement;
+
+/**
+ * Generates a bytecode interpreter for a {@link BytecodeData} model. Instructions are encoded as
+ * shorts: an opcode followed by its operands. Operation instructions store their active and
+ * excluded specializations as operands, which are updated in place when the operation is
+ * specialized. If exactly one specialization with primitive operands is active, the opcode is
+ * replaced with a quickened opcode that reads and writes primitive values from the frame without
+ * boxing.
+ */
+public class BytecodeGenerator extends CodeTypeElementFactory<BytecodeData> {
+
+    private static final int OPERATION_LENGTH = 3;
+
+    private ProcessorContext context;
+    private BytecodeData model;
+    private CodeTypeElement genClass;
+
+    private final Map<String, CodeVariableElement> opcodes = new LinkedHashMap<>();
+    private final Set<TypeKind> expectedKinds = EnumSet.noneOf(TypeKind.class);
+
+    @Override
+    public List<CodeTypeElement> create(ProcessorContext context1, AnnotationProcessor<?> processor, BytecodeData model1) {
+        this.context = context1;
+        this.model = model1;
+        opcodes.clear();
+        expectedKinds.clear();
+        if (model.hasErrors()) {
+            return Collections.emptyList();
+        }
+
+        Set<Modifier> classModifiers = modifiers(FINAL);
+        if (model.getTemplateType().getModifiers().contains(PUBLIC)) {
+            classModifiers.add(PUBLIC);
+        }
+        genClass = createClass(model, null, classModifiers, createGenTypeName(model), model.getTemplateType().asType());
+
+        createOpcodes();
+        genClass.add(createCompilationFinalArray(context.getType(short[].class), "bc"));
+        genClass.add(createCompilationFinalArray(context.getType(Object[].class), "constants"));
+        genClass.add(createCompilationFinalArray(new ArrayCodeTypeMirror(types.FrameSlot), "locals"));
+        genClass.add(createCompilationFinalArray(new ArrayCodeTypeMirror(types.FrameSlot), "stack"));
+        for (ExecutableElement constructor : model.getConstructors()) {
+            genClass.add(createConstructor(constructor));
+        }
+        genClass.add(createExecute());
+        for (OperationData operation : model.getOperations()) {
+            genClass.add(createExecuteOperation(operation));
+            for (OperationSpecialization specialization : operation.getSpecializations()) {
+                if (specialization.isQuickened()) {
+                    genClass.add(createExecuteQuickened(specialization));
+                }
+            }
+            genClass.add(createExecuteAndSpecialize(operation));
+            if (hasRewriteOn(operation)) {
+                genClass.add(createExclude(operation));
+            }
+            if (hasQuickened(operation)) {
+                genClass.add(createQuicken(operation));
+            }
+        }
+        genClass.add(createPushConstant());
+        genClass.add(createCopySlot());
+        genClass.add(createIsTrue());
+        for (TypeKind kind : expectedKinds) {
+            genClass.add(createExpect(kind));
+        }
+
+        CodeTypeElement builderClass = createBuilder();
+        CodeExecutableElement newBuilder = genClass.add(new CodeExecutableElement(modifiers(PUBLIC, STATIC), builderClass.asType(), "newBuilder"));
+        newBuilder.createBuilder().startReturn().startNew(builderClass.asType()).end().end();
+        genClass.add(builderClass);
+        return Arrays.asList(genClass);
+    }
+
+    static String createGenTypeName(BytecodeData model) {
+        return ElementUtils.firstLetterUpperCase(model.getTemplateType().getSimpleName().toString()) + "Gen";
+    }
+
+    private void createOpcodes() {
+        List<String> names = new ArrayList<>();
+        for (String builtin : BytecodeParser.BUILTIN_NAMES) {
+            names.add(ElementUtils.createConstantName(builtin));
+        }
+        for (OperationData operation : model.getOperations()) {
+            names.add(operationOpcodeName(operation));
+            for (OperationSpecialization specialization : operation.getSpecializations()) {
+                if (specialization.isQuickened()) {
+                    names.add(quickenedOpcodeName(specialization));
+                }
+            }
+        }
+        short opcode = 1;
+        for (String name : names) {
+            CodeVariableElement constant = new CodeVariableElement(modifiers(PRIVATE, STATIC, FINAL), context.getType(short.class), name);
+            constant.createInitBuilder().string(String.valueOf(opcode++));
+            genClass.add(constant);
+            opcodes.put(name, constant);
+        }
+    }
+
+    private static String operationOpcodeName(OperationData operation) {
+        return ElementUtils.createConstantName(operation.getName());
+    }
+
+    private static String quickenedOpcodeName(OperationSpecialization specialization) {
+        return operationOpcodeName(specialization.getOperation()) + "_" + ElementUtils.createConstantName(specialization.getName());
+    }
+
+    private CodeVariableElement createCompilationFinalArray(TypeMirror type, String name) {
+        CodeVariableElement field = new CodeVariableElement(modifiers(PRIVATE, FINAL), type, name);
+        CodeAnnotationMirror annotation = new CodeAnnotationMirror(types.CompilerDirectives_CompilationFinal);
+        annotation.setElementValue(annotation.findExecutableElement("dimensions"), new CodeAnnotationValue(1));
+        field.addAnnotationMirror(annotation);
+        return field;
+    }
+
+    private CodeExecutableElement createConstructor(ExecutableElement superConstructor) {
+        CodeExecutableElement constructor = new CodeExecutableElement(modifiers(PRIVATE), null, genClass.getSimpleName().toString());
+        for (VariableElement parameter : superConstructor.getParameters()) {
+            constructor.addParameter(new CodeVariableElement(parameter.asType(), parameter.getSimpleName().toString()));
+        }
+        constructor.addParameter(new CodeVariableElement(context.getType(short[].class), "bytecodes"));
+        constructor.addParameter(new CodeVariableElement(context.getType(Object[].class), "constantPool"));
+        constructor.addParameter(new CodeVariableElement(new ArrayCodeTypeMirror(types.FrameSlot), "localSlots"));
+        constructor.addParameter(new CodeVariableElement(new ArrayCodeTypeMirror(types.FrameSlot), "stackSlots"));
+        for (TypeMirror thrownType : superConstructor.getThrownTypes()) {
+            constructor.addThrownType(thrownType);
+        }
+        CodeTreeBuilder builder = constructor.createBuilder();
+        builder.startStatement().startSuperCall();
+        for (VariableElement parameter : superConstructor.getParameters()) {
+            builder.string(parameter.getSimpleName().toString());
+        }
+        builder.end().end();
+        builder.statement("this.bc = bytecodes");
+        builder.statement("this.constants = constantPool");
+        builder.statement("this.locals = localSlots");
+        builder.statement("this.stack = stackSlots");
+        return constructor;
+    }
+
+    private CodeExecutableElement createExecute() {
+        CodeExecutableElement execute = new CodeExecutableElement(modifiers(PUBLIC), context.getType(Object.class), "execute");
+        execute.addParameter(new CodeVariableElement(types.VirtualFrame, "frame"));
+        CodeAnnotationMirror explodeLoop = new CodeAnnotationMirror(types.ExplodeLoop);
+        explodeLoop.setElementValue(explodeLoop.findExecutableElement("kind"),
+                        new CodeAnnotationValue(ElementUtils.findVariableElement(types.ExplodeLoop_LoopExplosionKind, "MERGE_EXPLODE")));
+        execute.addAnnotationMirror(explodeLoop);
+
+        CodeTreeBuilder builder = execute.createBuilder();
+        builder.declaration(context.getType(int.class), "bci", "0");
+        builder.declaration(context.getType(int.class), "sp", "0");
+        builder.startWhile().string("true").end().startBlock();
+        builder.startStatement().startStaticCall(types.CompilerAsserts, "partialEvaluationConstant").string("bci").end().end();
+        builder.startStatement().startStaticCall(types.CompilerAsserts, "partialEvaluationConstant").string("sp").end().end();
+        builder.startSwitch().string("bc[bci]").end().startBlock();
+
+        builder.startCase().string("POP").end().startCaseBlock();
+        builder.statement("sp--");
+        builder.statement("bci += 1");
+        builder.statement("break");
+        builder.end();
+
+        builder.startCase().string("LOAD_CONSTANT").end().startCaseBlock();
+        builder.statement("pushConstant(frame, stack[sp], constants[bc[bci + 1]])");
+        builder.statement("sp++");
+        builder.statement("bci += 2");
+        builder.statement("break");
+        builder.end();
+
+        builder.startCase().string("LOAD_ARGUMENT").end().startCaseBlock();
+        builder.statement("frame.setObject(stack[sp], frame.getArguments()[bc[bci + 1]])");
+        builder.statement("sp++");
+        builder.statement("bci += 2");
+        builder.statement("break");
+        builder.end();
+
+        builder.startCase().string("LOAD_LOCAL").end().startCaseBlock();
+        builder.statement("copySlot(frame, locals[bc[bci + 1]], stack[sp])");
+        builder.statement("sp++");
+        builder.statement("bci += 2");
+        builder.statement("break");
+        builder.end();
+
+        builder.startCase().string("STORE_LOCAL").end().startCaseBlock();
+        builder.statement("copySlot(frame, stack[sp - 1], locals[bc[bci + 1]])");
+        builder.statement("sp--");
+        builder.statement("bci += 2");
+        builder.statement("break");
+        builder.end();
+
+        builder.startCase().string("BRANCH").end().startCaseBlock();
+        builder.statement("bci = bc[bci + 1]");
+        builder.statement("break");
+        builder.end();
+
+        builder.startCase().string("BRANCH_FALSE").end().startCaseBlock();
+        builder.statement("sp--");
+        builder.startIf().string("isTrue(frame, stack[sp])").end().startBlock();
+        builder.statement("bci += 2");
+        builder.end().startElseBlock();
+        builder.statement("bci = bc[bci + 1]");
+        builder.end();
+        builder.statement("break");
+        builder.end();
+
+        builder.startCase().string("RETURN").end().startCaseBlock();
+        builder.statement("return frame.getValue(stack[sp - 1])");
+        builder.end();
+
+        for (OperationData operation : model.getOperations()) {
+            createOperationCase(builder, operation, operationOpcodeName(operation), operationMethodName(operation));
+            for (OperationSpecialization specialization : operation.getSpecializations()) {
+                if (specialization.isQuickened()) {
+                    createOperationCase(builder, operation, quickenedOpcodeName(specialization), quickenedMethodName(specialization));
+                }
+            }
+        }
+
+        builder.caseDefault().startCaseBlock();
+        builder.tree(GeneratorUtils.createShouldNotReachHere());
+        builder.end();
+
+        builder.end(); // switch block
+        builder.end(); // while block
+        return execute;
+    }
+
+    private static void createOperationCase(CodeTreeBuilder builder, OperationData operation, String opcode, String methodName) {
+        builder.startCase().string(opcode).end().startCaseBlock();
+        builder.startStatement().startCall(methodName).string("frame").string("bci").string("sp").end().end();
+        int stackEffect = (operation.isReturnsValue() ? 1 : 0) - operation.getOperandCount();
+        if (stackEffect > 0) {
+            builder.statement("sp += " + stackEffect);
+        } else if (stackEffect < 0) {
+            builder.statement("sp -= " + -stackEffect);
+        }
+        builder.statement("bci += " + OPERATION_LENGTH);
+        builder.statement("break");
+        builder.end();
+    }
+
+    private static String operationMethodName(OperationData operation) {
+        return "execute" + operation.getName();
+    }
+
+    private static String quickenedMethodName(OperationSpecialization specialization) {
+        return operationMethodName(specialization.getOperation()) + "_" + specialization.getName();
+    }
+
+    private static String executeAndSpecializeName(OperationData operation) {
+        return "executeAndSpecialize" + operation.getName();
+    }
+
+    private static String excludeName(OperationData operation) {
+        return "exclude" + operation.getName();
+    }
+
+    private static String quickenName(OperationData operation) {
+        return "quicken" + operation.getName();
+    }
+
+    private static String operandName(int index) {
+        return "operand" + index;
+    }
+
+    private static String stackSlot(OperationData operation, int index) {
+        int offset = operation.getOperandCount() - index;
+        return offset == 0 ? "stack[sp]" : "stack[sp - " + offset + "]";
+    }
+
+    private static String resultSlot(OperationData operation) {
+        return stackSlot(operation, 0);
+    }
+
+    private static String formatBits(int bits) {
+        return "0b" + Integer.toBinaryString(bits);
+    }
+
+    private static boolean hasRewriteOn(OperationData operation) {
+        for (OperationSpecialization specialization : operation.getSpecializations()) {
+            if (!specialization.getRewriteOn().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasQuickened(OperationData operation) {
+        for (OperationSpecialization specialization : operation.getSpecializations()) {
+            if (specialization.isQuickened()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String frameSetter(TypeMirror type) {
+        if (OperationSpecialization.isFramePrimitive(type)) {
+            return "set" + ElementUtils.firstLetterUpperCase(type.getKind().name().toLowerCase());
+        }
+        return "setObject";
+    }
+
+    private CodeTree createSpecializationCall(OperationSpecialization specialization, boolean cast) {
+        CodeTreeBuilder builder = CodeTreeBuilder.createBuilder();
+        builder.startStaticCall(specialization.getMethod());
+        List<TypeMirror> parameterTypes = specialization.getParameterTypes();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            if (cast && !ElementUtils.isObject(parameterTypes.get(i))) {
+                builder.startGroup().cast(parameterTypes.get(i)).string(operandName(i)).end();
+            } else {
+                builder.string(operandName(i));
+            }
+        }
+        builder.end();
+        return builder.build();
+    }
+
+    private CodeTree createExecuteAndSpecializeCall(OperationData operation) {
+        CodeTreeBuilder builder = CodeTreeBuilder.createBuilder();
+        builder.startCall(executeAndSpecializeName(operation)).string("bci");
+        for (int i = 0; i < operation.getOperandCount(); i++) {
+            builder.string(operandName(i));
+        }
+        builder.end();
+        return builder.build();
+    }
+
+    private static void createWriteResult(CodeTreeBuilder builder, OperationData operation, TypeMirror resultType, CodeTree value) {
+        if (operation.isReturnsValue()) {
+            builder.startStatement().startCall("frame", frameSetter(resultType)).string(resultSlot(operation)).tree(value).end().end();
+        } else {
+            builder.startStatement().tree(value).end();
+        }
+    }
+
+    private TypeMirror[] createCatchTypes(OperationSpecialization specialization) {
+        List<TypeMirror> catchTypes = new ArrayList<>();
+        for (TypeMirror rewriteOn : specialization.getRewriteOn()) {
+            boolean covered = false;
+            for (TypeMirror other : specialization.getRewriteOn()) {
+                if (!ElementUtils.typeEquals(rewriteOn, other) && ElementUtils.isAssignable(rewriteOn, other)) {
+                    covered = true;
+                    break;
+                }
+            }
+            for (TypeMirror catchType : catchTypes) {
+                if (ElementUtils.typeEquals(rewriteOn, catchType)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                catchTypes.add(rewriteOn);
+            }
+        }
+        return catchTypes.toArray(new TypeMirror[0]);
+    }
+
+    /*
+     * The specialization was excluded because it threw a rewriteOn exception. The instruction is
+     * respecialized with the original operands.
+     */
+    private void createRewriteOnCatch(CodeTreeBuilder builder, OperationSpecialization specialization) {
+        OperationData operation = specialization.getOperation();
+        builder.end().startCatchBlock(createCatchTypes(specialization), "ex");
+        builder.tree(GeneratorUtils.createTransferToInterpreterAndInvalidate());
+        builder.startStatement().startCall(excludeName(operation)).string("bci").string(formatBits(specialization.getStateBit())).end().end();
+        createWriteResult(builder, operation, context.getType(Object.class), createExecuteAndSpecializeCall(operation));
+    }
+
+    private CodeExecutableElement createOperationMethod(String name) {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), name);
+        method.addParameter(new CodeVariableElement(types.VirtualFrame, "frame"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "bci"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "sp"));
+        return method;
+    }
+
+    private CodeTree createTypeChecks(OperationSpecialization specialization, String stateCheck) {
+        CodeTreeBuilder builder = CodeTreeBuilder.createBuilder();
+        builder.string(stateCheck);
+        List<TypeMirror> parameterTypes = specialization.getParameterTypes();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            TypeMirror parameterType = parameterTypes.get(i);
+            if (ElementUtils.isObject(parameterType)) {
+                continue;
+            }
+            TypeMirror checkType = parameterType.getKind().isPrimitive() ? ElementUtils.boxType(context, parameterType) : ElementUtils.eraseGenericTypes(parameterType);
+            builder.string(" && ").string(operandName(i)).instanceOf(checkType);
+        }
+        return builder.build();
+    }
+
+    private CodeExecutableElement createExecuteOperation(OperationData operation) {
+        CodeExecutableElement method = createOperationMethod(operationMethodName(operation));
+        CodeTreeBuilder builder = method.createBuilder();
+        for (int i = 0; i < operation.getOperandCount(); i++) {
+            builder.declaration(context.getType(Object.class), operandName(i), "frame.getValue(" + stackSlot(operation, i) + ")");
+        }
+        builder.declaration(context.getType(int.class), "state", "bc[bci + 1]");
+        for (OperationSpecialization specialization : operation.getSpecializations()) {
+            builder.startIf().tree(createTypeChecks(specialization, "(state & " + formatBits(specialization.getStateBit()) + ") != 0")).end().startBlock();
+            boolean rewriteOn = !specialization.getRewriteOn().isEmpty();
+            if (rewriteOn) {
+                builder.startTryBlock();
+            }
+            createWriteResult(builder, operation, specialization.getReturnType(), createSpecializationCall(specialization, true));
+            builder.returnStatement();
+            if (rewriteOn) {
+                createRewriteOnCatch(builder, specialization);
+                builder.returnStatement();
+                builder.end();
+            }
+            builder.end();
+        }
+        builder.tree(GeneratorUtils.createTransferToInterpreterAndInvalidate());
+        createWriteResult(builder, operation, context.getType(Object.class), createExecuteAndSpecializeCall(operation));
+        return method;
+    }
+
+    private CodeExecutableElement createExecuteQuickened(OperationSpecialization specialization) {
+        OperationData operation = specialization.getOperation();
+        CodeExecutableElement method = createOperationMethod(quickenedMethodName(specialization));
+        CodeTreeBuilder builder = method.createBuilder();
+        List<TypeMirror> parameterTypes = specialization.getParameterTypes();
+        boolean expectPrimitive = false;
+        for (TypeMirror parameterType : parameterTypes) {
+            if (OperationSpecialization.isFramePrimitive(parameterType)) {
+                expectPrimitive = true;
+                expectedKinds.add(parameterType.getKind());
+            }
+        }
+        if (expectPrimitive) {
+            for (int i = 0; i < parameterTypes.size(); i++) {
+                builder.declaration(parameterTypes.get(i), operandName(i), (CodeTree) null);
+            }
+            builder.startTryBlock();
+            for (int i = 0; i < parameterTypes.size(); i++) {
+                builder.startStatement().string(operandName(i), " = ").tree(createReadOperand(operation, parameterTypes.get(i), i)).end();
+            }
+            builder.end().startCatchBlock(types.UnexpectedResultException, "ex");
+            builder.tree(GeneratorUtils.createTransferToInterpreterAndInvalidate());
+            builder.startStatement().string("bc[bci] = ").string(operationOpcodeName(operation)).end();
+            builder.startStatement().startCall(operationMethodName(operation)).string("frame").string("bci").string("sp").end().end();
+            builder.returnStatement();
+            builder.end();
+        } else {
+            for (int i = 0; i < parameterTypes.size(); i++) {
+                builder.declaration(parameterTypes.get(i), operandName(i), createReadOperand(operation, parameterTypes.get(i), i));
+            }
+        }
+        boolean rewriteOn = !specialization.getRewriteOn().isEmpty();
+        if (rewriteOn) {
+            builder.startTryBlock();
+        }
+        createWriteResult(builder, operation, specialization.getReturnType(), createSpecializationCall(specialization, false));
+        if (rewriteOn) {
+            createRewriteOnCatch(builder, specialization);
+            builder.end();
+        }
+        return method;
+    }
+
+    private static CodeTree createReadOperand(OperationData operation, TypeMirror type, int index) {
+        CodeTreeBuilder builder = CodeTreeBuilder.createBuilder();
+        if (OperationSpecialization.isFramePrimitive(type)) {
+            builder.startCall(expectName(type.getKind())).string("frame").string(stackSlot(operation, index)).end();
+        } else {
+            builder.string("frame.getValue(" + stackSlot(operation, index) + ")");
+        }
+        return builder.build();
+    }
+
+    private static String expectName(TypeKind kind) {
+        return "expect" + ElementUtils.firstLetterUpperCase(kind.name().toLowerCase());
+    }
+
+    private CodeExecutableElement createExecuteAndSpecialize(OperationData operation) {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(Object.class), executeAndSpecializeName(operation));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "bci"));
+        for (int i = 0; i < operation.getOperandCount(); i++) {
+            method.addParameter(new CodeVariableElement(context.getType(Object.class), operandName(i)));
+        }
+        CodeTreeBuilder builder = method.createBuilder();
+        builder.declaration(context.getType(Lock.class), "lock", "getLock()");
+        builder.declaration(context.getType(boolean.class), "hasLock", "true");
+        builder.statement("lock.lock()");
+        builder.startTryBlock();
+        builder.declaration(context.getType(int.class), "state", "bc[bci + 1]");
+        builder.declaration(context.getType(int.class), "exclude", "bc[bci + 2]");
+        for (OperationSpecialization specialization : operation.getSpecializations()) {
+            String bit = formatBits(specialization.getStateBit());
+            builder.startIf().tree(createTypeChecks(specialization, "(exclude & " + bit + ") == 0")).end().startBlock();
+            int replaced = 0;
+            for (OperationSpecialization replacedSpecialization : specialization.getReplaces()) {
+                replaced |= replacedSpecialization.getStateBit();
+            }
+            if (replaced != 0) {
+                builder.statement("bc[bci + 1] = (short) ((state | " + bit + ") & ~" + formatBits(replaced) + ")");
+                builder.statement("bc[bci + 2] = (short) (exclude | " + formatBits(replaced) + ")");
+            } else {
+                builder.statement("bc[bci + 1] = (short) (state | " + bit + ")");
+            }
+            if (hasQuickened(operation)) {
+                builder.startStatement().startCall(quickenName(operation)).string("bci").end().end();
+            }
+            builder.statement("lock.unlock()");
+            builder.statement("hasLock = false");
+            boolean rewriteOn = !specialization.getRewriteOn().isEmpty();
+            if (rewriteOn) {
+                builder.startTryBlock();
+            }
+            if (operation.isReturnsValue()) {
+                builder.startReturn().tree(createSpecializationCall(specialization, true)).end();
+            } else {
+                builder.startStatement().tree(createSpecializationCall(specialization, true)).end();
+                builder.returnNull();
+            }
+            if (rewriteOn) {
+                builder.end().startCatchBlock(createCatchTypes(specialization), "ex");
+                builder.startStatement().startCall(excludeName(operation)).string("bci").string(bit).end().end();
+                builder.startReturn().tree(createExecuteAndSpecializeCall(operation)).end();
+                builder.end();
+            }
+            builder.end();
+        }
+        builder.startThrow().startNew(types.UnsupportedSpecializationException).string("this");
+        builder.startNewArray(new ArrayCodeTypeMirror(types.Node), CodeTreeBuilder.singleString(String.valueOf(operation.getOperandCount()))).end();
+        for (int i = 0; i < operation.getOperandCount(); i++) {
+            builder.string(operandName(i));
+        }
+        builder.end().end();
+        builder.end().startFinallyBlock();
+        builder.startIf().string("hasLock").end().startBlock();
+        builder.statement("lock.unlock()");
+        builder.end();
+        builder.end();
+        return method;
+    }
+
+    private CodeExecutableElement createExclude(OperationData operation) {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), excludeName(operation));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "bci"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "specialization"));
+        CodeTreeBuilder builder = method.createBuilder();
+        builder.declaration(context.getType(Lock.class), "lock", "getLock()");
+        builder.statement("lock.lock()");
+        builder.startTryBlock();
+        builder.statement("bc[bci + 1] = (short) (bc[bci + 1] & ~specialization)");
+        builder.statement("bc[bci + 2] = (short) (bc[bci + 2] | specialization)");
+        if (hasQuickened(operation)) {
+            builder.startStatement().startCall(quickenName(operation)).string("bci").end().end();
+        }
+        builder.end().startFinallyBlock();
+        builder.statement("lock.unlock()");
+        builder.end();
+        return method;
+    }
+
+    private CodeExecutableElement createQuicken(OperationData operation) {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), quickenName(operation));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "bci"));
+        CodeTreeBuilder builder = method.createBuilder();
+        builder.startSwitch().string("bc[bci + 1]").end().startBlock();
+        for (OperationSpecialization specialization : operation.getSpecializations()) {
+            if (!specialization.isQuickened()) {
+                continue;
+            }
+            builder.startCase().string(formatBits(specialization.getStateBit())).end().startCaseBlock();
+            builder.startStatement().string("bc[bci] = ").string(quickenedOpcodeName(specialization)).end();
+            builder.statement("break");
+            builder.end();
+        }
+        builder.caseDefault().startCaseBlock();
+        builder.startStatement().string("bc[bci] = ").string(operationOpcodeName(operation)).end();
+        builder.statement("break");
+        builder.end();
+        builder.end();
+        return method;
+    }
+
+    private CodeExecutableElement createPushConstant() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE, STATIC), context.getType(void.class), "pushConstant");
+        method.addParameter(new CodeVariableElement(types.VirtualFrame, "frame"));
+        method.addParameter(new CodeVariableElement(types.FrameSlot, "slot"));
+        method.addParameter(new CodeVariableElement(context.getType(Object.class), "value"));
+        CodeTreeBuilder builder = method.createBuilder();
+        boolean elseIf = false;
+        for (TypeKind kind : framePrimitiveKinds()) {
+            TypeMirror type = context.getEnvironment().getTypeUtils().getPrimitiveType(kind);
+            elseIf = builder.startIf(elseIf);
+            builder.string("value").instanceOf(ElementUtils.boxType(context, type)).end().startBlock();
+            builder.startStatement().startCall("frame", frameSetter(type)).string("slot").startGroup().cast(type).string("value").end().end().end();
+            builder.end();
+        }
+        builder.startElseBlock();
+        builder.statement("frame.setObject(slot, value)");
+        builder.end();
+        return method;
+    }
+
+    private CodeExecutableElement createCopySlot() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE, STATIC), context.getType(void.class), "copySlot");
+        method.addParameter(new CodeVariableElement(types.VirtualFrame, "frame"));
+        method.addParameter(new CodeVariableElement(types.FrameSlot, "source"));
+        method.addParameter(new CodeVariableElement(types.FrameSlot, "target"));
+        CodeTreeBuilder builder = method.createBuilder();
+        boolean elseIf = false;
+        for (TypeKind kind : framePrimitiveKinds()) {
+            String kindName = ElementUtils.firstLetterUpperCase(kind.name().toLowerCase());
+            elseIf = builder.startIf(elseIf);
+            builder.string("frame.is" + kindName + "(source)").end().startBlock();
+            builder.startStatement().startCall("frame", "set" + kindName).string("target");
+            builder.startStaticCall(types.FrameUtil, "get" + kindName + "Safe").string("frame").string("source").end();
+            builder.end().end();
+            builder.end();
+        }
+        builder.startElseBlock();
+        builder.statement("frame.setObject(target, frame.getValue(source))");
+        builder.end();
+        return method;
+    }
+
+    private CodeExecutableElement createIsTrue() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(boolean.class), "isTrue");
+        method.addParameter(new CodeVariableElement(types.VirtualFrame, "frame"));
+        method.addParameter(new CodeVariableElement(types.FrameSlot, "slot"));
+        CodeTreeBuilder builder = method.createBuilder();
+        builder.startIf().string("frame.isBoolean(slot)").end().startBlock();
+        builder.startReturn().startStaticCall(types.FrameUtil, "getBooleanSafe").string("frame").string("slot").end().end();
+        builder.end();
+        builder.declaration(context.getType(Object.class), "value", "frame.getValue(slot)");
+        builder.startIf().string("value").instanceOf(context.getType(Boolean.class)).end().startBlock();
+        builder.startReturn().cast(context.getType(boolean.class)).string("value").end();
+        builder.end();
+        builder.tree(GeneratorUtils.createTransferToInterpreter());
+        builder.startThrow().startNew(types.UnsupportedSpecializationException).string("this");
+        builder.startNewArray(new ArrayCodeTypeMirror(types.Node), CodeTreeBuilder.singleString("1")).end();
+        builder.string("value");
+        builder.end().end();
+        return method;
+    }
+
+    private CodeExecutableElement createExpect(TypeKind kind) {
+        TypeMirror type = context.getEnvironment().getTypeUtils().getPrimitiveType(kind);
+        String kindName = ElementUtils.firstLetterUpperCase(kind.name().toLowerCase());
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE, STATIC), type, expectName(kind));
+        method.addParameter(new CodeVariableElement(types.VirtualFrame, "frame"));
+        method.addParameter(new CodeVariableElement(types.FrameSlot, "slot"));
+        method.addThrownType(types.UnexpectedResultException);
+        CodeTreeBuilder builder = method.createBuilder();
+        builder.startIf().string("frame.is" + kindName + "(slot)").end().startBlock();
+        builder.startReturn().startStaticCall(types.FrameUtil, "get" + kindName + "Safe").string("frame").string("slot").end().end();
+        builder.end();
+        builder.declaration(context.getType(Object.class), "value", "frame.getValue(slot)");
+        builder.startIf().string("value").instanceOf(ElementUtils.boxType(context, type)).end().startBlock();
+        builder.startReturn().cast(type).string("value").end();
+        builder.end();
+        builder.startThrow().startNew(types.UnexpectedResultException).string("value").end().end();
+        return method;
+    }
+
+    private static List<TypeKind> framePrimitiveKinds() {
+        return Arrays.asList(TypeKind.BOOLEAN, TypeKind.BYTE, TypeKind.INT, TypeKind.LONG, TypeKind.FLOAT, TypeKind.DOUBLE);
+    }
+
+    private CodeTypeElement createBuilder() {
+        CodeTypeElement builderClass = createClass(model, null, modifiers(PUBLIC, STATIC, FINAL), "Builder", null);
+        TypeMirror intType = context.getType(int.class);
+        TypeMirror intArray = context.getType(int[].class);
+        builderClass.add(createBuilderField(context.getType(short[].class), "bc", "new short[16]"));
+        builderClass.add(createBuilderField(intType, "bci", null));
+        builderClass.add(createBuilderField(context.getType(Object[].class), "constants", "new Object[8]"));
+        builderClass.add(createBuilderField(intType, "constantCount", null));
+        builderClass.add(createBuilderField(intType, "localCount", null));
+        builderClass.add(createBuilderField(intArray, "labels", "new int[4]"));
+        builderClass.add(createBuilderField(intArray, "labelHeights", "new int[4]"));
+        builderClass.add(createBuilderField(intType, "labelCount", null));
+        builderClass.add(createBuilderField(intArray, "fixups", "new int[4]"));
+        builderClass.add(createBuilderField(intType, "fixupCount", null));
+        builderClass.add(createBuilderField(intType, "stackHeight", null));
+        builderClass.add(createBuilderField(intType, "maxStackHeight", null));
+        builderClass.add(createBuilderField(context.getType(boolean.class), "reachable", "true"));
+
+        builderClass.add(new CodeExecutableElement(modifiers(PRIVATE), null, "Builder"));
+
+        CodeExecutableElement createLocal = builderClass.add(new CodeExecutableElement(modifiers(PUBLIC), intType, "createLocal"));
+        createLocal.createBuilder().statement("return localCount++");
+
+        CodeExecutableElement createLabel = builderClass.add(new CodeExecutableElement(modifiers(PUBLIC), intType, "createLabel"));
+        CodeTreeBuilder builder = createLabel.createBuilder();
+        builder.startIf().string("labelCount == labels.length").end().startBlock();
+        builder.startStatement().string("labels = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("labels").string("labelCount * 2").end().end();
+        builder.startStatement().string("labelHeights = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("labelHeights").string("labelCount * 2").end().end();
+        builder.end();
+        builder.statement("labels[labelCount] = -1");
+        builder.statement("labelHeights[labelCount] = -1");
+        builder.statement("return labelCount++");
+
+        CodeExecutableElement markLabel = builderClass.add(createBuilderMethod("markLabel", intType, "label"));
+        builder = markLabel.createBuilder();
+        builder.statement("checkLabel(label)");
+        builder.startIf().string("labels[label] >= 0").end().startBlock();
+        builder.tree(createThrow(IllegalStateException.class, "\"Label \" + label + \" was already marked.\""));
+        builder.end();
+        builder.statement("labels[label] = bci");
+        builder.startIf().string("labelHeights[label] < 0").end().startBlock();
+        builder.statement("labelHeights[label] = stackHeight");
+        builder.end().startElseIf().string("reachable && labelHeights[label] != stackHeight").end().startBlock();
+        builder.tree(createThrow(IllegalStateException.class, "\"Inconsistent operand stack height at label \" + label + \".\""));
+        builder.end().startElseBlock();
+        builder.statement("stackHeight = labelHeights[label]");
+        builder.end();
+        builder.statement("reachable = true");
+
+        builder = builderClass.add(createBuilderMethod("emitPop", null, null)).createBuilder();
+        builder.statement("pop(1)");
+        builder.statement("emitInstruction(POP, 1)");
+
+        CodeExecutableElement emitLoadConstant = builderClass.add(createBuilderMethod("emitLoadConstant", context.getType(Object.class), "constant"));
+        builder = emitLoadConstant.createBuilder();
+        builder.startIf().string("constantCount == constants.length").end().startBlock();
+        builder.startStatement().string("constants = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("constants").string("constantCount * 2").end().end();
+        builder.end();
+        builder.statement("constants[constantCount] = constant");
+        builder.statement("emitOperandInstruction(LOAD_CONSTANT, constantCount++)");
+        builder.statement("push()");
+
+        builder = builderClass.add(createBuilderMethod("emitLoadArgument", intType, "index")).createBuilder();
+        builder.statement("emitOperandInstruction(LOAD_ARGUMENT, index)");
+        builder.statement("push()");
+
+        builder = builderClass.add(createBuilderMethod("emitLoadLocal", intType, "local")).createBuilder();
+        builder.statement("checkLocal(local)");
+        builder.statement("emitOperandInstruction(LOAD_LOCAL, local)");
+        builder.statement("push()");
+
+        builder = builderClass.add(createBuilderMethod("emitStoreLocal", intType, "local")).createBuilder();
+        builder.statement("checkLocal(local)");
+        builder.statement("pop(1)");
+        builder.statement("emitOperandInstruction(STORE_LOCAL, local)");
+
+        builder = builderClass.add(createBuilderMethod("emitBranch", intType, "label")).createBuilder();
+        builder.statement("emitBranch(BRANCH, label)");
+        builder.statement("reachable = false");
+
+        builder = builderClass.add(createBuilderMethod("emitBranchFalse", intType, "label")).createBuilder();
+        builder.statement("pop(1)");
+        builder.statement("emitBranch(BRANCH_FALSE, label)");
+
+        builder = builderClass.add(createBuilderMethod("emitReturn", null, null)).createBuilder();
+        builder.statement("pop(1)");
+        builder.statement("emitInstruction(RETURN, 1)");
+        builder.statement("reachable = false");
+
+        for (OperationData operation : model.getOperations()) {
+            builder = builderClass.add(createBuilderMethod("emit" + operation.getName(), null, null)).createBuilder();
+            if (operation.getOperandCount() > 0) {
+                builder.statement("pop(" + operation.getOperandCount() + ")");
+            }
+            builder.statement("emitInstruction(" + operationOpcodeName(operation) + ", " + OPERATION_LENGTH + ")");
+            if (operation.isReturnsValue()) {
+                builder.statement("push()");
+            }
+        }
+
+        for (ExecutableElement constructor : model.getConstructors()) {
+            builderClass.add(createBuild(constructor));
+        }
+
+        CodeExecutableElement emitInstruction = builderClass.add(new CodeExecutableElement(modifiers(PRIVATE), intType, "emitInstruction"));
+        emitInstruction.addParameter(new CodeVariableElement(context.getType(short.class), "opcode"));
+        emitInstruction.addParameter(new CodeVariableElement(intType, "length"));
+        builder = emitInstruction.createBuilder();
+        builder.startIf().string("bci + length > bc.length").end().startBlock();
+        builder.startStatement().string("bc = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("bc");
+        builder.startStaticCall(context.getType(Math.class), "max").string("bc.length * 2").string("bci + length").end();
+        builder.end().end();
+        builder.end();
+        builder.declaration(intType, "instruction", "bci");
+        builder.statement("bc[instruction] = opcode");
+        builder.statement("bci += length");
+        builder.statement("return instruction");
+
+        CodeExecutableElement emitOperandInstruction = builderClass.add(new CodeExecutableElement(modifiers(PRIVATE), intType, "emitOperandInstruction"));
+        emitOperandInstruction.addParameter(new CodeVariableElement(context.getType(short.class), "opcode"));
+        emitOperandInstruction.addParameter(new CodeVariableElement(intType, "operand"));
+        builder = emitOperandInstruction.createBuilder();
+        builder.declaration(context.getType(short.class), "value", "operand(operand)");
+        builder.declaration(intType, "instruction", "emitInstruction(opcode, 2)");
+        builder.statement("bc[instruction + 1] = value");
+        builder.statement("return instruction");
+
+        CodeExecutableElement emitBranch = builderClass.add(new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "emitBranch"));
+        emitBranch.addParameter(new CodeVariableElement(context.getType(short.class), "opcode"));
+        emitBranch.addParameter(new CodeVariableElement(intType, "label"));
+        builder = emitBranch.createBuilder();
+        builder.statement("checkLabel(label)");
+        builder.startIf().string("labelHeights[label] < 0").end().startBlock();
+        builder.statement("labelHeights[label] = stackHeight");
+        builder.end().startElseIf().string("labelHeights[label] != stackHeight").end().startBlock();
+        builder.tree(createThrow(IllegalStateException.class, "\"Inconsistent operand stack height at label \" + label + \".\""));
+        builder.end();
+        builder.declaration(intType, "instruction", "emitOperandInstruction(opcode, label)");
+        builder.startIf().string("fixupCount == fixups.length").end().startBlock();
+        builder.startStatement().string("fixups = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("fixups").string("fixupCount * 2").end().end();
+        builder.end();
+        builder.statement("fixups[fixupCount++] = instruction + 1");
+
+        CodeExecutableElement pop = builderClass.add(new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "pop"));
+        pop.addParameter(new CodeVariableElement(intType, "count"));
+        builder = pop.createBuilder();
+        builder.startIf().string("stackHeight < count").end().startBlock();
+        builder.tree(createThrow(IllegalStateException.class, "\"Operand stack underflow.\""));
+        builder.end();
+        builder.statement("stackHeight -= count");
+
+        builder = builderClass.add(new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "push")).createBuilder();
+        builder.statement("stackHeight++");
+        builder.startStatement().string("maxStackHeight = ").startStaticCall(context.getType(Math.class), "max").string("maxStackHeight").string("stackHeight").end().end();
+
+        builderClass.add(createCheckIndex("checkLocal", "local", "localCount"));
+        builderClass.add(createCheckIndex("checkLabel", "label", "labelCount"));
+
+        CodeExecutableElement operand = builderClass.add(new CodeExecutableElement(modifiers(PRIVATE, STATIC), context.getType(short.class), "operand"));
+        operand.addParameter(new CodeVariableElement(intType, "value"));
+        builder = operand.createBuilder();
+        builder.startIf().string("value < 0 || value > ").staticReference(context.getType(Short.class), "MAX_VALUE").end().startBlock();
+        builder.tree(createThrow(IllegalArgumentException.class, "\"The operand \" + value + \" is out of the bytecode operand range.\""));
+        builder.end();
+        builder.statement("return (short) value");
+        return builderClass;
+    }
+
+    private static CodeVariableElement createBuilderField(TypeMirror type, String name, String init) {
+        CodeVariableElement field = new CodeVariableElement(modifiers(PRIVATE), type, name);
+        if (init != null) {
+            field.createInitBuilder().string(init);
+        }
+        return field;
+    }
+
+    private CodeExecutableElement createBuilderMethod(String name, TypeMirror parameterType, String parameterName) {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PUBLIC), context.getType(void.class), name);
+        if (parameterType != null) {
+            method.addParameter(new CodeVariableElement(parameterType, parameterName));
+        }
+        return method;
+    }
+
+    private CodeExecutableElement createCheckIndex(String name, String parameterName, String count) {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), name);
+        method.addParameter(new CodeVariableElement(context.getType(int.class), parameterName));
+        CodeTreeBuilder builder = method.createBuilder();
+        builder.startIf().string(parameterName + " < 0 || " + parameterName + " >= " + count).end().startBlock();
+        builder.tree(createThrow(IllegalArgumentException.class, "\"Invalid " + parameterName + " \" + " + parameterName + " + \".\""));
+        builder.end();
+        return method;
+    }
+
+    private CodeTree createThrow(Class<?> exceptionClass, String message) {
+        CodeTreeBuilder builder = CodeTreeBuilder.createBuilder();
+        builder.startThrow().startNew(context.getType(exceptionClass)).string(message).end().end();
+        return builder.build();
+    }
+
+    private CodeExecutableElement createBuild(ExecutableElement constructor) {
+        CodeExecutableElement build = new CodeExecutableElement(modifiers(PUBLIC), model.getTemplateType().asType(), "build");
+        List<? extends VariableElement> parameters = constructor.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i != 1) {
+                build.addParameter(new CodeVariableElement(parameters.get(i).asType(), parameters.get(i).getSimpleName().toString()));
+            }
+        }
+        for (TypeMirror thrownType : constructor.getThrownTypes()) {
+            build.addThrownType(thrownType);
+        }
+        TypeMirror slotArray = new ArrayCodeTypeMirror(types.FrameSlot);
+        String frameDescriptor = parameters.get(1).getSimpleName().toString();
+        CodeTreeBuilder builder = build.createBuilder();
+        builder.startIf().string("reachable").end().startBlock();
+        builder.tree(createThrow(IllegalStateException.class, "\"The bytecode must end with a branch or return instruction.\""));
+        builder.end();
+        builder.declaration(context.getType(short[].class), "bytecodes", CodeTreeBuilder.createBuilder().startStaticCall(context.getType(Arrays.class), "copyOf").string("bc").string("bci").end());
+        builder.startFor().string("int i = 0; i < fixupCount; i++").end().startBlock();
+        builder.declaration(context.getType(int.class), "label", "bytecodes[fixups[i]]");
+        builder.startIf().string("labels[label] < 0").end().startBlock();
+        builder.tree(createThrow(IllegalStateException.class, "\"Label \" + label + \" was not marked.\""));
+        builder.end();
+        builder.statement("bytecodes[fixups[i]] = operand(labels[label])");
+        builder.end();
+        builder.declaration(types.FrameDescriptor, frameDescriptor, CodeTreeBuilder.createBuilder().startNew(types.FrameDescriptor).end());
+        builder.declaration(slotArray, "localSlots", "new FrameSlot[localCount]");
+        builder.startFor().string("int i = 0; i < localSlots.length; i++").end().startBlock();
+        builder.statement("localSlots[i] = " + frameDescriptor + ".addFrameSlot(\"local\" + i)");
+        builder.end();
+        builder.declaration(slotArray, "stackSlots", "new FrameSlot[maxStackHeight]");
+        builder.startFor().string("int i = 0; i < stackSlots.length; i++").end().startBlock();
+        builder.statement("stackSlots[i] = " + frameDescriptor + ".addFrameSlot(\"stack\" + i)");
+        builder.end();
+        builder.startReturn().startNew(genClass.asType());
+        for (VariableElement parameter : parameters) {
+            builder.string(parameter.getSimpleName().toString());
+        }
+        builder.string("bytecodes");
+        builder.startStaticCall(context.getType(Arrays.class), "copyOf").string("constants").string("constantCount").end();
+        builder.string("localSlots");
+        builder.string("stackSlots");
+        builder.end().end();
+        return build;
+    }
+
+}
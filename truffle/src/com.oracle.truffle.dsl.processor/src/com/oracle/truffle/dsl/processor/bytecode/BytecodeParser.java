@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.dsl.processor.bytecode;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+import com.oracle.truffle.dsl.processor.java.ElementUtils;
+import com.oracle.truffle.dsl.processor.java.compiler.CompilerFactory;
+import com.oracle.truffle.dsl.processor.parser.AbstractParser;
+
+public class BytecodeParser extends AbstractParser<BytecodeData> {
+
+    /**
+     * Names of the built-in instructions. Operations must not use these names, as the generated
+     * opcode constants and builder methods would clash.
+     */
+    static final List<String> BUILTIN_NAMES = Arrays.asList("Pop", "LoadConstant", "LoadArgument", "LoadLocal", "StoreLocal", "Branch", "BranchFalse", "Return");
+
+    /**
+     * The specialization state of an instruction is stored in a short, the sign bit is not used.
+     */
+    static final int MAX_SPECIALIZATIONS = 15;
+
+    @Override
+    protected BytecodeData parse(Element element, List<AnnotationMirror> mirrors) {
+        TypeElement type = (TypeElement) element;
+        if (mirrors.isEmpty()) {
+            return null;
+        }
+        BytecodeData model = new BytecodeData(type, mirrors.iterator().next());
+
+        if (!ElementUtils.isAssignable(type.asType(), types.RootNode)) {
+            model.addError("Bytecode root nodes must extend %s.", ElementUtils.getSimpleName(types.RootNode));
+            return model;
+        }
+        if (!type.getModifiers().contains(Modifier.ABSTRACT)) {
+            model.addError("Bytecode root nodes must be abstract.");
+            return model;
+        }
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            model.addError("Bytecode root nodes must not be private.");
+            return model;
+        }
+        if (type.getEnclosingElement().getKind() != ElementKind.PACKAGE && !type.getModifiers().contains(Modifier.STATIC)) {
+            model.addError("Inner bytecode root nodes must be static.");
+            return model;
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            model.addError("Bytecode root nodes must not declare type parameters.");
+            return model;
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(CompilerFactory.getCompiler(type).getAllMembersInDeclarationOrder(context.getEnvironment(), type))) {
+            if (method.getSimpleName().toString().equals("execute") && method.getParameters().size() == 1 && !method.getModifiers().contains(Modifier.ABSTRACT) &&
+                            ElementUtils.typeEquals(method.getParameters().get(0).asType(), types.VirtualFrame)) {
+                model.addError("Bytecode root nodes must not implement the execute method. The execute method is generated.");
+                return model;
+            }
+        }
+
+        parseConstructors(model, type);
+
+        Set<String> names = new HashSet<>();
+        for (TypeElement innerType : ElementFilter.typesIn(type.getEnclosedElements())) {
+            AnnotationMirror operationMirror = ElementUtils.findAnnotationMirror(innerType, types.GenerateBytecode_Operation);
+            if (operationMirror == null) {
+                continue;
+            }
+            OperationData operation = parseOperation(innerType, operationMirror);
+            if (BUILTIN_NAMES.contains(operation.getName())) {
+                operation.addError("The operation name '%s' is reserved for a built-in instruction. Rename the operation to resolve this.", operation.getName());
+            } else if (!names.add(ElementUtils.createConstantName(operation.getName()))) {
+                operation.addError("The operation name '%s' is not unique. Rename the operation to resolve this.", operation.getName());
+            }
+            model.getOperations().add(operation);
+        }
+        return model;
+    }
+
+    private void parseConstructors(BytecodeData model, TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (parameters.size() < 2 || !ElementUtils.typeEquals(ElementUtils.eraseGenericTypes(parameters.get(0).asType()), types.TruffleLanguage) ||
+                            !ElementUtils.typeEquals(parameters.get(1).asType(), types.FrameDescriptor)) {
+                model.addError(constructor, "Bytecode root node constructors must declare a %s and a %s as first parameters.", types.TruffleLanguage.asElement().getSimpleName(),
+                                ElementUtils.getSimpleName(types.FrameDescriptor));
+                continue;
+            }
+            model.getConstructors().add(constructor);
+        }
+        if (!model.hasErrors() && model.getConstructors().isEmpty()) {
+            model.addError("No visible constructor found. Bytecode root nodes must declare a constructor with a %s and a %s as first parameters.", types.TruffleLanguage.asElement().getSimpleName(),
+                            ElementUtils.getSimpleName(types.FrameDescriptor));
+        }
+    }
+
+    private OperationData parseOperation(TypeElement type, AnnotationMirror mirror) {
+        OperationData operation = new OperationData(type, mirror);
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            operation.addError("Operation classes must not be private.");
+            return operation;
+        }
+        if (!type.getModifiers().contains(Modifier.STATIC)) {
+            operation.addError("Operation classes must be static.");
+            return operation;
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (ElementUtils.findAnnotationMirror(method, types.Fallback) != null) {
+                operation.addError(method, "Fallback specializations are not supported for operations.");
+                continue;
+            }
+            AnnotationMirror specializationMirror = ElementUtils.findAnnotationMirror(method, types.Specialization);
+            if (specializationMirror == null) {
+                continue;
+            }
+            parseSpecialization(operation, method, specializationMirror);
+        }
+
+        if (operation.hasErrors()) {
+            return operation;
+        }
+        List<OperationSpecialization> specializations = operation.getSpecializations();
+        if (specializations.isEmpty()) {
+            operation.addError("Operations must declare at least one specialization.");
+            return operation;
+        }
+        if (specializations.size() > MAX_SPECIALIZATIONS) {
+            operation.addError("Operations must not declare more than %s specializations.", MAX_SPECIALIZATIONS);
+            return operation;
+        }
+
+        OperationSpecialization first = specializations.get(0);
+        operation.setOperandCount(first.getMethod().getParameters().size());
+        operation.setReturnsValue(!ElementUtils.isVoid(first.getReturnType()));
+        for (OperationSpecialization specialization : specializations) {
+            if (specialization.getMethod().getParameters().size() != operation.getOperandCount()) {
+                operation.addError(specialization.getMethod(), "All specializations of an operation must declare the same number of parameters. Expected %s parameters.",
+                                operation.getOperandCount());
+            }
+            if (ElementUtils.isVoid(specialization.getReturnType()) == operation.isReturnsValue()) {
+                operation.addError(specialization.getMethod(), "All specializations of an operation must either return a value or be void.");
+            }
+            AnnotationMirror specializationMirror = ElementUtils.findAnnotationMirror(specialization.getMethod(), types.Specialization);
+            for (String replaced : ElementUtils.getAnnotationValueList(String.class, specializationMirror, "replaces")) {
+                OperationSpecialization replacedSpecialization = operation.findSpecialization(replaced);
+                if (replacedSpecialization == null || replacedSpecialization == specialization) {
+                    operation.addError(specialization.getMethod(), "The replaced specialization '%s' could not be resolved.", replaced);
+                } else {
+                    specialization.getReplaces().add(replacedSpecialization);
+                }
+            }
+        }
+        return operation;
+    }
+
+    private void parseSpecialization(OperationData operation, ExecutableElement method, AnnotationMirror mirror) {
+        if (!method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)) {
+            operation.addError(method, "Operation specializations must be static and not private.");
+            return;
+        }
+        if (!method.getTypeParameters().isEmpty()) {
+            operation.addError(method, "Operation specializations must not declare type parameters.");
+            return;
+        }
+        for (String attribute : Arrays.asList("guards", "assumptions")) {
+            if (!ElementUtils.getAnnotationValueList(String.class, mirror, attribute).isEmpty()) {
+                operation.addError(method, "The %s attribute is not supported for operation specializations.", attribute);
+                return;
+            }
+        }
+        for (String attribute : Arrays.asList("limit", "insertBefore")) {
+            String value = ElementUtils.getAnnotationValue(String.class, mirror, attribute);
+            if (value != null && !value.isEmpty()) {
+                operation.addError(method, "The %s attribute is not supported for operation specializations.", attribute);
+                return;
+            }
+        }
+        for (VariableElement parameter : method.getParameters()) {
+            if (!parameter.getAnnotationMirrors().isEmpty()) {
+                operation.addError(method, "Annotated parameters like cached parameters are not supported for operation specializations.");
+                return;
+            }
+            TypeMirror parameterType = parameter.asType();
+            if (parameterType.getKind() != TypeKind.DECLARED && parameterType.getKind() != TypeKind.ARRAY && !parameterType.getKind().isPrimitive()) {
+                operation.addError(method, "Invalid operand type %s. Operands must be of a primitive, declared or array type.", ElementUtils.getSimpleName(parameterType));
+                return;
+            } else if (ElementUtils.isAssignable(parameterType, types.Frame)) {
+                operation.addError(method, "Frame parameters are not supported for operation specializations.");
+                return;
+            }
+        }
+
+        OperationSpecialization specialization = new OperationSpecialization(operation, method, operation.getSpecializations().size());
+        for (TypeMirror rewriteOn : ElementUtils.getAnnotationValueList(TypeMirror.class, mirror, "rewriteOn")) {
+            specialization.getRewriteOn().add(rewriteOn);
+        }
+        TypeMirror runtimeException = context.getType(RuntimeException.class);
+        TypeMirror error = context.getType(Error.class);
+        outer: for (TypeMirror thrownType : method.getThrownTypes()) {
+            if (ElementUtils.isAssignable(thrownType, runtimeException) || ElementUtils.isAssignable(thrownType, error)) {
+                continue;
+            }
+            for (TypeMirror rewriteOn : specialization.getRewriteOn()) {
+                if (ElementUtils.isAssignable(thrownType, rewriteOn)) {
+                    continue outer;
+                }
+            }
+            operation.addError(method, "Checked exception %s of specialization '%s' must be declared in rewriteOn.", ElementUtils.getSimpleName(thrownType), specialization.getName());
+            return;
+        }
+        operation.getSpecializations().add(specialization);
+    }
+
+    @Override
+    public DeclaredType getAnnotationType() {
+        return types.GenerateBytecode;
+    }
+
+}
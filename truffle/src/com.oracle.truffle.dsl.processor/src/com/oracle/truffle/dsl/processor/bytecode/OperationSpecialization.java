@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.dsl.processor.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+import com.oracle.truffle.dsl.processor.java.ElementUtils;
+
+public final class OperationSpecialization {
+
+    private final OperationData operation;
+    private final ExecutableElement method;
+    private final int index;
+    private final List<TypeMirror> rewriteOn = new ArrayList<>();
+    private final List<OperationSpecialization> replaces = new ArrayList<>();
+
+    OperationSpecialization(OperationData operation, ExecutableElement method, int index) {
+        this.operation = operation;
+        this.method = method;
+        this.index = index;
+    }
+
+    public OperationData getOperation() {
+        return operation;
+    }
+
+    public ExecutableElement getMethod() {
+        return method;
+    }
+
+    public String getName() {
+        return method.getSimpleName().toString();
+    }
+
+    /**
+     * Returns the index of the state bit of this specialization.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getStateBit() {
+        return 1 << index;
+    }
+
+    public List<TypeMirror> getRewriteOn() {
+        return rewriteOn;
+    }
+
+    public List<OperationSpecialization> getReplaces() {
+        return replaces;
+    }
+
+    public List<TypeMirror> getParameterTypes() {
+        List<TypeMirror> parameterTypes = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            parameterTypes.add(parameter.asType());
+        }
+        return parameterTypes;
+    }
+
+    public TypeMirror getReturnType() {
+        return method.getReturnType();
+    }
+
+    /**
+     * Returns <code>true</code> if a quickened instruction should be generated for this
+     * specialization. A quickened instruction reads and writes primitive operands without boxing,
+     * which only pays off if at least one operand or the result is primitive. Operands of other
+     * reference types than Object would require additional type checks and are not quickened.
+     */
+    public boolean isQuickened() {
+        boolean primitive = isFramePrimitive(getReturnType());
+        for (TypeMirror parameterType : getParameterTypes()) {
+            if (isFramePrimitive(parameterType)) {
+                primitive = true;
+            } else if (!ElementUtils.isObject(parameterType)) {
+                return false;
+            }
+        }
+        return primitive;
+    }
+
+    /**
+     * Returns <code>true</code> if values of this type can be stored in a frame slot without
+     * boxing.
+     */
+    static boolean isFramePrimitive(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+}
@@ -40,6 +40,17 @@
  */
 package com.oracle.truffle.object.basic.test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 
 import com.oracle.truffle.api.object.Layout;
@@ -47,6 +58,9 @@ import com.oracle.truffle.api.object.Layout.ImplicitCast;
 import com.oracle.truffle.api.object.ObjectType;
 import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.object.ShapeImpl;
+import com.oracle.truffle.object.Transition;
+import com.oracle.truffle.object.Transition.IndirectReplacePropertyTransition;
 
 public class ShapeTest {
 
@@ -87,4 +101,91 @@ public class ShapeTest {
                         "\"b\":Object@0",
                         "\"a\":int@0"}, shapeWithExtArray);
     }
+
+    @Test
+    public void testTransitionFanOut() {
+        Layout layout = Layout.newLayout().build();
+        Shape rootShape = layout.createShape(new ObjectType());
+
+        // enough successors to exceed the compact transition array
+        List<Shape> successors = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Shape successor = rootShape.defineProperty("p" + i, i, 0);
+            for (Shape other : successors) {
+                assertNotSame(other, successor);
+            }
+            successors.add(successor);
+            for (int j = 0; j <= i; j++) {
+                assertSame(successors.get(j), rootShape.defineProperty("p" + j, j, 0));
+            }
+        }
+
+        int[] transitionCount = new int[1];
+        ((ShapeImpl) rootShape).forEachTransition((transition, successor) -> {
+            assertSame(rootShape, successor.getParent());
+            transitionCount[0]++;
+        });
+        assertEquals(successors.size(), transitionCount[0]);
+    }
+
+    @Test
+    public void testRacingTransitionsDeduplicated() throws Exception {
+        Layout layout = Layout.newLayout().build();
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int iteration = 0; iteration < 100; iteration++) {
+                Shape rootShape = layout.createShape(new ObjectType());
+                // existing successors select the representation of the transitions
+                List<Shape> siblings = new ArrayList<>();
+                for (int i = 0; i < iteration % 12; i++) {
+                    siblings.add(rootShape.defineProperty("s" + i, i, 0));
+                }
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Shape>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return rootShape.defineProperty("x", 1, 0);
+                    }));
+                }
+                start.countDown();
+                Shape successor = results.get(0).get();
+                for (Future<Shape> result : results) {
+                    assertSame(successor, result.get());
+                }
+                assertSame(successor, rootShape.defineProperty("x", 1, 0));
+                assertEquals(iteration % 12, siblings.size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAddTransitionReplacesSuccessor() {
+        Layout layout = Layout.newLayout().build();
+        ShapeImpl aShape = (ShapeImpl) layout.createShape(new ObjectType()).defineProperty("a", 1, 0);
+        Property a = aShape.getProperty("a");
+        ShapeImpl first = (ShapeImpl) aShape.defineProperty("b", 2, 0);
+        ShapeImpl second = (ShapeImpl) aShape.defineProperty("c", 3, 0);
+        Transition transition = new IndirectReplacePropertyTransition(a, a);
+
+        // a single transition, a transition array and a transition map
+        for (int fanOut : new int[]{0, 1, 20}) {
+            ShapeImpl rootShape = (ShapeImpl) layout.createShape(new ObjectType());
+            List<Shape> siblings = new ArrayList<>();
+            for (int i = 0; i < fanOut; i++) {
+                siblings.add(rootShape.defineProperty("p" + i, i, 0));
+            }
+            rootShape.addIndirectTransition(transition, first);
+            assertSame(first, rootShape.queryTransition(transition));
+            rootShape.addIndirectTransition(transition, second);
+            assertSame(second, rootShape.queryTransition(transition));
+
+            int[] transitionCount = new int[1];
+            rootShape.forEachTransition((t, successor) -> transitionCount[0]++);
+            assertEquals(siblings.size() + 1, transitionCount[0]);
+        }
+    }
 }
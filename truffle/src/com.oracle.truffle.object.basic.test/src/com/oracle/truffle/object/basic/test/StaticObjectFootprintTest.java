@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.object.basic.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.DynamicObjectLibrary;
+import com.oracle.truffle.api.object.Layout;
+import com.oracle.truffle.api.object.ObjectType;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.staticobject.StaticObject;
+import com.oracle.truffle.api.staticobject.StaticProperty;
+import com.oracle.truffle.api.staticobject.StaticShape;
+
+/**
+ * Compares the estimated heap footprint of static objects with the footprint of dynamic objects
+ * that hold the same properties. Sizes are estimated for a 64-bit VM with compressed references.
+ */
+public class StaticObjectFootprintTest {
+    private static final Layout LAYOUT = Layout.createLayout();
+    private static final DynamicObjectLibrary LIBRARY = DynamicObjectLibrary.getUncached();
+
+    private static final int HEADER_SIZE = 12;
+    private static final int ARRAY_HEADER_SIZE = 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int ALIGNMENT = 8;
+
+    @Test
+    public void testSingleInt() throws IllegalAccessException {
+        assertFootprint(1, 0, 0, 0, true);
+    }
+
+    @Test
+    public void testIntsAndObjects() throws IllegalAccessException {
+        assertFootprint(3, 0, 0, 2, true);
+    }
+
+    @Test
+    public void testSmallPrimitives() throws IllegalAccessException {
+        assertFootprint(0, 0, 16, 4, true);
+    }
+
+    @Test
+    public void testLongsAndObjects() throws IllegalAccessException {
+        assertFootprint(0, 8, 0, 8, false);
+    }
+
+    @Test
+    public void testManyProperties() throws IllegalAccessException {
+        assertFootprint(10, 10, 10, 20, false);
+    }
+
+    private static void assertFootprint(int ints, int longs, int bytes, int objects, boolean singleObject) throws IllegalAccessException {
+        Object value = "value";
+        StaticShape.Builder builder = StaticShape.newBuilder();
+        DynamicObject dynamicObject = LAYOUT.createShape(new ObjectType()).newInstance();
+        StaticProperty[] intProperties = addProperties(builder, "i", int.class, ints);
+        StaticProperty[] longProperties = addProperties(builder, "j", long.class, longs);
+        StaticProperty[] byteProperties = addProperties(builder, "b", byte.class, bytes);
+        StaticProperty[] objectProperties = addProperties(builder, "o", Object.class, objects);
+        StaticObject staticObject = builder.build().newInstance();
+
+        for (int k = 0; k < ints; k++) {
+            intProperties[k].setInt(staticObject, k);
+            LIBRARY.putInt(dynamicObject, "i" + k, k);
+        }
+        for (int k = 0; k < longs; k++) {
+            longProperties[k].setLong(staticObject, k);
+            LIBRARY.putLong(dynamicObject, "j" + k, k);
+        }
+        for (int k = 0; k < bytes; k++) {
+            byteProperties[k].setByte(staticObject, (byte) k);
+            LIBRARY.put(dynamicObject, "b" + k, (byte) k);
+        }
+        for (int k = 0; k < objects; k++) {
+            objectProperties[k].setObject(staticObject, value);
+            LIBRARY.put(dynamicObject, "o" + k, value);
+        }
+        for (int k = 0; k < ints; k++) {
+            assertEquals(k, intProperties[k].getInt(staticObject));
+        }
+        for (int k = 0; k < longs; k++) {
+            assertEquals(k, longProperties[k].getLong(staticObject));
+        }
+        for (int k = 0; k < bytes; k++) {
+            assertEquals(k, byteProperties[k].getByte(staticObject));
+        }
+
+        int staticBytes = footprint(staticObject);
+        int dynamicBytes = footprint(dynamicObject);
+        assertTrue("static object " + staticBytes + " bytes, dynamic object " + dynamicBytes + " bytes", staticBytes <= dynamicBytes);
+        if (singleObject) {
+            assertEquals(shallowSize(staticObject), staticBytes);
+        }
+    }
+
+    private static StaticProperty[] addProperties(StaticShape.Builder builder, String prefix, Class<?> type, int count) {
+        StaticProperty[] properties = new StaticProperty[count];
+        for (int k = 0; k < count; k++) {
+            properties[k] = new StaticProperty(prefix + k, type);
+            builder.property(properties[k]);
+        }
+        return properties;
+    }
+
+    /**
+     * Estimates the bytes occupied by an object, by the arrays referenced from its fields and by
+     * the boxed primitives stored in its fields or arrays. Shapes and other shared objects are not
+     * counted.
+     */
+    private static int footprint(Object object) throws IllegalAccessException {
+        int bytes = shallowSize(object);
+        for (Class<?> c = object.getClass(); c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Object fieldValue = field.get(object);
+                if (fieldValue != null && fieldValue.getClass().isArray()) {
+                    bytes += shallowSize(fieldValue);
+                    if (!fieldValue.getClass().getComponentType().isPrimitive()) {
+                        for (Object element : (Object[]) fieldValue) {
+                            bytes += boxSize(element);
+                        }
+                    }
+                } else {
+                    bytes += boxSize(fieldValue);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static int boxSize(Object value) {
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return shallowSize(value);
+        }
+        return 0;
+    }
+
+    private static int shallowSize(Object object) {
+        Class<?> c = object.getClass();
+        if (c.isArray()) {
+            return align(ARRAY_HEADER_SIZE + Array.getLength(object) * elementSize(c.getComponentType()));
+        }
+        int size = HEADER_SIZE;
+        for (; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += elementSize(field.getType());
+                }
+            }
+        }
+        return align(size);
+    }
+
+    private static int elementSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        } else {
+            return REFERENCE_SIZE;
+        }
+    }
+
+    private static int align(int size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -270,8 +270,7 @@ public abstract class LayoutStrategy {
         PropertyMap newPropertyMap = shape.getPropertyMap().removeCopy(property);
         ShapeImpl newShape = shape.createShape(shape.getLayout(), shape.sharedData, shape, shape.objectType, newPropertyMap, transition, shape.allocator(), shape.flags);
 
-        shape.addDirectTransition(transition, newShape);
-        return newShape;
+        return shape.addDirectTransitionIfAbsent(transition, newShape);
     }
 
     protected ShapeImpl directReplaceProperty(ShapeImpl shape, Property oldProperty, Property newProperty) {
@@ -297,7 +296,10 @@ public abstract class LayoutStrategy {
 
         assert newProperty.isSame(newShape.getProperty(newProperty.getKey())) : newShape.getProperty(newProperty.getKey());
 
-        shape.addDirectTransition(replacePropertyTransition, newShape);
+        ShapeImpl existingShape = shape.addDirectTransitionIfAbsent(replacePropertyTransition, newShape);
+        if (existingShape != newShape) {
+            return ensureValid ? ensureValid(existingShape) : existingShape;
+        }
         if (!shape.isValid()) {
             newShape.invalidateValidAssumption();
             return ensureValid ? ensureValid(newShape) : newShape;
@@ -351,7 +353,10 @@ public abstract class LayoutStrategy {
         ShapeImpl oldShape = ensureSpace(shape, property.getLocation());
 
         ShapeImpl newShape = ShapeImpl.makeShapeWithAddedProperty(oldShape, addTransition);
-        oldShape.addDirectTransition(addTransition, newShape);
+        ShapeImpl existingShape = oldShape.addDirectTransitionIfAbsent(addTransition, newShape);
+        if (existingShape != newShape) {
+            return ensureValid ? ensureValid(existingShape) : existingShape;
+        }
         if (!oldShape.isValid()) {
             newShape.invalidateValidAssumption();
             return ensureValid ? ensureValid(newShape) : newShape;
@@ -409,8 +414,7 @@ public abstract class LayoutStrategy {
 
         ShapeImpl oldShape = ensureSpace(shape, layout.getPrimitiveArrayLocation());
         ShapeImpl newShape = ShapeImpl.makeShapeWithPrimitiveExtensionArray(oldShape, transition);
-        oldShape.addDirectTransition(transition, newShape);
-        return newShape;
+        return oldShape.addDirectTransitionIfAbsent(transition, newShape);
     }
 
     /**
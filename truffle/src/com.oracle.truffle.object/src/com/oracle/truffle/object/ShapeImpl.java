@@ -141,6 +141,8 @@ public abstract class ShapeImpl extends Shape {
      * <ol>
      * <li>{@code null}: empty map
      * <li>{@link Map.Entry}: immutable single entry map
+     * <li>{@link StrongKeyWeakValueEntry}{@code []}: immutable map of up to
+     * {@link #TRANSITION_ARRAY_LIMIT} entries, replaced on every update
      * <li>{@link Map}: mutable multiple entry map
      * </ol>
      *
@@ -149,6 +151,13 @@ public abstract class ShapeImpl extends Shape {
      */
     private volatile Object transitionMap;
 
+    /**
+     * Maximum number of transitions kept in a compact entry array. Most shapes have only a few
+     * successors, for which a linear search is fast and an array is much smaller than a
+     * {@link TransitionMap}.
+     */
+    static final int TRANSITION_ARRAY_LIMIT = 8;
+
     private final Transition transitionFromParent;
 
     private volatile PropertyAssumptions sharedPropertyAssumptions;
@@ -350,20 +359,44 @@ public abstract class ShapeImpl extends Shape {
         return propertyMap;
     }
 
-    /** @since 0.17 or earlier */
+    /**
+     * Adds a direct transition, replacing any existing successor for an equal transition.
+     *
+     * @since 0.17 or earlier
+     */
     public final void addDirectTransition(Transition transition, ShapeImpl next) {
         assert next.getParent() == this && transition.isDirect();
-        addTransitionInternal(transition, next);
+        addTransitionInternal(transition, next, false);
     }
 
-    /** @since 0.17 or earlier */
+    /**
+     * Adds an indirect transition, replacing any existing successor for an equal transition.
+     *
+     * @since 0.17 or earlier
+     */
     public final void addIndirectTransition(Transition transition, ShapeImpl next) {
         assert !isShared();
         assert next.getParent() != this && !transition.isDirect();
-        addTransitionInternal(transition, next);
+        addTransitionInternal(transition, next, false);
     }
 
-    private void addTransitionInternal(Transition transition, ShapeImpl successor) {
+    /**
+     * Adds a direct transition unless another successor for an equal transition has been added
+     * concurrently, in which case that successor is returned instead, so that racing transitions
+     * do not produce duplicate shapes. Used when creating successor shapes.
+     *
+     * @return the successor shape of the transition, either {@code next} or an existing shape
+     */
+    final ShapeImpl addDirectTransitionIfAbsent(Transition transition, ShapeImpl next) {
+        assert next.getParent() == this && transition.isDirect();
+        return addTransitionInternal(transition, next, true);
+    }
+
+    /**
+     * Adds a transition to the transition map. If a live successor for an equal transition exists,
+     * it is either kept and returned ({@code ifAbsent}) or replaced.
+     */
+    private ShapeImpl addTransitionInternal(Transition transition, ShapeImpl successor, boolean ifAbsent) {
         CompilerAsserts.neverPartOfCompilation();
         Object prev;
         Object next;
@@ -376,32 +409,75 @@ public abstract class ShapeImpl extends Shape {
                 StrongKeyWeakValueEntry<Transition, ShapeImpl> entry = asSingleEntry(prev);
                 Transition exTra = entry.getKey();
                 ShapeImpl exSucc = entry.getValue();
-                if (exSucc != null) {
-                    next = newTransitionMap(exTra, exSucc, transition, successor);
+                if (exSucc != null && !exTra.equals(transition)) {
+                    next = new StrongKeyWeakValueEntry<?, ?>[]{entry, newSingleEntry(transition, successor)};
+                } else if (exSucc != null && ifAbsent) {
+                    return exSucc;
                 } else {
                     next = newSingleEntry(transition, successor);
                 }
+            } else if (isTransitionArray(prev)) {
+                StrongKeyWeakValueEntry<?, ?>[] array = asTransitionArray(prev);
+                if (ifAbsent) {
+                    ShapeImpl exSucc = queryTransitionArray(array, transition);
+                    if (exSucc != null) {
+                        return exSucc;
+                    }
+                }
+                next = addToTransitionArray(array, transition, successor);
             } else {
-                next = addToTransitionMap(transition, successor, prev);
-            }
-            if (prev == next) {
-                break;
+                assert isTransitionMap(prev);
+                Map<Transition, ShapeImpl> map = asTransitionMap(prev);
+                if (ifAbsent) {
+                    ShapeImpl exSucc = map.putIfAbsent(transition, successor);
+                    return exSucc != null ? exSucc : successor;
+                }
+                map.put(transition, successor);
+                return successor;
             }
         } while (!TRANSITION_MAP_UPDATER.compareAndSet(this, prev, next));
+        return successor;
     }
 
-    private static Object newTransitionMap(Transition firstTransition, ShapeImpl firstShape, Transition secondTransition, ShapeImpl secondShape) {
+    /**
+     * Copies the live entries of the array and appends the new transition. Entries whose successor
+     * has been garbage collected and an entry for an equal transition are dropped. If the array is
+     * full, it is replaced by a {@link TransitionMap}.
+     */
+    private static Object addToTransitionArray(StrongKeyWeakValueEntry<?, ?>[] array, Transition transition, ShapeImpl successor) {
+        StrongKeyWeakValueEntry<?, ?>[] live = new StrongKeyWeakValueEntry<?, ?>[array.length + 1];
+        ShapeImpl[] liveShapes = new ShapeImpl[array.length];
+        int count = 0;
+        for (StrongKeyWeakValueEntry<?, ?> element : array) {
+            StrongKeyWeakValueEntry<Transition, ShapeImpl> entry = asSingleEntry(element);
+            ShapeImpl shape = entry.getValue();
+            if (shape == null) {
+                shapeCacheExpunged.inc();
+            } else if (!entry.getKey().equals(transition)) {
+                liveShapes[count] = shape;
+                live[count++] = entry;
+            }
+        }
+        if (count < TRANSITION_ARRAY_LIMIT) {
+            live[count++] = newSingleEntry(transition, successor);
+            return count == live.length ? live : Arrays.copyOf(live, count);
+        }
         Map<Transition, ShapeImpl> map = newTransitionMap();
-        map.put(firstTransition, firstShape);
-        map.put(secondTransition, secondShape);
+        for (int i = 0; i < count; i++) {
+            map.put(asSingleEntry(live[i]).getKey(), liveShapes[i]);
+        }
+        map.put(transition, successor);
         return map;
     }
 
-    private static Object addToTransitionMap(Transition transition, ShapeImpl successor, Object prevMap) {
-        assert isTransitionMap(prevMap);
-        Map<Transition, ShapeImpl> map = asTransitionMap(prevMap);
-        map.put(transition, successor);
-        return map;
+    private static ShapeImpl queryTransitionArray(StrongKeyWeakValueEntry<?, ?>[] array, Transition transition) {
+        for (StrongKeyWeakValueEntry<?, ?> element : array) {
+            StrongKeyWeakValueEntry<Transition, ShapeImpl> entry = asSingleEntry(element);
+            if (entry.getKey().equals(transition)) {
+                return entry.getValue();
+            }
+        }
+        return null;
     }
 
     private static Map<Transition, ShapeImpl> newTransitionMap() {
@@ -417,7 +493,15 @@ public abstract class ShapeImpl extends Shape {
         return trans instanceof Map<?, ?>;
     }
 
-    private static Object newSingleEntry(Transition transition, ShapeImpl successor) {
+    private static boolean isTransitionArray(Object trans) {
+        return trans instanceof StrongKeyWeakValueEntry<?, ?>[];
+    }
+
+    private static StrongKeyWeakValueEntry<?, ?>[] asTransitionArray(Object trans) {
+        return (StrongKeyWeakValueEntry<?, ?>[]) trans;
+    }
+
+    private static StrongKeyWeakValueEntry<Transition, ShapeImpl> newSingleEntry(Transition transition, ShapeImpl successor) {
         return new StrongKeyWeakValueEntry<>(transition, successor);
     }
 
@@ -457,6 +541,14 @@ public abstract class ShapeImpl extends Shape {
                 Transition key = entry.getKey();
                 consumer.accept(key, shape);
             }
+        } else if (isTransitionArray(trans)) {
+            for (StrongKeyWeakValueEntry<?, ?> element : asTransitionArray(trans)) {
+                StrongKeyWeakValueEntry<Transition, ShapeImpl> entry = asSingleEntry(element);
+                ShapeImpl shape = entry.getValue();
+                if (shape != null) {
+                    consumer.accept(entry.getKey(), shape);
+                }
+            }
         } else {
             assert isTransitionMap(trans);
             Map<Transition, ShapeImpl> map = asTransitionMap(trans);
@@ -476,6 +568,8 @@ public abstract class ShapeImpl extends Shape {
             } else {
                 return null;
             }
+        } else if (isTransitionArray(trans)) {
+            return queryTransitionArray(asTransitionArray(trans), transition);
         } else {
             assert isTransitionMap(trans);
             Map<Transition, ShapeImpl> map = asTransitionMap(trans);
@@ -1067,8 +1161,7 @@ public abstract class ShapeImpl extends Shape {
         }
 
         ShapeImpl newShape = createShape(layout, sharedData, this, newObjectType, propertyMap, transition, allocator(), flags);
-        addDirectTransition(transition, newShape);
-        return newShape;
+        return addDirectTransitionIfAbsent(transition, newShape);
     }
 
     @TruffleBoundary
@@ -1087,8 +1180,7 @@ public abstract class ShapeImpl extends Shape {
 
         int newFlags = newShapeFlags | (flags & ~OBJECT_FLAGS_MASK);
         ShapeImpl newShape = createShape(layout, sharedData, this, objectType, propertyMap, transition, allocator(), newFlags);
-        addDirectTransition(transition, newShape);
-        return newShape;
+        return addDirectTransitionIfAbsent(transition, newShape);
     }
 
     /** @since 0.17 or earlier */
@@ -1174,8 +1266,7 @@ public abstract class ShapeImpl extends Shape {
         }
 
         ShapeImpl newShape = createShape(layout, sharedData, this, objectType, propertyMap, transition, allocator(), flags | FLAG_SHARED_SHAPE);
-        addDirectTransition(transition, newShape);
-        return newShape;
+        return addDirectTransitionIfAbsent(transition, newShape);
     }
 
     /** Bits available to API users. */
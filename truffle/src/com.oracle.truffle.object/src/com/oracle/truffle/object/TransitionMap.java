@@ -88,6 +88,19 @@ final class TransitionMap<K, V> implements Map<K, V> {
         }
     }
 
+    @Override
+    public V putIfAbsent(K key, V value) {
+        synchronized (queue) {
+            V existing = getValue(map.get(key));
+            if (existing != null) {
+                return existing;
+            }
+            expungeStaleEntries();
+            map.put(key, new StrongKeyWeakValueEntry<>(key, value, queue));
+            return null;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public V remove(Object key) {
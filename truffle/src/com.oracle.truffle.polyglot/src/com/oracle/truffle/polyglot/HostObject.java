@@ -41,6 +41,8 @@
 package com.oracle.truffle.polyglot;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -64,6 +66,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.ArityException;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
@@ -71,6 +74,7 @@ import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.utilities.TriState;
@@ -665,6 +669,326 @@ final class HostObject implements TruffleObject {
         return ((List<?>) obj).size();
     }
 
+    @ExportMessage
+    boolean hasBufferElements(@Shared("isBuffer") @Cached IsBufferNode isBuffer) {
+        return isBuffer.execute(this);
+    }
+
+    @ExportMessage
+    boolean isBufferWritable(@Shared("isBuffer") @Cached IsBufferNode isBuffer,
+                    @Shared("error") @Cached BranchProfile error) throws UnsupportedMessageException {
+        if (!isBuffer.execute(this)) {
+            error.enter();
+            throw UnsupportedMessageException.create();
+        }
+        return obj instanceof byte[] || !isReadOnlyBuffer((ByteBuffer) obj);
+    }
+
+    @ExportMessage
+    long getBufferSize(@Shared("isBuffer") @Cached IsBufferNode isBuffer,
+                    @Shared("error") @Cached BranchProfile error) throws UnsupportedMessageException {
+        if (!isBuffer.execute(this)) {
+            error.enter();
+            throw UnsupportedMessageException.create();
+        }
+        return getBufferLength(obj);
+    }
+
+    @ExportMessage
+    byte readBufferByte(long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Byte.BYTES, false);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            return array[getBufferArrayOffset(obj) + index];
+        }
+        return getBufferByte((ByteBuffer) obj, index);
+    }
+
+    @ExportMessage
+    void writeBufferByte(long byteOffset, byte value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Byte.BYTES, true);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            array[getBufferArrayOffset(obj) + index] = value;
+        } else {
+            putBufferByte((ByteBuffer) obj, index, value);
+        }
+    }
+
+    @ExportMessage
+    short readBufferShort(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Short.BYTES, false);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            return (short) readBytes(array, getBufferArrayOffset(obj) + index, Short.BYTES, order);
+        }
+        return getBufferShort((ByteBuffer) obj, index, order);
+    }
+
+    @ExportMessage
+    void writeBufferShort(ByteOrder order, long byteOffset, short value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Short.BYTES, true);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            writeBytes(array, getBufferArrayOffset(obj) + index, Short.BYTES, order, value);
+        } else {
+            putBufferShort((ByteBuffer) obj, index, order, value);
+        }
+    }
+
+    @ExportMessage
+    int readBufferInt(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Integer.BYTES, false);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            return (int) readBytes(array, getBufferArrayOffset(obj) + index, Integer.BYTES, order);
+        }
+        return getBufferInt((ByteBuffer) obj, index, order);
+    }
+
+    @ExportMessage
+    void writeBufferInt(ByteOrder order, long byteOffset, int value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Integer.BYTES, true);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            writeBytes(array, getBufferArrayOffset(obj) + index, Integer.BYTES, order, value);
+        } else {
+            putBufferInt((ByteBuffer) obj, index, order, value);
+        }
+    }
+
+    @ExportMessage
+    long readBufferLong(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Long.BYTES, false);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            return readBytes(array, getBufferArrayOffset(obj) + index, Long.BYTES, order);
+        }
+        return getBufferLong((ByteBuffer) obj, index, order);
+    }
+
+    @ExportMessage
+    void writeBufferLong(ByteOrder order, long byteOffset, long value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Long.BYTES, true);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            writeBytes(array, getBufferArrayOffset(obj) + index, Long.BYTES, order, value);
+        } else {
+            putBufferLong((ByteBuffer) obj, index, order, value);
+        }
+    }
+
+    @ExportMessage
+    float readBufferFloat(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Float.BYTES, false);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            return Float.intBitsToFloat((int) readBytes(array, getBufferArrayOffset(obj) + index, Float.BYTES, order));
+        }
+        return getBufferFloat((ByteBuffer) obj, index, order);
+    }
+
+    @ExportMessage
+    void writeBufferFloat(ByteOrder order, long byteOffset, float value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Float.BYTES, true);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            writeBytes(array, getBufferArrayOffset(obj) + index, Float.BYTES, order, Float.floatToRawIntBits(value));
+        } else {
+            putBufferFloat((ByteBuffer) obj, index, order, value);
+        }
+    }
+
+    @ExportMessage
+    double readBufferDouble(ByteOrder order, long byteOffset) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Double.BYTES, false);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            return Double.longBitsToDouble(readBytes(array, getBufferArrayOffset(obj) + index, Double.BYTES, order));
+        }
+        return getBufferDouble((ByteBuffer) obj, index, order);
+    }
+
+    @ExportMessage
+    void writeBufferDouble(ByteOrder order, long byteOffset, double value) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, Double.BYTES, true);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            writeBytes(array, getBufferArrayOffset(obj) + index, Double.BYTES, order, Double.doubleToRawLongBits(value));
+        } else {
+            putBufferDouble((ByteBuffer) obj, index, order, value);
+        }
+    }
+
+    @ExportMessage
+    void readBuffer(long byteOffset, byte[] destination, int destinationOffset, int length) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, length, false);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            System.arraycopy(array, getBufferArrayOffset(obj) + index, destination, destinationOffset, length);
+        } else {
+            getBufferBytes((ByteBuffer) obj, index, destination, destinationOffset, length);
+        }
+    }
+
+    @ExportMessage
+    void writeBuffer(long byteOffset, byte[] source, int sourceOffset, int length) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        int index = checkBufferAccess(byteOffset, length, true);
+        byte[] array = getBufferArray(obj);
+        if (array != null) {
+            System.arraycopy(source, sourceOffset, array, getBufferArrayOffset(obj) + index, length);
+        } else {
+            putBufferBytes((ByteBuffer) obj, index, source, sourceOffset, length);
+        }
+    }
+
+    /**
+     * Checks that the receiver is a (writable) buffer and that the {@code length} bytes at
+     * {@code byteOffset} are within its bounds and returns the byte offset as index. The buffer
+     * accessors do not use cached nodes, as every exported message with caches allocates a state
+     * bit in the uncached library, which is limited to 64 bits.
+     */
+    private int checkBufferAccess(long byteOffset, int length, boolean write) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (!isBuffer() || (write && !(obj instanceof byte[]) && isReadOnlyBuffer((ByteBuffer) obj))) {
+            throw UnsupportedMessageException.create();
+        }
+        if (length < 0 || byteOffset < 0 || byteOffset > getBufferLength(obj) - length) {
+            throw InvalidBufferOffsetException.create(byteOffset, length);
+        }
+        return (int) byteOffset;
+    }
+
+    private boolean isBuffer() {
+        return getHostClassCache().isArrayAccess() && (obj instanceof byte[] || obj instanceof ByteBuffer);
+    }
+
+    private static int getBufferLength(Object buffer) {
+        if (buffer instanceof byte[]) {
+            return ((byte[]) buffer).length;
+        }
+        return getByteBufferLimit((ByteBuffer) buffer);
+    }
+
+    @TruffleBoundary
+    private static int getByteBufferLimit(ByteBuffer buffer) {
+        return buffer.limit();
+    }
+
+    @TruffleBoundary
+    private static boolean isReadOnlyBuffer(ByteBuffer buffer) {
+        return buffer.isReadOnly();
+    }
+
+    @TruffleBoundary
+    private static byte getBufferByte(ByteBuffer buffer, int index) {
+        return buffer.get(index);
+    }
+
+    @TruffleBoundary
+    private static void putBufferByte(ByteBuffer buffer, int index, byte value) {
+        buffer.put(index, value);
+    }
+
+    @TruffleBoundary
+    private static void getBufferBytes(ByteBuffer buffer, int index, byte[] destination, int destinationOffset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(index);
+        view.get(destination, destinationOffset, length);
+    }
+
+    @TruffleBoundary
+    private static void putBufferBytes(ByteBuffer buffer, int index, byte[] source, int sourceOffset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(index);
+        view.put(source, sourceOffset, length);
+    }
+
+    /**
+     * Returns the array of a byte array or heap byte buffer, which is accessed directly, or
+     * {@code null} for other byte buffers, which are accessed through the {@link ByteBuffer} API.
+     * The {@link ByteBuffer} accessors used here are final and only read fields.
+     */
+    private static byte[] getBufferArray(Object buffer) {
+        if (buffer instanceof byte[]) {
+            return (byte[]) buffer;
+        }
+        ByteBuffer byteBuffer = (ByteBuffer) buffer;
+        return byteBuffer.hasArray() ? byteBuffer.array() : null;
+    }
+
+    private static int getBufferArrayOffset(Object buffer) {
+        return buffer instanceof byte[] ? 0 : ((ByteBuffer) buffer).arrayOffset();
+    }
+
+    @ExplodeLoop
+    private static long readBytes(byte[] array, int index, int length, ByteOrder order) {
+        boolean bigEndian = order == ByteOrder.BIG_ENDIAN;
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int shift = (bigEndian ? length - 1 - i : i) * Byte.SIZE;
+            value |= (array[index + i] & 0xFFL) << shift;
+        }
+        return value;
+    }
+
+    @ExplodeLoop
+    private static void writeBytes(byte[] array, int index, int length, ByteOrder order, long value) {
+        boolean bigEndian = order == ByteOrder.BIG_ENDIAN;
+        for (int i = 0; i < length; i++) {
+            int shift = (bigEndian ? length - 1 - i : i) * Byte.SIZE;
+            array[index + i] = (byte) (value >> shift);
+        }
+    }
+
+    @TruffleBoundary
+    private static short getBufferShort(ByteBuffer buffer, int index, ByteOrder order) {
+        short value = buffer.getShort(index);
+        return buffer.order() == order ? value : Short.reverseBytes(value);
+    }
+
+    @TruffleBoundary
+    private static void putBufferShort(ByteBuffer buffer, int index, ByteOrder order, short value) {
+        buffer.putShort(index, buffer.order() == order ? value : Short.reverseBytes(value));
+    }
+
+    @TruffleBoundary
+    private static int getBufferInt(ByteBuffer buffer, int index, ByteOrder order) {
+        int value = buffer.getInt(index);
+        return buffer.order() == order ? value : Integer.reverseBytes(value);
+    }
+
+    @TruffleBoundary
+    private static void putBufferInt(ByteBuffer buffer, int index, ByteOrder order, int value) {
+        buffer.putInt(index, buffer.order() == order ? value : Integer.reverseBytes(value));
+    }
+
+    @TruffleBoundary
+    private static long getBufferLong(ByteBuffer buffer, int index, ByteOrder order) {
+        long value = buffer.getLong(index);
+        return buffer.order() == order ? value : Long.reverseBytes(value);
+    }
+
+    @TruffleBoundary
+    private static void putBufferLong(ByteBuffer buffer, int index, ByteOrder order, long value) {
+        buffer.putLong(index, buffer.order() == order ? value : Long.reverseBytes(value));
+    }
+
+    private static float getBufferFloat(ByteBuffer buffer, int index, ByteOrder order) {
+        return Float.intBitsToFloat(getBufferInt(buffer, index, order));
+    }
+
+    private static void putBufferFloat(ByteBuffer buffer, int index, ByteOrder order, float value) {
+        putBufferInt(buffer, index, order, Float.floatToRawIntBits(value));
+    }
+
+    private static double getBufferDouble(ByteBuffer buffer, int index, ByteOrder order) {
+        return Double.longBitsToDouble(getBufferLong(buffer, index, order));
+    }
+
+    private static void putBufferDouble(ByteBuffer buffer, int index, ByteOrder order, double value) {
+        putBufferLong(buffer, index, order, Double.doubleToRawLongBits(value));
+    }
+
     @ExportMessage
     boolean isNull() {
         return obj == null;
@@ -1578,4 +1902,18 @@ final class HostObject implements TruffleObject {
         }
 
     }
+
+    @GenerateUncached
+    abstract static class IsBufferNode extends Node {
+
+        public abstract boolean execute(HostObject receiver);
+
+        @Specialization
+        public boolean doDefault(HostObject receiver,
+                        @Cached(value = "receiver.getHostClassCache().isArrayAccess()", allowUncached = true) boolean isArrayAccess) {
+            assert receiver.getHostClassCache().isArrayAccess() == isArrayAccess;
+            return isArrayAccess && (receiver.obj instanceof byte[] || receiver.obj instanceof ByteBuffer);
+        }
+
+    }
 }
@@ -183,6 +183,7 @@ final class PolyglotContextImpl extends AbstractContextImpl implements com.oracl
 
     Context creatorApi; // effectively final
     Context currentApi; // effectively final
+    Engine engineApi; // effectively final, the engine it was created with if the engine is shared
 
     final TruffleContext truffleContext;
     final PolyglotContextImpl parent;
@@ -930,7 +931,10 @@ final class PolyglotContextImpl extends AbstractContextImpl implements com.oracl
 
     @Override
     public Engine getEngineImpl(Context sourceContext) {
-        return sourceContext == creatorApi ? engine.creatorApi : engine.currentApi;
+        if (sourceContext == creatorApi) {
+            return engineApi != null ? engineApi : engine.creatorApi;
+        }
+        return engine.currentApi;
     }
 
     @Override
@@ -40,6 +40,8 @@
  */
 package com.oracle.truffle.polyglot;
 
+import java.util.NoSuchElementException;
+
 import org.graalvm.polyglot.Context;
 
 import com.oracle.truffle.api.TruffleLanguage;
@@ -156,4 +158,8 @@ final class PolyglotEngineException extends RuntimeException {
         return new PolyglotEngineException(new ArrayIndexOutOfBoundsException(message));
     }
 
+    static PolyglotEngineException noSuchElement(String message) {
+        return new PolyglotEngineException(new NoSuchElementException(message));
+    }
+
 }
@@ -157,6 +157,8 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
 
     ClassLoader contextClassLoader;     // effectively final
     boolean boundEngine;    // effectively final
+    PolyglotEngineSharing.Key sharingKey; // effectively final, null if the engine is not shared
+    final List<Engine> sharingApis = new ArrayList<>();
     Handler logHandler;     // effectively final
     final Exception createdLocation = DEBUG_MISSING_CLOSE ? new Exception() : null;
     private final EconomicSet<ContextWeakReference> contexts = EconomicSet.create(Equivalence.IDENTITY);
@@ -264,7 +266,7 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
 
         parseOptions(options, useSystemProperties, originalEngineOptions, languagesOptions, instrumentsOptions, logLevels);
 
-        boolean useAllowExperimentalOptions = allowExperimentalOptions || Boolean.parseBoolean(EngineAccessor.RUNTIME.getSavedProperty(PROP_ALLOW_EXPERIMENTAL_OPTIONS));
+        boolean useAllowExperimentalOptions = useAllowExperimentalOptions(allowExperimentalOptions);
         this.engineOptionValues.putAll(originalEngineOptions, useAllowExperimentalOptions);
         this.conservativeContextReferences = engineOptionValues.get(PolyglotEngineOptions.UseConservativeContextReferences);
 
@@ -437,7 +439,7 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
 
         assert this.logLevels.isEmpty();
         parseOptions(newOptions, newUseSystemProperties, originalEngineOptions, languagesOptions, instrumentsOptions, logLevels);
-        boolean useAllowExperimentalOptions = newAllowExperimentalOptions || Boolean.parseBoolean(EngineAccessor.RUNTIME.getSavedProperty(PROP_ALLOW_EXPERIMENTAL_OPTIONS));
+        boolean useAllowExperimentalOptions = useAllowExperimentalOptions(newAllowExperimentalOptions);
         this.engineOptionValues.putAll(originalEngineOptions, useAllowExperimentalOptions);
 
         if (this.runtimeData != null) {
@@ -500,14 +502,7 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
                     Map<String, String> originalEngineOptions,
                     Map<PolyglotLanguage, Map<String, String>> languagesOptions, Map<PolyglotInstrument, Map<String, String>> instrumentsOptions,
                     Map<String, Level> logOptions) {
-        final Map<String, String> optionsWithSystemProperties;
-        if (useSystemProperties) {
-            optionsWithSystemProperties = readOptionsFromSystemProperties();
-            // Context options override system properties options
-            optionsWithSystemProperties.putAll(options);
-        } else {
-            optionsWithSystemProperties = options;
-        }
+        final Map<String, String> optionsWithSystemProperties = withSystemProperties(options, useSystemProperties);
 
         for (String key : optionsWithSystemProperties.keySet()) {
             String group = parseOptionGroup(key);
@@ -550,6 +545,24 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
         }
     }
 
+    /**
+     * Returns the options of an engine built with {@code options}, including the options set with
+     * system properties if {@code useSystemProperties} is {@code true}.
+     */
+    static Map<String, String> withSystemProperties(Map<String, String> options, boolean useSystemProperties) {
+        if (!useSystemProperties) {
+            return options;
+        }
+        Map<String, String> optionsWithSystemProperties = readOptionsFromSystemProperties();
+        // Context options override system properties options
+        optionsWithSystemProperties.putAll(options);
+        return optionsWithSystemProperties;
+    }
+
+    static boolean useAllowExperimentalOptions(boolean allowExperimentalOptions) {
+        return allowExperimentalOptions || Boolean.parseBoolean(EngineAccessor.RUNTIME.getSavedProperty(PROP_ALLOW_EXPERIMENTAL_OPTIONS));
+    }
+
     static OptionValuesImpl getEngineOptionsWithNoEngine() {
         OptionValuesImpl optionValues = new OptionValuesImpl(null, createEngineOptionDescriptors(), true);
         Map<String, String> options = readOptionsFromSystemProperties();
@@ -951,7 +964,18 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
     @Override
     public void close(Engine sourceEngine, boolean cancelIfExecuting) {
         try {
-            if (sourceEngine != creatorApi) {
+            if (sharingKey != null) {
+                PolyglotEngineSharing sharing = impl.getEngineSharing();
+                if (!sharing.isOpen(this, sourceEngine)) {
+                    // already closed
+                    return;
+                }
+                closeSharingContexts(sourceEngine, cancelIfExecuting);
+                if (!sharing.release(this, sourceEngine)) {
+                    // other engines still share this engine
+                    return;
+                }
+            } else if (sourceEngine != creatorApi) {
                 throw PolyglotEngineException.illegalState("Engine instances that were indirectly received using Context.get() cannot be closed.");
             }
             ensureClosed(cancelIfExecuting, true);
@@ -960,6 +984,58 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
         }
     }
 
+    /**
+     * Closes the contexts created with {@code sourceEngine}, one of the engines sharing this
+     * engine, without closing this engine.
+     */
+    private synchronized void closeSharingContexts(Engine sourceEngine, boolean cancelIfExecuting) {
+        if (closed) {
+            return;
+        }
+        workContextReferenceQueue();
+        List<PolyglotContextImpl> localContexts = new ArrayList<>();
+        for (PolyglotContextImpl context : collectAliveContexts()) {
+            if (context.engineApi == sourceEngine) {
+                localContexts.add(context);
+            }
+        }
+        closeContexts(localContexts, cancelIfExecuting);
+        for (PolyglotContextImpl context : localContexts) {
+            PolyglotContextImpl.disposeStaticContext(context);
+        }
+    }
+
+    private void closeContexts(List<PolyglotContextImpl> localContexts, boolean cancelIfExecuting) {
+        assert Thread.holdsLock(this);
+        /*
+         * Check ahead of time for open contexts to fail early and avoid closing only some
+         * contexts.
+         */
+        if (!cancelIfExecuting) {
+            for (PolyglotContextImpl context : localContexts) {
+                assert !Thread.holdsLock(context);
+                synchronized (context) {
+                    if (context.hasActiveOtherThread(false) && context.closingThread == null) {
+                        throw PolyglotEngineException.illegalState(String.format("One of the context instances is currently executing. " +
+                                        "Set cancelIfExecuting to true to stop the execution on this thread."));
+                    }
+                }
+            }
+        }
+        for (PolyglotContextImpl context : localContexts) {
+            assert !Thread.holdsLock(context);
+            boolean closeCompleted = context.closeImpl(cancelIfExecuting, cancelIfExecuting, true);
+            if (!closeCompleted && !cancelIfExecuting) {
+                throw PolyglotEngineException.illegalState(String.format("One of the context instances is currently executing. " +
+                                "Set cancelIfExecuting to true to stop the execution on this thread."));
+            }
+            context.checkSubProcessFinished();
+        }
+        if (cancelIfExecuting) {
+            getCancelHandler().cancel(localContexts);
+        }
+    }
+
     @TruffleBoundary
     <T extends TruffleLanguage<?>> PolyglotLanguage getLanguage(Class<T> languageClass, boolean fail) {
         PolyglotLanguage foundLanguage = classToLanguage.get(languageClass.getName());
@@ -993,34 +1069,8 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
         if (!closed) {
             workContextReferenceQueue();
             List<PolyglotContextImpl> localContexts = collectAliveContexts();
-            /*
-             * Check ahead of time for open contexts to fail early and avoid closing only some
-             * contexts.
-             */
             if (closeContexts) {
-                if (!cancelIfExecuting) {
-                    for (PolyglotContextImpl context : localContexts) {
-                        assert !Thread.holdsLock(context);
-                        synchronized (context) {
-                            if (context.hasActiveOtherThread(false) && context.closingThread == null) {
-                                throw PolyglotEngineException.illegalState(String.format("One of the context instances is currently executing. " +
-                                                "Set cancelIfExecuting to true to stop the execution on this thread."));
-                            }
-                        }
-                    }
-                }
-                for (PolyglotContextImpl context : localContexts) {
-                    assert !Thread.holdsLock(context);
-                    boolean closeCompleted = context.closeImpl(cancelIfExecuting, cancelIfExecuting, true);
-                    if (!closeCompleted && !cancelIfExecuting) {
-                        throw PolyglotEngineException.illegalState(String.format("One of the context instances is currently executing. " +
-                                        "Set cancelIfExecuting to true to stop the execution on this thread."));
-                    }
-                    context.checkSubProcessFinished();
-                }
-                if (cancelIfExecuting) {
-                    getCancelHandler().cancel(localContexts);
-                }
+                closeContexts(localContexts, cancelIfExecuting);
             }
 
             if (!boundEngine && closeContexts) {
@@ -1414,7 +1464,7 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
 
     @Override
     @SuppressWarnings({"all"})
-    public Context createContext(OutputStream configOut, OutputStream configErr, InputStream configIn, boolean allowHostLookup,
+    public Context createContext(Engine sourceEngine, OutputStream configOut, OutputStream configErr, InputStream configIn, boolean allowHostLookup,
                     HostAccess hostAccess,
                     PolyglotAccess polyglotAccess, boolean allowNativeAccess, boolean allowCreateThread, boolean allowHostIO,
                     boolean allowHostClassLoading, boolean allowExperimentalOptions, Predicate<String> classFilter, Map<String, String> options,
@@ -1506,6 +1556,9 @@ final class PolyglotEngineImpl extends AbstractPolyglotImpl.AbstractEngineImpl i
                 synchronized (this) {
                     checkState();
                     context = new PolyglotContextImpl(this, config);
+                    if (sharingKey != null) {
+                        context.engineApi = sourceEngine;
+                    }
                     addContext(context);
                 }
             } else if (context.engine == this) {
@@ -50,6 +50,7 @@ import com.oracle.truffle.api.Option;
 final class PolyglotEngineOptions {
     static final String PREINITIALIZE_CONTEXT_NAME = "PreinitializeContexts";
     private static final String INSTRUMENT_EXCEPTIONS_ARE_THROWN_NAME = "InstrumentExceptionsAreThrown";
+    static final String CROSS_ENGINE_SHARING_NAME = "CrossEngineSharing";
 
     @Option(name = PREINITIALIZE_CONTEXT_NAME, category = OptionCategory.EXPERT, deprecated = true, help = "Preinitialize language contexts for given languages.")//
     static final OptionKey<String> PreinitializeContexts = new OptionKey<>("");
@@ -74,4 +75,9 @@ final class PolyglotEngineOptions {
                     "Enabling this flag and the compiler option has major implications on the performance and footprint of the interpreter." + //
                     "Do not use in production environments.")//
     static final OptionKey<Boolean> SpecializationStatistics = new OptionKey<>(false);
+
+    @Option(name = CROSS_ENGINE_SHARING_NAME, category = OptionCategory.EXPERT, stability = OptionStability.EXPERIMENTAL, help = "Shares one engine, including its parsed sources and compiled code, " +
+                    "between all engines built with identical options and the default streams. Contexts of these engines keep separate state, " +
+                    "but instruments, loggers and engine options are shared, so only share engines of the same tenant.")//
+    static final OptionKey<Boolean> CrossEngineSharing = new OptionKey<>(false);
 }
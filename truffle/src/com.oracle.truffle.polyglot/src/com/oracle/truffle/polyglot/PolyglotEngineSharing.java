@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.polyglot;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.graalvm.polyglot.Engine;
+
+/**
+ * Shares a single engine between identically configured engines that opt in with
+ * {@link PolyglotEngineOptions#CrossEngineSharing engine.CrossEngineSharing}. Contexts of all
+ * engines that share an engine implementation use the same language instances, so call targets
+ * parsed from identical sources are shared through the {@link PolyglotSourceCache source cache}
+ * together with their compiled code, while each context keeps its own language contexts and
+ * context thread locals.
+ *
+ * Engines are only shared if they were built with the same options, including options set with
+ * system properties, the default streams and neither a custom log handler nor a message transport.
+ * <p>
+ * Sharing gives up isolation between the engines. Besides the caches, they share the instruments
+ * and their state, the loggers and the engine options, so an instrument enabled or a logger
+ * configured through one engine also applies to the contexts of every other engine that shares
+ * it. Sharing is therefore opt-in and only suitable for engines of the same tenant. Closing one of the engines closes the
+ * contexts created with it, and the shared engine is closed once every engine it was handed out for
+ * has been closed. Shared engines and their context class loaders are only weakly referenced, so
+ * that engines that are never closed can still be collected.
+ */
+final class PolyglotEngineSharing {
+
+    private final Map<Key, WeakReference<PolyglotEngineImpl>> engines = new HashMap<>();
+
+    /**
+     * Determines if an engine built with the given configuration can be shared. The
+     * {@code options} must include the options set with system properties, if the engine uses
+     * them.
+     */
+    static boolean isShareable(OutputStream out, OutputStream err, InputStream in, Map<String, String> options, boolean allowExperimentalOptions, boolean boundEngine,
+                    Object logHandlerOrStream, Object messageInterceptor) {
+        return !boundEngine && (out == null || out == System.out) && (err == null || err == System.err) && (in == null || in == System.in) &&
+                        logHandlerOrStream == null && messageInterceptor == null && isSharingEnabled(options, allowExperimentalOptions);
+    }
+
+    /**
+     * Parses {@link PolyglotEngineOptions#CrossEngineSharing} like the engine parses its options,
+     * so that invalid values and missing permission for experimental options are reported the
+     * same way.
+     */
+    private static boolean isSharingEnabled(Map<String, String> options, boolean allowExperimentalOptions) {
+        String key = PolyglotEngineImpl.OPTION_GROUP_ENGINE + "." + PolyglotEngineOptions.CROSS_ENGINE_SHARING_NAME;
+        String value = options.get(key);
+        if (value == null) {
+            return false;
+        }
+        OptionValuesImpl optionValues = new OptionValuesImpl(null, new PolyglotEngineOptionsOptionDescriptors(), false);
+        optionValues.put(key, value, PolyglotEngineImpl.useAllowExperimentalOptions(allowExperimentalOptions));
+        return optionValues.get(PolyglotEngineOptions.CrossEngineSharing);
+    }
+
+    /**
+     * Returns a new API engine for a live engine shared under {@code key} or {@code null} if there
+     * is none.
+     */
+    synchronized Engine acquire(Key key) {
+        PolyglotEngineImpl engine = get(key);
+        if (engine == null || engine.closed) {
+            engines.remove(key);
+            return null;
+        }
+        Engine api = engine.impl.getAPIAccess().newEngine(engine);
+        engine.sharingApis.add(api);
+        return api;
+    }
+
+    /**
+     * Makes a newly created engine available for sharing under {@code key}, unless another engine
+     * was registered concurrently.
+     */
+    synchronized void register(Key key, PolyglotEngineImpl engine) {
+        engines.values().removeIf((ref) -> ref.get() == null);
+        PolyglotEngineImpl previous = get(key);
+        if (previous == null || previous.closed) {
+            engines.put(key, new WeakReference<>(engine));
+            engine.sharingKey = key;
+            engine.sharingApis.add(engine.creatorApi);
+        }
+    }
+
+    /**
+     * Returns {@code true} if {@code api} was handed out for the shared {@code engine} and was not
+     * released yet.
+     */
+    synchronized boolean isOpen(PolyglotEngineImpl engine, Engine api) {
+        if (api == engine.currentApi) {
+            throw PolyglotEngineException.illegalState("Engine instances that were indirectly received using Context.get() cannot be closed.");
+        }
+        return engine.sharingApis.contains(api);
+    }
+
+    /**
+     * Releases the shared {@code engine} for {@code api} and returns {@code true} if it was the
+     * last engine it was handed out for and the shared engine needs to be closed. Releasing an
+     * engine more than once has no effect.
+     */
+    synchronized boolean release(PolyglotEngineImpl engine, Engine api) {
+        if (!engine.sharingApis.remove(api) || !engine.sharingApis.isEmpty()) {
+            return false;
+        }
+        if (get(engine.sharingKey) == engine) {
+            engines.remove(engine.sharingKey);
+        }
+        return true;
+    }
+
+    private PolyglotEngineImpl get(Key key) {
+        WeakReference<PolyglotEngineImpl> ref = engines.get(key);
+        return ref != null ? ref.get() : null;
+    }
+
+    static final class Key {
+
+        private final Map<String, String> options;
+        private final boolean allowExperimentalOptions;
+        private final boolean useSystemProperties;
+        private final WeakReference<ClassLoader> contextClassLoader; // null if there is none
+        private final int hashCode;
+
+        Key(Map<String, String> options, boolean allowExperimentalOptions, boolean useSystemProperties, ClassLoader contextClassLoader) {
+            this.options = new HashMap<>(options);
+            this.allowExperimentalOptions = allowExperimentalOptions;
+            this.useSystemProperties = useSystemProperties;
+            this.contextClassLoader = contextClassLoader != null ? new WeakReference<>(contextClassLoader) : null;
+            this.hashCode = Objects.hash(options, allowExperimentalOptions, useSystemProperties, System.identityHashCode(contextClassLoader));
+        }
+
+        private boolean sameContextClassLoader(Key other) {
+            if (contextClassLoader == null || other.contextClassLoader == null) {
+                return contextClassLoader == other.contextClassLoader;
+            }
+            ClassLoader loader = contextClassLoader.get();
+            // a collected class loader matches no other key
+            return loader != null && loader == other.contextClassLoader.get();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this == other || (options.equals(other.options) && allowExperimentalOptions == other.allowExperimentalOptions && useSystemProperties == other.useSystemProperties &&
+                            sameContextClassLoader(other));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
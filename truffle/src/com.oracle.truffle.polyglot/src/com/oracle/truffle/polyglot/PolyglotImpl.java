@@ -96,6 +96,7 @@ public final class PolyglotImpl extends AbstractPolyglotImpl {
     private final PolyglotSourceSection sourceSectionImpl = new PolyglotSourceSection(this);
     private final PolyglotManagement executionListenerImpl = new PolyglotManagement(this);
     private final AtomicReference<PolyglotEngineImpl> preInitializedEngineRef = new AtomicReference<>();
+    private final PolyglotEngineSharing engineSharing = new PolyglotEngineSharing();
 
     final Map<Class<?>, PolyglotValue> primitiveValues = new HashMap<>();
     Value hostNull; // effectively final
@@ -192,6 +193,16 @@ public final class PolyglotImpl extends AbstractPolyglotImpl {
             if (TruffleOptions.AOT) {
                 EngineAccessor.ACCESSOR.initializeNativeImageTruffleLocator();
             }
+            ClassLoader contextClassLoader = TruffleOptions.AOT ? null : Thread.currentThread().getContextClassLoader();
+            PolyglotEngineSharing.Key sharingKey = null;
+            Map<String, String> optionsWithSystemProperties = PolyglotEngineImpl.withSystemProperties(options, useSystemProperties);
+            if (PolyglotEngineSharing.isShareable(out, err, in, optionsWithSystemProperties, allowExperimentalOptions, boundEngine, logHandlerOrStream, messageInterceptor)) {
+                sharingKey = new PolyglotEngineSharing.Key(optionsWithSystemProperties, allowExperimentalOptions, useSystemProperties, contextClassLoader);
+                Engine shared = engineSharing.acquire(sharingKey);
+                if (shared != null) {
+                    return shared;
+                }
+            }
             OutputStream resolvedOut = out == null ? System.out : out;
             OutputStream resolvedErr = err == null ? System.err : err;
             InputStream resolvedIn = in == null ? System.in : in;
@@ -199,7 +210,6 @@ public final class PolyglotImpl extends AbstractPolyglotImpl {
             DispatchOutputStream dispatchErr = INSTRUMENT.createDispatchOutput(resolvedErr);
             Handler logHandler = PolyglotLoggers.asHandler(logHandlerOrStream);
             logHandler = logHandler != null ? logHandler : PolyglotLoggers.createDefaultHandler(resolvedErr);
-            ClassLoader contextClassLoader = TruffleOptions.AOT ? null : Thread.currentThread().getContextClassLoader();
 
             impl = boundEngine ? preInitializedEngineRef.getAndSet(null) : null;
             if (impl != null) {
@@ -215,6 +225,9 @@ public final class PolyglotImpl extends AbstractPolyglotImpl {
             Engine engine = getAPIAccess().newEngine(impl);
             impl.creatorApi = engine;
             impl.currentApi = getAPIAccess().newEngine(impl);
+            if (sharingKey != null) {
+                engineSharing.register(sharingKey, impl);
+            }
 
             return engine;
         } catch (Throwable t) {
@@ -226,6 +239,10 @@ public final class PolyglotImpl extends AbstractPolyglotImpl {
         }
     }
 
+    PolyglotEngineSharing getEngineSharing() {
+        return engineSharing;
+    }
+
     /**
      * Pre-initializes a polyglot engine instance.
      */
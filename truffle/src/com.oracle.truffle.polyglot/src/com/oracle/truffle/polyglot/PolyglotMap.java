@@ -45,6 +45,7 @@ import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 import java.lang.reflect.Type;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -60,8 +61,10 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.StopIterationException;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnknownKeyException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
@@ -69,6 +72,7 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.polyglot.PolyglotLanguageContext.ToGuestValueNode;
 import com.oracle.truffle.polyglot.PolyglotMapFactory.CacheFactory.ContainsKeyNodeGen;
 import com.oracle.truffle.polyglot.PolyglotMapFactory.CacheFactory.EntrySetNodeGen;
+import com.oracle.truffle.polyglot.PolyglotMapFactory.CacheFactory.HashEntriesNextNodeGen;
 import com.oracle.truffle.polyglot.PolyglotMapFactory.CacheFactory.PutNodeGen;
 import com.oracle.truffle.polyglot.PolyglotMapFactory.CacheFactory.RemoveBooleanNodeGen;
 import com.oracle.truffle.polyglot.PolyglotMapFactory.CacheFactory.RemoveNodeGen;
@@ -160,6 +164,16 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
         }
     }
 
+    private boolean containsEntry(Object o) {
+        if (o instanceof Entry) {
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Object key = e.getKey();
+            return containsKey(key) && Objects.equals(get(key), e.getValue());
+        } else {
+            return false;
+        }
+    }
+
     @TruffleBoundary
     private static int intValue(Object key) {
         return ((Number) key).intValue();
@@ -196,7 +210,7 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
 
         @Override
         public boolean contains(Object o) {
-            return containsKey(o);
+            return containsEntry(o);
         }
 
         @Override
@@ -325,6 +339,125 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
         }
     }
 
+    private final class HashEntries extends AbstractSet<Entry<K, V>> {
+
+        private final int size;
+
+        HashEntries(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new HashEntriesIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsEntry(o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (o instanceof Entry) {
+                Entry<Object, Object> e = (Entry<Object, Object>) o;
+                return (boolean) cache.removeBoolean.call(languageContext, guestObject, e.getKey(), e.getValue());
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Streams the entries of a guest hash through its entries iterator. Keys are converted to host
+     * values one at a time, values are read lazily by the returned entries.
+     * <p>
+     * The guest entries iterator must not be advanced after the hash was modified, as the guest
+     * language may report a concurrent modification. Therefore the first {@link #remove()} drains
+     * the remaining keys from the guest iterator before it removes the current entry. The
+     * iteration then continues on these keys.
+     */
+    private final class HashEntriesIterator implements Iterator<Entry<K, V>> {
+
+        private final HashCursor cursor = new HashCursor();
+        private boolean fetched;
+        private boolean hasNextEntry;
+        private Object currentKey;
+        private boolean hasCurrentEntry;
+        /** Keys not yet returned, drained from the guest iterator on the first removal. */
+        private List<Object> remainingKeys;
+        private int remainingIndex;
+
+        @Override
+        public boolean hasNext() {
+            if (remainingKeys != null) {
+                return remainingIndex < remainingKeys.size();
+            }
+            if (!fetched) {
+                hasNextEntry = (boolean) cache.hashEntriesNext.call(languageContext, guestObject, cursor);
+                fetched = true;
+            }
+            return hasNextEntry;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Entry<K, V> next() {
+            if (hasNext()) {
+                if (remainingKeys != null) {
+                    currentKey = remainingKeys.get(remainingIndex++);
+                } else {
+                    fetched = false;
+                    currentKey = cursor.key;
+                }
+                hasCurrentEntry = true;
+                return new EntryImpl((K) currentKey);
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (hasCurrentEntry) {
+                if (remainingKeys == null) {
+                    drainRemainingKeys();
+                }
+                cache.remove.call(languageContext, guestObject, currentKey);
+                hasCurrentEntry = false;
+            } else {
+                throw new IllegalStateException("No current entry.");
+            }
+        }
+
+        private void drainRemainingKeys() {
+            List<Object> keys = new ArrayList<>();
+            while (hasNext()) {
+                keys.add(cursor.key);
+                fetched = false;
+            }
+            remainingKeys = keys;
+            remainingIndex = 0;
+        }
+    }
+
+    /**
+     * Iteration state shared between {@link HashEntriesIterator} and the guest code advancing it.
+     */
+    static final class HashCursor {
+
+        /** The guest entries iterator, created on the first advance. */
+        Object iterator;
+        /** The host key of the last fetched entry. */
+        Object key;
+    }
+
     private final class EntryImpl implements Entry<K, V> {
         private final K key;
 
@@ -364,6 +497,7 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
         final boolean numberKey;
 
         final CallTarget entrySet;
+        final CallTarget hashEntriesNext;
         final CallTarget get;
         final CallTarget put;
         final CallTarget remove;
@@ -381,6 +515,7 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
             this.get = initializeCall(PolyglotMapFactory.CacheFactory.GetNodeGen.create(this));
             this.containsKey = initializeCall(ContainsKeyNodeGen.create(this));
             this.entrySet = initializeCall(EntrySetNodeGen.create(this));
+            this.hashEntriesNext = initializeCall(HashEntriesNextNodeGen.create(this));
             this.put = initializeCall(PutNodeGen.create(this));
             this.remove = initializeCall(RemoveNodeGen.create(this));
             this.removeBoolean = initializeCall(RemoveBooleanNodeGen.create(this));
@@ -464,6 +599,10 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
                 return cache.numberKey && cache.keyClass.isInstance(key) && key instanceof Number;
             }
 
+            protected final boolean isHashKey(Object key) {
+                return key == null || cache.keyClass.isInstance(key);
+            }
+
             protected abstract String getOperationName();
 
         }
@@ -477,9 +616,14 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
             @Specialization(limit = "LIMIT")
             @SuppressWarnings("unused")
             protected Object doCached(PolyglotLanguageContext languageContext, Object receiver, Object[] args,
-                            @CachedLibrary("receiver") InteropLibrary interop) {
+                            @CachedLibrary("receiver") InteropLibrary interop,
+                            @Cached ToGuestValueNode toGuest) {
                 Object key = args[ARGUMENT_OFFSET];
-                if (cache.memberKey && interop.hasMembers(receiver)) {
+                if (interop.hasHashEntries(receiver)) {
+                    if (isHashKey(key)) {
+                        return interop.isHashEntryReadable(receiver, toGuest.execute(languageContext, key));
+                    }
+                } else if (cache.memberKey && interop.hasMembers(receiver)) {
                     if (isObjectKey(key)) {
                         return interop.isMemberReadable(receiver, ((String) key));
                     }
@@ -516,7 +660,16 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
                 long elemSize = 0;
                 PolyglotMap<Object, Object> originalMap = (PolyglotMap<Object, Object>) args[ARGUMENT_OFFSET];
 
-                if (cache.memberKey && interop.hasMembers(receiver)) {
+                if (interop.hasHashEntries(receiver)) {
+                    long hashSize;
+                    try {
+                        hashSize = interop.getHashSize(receiver);
+                    } catch (UnsupportedMessageException e) {
+                        error.enter();
+                        hashSize = 0;
+                    }
+                    return originalMap.new HashEntries((int) hashSize);
+                } else if (cache.memberKey && interop.hasMembers(receiver)) {
                     Object truffleKeys;
                     try {
                         truffleKeys = interop.getMembers(receiver);
@@ -544,6 +697,49 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
 
         }
 
+        abstract static class HashEntriesNext extends PolyglotMapNode {
+
+            HashEntriesNext(Cache cache) {
+                super(cache);
+            }
+
+            @Specialization(limit = "LIMIT")
+            protected Object doCached(PolyglotLanguageContext languageContext, Object receiver, Object[] args,
+                            @CachedLibrary("receiver") InteropLibrary interop,
+                            @CachedLibrary(limit = "LIMIT") InteropLibrary iterators,
+                            @CachedLibrary(limit = "LIMIT") InteropLibrary entries,
+                            @Cached ToHostNode toHost,
+                            @Cached BranchProfile error) {
+                HashCursor cursor = (HashCursor) args[ARGUMENT_OFFSET];
+                try {
+                    Object iterator = cursor.iterator;
+                    if (iterator == null) {
+                        iterator = interop.getHashEntriesIterator(receiver);
+                        cursor.iterator = iterator;
+                    }
+                    if (!iterators.hasIteratorNextElement(iterator)) {
+                        return false;
+                    }
+                    Object entry = iterators.getIteratorNextElement(iterator);
+                    Object key = entries.readArrayElement(entry, 0);
+                    cursor.key = toHost.execute(key, cache.keyClass, cache.keyClass, languageContext, true);
+                    return true;
+                } catch (StopIterationException e) {
+                    error.enter();
+                    return false;
+                } catch (UnsupportedMessageException | InvalidArrayIndexException e) {
+                    error.enter();
+                    throw HostInteropErrors.mapUnsupported(languageContext, receiver, cache.keyClass, cache.valueType, "iterator");
+                }
+            }
+
+            @Override
+            protected String getOperationName() {
+                return "hashEntriesNext";
+            }
+
+        }
+
         abstract static class GetNode extends PolyglotMapNode {
 
             GetNode(Cache cache) {
@@ -559,12 +755,19 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
             @SuppressWarnings("unused")
             protected Object doCached(PolyglotLanguageContext languageContext, Object receiver, Object[] args,
                             @CachedLibrary("receiver") InteropLibrary interop,
+                            @Cached ToGuestValueNode toGuest,
                             @Cached ToHostNode toHost,
                             @Cached BranchProfile error) {
                 Object key = args[ARGUMENT_OFFSET];
                 Object result;
                 try {
-                    if (cache.memberKey && interop.hasMembers(receiver)) {
+                    if (interop.hasHashEntries(receiver)) {
+                        if (isHashKey(key)) {
+                            result = interop.readHashValue(receiver, toGuest.execute(languageContext, key));
+                        } else {
+                            return null;
+                        }
+                    } else if (cache.memberKey && interop.hasMembers(receiver)) {
                         if (isObjectKey(key)) {
                             result = interop.readMember(receiver, ((String) key));
                         } else {
@@ -579,7 +782,7 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
                     } else {
                         return null;
                     }
-                } catch (UnknownIdentifierException | InvalidArrayIndexException | UnsupportedMessageException e) {
+                } catch (UnknownIdentifierException | UnknownKeyException | InvalidArrayIndexException | UnsupportedMessageException e) {
                     error.enter();
                     return null;
                 }
@@ -607,7 +810,12 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
                 Object key = args[ARGUMENT_OFFSET];
                 Object guestValue = toGuest.execute(languageContext, args[ARGUMENT_OFFSET + 1]);
                 try {
-                    if (cache.memberKey && interop.hasMembers(receiver)) {
+                    if (interop.hasHashEntries(receiver)) {
+                        if (isHashKey(key)) {
+                            interop.writeHashEntry(receiver, toGuest.execute(languageContext, key), guestValue);
+                            return null;
+                        }
+                    } else if (cache.memberKey && interop.hasMembers(receiver)) {
                         if (isObjectKey(key)) {
                             interop.writeMember(receiver, ((String) key), guestValue);
                             return null;
@@ -624,7 +832,7 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
                     } else {
                         throw HostInteropErrors.invalidMapIdentifier(languageContext, receiver, cache.keyClass, cache.valueType, key);
                     }
-                } catch (UnknownIdentifierException | InvalidArrayIndexException | UnsupportedMessageException | UnsupportedTypeException e) {
+                } catch (UnknownIdentifierException | UnknownKeyException | InvalidArrayIndexException | UnsupportedMessageException | UnsupportedTypeException e) {
                     error.enter();
                     throw error(languageContext, receiver, e, cache, key, guestValue);
                 }
@@ -632,7 +840,7 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
 
             @TruffleBoundary
             static RuntimeException error(PolyglotLanguageContext languageContext, Object receiver, InteropException e, Cache cache, Object key, Object guestValue) {
-                if (e instanceof UnknownIdentifierException || e instanceof InvalidArrayIndexException) {
+                if (e instanceof UnknownIdentifierException || e instanceof UnknownKeyException || e instanceof InvalidArrayIndexException) {
                     throw HostInteropErrors.invalidMapIdentifier(languageContext, receiver, cache.keyClass, cache.valueType, key);
                 } else if (e instanceof UnsupportedMessageException) {
                     throw HostInteropErrors.mapUnsupported(languageContext, receiver, cache.keyClass, cache.valueType, "put");
@@ -659,10 +867,16 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
             @SuppressWarnings("unused")
             protected Object doCached(PolyglotLanguageContext languageContext, Object receiver, Object[] args,
                             @CachedLibrary("receiver") InteropLibrary interop,
+                            @Cached ToGuestValueNode toGuest,
                             @Cached BranchProfile error) {
                 Object key = args[ARGUMENT_OFFSET];
                 try {
-                    if (cache.memberKey && interop.hasMembers(receiver)) {
+                    if (interop.hasHashEntries(receiver)) {
+                        if (isHashKey(key)) {
+                            interop.removeHashEntry(receiver, toGuest.execute(languageContext, key));
+                            return null;
+                        }
+                    } else if (cache.memberKey && interop.hasMembers(receiver)) {
                         if (isObjectKey(key)) {
                             interop.removeMember(receiver, ((String) key));
                             return null;
@@ -680,7 +894,7 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
                     } else {
                         return null;
                     }
-                } catch (UnknownIdentifierException | InvalidArrayIndexException e) {
+                } catch (UnknownIdentifierException | UnknownKeyException | InvalidArrayIndexException e) {
                     error.enter();
                     return null;
                 } catch (UnsupportedMessageException e) {
@@ -706,11 +920,22 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
             @SuppressWarnings("unused")
             protected Object doCached(PolyglotLanguageContext languageContext, Object receiver, Object[] args,
                             @CachedLibrary("receiver") InteropLibrary interop,
+                            @Cached ToGuestValueNode toGuest,
                             @Cached BranchProfile error) {
                 Object key = args[ARGUMENT_OFFSET];
                 Object expectedValue = args[ARGUMENT_OFFSET + 1];
                 try {
-                    if (cache.memberKey && interop.hasMembers(receiver)) {
+                    if (interop.hasHashEntries(receiver)) {
+                        if (isHashKey(key)) {
+                            Object guestKey = toGuest.execute(languageContext, key);
+                            Object readValue = interop.readHashValue(receiver, guestKey);
+                            if (!equalsBoundary(expectedValue, readValue)) {
+                                return false;
+                            }
+                            interop.removeHashEntry(receiver, guestKey);
+                            return true;
+                        }
+                    } else if (cache.memberKey && interop.hasMembers(receiver)) {
                         if (isObjectKey(key)) {
                             String member = (String) key;
                             Object readValue = interop.readMember(receiver, member);
@@ -737,7 +962,7 @@ class PolyglotMap<K, V> extends AbstractMap<K, V> implements HostWrapper {
                     } else {
                         return false;
                     }
-                } catch (UnknownIdentifierException | InvalidArrayIndexException e) {
+                } catch (UnknownIdentifierException | UnknownKeyException | InvalidArrayIndexException e) {
                     error.enter();
                     return false;
                 } catch (UnsupportedMessageException e) {
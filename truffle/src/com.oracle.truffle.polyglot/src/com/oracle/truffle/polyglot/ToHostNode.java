@@ -279,7 +279,7 @@ abstract class ToHostNode extends Node {
             } else if (targetType == List.class) {
                 return interop.hasArrayElements(value);
             } else if (targetType == Map.class) {
-                return interop.hasMembers(value);
+                return interop.hasMembers(value) || interop.hasHashEntries(value);
             } else if (targetType.isArray()) {
                 return interop.hasArrayElements(value);
             } else if (targetType == LocalDate.class) {
@@ -355,7 +355,7 @@ abstract class ToHostNode extends Node {
                     return result;
                 }
                 // fallthrough
-            } else if (interop.hasMembers(value)) {
+            } else if (interop.hasHashEntries(value) || interop.hasMembers(value)) {
                 return asJavaObject(value, Map.class, null, false, languageContext);
             } else if (interop.hasArrayElements(value)) {
                 return asJavaObject(value, List.class, null, false, languageContext);
@@ -415,12 +415,13 @@ abstract class ToHostNode extends Node {
         } else if (targetType == Map.class) {
             Class<?> keyClazz = getGenericParameterType(genericType, 0).clazz;
             TypeAndClass<?> valueType = getGenericParameterType(genericType, 1);
-            if (!isSupportedMapKeyType(keyClazz)) {
+            boolean hasHash = interop.hasHashEntries(value);
+            if (!hasHash && !isSupportedMapKeyType(keyClazz)) {
                 throw newInvalidKeyTypeException(keyClazz);
             }
             boolean hasSize = (Number.class.isAssignableFrom(keyClazz)) && interop.hasArrayElements(value);
             boolean hasKeys = (keyClazz == Object.class || keyClazz == String.class) && interop.hasMembers(value);
-            if (hasKeys || hasSize) {
+            if (hasHash || hasKeys || hasSize) {
                 boolean implementsFunction = shouldImplementFunction(value, interop);
                 obj = PolyglotMap.create(languageContext, value, implementsFunction, keyClazz, valueType.clazz, valueType.type);
             } else {
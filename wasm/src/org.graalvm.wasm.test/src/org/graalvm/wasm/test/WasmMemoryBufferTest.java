@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.graalvm.wasm.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteOrder;
+
+import org.graalvm.wasm.memory.UnsafeWasmMemory;
+import org.graalvm.wasm.memory.WasmMemory;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
+
+public class WasmMemoryBufferTest {
+
+    private static final int PAGE_SIZE = 1 << 16;
+
+    private WasmMemory memory;
+    private InteropLibrary interop;
+
+    @Before
+    public void setup() {
+        memory = new UnsafeWasmMemory(1, 1);
+        interop = InteropLibrary.getUncached(memory);
+    }
+
+    @Test
+    public void testBufferSize() throws InteropException {
+        assertTrue(interop.hasBufferElements(memory));
+        assertTrue(interop.isBufferWritable(memory));
+        assertEquals(PAGE_SIZE, interop.getBufferSize(memory));
+    }
+
+    @Test
+    public void testCopyFromBuffer() throws InteropException {
+        byte[] source = {0, 1, 2, 3, 4, 5};
+        interop.writeBuffer(memory, 100, source, 1, 4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(source[1 + i], interop.readBufferByte(memory, 100 + i));
+        }
+        assertEquals(0x04030201, interop.readBufferInt(memory, ByteOrder.LITTLE_ENDIAN, 100));
+        assertEquals(0x01020304, interop.readBufferInt(memory, ByteOrder.BIG_ENDIAN, 100));
+        assertEquals(0, interop.readBufferByte(memory, 99));
+        assertEquals(0, interop.readBufferByte(memory, 104));
+    }
+
+    @Test
+    public void testCopyToBuffer() throws InteropException {
+        interop.writeBufferLong(memory, ByteOrder.BIG_ENDIAN, PAGE_SIZE - Long.BYTES, 0x0102030405060708L);
+        byte[] destination = new byte[10];
+        interop.readBuffer(memory, PAGE_SIZE - Long.BYTES, destination, 1, Long.BYTES);
+        assertArrayEquals(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 0}, destination);
+    }
+
+    @Test
+    public void testBulkAccessOutOfBounds() throws InteropException {
+        byte[] bytes = new byte[16];
+        try {
+            interop.readBuffer(memory, PAGE_SIZE - 8, bytes, 0, 16);
+            fail();
+        } catch (InvalidBufferOffsetException e) {
+            assertEquals(PAGE_SIZE - 8, e.getByteOffset());
+            assertEquals(16, e.getLength());
+        }
+        try {
+            interop.writeBuffer(memory, -1, bytes, 0, 1);
+            fail();
+        } catch (InvalidBufferOffsetException e) {
+        }
+        try {
+            interop.readBuffer(memory, 0, bytes, 8, 16);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+}
@@ -94,6 +94,16 @@ public class UnsafeWasmMemory extends WasmMemory {
         unsafe.copyMemory(startAddress + src, startAddress + dst, n);
     }
 
+    @Override
+    public void copyToBuffer(long src, byte[] dst, int dstOffset, int n) {
+        unsafe.copyMemory(null, startAddress + src, dst, Unsafe.ARRAY_BYTE_BASE_OFFSET + dstOffset, n);
+    }
+
+    @Override
+    public void copyFromBuffer(byte[] src, int srcOffset, long dst, int n) {
+        unsafe.copyMemory(src, Unsafe.ARRAY_BYTE_BASE_OFFSET + srcOffset, null, startAddress + dst, n);
+    }
+
     @Override
     public void clear() {
         unsafe.setMemory(startAddress, byteSize(), (byte) 0);
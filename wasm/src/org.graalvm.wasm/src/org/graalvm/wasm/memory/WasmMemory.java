@@ -40,8 +40,11 @@
  */
 package org.graalvm.wasm.memory;
 
+import java.nio.ByteOrder;
+
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
@@ -61,6 +64,18 @@ public abstract class WasmMemory implements TruffleObject {
 
     public abstract void copy(Node node, long src, long dst, long n);
 
+    /**
+     * Copies {@code n} bytes starting at address {@code src} into {@code dst} starting at
+     * {@code dstOffset}. Both ranges must have been validated by the caller.
+     */
+    public abstract void copyToBuffer(long src, byte[] dst, int dstOffset, int n);
+
+    /**
+     * Copies {@code n} bytes of {@code src} starting at {@code srcOffset} into this memory starting
+     * at address {@code dst}. Both ranges must have been validated by the caller.
+     */
+    public abstract void copyFromBuffer(byte[] src, int srcOffset, long dst, int n);
+
     /**
      * The size of the memory, measured in number of pages.
      */
@@ -241,4 +256,138 @@ public abstract class WasmMemory implements TruffleObject {
         }
         store_i32_8(null, address, rawValue);
     }
+
+    // WebAssembly memory is little-endian, other byte orders swap the loaded and stored values.
+
+    @ExportMessage
+    final boolean hasBufferElements() {
+        return true;
+    }
+
+    @ExportMessage
+    final boolean isBufferWritable() {
+        return true;
+    }
+
+    @ExportMessage
+    final long getBufferSize() {
+        return byteSize();
+    }
+
+    private void checkBufferAccess(long byteOffset, long length) throws InvalidBufferOffsetException {
+        if (byteOffset < 0 || length < 0 || byteOffset > byteSize() - length) {
+            transferToInterpreter();
+            throw InvalidBufferOffsetException.create(byteOffset, length);
+        }
+    }
+
+    private static void checkArrayRange(byte[] array, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > array.length - length) {
+            transferToInterpreter();
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    @ExportMessage
+    final byte readBufferByte(long byteOffset) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Byte.BYTES);
+        return (byte) load_i32_8s(null, byteOffset);
+    }
+
+    @ExportMessage
+    final void writeBufferByte(long byteOffset, byte value) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Byte.BYTES);
+        store_i32_8(null, byteOffset, value);
+    }
+
+    @ExportMessage
+    final short readBufferShort(ByteOrder order, long byteOffset) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Short.BYTES);
+        short value = (short) load_i32_16s(null, byteOffset);
+        return order == ByteOrder.LITTLE_ENDIAN ? value : Short.reverseBytes(value);
+    }
+
+    @ExportMessage
+    final void writeBufferShort(ByteOrder order, long byteOffset, short value) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Short.BYTES);
+        store_i32_16(null, byteOffset, order == ByteOrder.LITTLE_ENDIAN ? value : Short.reverseBytes(value));
+    }
+
+    @ExportMessage
+    final int readBufferInt(ByteOrder order, long byteOffset) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Integer.BYTES);
+        int value = load_i32(null, byteOffset);
+        return order == ByteOrder.LITTLE_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    @ExportMessage
+    final void writeBufferInt(ByteOrder order, long byteOffset, int value) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Integer.BYTES);
+        store_i32(null, byteOffset, order == ByteOrder.LITTLE_ENDIAN ? value : Integer.reverseBytes(value));
+    }
+
+    @ExportMessage
+    final long readBufferLong(ByteOrder order, long byteOffset) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Long.BYTES);
+        long value = load_i64(null, byteOffset);
+        return order == ByteOrder.LITTLE_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    @ExportMessage
+    final void writeBufferLong(ByteOrder order, long byteOffset, long value) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Long.BYTES);
+        store_i64(null, byteOffset, order == ByteOrder.LITTLE_ENDIAN ? value : Long.reverseBytes(value));
+    }
+
+    @ExportMessage
+    final float readBufferFloat(ByteOrder order, long byteOffset) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Float.BYTES);
+        if (order == ByteOrder.LITTLE_ENDIAN) {
+            return load_f32(null, byteOffset);
+        }
+        return Float.intBitsToFloat(Integer.reverseBytes(load_i32(null, byteOffset)));
+    }
+
+    @ExportMessage
+    final void writeBufferFloat(ByteOrder order, long byteOffset, float value) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Float.BYTES);
+        if (order == ByteOrder.LITTLE_ENDIAN) {
+            store_f32(null, byteOffset, value);
+        } else {
+            store_i32(null, byteOffset, Integer.reverseBytes(Float.floatToRawIntBits(value)));
+        }
+    }
+
+    @ExportMessage
+    final double readBufferDouble(ByteOrder order, long byteOffset) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Double.BYTES);
+        if (order == ByteOrder.LITTLE_ENDIAN) {
+            return load_f64(null, byteOffset);
+        }
+        return Double.longBitsToDouble(Long.reverseBytes(load_i64(null, byteOffset)));
+    }
+
+    @ExportMessage
+    final void writeBufferDouble(ByteOrder order, long byteOffset, double value) throws InvalidBufferOffsetException {
+        checkBufferAccess(byteOffset, Double.BYTES);
+        if (order == ByteOrder.LITTLE_ENDIAN) {
+            store_f64(null, byteOffset, value);
+        } else {
+            store_i64(null, byteOffset, Long.reverseBytes(Double.doubleToRawLongBits(value)));
+        }
+    }
+
+    @ExportMessage
+    final void readBuffer(long byteOffset, byte[] destination, int destinationOffset, int length) throws InvalidBufferOffsetException {
+        checkArrayRange(destination, destinationOffset, length);
+        checkBufferAccess(byteOffset, length);
+        copyToBuffer(byteOffset, destination, destinationOffset, length);
+    }
+
+    @ExportMessage
+    final void writeBuffer(long byteOffset, byte[] source, int sourceOffset, int length) throws InvalidBufferOffsetException {
+        checkArrayRange(source, sourceOffset, length);
+        checkBufferAccess(byteOffset, length);
+        copyFromBuffer(source, sourceOffset, byteOffset, length);
+    }
 }